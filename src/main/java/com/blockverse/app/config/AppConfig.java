@@ -9,6 +9,7 @@ import org.springframework.security.config.annotation.authentication.configurati
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import tools.jackson.dataformat.cbor.CBORMapper;
 
 @Configuration
 @RequiredArgsConstructor
@@ -31,6 +32,11 @@ public class AppConfig {
     public PasswordEncoder passwordEncoder(){
         return new BCryptPasswordEncoder();
     }
+
+    @Bean
+    public CBORMapper cborMapper(){
+        return CBORMapper.builder().build();
+    }
     
     
 }
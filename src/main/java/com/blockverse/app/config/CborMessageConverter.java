@@ -0,0 +1,47 @@
+package com.blockverse.app.config;
+
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageHeaders;
+import org.springframework.messaging.converter.AbstractMessageConverter;
+import org.springframework.util.MimeType;
+import tools.jackson.dataformat.cbor.CBORMapper;
+
+/**
+ * Reads and writes STOMP payloads sent with {@code content-type: application/cbor}. Only applies
+ * when that content type is present, so JSON clients keep using the default converter.
+ */
+public class CborMessageConverter extends AbstractMessageConverter {
+
+    public static final MimeType APPLICATION_CBOR = new MimeType("application", "cbor");
+
+    private final CBORMapper cborMapper;
+
+    public CborMessageConverter(CBORMapper cborMapper) {
+        super(APPLICATION_CBOR);
+        this.cborMapper = cborMapper;
+        setStrictContentTypeMatch(true);
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return true;
+    }
+
+    @Override
+    protected Object convertFromInternal(Message<?> message, Class<?> targetClass, Object conversionHint) {
+        Object payload = message.getPayload();
+        if (!(payload instanceof byte[] bytes)) {
+            return null;
+        }
+        return cborMapper.readValue(bytes, targetClass);
+    }
+
+    @Override
+    protected Object convertToInternal(Object payload, MessageHeaders headers, Object conversionHint) {
+        return encode(payload);
+    }
+
+    public byte[] encode(Object payload) {
+        return cborMapper.writeValueAsBytes(payload);
+    }
+}
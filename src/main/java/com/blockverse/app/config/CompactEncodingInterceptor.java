@@ -0,0 +1,124 @@
+package com.blockverse.app.config;
+
+import org.springframework.context.event.EventListener;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.stereotype.Component;
+import org.springframework.util.MimeTypeUtils;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+import tools.jackson.databind.json.JsonMapper;
+import tools.jackson.dataformat.cbor.CBORMapper;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-connection CBOR negotiation. A client on the native {@code /ws-native} endpoint that sends
+ * {@code accept-encoding: cbor} on CONNECT gets every MESSAGE frame re-encoded from JSON to CBOR
+ * as a binary frame ({@code content-type: application/octet-stream}, {@code payload-encoding: cbor}).
+ * SockJS sessions only carry text frames, so they always stay on JSON.
+ * <p>
+ * Broadcasts from {@link com.blockverse.app.service.SocketBroadcastService} carry the payload
+ * already serialized to CBOR in {@link #CBOR_PAYLOAD_HEADER} (see {@link #headersFor}); the broker
+ * copies it onto every subscriber's MESSAGE, so CBOR sessions never re-parse the JSON frame. Only
+ * messages without it (e.g. through an external relay broker) fall back to {@link #encode}.
+ */
+@Component
+public class CompactEncodingInterceptor implements ChannelInterceptor {
+
+    public static final String NATIVE_TRANSPORT_ATTRIBUTE = "nativeTransport";
+    public static final String ACCEPT_ENCODING_HEADER = "accept-encoding";
+    public static final String PAYLOAD_ENCODING_HEADER = "payload-encoding";
+    public static final String CBOR = "cbor";
+    // in-process header only: the STOMP encoder writes native headers, so this never reaches the wire
+    public static final String CBOR_PAYLOAD_HEADER = "cborPayload";
+
+    private final JsonMapper jsonMapper = JsonMapper.builder().build();
+    private final CBORMapper cborMapper;
+    private final CborMessageConverter cborConverter;
+
+    private final Set<String> cborSessions = ConcurrentHashMap.newKeySet();
+
+    // The broker hands the same payload array to every subscriber, so encode it once per fan-out.
+    private final ThreadLocal<Object[]> lastEncoded = new ThreadLocal<>();
+
+    public CompactEncodingInterceptor(CBORMapper cborMapper) {
+        this.cborMapper = cborMapper;
+        this.cborConverter = new CborMessageConverter(cborMapper);
+    }
+
+    /**
+     * Headers for a broadcast of {@code payload}: its CBOR encoding, serialized once from the object,
+     * or {@code null} while no session has negotiated CBOR.
+     */
+    public Map<String, Object> headersFor(Object payload) {
+        if (cborSessions.isEmpty()) {
+            return null;
+        }
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        accessor.setHeader(CBOR_PAYLOAD_HEADER, cborConverter.encode(payload));
+        accessor.setLeaveMutable(true);
+        return accessor.getMessageHeaders();
+    }
+
+    /** Registered on the client inbound channel: records sessions that asked for CBOR. */
+    public ChannelInterceptor inbound() {
+        return new ChannelInterceptor() {
+            @Override
+            public Message<?> preSend(Message<?> message, MessageChannel channel) {
+                StompHeaderAccessor accessor = StompHeaderAccessor.wrap(message);
+                if (accessor.getCommand() == StompCommand.CONNECT && wantsCbor(accessor)) {
+                    cborSessions.add(accessor.getSessionId());
+                }
+                return message;
+            }
+        };
+    }
+
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.wrap(message);
+        if (accessor.getMessageType() != SimpMessageType.MESSAGE
+                || !cborSessions.contains(accessor.getSessionId())
+                || !(message.getPayload() instanceof byte[] json)) {
+            return message;
+        }
+
+        StompHeaderAccessor outbound = StompHeaderAccessor.wrap(message);
+        outbound.setContentType(MimeTypeUtils.APPLICATION_OCTET_STREAM);
+        outbound.setNativeHeader(PAYLOAD_ENCODING_HEADER, CBOR);
+        byte[] cbor = accessor.getHeader(CBOR_PAYLOAD_HEADER) instanceof byte[] encoded ? encoded : encode(json);
+        return MessageBuilder.createMessage(cbor, outbound.getMessageHeaders());
+    }
+
+    @EventListener
+    public void onDisconnect(SessionDisconnectEvent event) {
+        cborSessions.remove(event.getSessionId());
+    }
+
+    byte[] encode(byte[] json) {
+        Object[] cached = lastEncoded.get();
+        if (cached != null && cached[0] == json) {
+            return (byte[]) cached[1];
+        }
+        byte[] cbor = cborMapper.writeValueAsBytes(jsonMapper.readTree(json));
+        lastEncoded.set(new Object[]{json, cbor});
+        return cbor;
+    }
+
+    private boolean wantsCbor(StompHeaderAccessor accessor) {
+        Map<String, Object> attributes = accessor.getSessionAttributes();
+        String acceptEncoding = accessor.getFirstNativeHeader(ACCEPT_ENCODING_HEADER);
+        return attributes != null
+                && Boolean.TRUE.equals(attributes.get(NATIVE_TRANSPORT_ATTRIBUTE))
+                && acceptEncoding != null
+                && acceptEncoding.toLowerCase().contains(CBOR);
+    }
+}
@@ -25,6 +25,14 @@ public class KafkaConfig {
     @Value("${app.kafka.topic.bulk-notification:bulk-notification-topic}")
     private String bulkNotificationTopic;
 
+    @Value("${app.kafka.topic.socket-broadcast:socket-broadcast-topic}")
+    private String socketBroadcastTopic;
+
+    @Value("${app.kafka.topic.search-change:search-change-topic}")
+    private String searchChangeTopic;
+
+    @Value("${app.kafka.topic.membership-change:membership-change-topic}")
+    private String membershipChangeTopic;
 
     @Value("${spring.kafka.bootstrap-servers}")
     private String bootstrapServers;
@@ -86,4 +94,28 @@ public class KafkaConfig {
                 .replicas(1)
                 .build();
     }
+
+    @Bean
+    public NewTopic socketBroadcastTopic() {
+        return TopicBuilder.name(socketBroadcastTopic)
+                .partitions(1)
+                .replicas(1)
+                .build();
+    }
+
+    @Bean
+    public NewTopic searchChangeTopic() {
+        return TopicBuilder.name(searchChangeTopic)
+                .partitions(1)
+                .replicas(1)
+                .build();
+    }
+
+    @Bean
+    public NewTopic membershipChangeTopic() {
+        return TopicBuilder.name(membershipChangeTopic)
+                .partitions(1)
+                .replicas(1)
+                .build();
+    }
 }
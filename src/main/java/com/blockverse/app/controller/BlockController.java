@@ -37,6 +37,11 @@ public class BlockController {
         return ResponseEntity.ok(blockService.moveBlock(blockId, request));
     }
     
+    @GetMapping("/{blockId}")
+    public ResponseEntity<BlockResponse> getBlock(@PathVariable int blockId){
+        return ResponseEntity.ok(blockService.getBlock(blockId));
+    }
+    
     @GetMapping("/{blockId}/children")
     public ResponseEntity<List<BlockResponse>> getChildren(@PathVariable int blockId){
         return ResponseEntity.ok(blockService.getChildren(blockId));
@@ -1,26 +1,27 @@
 package com.blockverse.app.controller;
 
 import com.blockverse.app.dto.activityFeed.CursorEvent;
+import com.blockverse.app.service.CursorAggregator;
 import lombok.RequiredArgsConstructor;
 import org.springframework.messaging.handler.annotation.MessageMapping;
-import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.stereotype.Controller;
 
 import jakarta.validation.Valid;
 import org.springframework.messaging.handler.annotation.Payload;
 
+import java.security.Principal;
+
 @Controller
 @RequiredArgsConstructor
 public class CursorSocketController {
     
-    private final SimpMessagingTemplate messagingTemplate;
+    private final CursorAggregator cursorAggregator;
     
-    @MessageMapping("/document.cursor")
-    public void cursor(@Payload @Valid CursorEvent event){
-        messagingTemplate.convertAndSend(
-                "/topic/document/" + event.getDocumentId() + "/cursor",
-                event
-        );
+    // whose cursor it is comes from the authenticated session, never from the payload
+    @MessageMapping("document.cursor")
+    public void cursor(@Payload @Valid CursorEvent event, Principal principal){
+        event.setUserId(SocketPrincipals.userOf(principal, "Cursor updates").getId());
+        cursorAggregator.submit(event);
     }
     
 }
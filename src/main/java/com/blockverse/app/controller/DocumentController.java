@@ -1,8 +1,10 @@
 package com.blockverse.app.controller;
 
+import com.blockverse.app.dto.activityFeed.PresenceUser;
 import com.blockverse.app.dto.document.*;
 import com.blockverse.app.service.DocumentService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -22,19 +24,51 @@ public class DocumentController {
     }
     
     @GetMapping("/{documentId}")
-    public ResponseEntity<DocumentResponse> getDocument(@PathVariable int documentId){
-        return ResponseEntity.ok(documentService.getDocument(documentId));
+    public ResponseEntity<DocumentResponse> getDocument(@PathVariable int documentId,
+                                                        @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch){
+        DocumentResponse document = documentService.getDocument(documentId);
+        String etag = DocumentETags.of(document);
+        if (DocumentETags.matches(ifNoneMatch, etag)) {
+            return DocumentETags.notModified(etag, DocumentETags.PRIVATE);
+        }
+        return ResponseEntity.ok().eTag(etag).cacheControl(DocumentETags.PRIVATE).body(document);
     }
     
     @GetMapping("/{documentId}/details")
-    public ResponseEntity<DocumentDetailsResponse> getDocumentWithBlocks(@PathVariable int documentId) {
-        return ResponseEntity.ok(documentService.getDocumentWithBlocks(documentId));
+    public ResponseEntity<DocumentDetailsResponse> getDocumentWithBlocks(@PathVariable int documentId,
+                                                                         @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        // revalidation only needs the document row, not the block tree
+        if (ifNoneMatch != null) {
+            String etag = DocumentETags.ofDetails(documentService.getDocumentVersion(documentId));
+            if (DocumentETags.matches(ifNoneMatch, etag)) {
+                return DocumentETags.notModified(etag, DocumentETags.PRIVATE);
+            }
+        }
+        DocumentDetailsResponse details = documentService.getDocumentWithBlocks(documentId);
+        return ResponseEntity.ok().eTag(DocumentETags.of(details)).cacheControl(DocumentETags.PRIVATE).body(details);
+    }
+    
+    @GetMapping("/{documentId}/events")
+    public ResponseEntity<DocumentReplayResponse> getEventsSince(@PathVariable int documentId, @RequestParam(defaultValue = "0") long since) {
+        return ResponseEntity.ok(documentService.getEventsSince(documentId, since));
+    }
+    
+    @GetMapping("/{documentId}/presence")
+    public ResponseEntity<List<PresenceUser>> getPresence(@PathVariable int documentId) {
+        return ResponseEntity.ok(documentService.getPresence(documentId));
     }
     
     @GetMapping("/workspace/{workspaceId}")
     public ResponseEntity<List<DocumentResponse>> getDocumentsByWorkspace(@PathVariable int workspaceId){
         return ResponseEntity.ok(documentService.getDocumentsByWorkspace(workspaceId));
     }
+
+    @GetMapping("/workspace/{workspaceId}/page")
+    public ResponseEntity<DocumentPageResponse> getDocumentPage(@PathVariable int workspaceId,
+                                                                @RequestParam(required = false) Integer limit,
+                                                                @RequestParam(required = false) String cursor) {
+        return ResponseEntity.ok(documentService.getDocumentPage(workspaceId, limit, cursor));
+    }
     
     @PutMapping("/{documentId}")
     public ResponseEntity<DocumentResponse> updateDocument(@PathVariable int documentId, @RequestBody UpdateDocumentRequest request){
@@ -75,6 +109,11 @@ public class DocumentController {
         documentService.permanentDeleteDocument(documentId);
         return ResponseEntity.ok("Document permanently deleted successfully");
     }
+
+    @GetMapping("/{documentId}/purge")
+    public ResponseEntity<PurgeProgressResponse> getPurgeProgress(@PathVariable int documentId) {
+        return ResponseEntity.ok(documentService.getPurgeProgress(documentId));
+    }
     
     @GetMapping("/workspace/{workspaceId}/trash")
     public ResponseEntity<List<DocumentResponse>> getTrashDocumentsByWorkspace(@PathVariable int workspaceId){
@@ -0,0 +1,79 @@
+package com.blockverse.app.controller;
+
+import com.blockverse.app.dto.document.DocumentDetailsResponse;
+import com.blockverse.app.dto.document.DocumentResponse;
+import com.blockverse.app.service.DocumentVersion;
+import com.blockverse.app.service.S3Service;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+/**
+ * Strong ETags for document reads, built from the document id and its {@code @Version}, which
+ * every title, lifecycle and block change bumps. Details views also carry the replay position,
+ * so a client whose socket sequence went stale is never told its old copy is still current, and
+ * the presigned-URL window, so a revalidated copy always has image URLs with time left on them.
+ * The replay position is the document row's shared {@code eventSeq}, so every node computes the
+ * same tag for the same copy.
+ */
+final class DocumentETags {
+
+    // cached copies must be revalidated, but may then be reused
+    static final CacheControl PRIVATE = CacheControl.noCache().cachePrivate();
+    static final CacheControl PUBLIC = CacheControl.noCache().cachePublic();
+
+    // half the presign duration: a copy confirmed by a 304 still has at least this long before
+    // its URLs expire, and variants generated since it was built appear once the window turns
+    private static final long URL_WINDOW_MS = S3Service.PRESIGN_DURATION.toMillis() / 2;
+
+    private DocumentETags() {
+    }
+
+    static String of(DocumentResponse document) {
+        return quote(document.getId() + "-" + versionOf(document));
+    }
+
+    static String of(DocumentDetailsResponse details) {
+        return quote(details.getDocument().getId() + "-" + versionOf(details.getDocument()) + "-" + details.getLatestSeq()
+                + "-" + urlWindow());
+    }
+
+    static String ofDetails(DocumentVersion version) {
+        return quote(version.documentId() + "-" + version.version() + "-" + version.latestSeq() + "-" + urlWindow());
+    }
+
+    static long urlWindow() {
+        return System.currentTimeMillis() / URL_WINDOW_MS;
+    }
+
+    /**
+     * If-None-Match uses the weak comparison, so a {@code W/} prefix added by a proxy still matches.
+     */
+    static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null || ifNoneMatch.isBlank()) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals("*") || tag.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    static <T> ResponseEntity<T> notModified(String etag, CacheControl cacheControl) {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).cacheControl(cacheControl).build();
+    }
+
+    private static long versionOf(DocumentResponse document) {
+        return document.getVersion() == null ? 0L : document.getVersion();
+    }
+
+    private static String quote(String value) {
+        return "\"" + value + "\"";
+    }
+}
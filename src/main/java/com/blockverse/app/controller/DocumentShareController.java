@@ -3,9 +3,11 @@ package com.blockverse.app.controller;
 import com.blockverse.app.dto.document.DocumentDetailsResponse;
 import com.blockverse.app.service.DocumentShareService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
@@ -17,7 +19,15 @@ public class DocumentShareController {
     private final DocumentShareService documentShareService;
     
     @GetMapping("/{token}")
-    public ResponseEntity<DocumentDetailsResponse> getSharedDocument(@PathVariable String token) {
-        return ResponseEntity.ok(documentShareService.getSharedDocument(token));
+    public ResponseEntity<DocumentDetailsResponse> getSharedDocument(@PathVariable String token,
+                                                                     @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        if (ifNoneMatch != null) {
+            String etag = DocumentETags.ofDetails(documentShareService.getSharedDocumentVersion(token));
+            if (DocumentETags.matches(ifNoneMatch, etag)) {
+                return DocumentETags.notModified(etag, DocumentETags.PUBLIC);
+            }
+        }
+        DocumentDetailsResponse details = documentShareService.getSharedDocument(token);
+        return ResponseEntity.ok().eTag(DocumentETags.of(details)).cacheControl(DocumentETags.PUBLIC).body(details);
     }
 }
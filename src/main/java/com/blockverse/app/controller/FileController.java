@@ -1,10 +1,13 @@
 package com.blockverse.app.controller;
 
+import com.blockverse.app.dto.upload.UploadAcceptedResponse;
 import com.blockverse.app.entity.User;
 import com.blockverse.app.security.SecurityUtil;
+import com.blockverse.app.service.AsyncUploadService;
 import com.blockverse.app.service.RateLimiterService;
 import com.blockverse.app.service.S3Service;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
@@ -20,11 +23,20 @@ public class FileController {
     private final S3Service s3Service;
     private final SecurityUtil securityUtil;
     private final RateLimiterService rateLimiterService;
+    private final AsyncUploadService asyncUploadService;
     
     @PostMapping("/upload")
     public ResponseEntity<String> uploadFile(@RequestParam("file")MultipartFile file){
         User user = securityUtil.getLoggedInUser();
         rateLimiterService.checkRateLimit(user.getId(), "FILE_UPLOAD");
-        return ResponseEntity.ok(s3Service.uploadFile(file));
+        return ResponseEntity.ok(s3Service.uploadFile(user.getId(), file));
+    }
+
+    // returns once the file is staged; completion arrives on /topic/uploads.{userId}
+    @PostMapping("/upload/async")
+    public ResponseEntity<UploadAcceptedResponse> uploadFileAsync(@RequestParam("file")MultipartFile file){
+        User user = securityUtil.getLoggedInUser();
+        rateLimiterService.checkRateLimit(user.getId(), "FILE_UPLOAD");
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(asyncUploadService.startUpload(user.getId(), file));
     }
 }
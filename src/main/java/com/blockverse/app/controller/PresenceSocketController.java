@@ -1,34 +1,39 @@
 package com.blockverse.app.controller;
 
 import com.blockverse.app.dto.activityFeed.PresenceEvent;
+import com.blockverse.app.entity.User;
+import com.blockverse.app.service.PresenceRegistry;
 import lombok.RequiredArgsConstructor;
 import org.springframework.messaging.handler.annotation.MessageMapping;
-import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
 import org.springframework.stereotype.Controller;
 
 import jakarta.validation.Valid;
 import org.springframework.messaging.handler.annotation.Payload;
 
+import java.security.Principal;
+
 @Controller
 @RequiredArgsConstructor
 public class PresenceSocketController {
     
-    private final SimpMessagingTemplate messagingTemplate;
+    private final PresenceRegistry presenceRegistry;
+    
+    // who joined comes from the authenticated session, never from the payload
+    @MessageMapping("document.join")
+    public void joinDocument(@Payload @Valid PresenceEvent event, SimpMessageHeaderAccessor headerAccessor, Principal principal){
+        User user = SocketPrincipals.userOf(principal, "Presence");
+        presenceRegistry.join(headerAccessor.getSessionId(), event.getDocumentId(), user.getId(), user.getName());
+    }
     
-    @MessageMapping("/document.join")
-    public void joinDocument(@Payload @Valid PresenceEvent event){
-        messagingTemplate.convertAndSend(
-                "/topic/document/" + event.getDocumentId() + "/presence",
-                event
-        );
+    @MessageMapping("document.leave")
+    public void leaveDocument(@Payload @Valid PresenceEvent event, SimpMessageHeaderAccessor headerAccessor){
+        presenceRegistry.leave(headerAccessor.getSessionId(), event.getDocumentId());
     }
     
-    @MessageMapping("/document.leave")
-    public void leaveDocument(@Payload @Valid PresenceEvent event){
-        messagingTemplate.convertAndSend(
-                "/topic/document/" + event.getDocumentId() + "/presence",
-                event
-        );
+    @MessageMapping("document.heartbeat")
+    public void heartbeat(SimpMessageHeaderAccessor headerAccessor){
+        presenceRegistry.heartbeat(headerAccessor.getSessionId());
     }
     
 }
@@ -1,12 +1,18 @@
 package com.blockverse.app.controller;
 
 import com.blockverse.app.dto.SearchResponse;
+import com.blockverse.app.dto.SuggestionResponse;
+import com.blockverse.app.enums.BlockType;
+import com.blockverse.app.search.SearchFilter;
 import com.blockverse.app.service.SearchService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+
+import java.util.List;
 
 @Controller
 @RequiredArgsConstructor
@@ -15,8 +21,21 @@ public class SearchController {
     private final SearchService searchService;
     
     @GetMapping("/search")
-    public ResponseEntity<SearchResponse> search(String keyword, int workSpaceId){
-        SearchResponse response = searchService.search(keyword, workSpaceId);
+    public ResponseEntity<SearchResponse> search(String keyword,
+                                                 int workSpaceId,
+                                                 @RequestParam(required = false) Integer limit,
+                                                 @RequestParam(required = false) String cursor,
+                                                 @RequestParam(required = false) BlockType blockType,
+                                                 @RequestParam(required = false) Integer documentId){
+        SearchResponse response = searchService.search(keyword, workSpaceId,
+                new SearchFilter(blockType, documentId), limit, cursor);
         return ResponseEntity.ok(response);
     }
+
+    @GetMapping("/search/suggest")
+    public ResponseEntity<List<SuggestionResponse>> suggest(String prefix,
+                                                            int workSpaceId,
+                                                            @RequestParam(required = false) Integer limit){
+        return ResponseEntity.ok(searchService.suggest(prefix, workSpaceId, limit));
+    }
 }
@@ -0,0 +1,24 @@
+package com.blockverse.app.controller;
+
+import com.blockverse.app.entity.User;
+import com.blockverse.app.exception.InsufficientPermissionException;
+import org.springframework.security.core.Authentication;
+
+import java.security.Principal;
+
+/**
+ * The user behind a STOMP session, as set by the CONNECT authentication. Socket handlers take
+ * identity from here, never from the payload, so no client can act as another user.
+ */
+final class SocketPrincipals {
+
+    private SocketPrincipals() {
+    }
+
+    static User userOf(Principal principal, String action) {
+        if (principal instanceof Authentication authentication && authentication.getPrincipal() instanceof User user) {
+            return user;
+        }
+        throw new InsufficientPermissionException(action + " requires an authenticated session");
+    }
+}
@@ -1,26 +1,27 @@
 package com.blockverse.app.controller;
 
 import com.blockverse.app.dto.activityFeed.TypingEvent;
+import com.blockverse.app.service.TypingIndicatorService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.messaging.handler.annotation.MessageMapping;
-import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.stereotype.Controller;
 
 import jakarta.validation.Valid;
 import org.springframework.messaging.handler.annotation.Payload;
 
+import java.security.Principal;
+
 @Controller
 @RequiredArgsConstructor
 public class TypingSocketController {
     
-    private final SimpMessagingTemplate messagingTemplate;
+    private final TypingIndicatorService typingIndicatorService;
     
-    @MessageMapping("/document.typing")
-    public void typing(@Payload @Valid TypingEvent event){
-        messagingTemplate.convertAndSend(
-                "/topic/document/" + event.getDocumentId() + "/typing",
-                event
-        );
+    // who is typing comes from the authenticated session, never from the payload
+    @MessageMapping("document.typing")
+    public void typing(@Payload @Valid TypingEvent event, Principal principal){
+        event.setUserId(SocketPrincipals.userOf(principal, "Typing indicators").getId());
+        typingIndicatorService.onTypingEvent(event);
     }
     
 }
@@ -0,0 +1,26 @@
+package com.blockverse.app.dto;
+
+import com.blockverse.app.enums.AuditEntityType;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * A document event that was broadcast, relayed with its seq so every node can buffer it for
+ * {@code GET /{id}/events}. The action travels by name, its enum follows from the entity type.
+ */
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DocumentReplayEvent {
+    private String originNodeId;
+    private int documentId;
+    private long seq;
+    private AuditEntityType entityType;
+    private String action;
+    private Object payload;
+}
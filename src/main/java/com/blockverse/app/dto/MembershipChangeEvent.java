@@ -0,0 +1,21 @@
+package com.blockverse.app.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * A committed membership change relayed to the other nodes so they drop their cached member ids
+ * of the workspace.
+ */
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class MembershipChangeEvent {
+    private String originNodeId;
+    private int workspaceId;
+}
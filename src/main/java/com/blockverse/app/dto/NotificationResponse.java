@@ -17,6 +17,7 @@ public class NotificationResponse {
     private boolean read;
     private NotificationType type;
     private Integer referencedId;
+    private int occurrences;
     @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss")
     private LocalDateTime createdAt;
 }
@@ -0,0 +1,24 @@
+package com.blockverse.app.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * A user's presence on a document as seen by one node, relayed so the other nodes can list it in
+ * their snapshots. {@code join} is re-sent on every sweep as a refresh; {@code leave} retracts it.
+ */
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PresenceChangeEvent {
+    private String originNodeId;
+    private int documentId;
+    private int userId;
+    private String userName;
+    private String action;
+}
@@ -0,0 +1,30 @@
+package com.blockverse.app.dto;
+
+import com.blockverse.app.enums.BlockType;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * A committed document or block change relayed to the other nodes so their search indexes,
+ * suggestions and caches follow it. {@code blockId} is null for document changes.
+ */
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SearchChangeEvent {
+    private String originNodeId;
+    private int workspaceId;
+    private int documentId;
+    private String title;
+    private boolean active;
+    private boolean removed;
+    private Integer blockId;
+    private BlockType type;
+    private String content;
+    private boolean deleted;
+}
@@ -0,0 +1,21 @@
+package com.blockverse.app.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonUnwrapped;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * A search result with its relevance score flattened alongside the result's own fields.
+ * The score is omitted when the engine does not provide one.
+ */
+@Getter
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class SearchHitResponse<T> {
+
+    @JsonUnwrapped
+    private final T item;
+
+    private final Double score;
+}
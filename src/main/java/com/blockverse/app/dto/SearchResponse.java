@@ -2,6 +2,7 @@ package com.blockverse.app.dto;
 
 import com.blockverse.app.dto.block.BlockResponse;
 import com.blockverse.app.dto.document.DocumentResponse;
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.Builder;
 import lombok.Getter;
 import lombok.Setter;
@@ -11,7 +12,13 @@ import java.util.List;
 @Getter
 @Setter
 @Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
 public class SearchResponse {
-    private List<DocumentResponse> documents;
-    private List<BlockResponse> blocks;
+    private List<SearchHitResponse<DocumentResponse>> documents;
+    private List<SearchHitResponse<BlockResponse>> blocks;
+    // totals are only known to the index engine
+    private Integer totalDocuments;
+    private Integer totalBlocks;
+    // pass back as ?cursor= for the next page; absent on the last page
+    private String nextCursor;
 }
@@ -0,0 +1,18 @@
+package com.blockverse.app.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SocketBroadcastEvent {
+    private String originNodeId;
+    private String destination;
+    private Object payload;
+}
@@ -0,0 +1,21 @@
+package com.blockverse.app.dto;
+
+import com.blockverse.app.enums.SuggestionType;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class SuggestionResponse {
+    private String text;
+    private SuggestionType type;
+    private int documentId;
+    // only set for heading suggestions
+    private Integer blockId;
+}
@@ -0,0 +1,17 @@
+package com.blockverse.app.dto.activityFeed;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class CursorBatchEvent {
+    private int documentId;
+    private List<CursorEvent> cursors;
+}
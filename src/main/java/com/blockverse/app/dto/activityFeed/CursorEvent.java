@@ -19,7 +19,7 @@ public class CursorEvent {
     @Positive(message = "Block ID must be positive")
     private int blockId;
     
-    @Positive(message = "User ID must be positive")
+    // set from the STOMP session; whatever the client sends is overwritten
     private int userId;
     
     @PositiveOrZero(message = "Cursor position cannot be negative")
@@ -17,10 +17,9 @@ public class PresenceEvent {
     @Positive(message = "Document ID must be positive")
     private int documentId;
     
-    @Positive(message = "User ID must be positive")
+    // set by the server from the session principal; ignored when a client sends them
     private int userId;
     
-    @NotBlank(message = "User name is required")
     private String userName;
     
     @NotBlank(message = "Action is required")
@@ -0,0 +1,15 @@
+package com.blockverse.app.dto.activityFeed;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class PresenceUser {
+    private int userId;
+    private String userName;
+}
@@ -0,0 +1,37 @@
+package com.blockverse.app.dto.block;
+
+import com.blockverse.app.enums.BlockType;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.math.BigInteger;
+
+/**
+ * Payload of UPDATE, MOVE and DELETE block events: only the fields that changed. A client whose
+ * document version is not {@code previousVersion} has missed something and should refetch the
+ * block (GET /v1/blocks/{id}) or replay the document events.
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BlockDelta {
+    private int blockId;
+    private Long previousVersion;
+    private Long version;
+    private BlockType type;
+    private TextPatch contentPatch;
+    // set instead of contentPatch for IMAGE blocks, whose content is a storage key
+    private String fileUrl;
+    private BigInteger position;
+    // parentId is only meaningful when parentChanged is true; null then means "moved to root"
+    private Boolean parentChanged;
+    private Integer parentId;
+    private Boolean deleted;
+}
@@ -1,6 +1,8 @@
 package com.blockverse.app.dto.block;
 
 import com.blockverse.app.enums.BlockType;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Getter;
@@ -9,6 +11,7 @@ import lombok.Setter;
 
 import java.math.BigInteger;
 import java.util.List;
+import java.util.Map;
 
 @Getter
 @Setter
@@ -22,7 +25,13 @@ public class BlockResponse {
     private BlockType type;
     private String content;
     private String fileUrl;
+    // downscaled copies of an image keyed by variant ("thumb", "medium"); absent until generated
+    @JsonInclude(JsonInclude.Include.NON_EMPTY)
+    private Map<String, String> variantUrls;
     private BigInteger position;
     private List<BlockResponse> children;
+    // object key of an image, kept server-side so cached trees can be signed again on every read
+    @JsonIgnore
+    private String storageKey;
 
 }
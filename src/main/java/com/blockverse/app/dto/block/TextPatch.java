@@ -0,0 +1,57 @@
+package com.blockverse.app.dto.block;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Single splice turning the old content into the new one: replace {@code deleteCount} chars at
+ * {@code start} with {@code insert}. Offsets are UTF-16 indexes, as in JavaScript strings.
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class TextPatch {
+    private int start;
+    private int deleteCount;
+    private String insert;
+
+    // null when both texts are equal
+    public static TextPatch between(String oldText, String newText) {
+        String before = oldText == null ? "" : oldText;
+        String after = newText == null ? "" : newText;
+        if (before.equals(after)) {
+            return null;
+        }
+
+        int maxPrefix = Math.min(before.length(), after.length());
+        int prefix = 0;
+        while (prefix < maxPrefix && before.charAt(prefix) == after.charAt(prefix)) {
+            prefix++;
+        }
+        if (prefix > 0 && Character.isHighSurrogate(before.charAt(prefix - 1))) {
+            prefix--;
+        }
+
+        int maxSuffix = maxPrefix - prefix;
+        int suffix = 0;
+        while (suffix < maxSuffix
+                && before.charAt(before.length() - 1 - suffix) == after.charAt(after.length() - 1 - suffix)) {
+            suffix++;
+        }
+        if (suffix > 0 && Character.isLowSurrogate(before.charAt(before.length() - suffix))) {
+            suffix--;
+        }
+
+        return new TextPatch(prefix,
+                before.length() - prefix - suffix,
+                after.substring(prefix, after.length() - suffix));
+    }
+
+    public String applyTo(String text) {
+        String base = text == null ? "" : text;
+        return base.substring(0, start) + insert + base.substring(start + deleteCount);
+    }
+}
@@ -12,4 +12,6 @@ import java.util.List;
 public class DocumentDetailsResponse {
     private DocumentResponse document;
     private List<BlockResponse> blocks;
+    // seq of the last DocumentEvent included in this snapshot; pass it to /events?since= after a reconnect
+    private long latestSeq;
 }
\ No newline at end of file
@@ -22,4 +22,11 @@ public class DocumentEvent {
     private Enum<?> action;
     
     private Object payload;
+    
+    // per-document sequence assigned by DocumentSocketPublisher when the event is broadcast
+    private long seq;
+    
+    public DocumentEvent(int documentId, AuditEntityType entityType, Enum<?> action, Object payload) {
+        this(documentId, entityType, action, payload, 0);
+    }
 }
@@ -0,0 +1,16 @@
+package com.blockverse.app.dto.document;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+@Getter
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class DocumentPageResponse {
+    private List<DocumentResponse> documents;
+    // pass back as ?cursor= for the next page; absent on the last page
+    private String nextCursor;
+}
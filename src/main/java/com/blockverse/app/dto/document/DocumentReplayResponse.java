@@ -0,0 +1,17 @@
+package com.blockverse.app.dto.document;
+
+import lombok.*;
+
+import java.util.List;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@Builder
+public class DocumentReplayResponse {
+    private int documentId;
+    private long latestSeq;
+    // true when events after the requested seq were already evicted; refetch /details instead
+    private boolean fullReloadRequired;
+    private List<DocumentEvent> events;
+}
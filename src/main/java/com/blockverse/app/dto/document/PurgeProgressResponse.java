@@ -0,0 +1,15 @@
+package com.blockverse.app.dto.document;
+
+import com.blockverse.app.enums.PurgeState;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class PurgeProgressResponse {
+    private int documentId;
+    private int workspaceId;
+    private PurgeState state;
+    private long totalBlocks;
+    private long deletedBlocks;
+}
@@ -0,0 +1,16 @@
+package com.blockverse.app.dto.upload;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class UploadAcceptedResponse {
+    private String uploadId;
+    // the completion event carries the final key, which differs if identical content won a race
+    private String key;
+}
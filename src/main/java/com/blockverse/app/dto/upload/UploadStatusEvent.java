@@ -0,0 +1,21 @@
+package com.blockverse.app.dto.upload;
+
+import com.blockverse.app.enums.UploadStatus;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class UploadStatusEvent {
+    private String uploadId;
+    private String key;
+    private UploadStatus status;
+    // only set when the upload failed
+    private String error;
+}
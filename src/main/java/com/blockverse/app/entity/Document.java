@@ -1,5 +1,6 @@
 package com.blockverse.app.entity;
 
+import com.blockverse.app.enums.PurgeState;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotNull;
 import lombok.*;
@@ -9,6 +10,7 @@ import org.hibernate.annotations.UpdateTimestamp;
 import java.time.LocalDateTime;
 
 @Entity
+@Table(indexes = @Index(name = "idx_document_listing", columnList = "workspace_id, archived, deleted, created_at"))
 @AllArgsConstructor
 @NoArgsConstructor
 @Getter
@@ -31,6 +33,23 @@ public class Document {
     private boolean deleted = false;
     private LocalDateTime deletedAt;
     private Integer deletedBy;
+    // set by a permanent delete; the row goes once its blocks have been purged
+    private boolean purging = false;
+    // progress of that purge, on the row so any node can report it; null until it starts
+    @Enumerated(EnumType.STRING)
+    private PurgeState purgeState;
+    private long purgeTotalBlocks;
+    private long purgeDeletedBlocks;
+    // lease of the node running the purge, renewed with every chunk
+    private String purgeOwner;
+    private LocalDateTime purgeStartedAt;
+    // failed runs; each one pushes nextPurgeAt further out
+    private int purgeAttempts;
+    private LocalDateTime nextPurgeAt;
+    // replay position of the document's socket events, shared by all nodes; only ever advanced
+    // through DocumentRepo.incrementEventSeq, so a loaded entity never writes back a stale value
+    @Column(updatable = false)
+    private long eventSeq;
 
     @Version
     @Builder.Default
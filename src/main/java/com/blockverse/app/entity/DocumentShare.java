@@ -12,6 +12,7 @@ import java.time.LocalDateTime;
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
+@Table(indexes = @Index(name = "idx_document_share_token", columnList = "token", unique = true))
 public class DocumentShare {
  
     @Id
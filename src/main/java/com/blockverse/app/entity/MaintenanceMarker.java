@@ -0,0 +1,27 @@
+package com.blockverse.app.entity;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * One row per one-off data migration. The row is locked while the migration runs, so only one
+ * node does the work, and {@code completedAt} records that it never has to run again.
+ */
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class MaintenanceMarker {
+
+    @Id
+    private String name;
+
+    private LocalDateTime completedAt;
+}
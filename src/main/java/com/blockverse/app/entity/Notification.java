@@ -4,6 +4,7 @@ import com.blockverse.app.enums.NotificationType;
 import jakarta.persistence.*;
 import lombok.*;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.UpdateTimestamp;
 
 import java.time.LocalDateTime;
 
@@ -28,7 +29,16 @@ public class Notification {
     private NotificationType type;
     
     private Integer referencedId; 
+
+    @Builder.Default
+    private int occurrences = 1;
+
+    // last WebSocket push; folded repeats are pushed again at most once per push interval
+    private LocalDateTime lastPushedAt;
     
     @CreationTimestamp
     private LocalDateTime createdAt;
+
+    @UpdateTimestamp
+    private LocalDateTime updatedAt;
 }
@@ -0,0 +1,52 @@
+package com.blockverse.app.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.LocalDateTime;
+
+/**
+ * Dedupe index entry: one S3 object per uploader and content hash, shared by every image block
+ * that shows it. The object is removed once no block has referenced it for a grace period.
+ */
+@Entity
+@Table(indexes = @Index(name = "idx_stored_file_sweep", columnList = "referenceCount, lastUsedAt"),
+       uniqueConstraints = @UniqueConstraint(name = "uk_stored_file_owner_hash", columnNames = {"ownerId", "hash"}))
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class StoredFile {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private int id;
+
+    // user whose upload stored the object; dedupe never looks past it
+    private int ownerId;
+
+    // hex SHA-256 of the content
+    @Column(nullable = false, length = 64)
+    private String hash;
+
+    @Column(nullable = false, unique = true)
+    private String storageKey;
+
+    private long size;
+
+    private String contentType;
+
+    // image blocks, trashed ones included, that hold this key
+    private int referenceCount;
+
+    // last upload, attach or release; the sweep waits a grace period after it
+    private LocalDateTime lastUsedAt;
+
+    // comma-separated ImageVariant names that were generated; null while generation is pending
+    private String variants;
+
+    @CreationTimestamp
+    private LocalDateTime createdAt;
+}
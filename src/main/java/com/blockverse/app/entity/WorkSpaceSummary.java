@@ -0,0 +1,48 @@
+package com.blockverse.app.entity;
+
+import com.blockverse.app.enums.WorkSpaceRole;
+import com.blockverse.app.enums.WorkSpaceType;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Denormalized workspace listing row, one per active membership. Kept current by the workspace
+ * and member services in the same transaction as the change, so listing a user's workspaces
+ * is a single read on the (user_id, workspace_id) index.
+ */
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Table(uniqueConstraints = @UniqueConstraint(columnNames = {"user_id", "workspace_id"}),
+        indexes = @Index(name = "idx_work_space_summary_workspace", columnList = "workspace_id"))
+public class WorkSpaceSummary {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private int id;
+
+    @Column(name = "user_id", nullable = false)
+    private int userId;
+
+    @Column(name = "workspace_id", nullable = false)
+    private int workspaceId;
+
+    private String workspaceName;
+
+    @Enumerated(EnumType.STRING)
+    private WorkSpaceType workspaceType;
+
+    private Integer ownerId;
+
+    private String ownerName;
+
+    private long memberCount;
+
+    @Enumerated(EnumType.STRING)
+    private WorkSpaceRole role;
+}
@@ -0,0 +1,24 @@
+package com.blockverse.app.enums;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.util.Locale;
+
+@Getter
+@RequiredArgsConstructor
+public enum ImageVariant {
+    THUMB(200),
+    MEDIUM(800);
+
+    private final int maxWidth;
+
+    public String label() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+
+    // stored next to the original, e.g. "<key>.thumb"
+    public String keyFor(String storageKey) {
+        return storageKey + "." + label();
+    }
+}
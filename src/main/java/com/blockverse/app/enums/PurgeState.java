@@ -0,0 +1,8 @@
+package com.blockverse.app.enums;
+
+public enum PurgeState {
+    QUEUED,
+    RUNNING,
+    COMPLETED,
+    FAILED
+}
@@ -0,0 +1,7 @@
+package com.blockverse.app.enums;
+
+// declaration order is also ranking order: titles before headings
+public enum SuggestionType {
+    DOCUMENT,
+    HEADING,
+}
@@ -0,0 +1,6 @@
+package com.blockverse.app.enums;
+
+public enum UploadStatus {
+    COMPLETED,
+    FAILED
+}
@@ -0,0 +1,33 @@
+package com.blockverse.app.event;
+
+import com.blockverse.app.entity.Block;
+import com.blockverse.app.entity.Document;
+import com.blockverse.app.enums.BlockType;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Published whenever a block's content is created, edited, deleted or restored.
+ */
+@Getter
+@AllArgsConstructor
+public class BlockChangedEvent {
+
+    private final int workspaceId;
+    private final int documentId;
+    private final int blockId;
+    private final BlockType type;
+    private final String content;
+    private final boolean deleted;
+
+    public static BlockChangedEvent of(Document document, Block block) {
+        return new BlockChangedEvent(
+                document.getWorkSpace().getId(),
+                document.getId(),
+                block.getId(),
+                block.getType(),
+                block.getContent(),
+                block.isDeleted()
+        );
+    }
+}
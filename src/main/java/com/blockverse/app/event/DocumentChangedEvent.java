@@ -0,0 +1,42 @@
+package com.blockverse.app.event;
+
+import com.blockverse.app.entity.Document;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Published whenever a document's title or lifecycle state changes. Listeners that need a
+ * consistent view should consume it after commit.
+ */
+@Getter
+@AllArgsConstructor
+public class DocumentChangedEvent {
+
+    private final int workspaceId;
+    private final int documentId;
+    private final String title;
+    // false while the document is archived or in the trash
+    private final boolean active;
+    // true once the document has been permanently deleted
+    private final boolean removed;
+
+    public static DocumentChangedEvent of(Document document) {
+        return new DocumentChangedEvent(
+                document.getWorkSpace().getId(),
+                document.getId(),
+                document.getTitle(),
+                !document.isArchived() && !document.isDeleted(),
+                false
+        );
+    }
+
+    public static DocumentChangedEvent removed(Document document) {
+        return new DocumentChangedEvent(
+                document.getWorkSpace().getId(),
+                document.getId(),
+                document.getTitle(),
+                false,
+                true
+        );
+    }
+}
@@ -0,0 +1,15 @@
+package com.blockverse.app.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Published when a trashed document is marked for permanent deletion; the purge itself starts
+ * once that transaction commits.
+ */
+@Getter
+@AllArgsConstructor
+public class DocumentPurgeRequestedEvent {
+    private final int documentId;
+    private final int workspaceId;
+}
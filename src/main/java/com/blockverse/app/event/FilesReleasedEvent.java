@@ -0,0 +1,16 @@
+package com.blockverse.app.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * Storage keys whose holders were permanently deleted; one entry per released reference, so a
+ * key held by two image blocks appears twice.
+ */
+@Getter
+@AllArgsConstructor
+public class FilesReleasedEvent {
+    private final List<String> storageKeys;
+}
@@ -0,0 +1,13 @@
+package com.blockverse.app.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Published when a member joins or leaves a workspace, or the workspace itself is deleted.
+ */
+@Getter
+@AllArgsConstructor
+public class WorkSpaceMembershipChangedEvent {
+    private final int workspaceId;
+}
@@ -0,0 +1,7 @@
+package com.blockverse.app.exception;
+
+public class StaleSearchCursorException extends RuntimeException {
+    public StaleSearchCursorException(String message) {
+        super(message);
+    }
+}
@@ -5,16 +5,24 @@ import com.blockverse.app.dto.block.BlockResponse;
 import com.blockverse.app.entity.Block;
 import com.blockverse.app.entity.BlockChangeLog;
 import com.blockverse.app.enums.BlockType;
+import com.blockverse.app.enums.ImageVariant;
+import com.blockverse.app.service.ImageVariantService;
 import com.blockverse.app.service.S3Service;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Component;
 
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
 @Component
 @RequiredArgsConstructor
 public class BlockMapper {
     
     private final S3Service s3Service;
+    private final ImageVariantService imageVariantService;
     
     public BlockResponse toBlockResponse(Block block) {
         if (block == null) return null;
@@ -30,7 +38,8 @@ public class BlockMapper {
                 .build();
         
         if(block.getType() == BlockType.IMAGE){
-            response.setFileUrl(s3Service.generateUrl(block.getContent()));
+            response.setStorageKey(block.getContent());
+            signUrls(response);
             response.setContent(null);
         }
         else{
@@ -39,6 +48,48 @@ public class BlockMapper {
         return response;
     }
     
+    /**
+     * Copies a block tree with freshly signed image URLs. Presigned URLs expire, so a tree served
+     * from a cache goes through here on every read; the cached tree itself is left untouched.
+     */
+    public List<BlockResponse> withFreshUrls(List<BlockResponse> blocks) {
+        if (blocks == null) {
+            return null;
+        }
+        return blocks.stream().map(this::withFreshUrls).collect(Collectors.toCollection(ArrayList::new));
+    }
+
+    private BlockResponse withFreshUrls(BlockResponse block) {
+        BlockResponse copy = BlockResponse.builder()
+                .id(block.getId())
+                .documentId(block.getDocumentId())
+                .parentId(block.getParentId())
+                .type(block.getType())
+                .content(block.getContent())
+                .position(block.getPosition())
+                .children(withFreshUrls(block.getChildren()))
+                .storageKey(block.getStorageKey())
+                .build();
+        if (copy.getType() == BlockType.IMAGE && copy.getStorageKey() != null) {
+            signUrls(copy);
+        }
+        return copy;
+    }
+
+    // variants are looked up again as well, so ones generated after the tree was built show up
+    private void signUrls(BlockResponse response) {
+        String storageKey = response.getStorageKey();
+        response.setFileUrl(s3Service.generateUrl(storageKey));
+        List<ImageVariant> variants = imageVariantService.variantsOf(storageKey);
+        if (!variants.isEmpty()) {
+            Map<String, String> variantUrls = new LinkedHashMap<>();
+            for (ImageVariant variant : variants) {
+                variantUrls.put(variant.label(), s3Service.generateUrl(variant.keyFor(storageKey)));
+            }
+            response.setVariantUrls(variantUrls);
+        }
+    }
+
     public BlockChangeLogResponse toBlockChangeLogResponse(BlockChangeLog log) {
         if (log == null) return null;
 
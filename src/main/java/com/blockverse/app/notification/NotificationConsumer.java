@@ -4,10 +4,9 @@ import com.blockverse.app.dto.BulkNotificationEvent;
 import com.blockverse.app.dto.NotificationEvent;
 import com.blockverse.app.dto.NotificationResponse;
 import com.blockverse.app.entity.Notification;
-import com.blockverse.app.repo.NotificationRepo;
+import com.blockverse.app.service.SocketBroadcastService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.kafka.annotation.KafkaListener;
-import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -17,8 +16,8 @@ import java.util.List;
 @RequiredArgsConstructor
 public class NotificationConsumer {
 
-    private final NotificationRepo notificationRepo;
-    private final SimpMessagingTemplate messagingTemplate;
+    private final NotificationDigester notificationDigester;
+    private final SocketBroadcastService socketBroadcastService;
 
     @KafkaListener(
             topics = "${app.kafka.topic.notification:notification-topic}",
@@ -26,16 +25,8 @@ public class NotificationConsumer {
     )
     @Transactional
     public void consume(NotificationEvent event) {
-        Notification notification = Notification.builder()
-                .userId(event.getUserId())
-                .message(event.getMessage())
-                .type(event.getType())
-                .referencedId(event.getReferencedId())
-                .build();
-
-        Notification saved = notificationRepo.save(notification);
-
-        messagingTemplate.convertAndSend("/topic/notifications/" + event.getUserId(), toResponse(saved));
+        notificationDigester.digest(List.of(event.getUserId()), event.getMessage(), event.getType(), event.getReferencedId())
+                .forEach(this::push);
     }
 
     @KafkaListener(
@@ -44,20 +35,12 @@ public class NotificationConsumer {
     )
     @Transactional
     public void consumeBulk(BulkNotificationEvent event) {
+        notificationDigester.digest(event.getUserIds(), event.getMessage(), event.getType(), event.getReferencedId())
+                .forEach(this::push);
+    }
 
-        List<Notification> notifications = event.getUserIds().stream()
-                .map(userId -> Notification.builder()
-                        .userId(userId)
-                        .message(event.getMessage())
-                        .type(event.getType())
-                        .referencedId(event.getReferencedId())
-                        .build())
-                .toList();
-
-        List<Notification> saved = notificationRepo.saveAll(notifications);
-        saved.forEach(notification -> messagingTemplate.convertAndSend(
-                "/topic/notifications/" + notification.getUserId(), toResponse(notification)
-        ));
+    private void push(Notification notification) {
+        socketBroadcastService.send("/topic/notifications." + notification.getUserId(), toResponse(notification));
     }
 
     private NotificationResponse toResponse(Notification notification) {
@@ -67,6 +50,7 @@ public class NotificationConsumer {
                 .read(notification.isRead())
                 .type(notification.getType())
                 .referencedId(notification.getReferencedId())
+                .occurrences(notification.getOccurrences())
                 .createdAt(notification.getCreatedAt())
                 .build();
     }
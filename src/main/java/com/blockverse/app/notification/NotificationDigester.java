@@ -0,0 +1,90 @@
+package com.blockverse.app.notification;
+
+import com.blockverse.app.entity.Notification;
+import com.blockverse.app.enums.NotificationType;
+import com.blockverse.app.repo.NotificationRepo;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Folds repeats of (type, referencedId) into the user's unread notification from the current
+ * window. Returns the notifications to push: every new one, and a folded one only if it has not
+ * been pushed within the push interval, so a burst of repeats costs one push per interval rather
+ * than one per repeat. A folded one keeps its id, so clients replace the entry they already show
+ * and pick up the new count and message.
+ */
+@Component
+@RequiredArgsConstructor
+public class NotificationDigester {
+
+    private final NotificationRepo notificationRepo;
+
+    @Value("${app.notification.digest-window-seconds:300}")
+    private long digestWindowSeconds;
+
+    @Value("${app.notification.fold-push-interval-seconds:60}")
+    private long foldPushIntervalSeconds;
+
+    public List<Notification> digest(Collection<Integer> userIds, String message, NotificationType type, Integer referencedId) {
+        Set<Integer> recipients = new LinkedHashSet<>(userIds);
+        if (recipients.isEmpty()) {
+            return List.of();
+        }
+
+        Map<Integer, Notification> open = Map.of();
+        if (referencedId != null && digestWindowSeconds > 0) {
+            open = notificationRepo.findByUserIdInAndTypeAndReferencedIdAndReadFalseAndCreatedAtAfter(
+                            recipients, type, referencedId, LocalDateTime.now().minusSeconds(digestWindowSeconds))
+                    .stream()
+                    .collect(Collectors.toMap(Notification::getUserId, Function.identity(),
+                            (a, b) -> a.getCreatedAt().isAfter(b.getCreatedAt()) ? a : b));
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime pushedBefore = now.minusSeconds(foldPushIntervalSeconds);
+        List<Notification> merged = new ArrayList<>();
+        List<Notification> repush = new ArrayList<>();
+        List<Notification> created = new ArrayList<>();
+        for (Integer userId : recipients) {
+            Notification existing = open.get(userId);
+            if (existing != null) {
+                existing.setOccurrences(existing.getOccurrences() + 1);
+                existing.setMessage(message);
+                if (existing.getLastPushedAt() == null || existing.getLastPushedAt().isBefore(pushedBefore)) {
+                    existing.setLastPushedAt(now);
+                    repush.add(existing);
+                }
+                merged.add(existing);
+            } else {
+                created.add(Notification.builder()
+                        .userId(userId)
+                        .message(message)
+                        .type(type)
+                        .referencedId(referencedId)
+                        .lastPushedAt(now)
+                        .build());
+            }
+        }
+
+        List<Notification> toPush = new ArrayList<>();
+        if (!merged.isEmpty()) {
+            notificationRepo.saveAll(merged);
+            toPush.addAll(repush);
+        }
+        if (!created.isEmpty()) {
+            toPush.addAll(notificationRepo.saveAll(created));
+        }
+        return toPush;
+    }
+}
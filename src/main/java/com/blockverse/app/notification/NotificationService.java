@@ -79,6 +79,7 @@ public class NotificationService {
                 .read(notification.isRead())
                 .type(notification.getType())
                 .referencedId(notification.getReferencedId())
+                .occurrences(notification.getOccurrences())
                 .createdAt(notification.getCreatedAt())
                 .build();
     }
@@ -1,11 +1,15 @@
 package com.blockverse.app.repo;
 
 import com.blockverse.app.entity.AuditLog;
+import com.blockverse.app.enums.AuditActionType;
+import com.blockverse.app.enums.AuditEntityType;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 
+import java.util.Optional;
+
 public interface AuditLogRepo extends JpaRepository<AuditLog, Integer> {
     @Query("""
     SELECT a
@@ -14,4 +18,8 @@ public interface AuditLogRepo extends JpaRepository<AuditLog, Integer> {
     ORDER BY a.createdAt DESC
     """)
     Page<AuditLog> findByWorkSpace_IdOrderByCreatedAtDesc(int workspaceId, Pageable pageable);
+
+    Optional<AuditLog> findFirstByEntityTypeAndEntityIdAndActionTypeOrderByIdDesc(AuditEntityType entityType,
+                                                                                  int entityId,
+                                                                                  AuditActionType actionType);
 }
@@ -2,11 +2,13 @@ package com.blockverse.app.repo;
 
 import com.blockverse.app.entity.BlockChangeLog;
 import com.blockverse.app.entity.Document;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface BlockChangeLogRepo extends JpaRepository<BlockChangeLog, Integer> {
@@ -14,7 +16,10 @@ public interface BlockChangeLogRepo extends JpaRepository<BlockChangeLog, Intege
 
     List<BlockChangeLog> findByDocumentOrderByVersionNumberDesc(Document document);
 
+    @Query("SELECT b.id FROM BlockChangeLog b WHERE b.document.id = :documentId")
+    List<Integer> findIdsByDocumentId(@Param("documentId") int documentId, Pageable pageable);
+
     @Modifying
-    @Query("DELETE FROM BlockChangeLog b WHERE b.document = :document")
-    void deleteByDocument(@Param("document") Document document);
+    @Query("DELETE FROM BlockChangeLog b WHERE b.id IN :ids")
+    int deleteByIdIn(@Param("ids") Collection<Integer> ids);
 }
@@ -2,23 +2,70 @@ package com.blockverse.app.repo;
 
 import com.blockverse.app.entity.Block;
 import com.blockverse.app.entity.Document;
+import com.blockverse.app.enums.BlockType;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface BlockRepo extends JpaRepository<Block, Integer> {
     List<Block> findByDocumentAndParentAndDeletedFalseOrderByPositionAsc(Document document, Block parent);
     List<Block> findByDocumentAndDeletedFalseOrderByPositionAsc(Document document);
     List<Block> findByParentAndDeletedFalseOrderByPositionAsc(Block parent);
-    List<Block> findByDocumentAndParentIsNull(Document document);
+
+    // includes trashed blocks, which still hold their image
+    @Query("SELECT b.content FROM Block b WHERE b.document.id = :documentId AND b.type = :type")
+    List<String> findContentByDocumentIdAndType(@Param("documentId") int documentId,
+                                                @Param("type") BlockType type);
+
+    long countByDocumentId(int documentId);
+
+    // trashed documents and deleted blocks included: their images may still come back
+    @Query("SELECT b.content FROM Block b WHERE b.document.workSpace.id = :workSpaceId AND b.type = :type")
+    List<String> findContentByWorkSpaceIdAndType(@Param("workSpaceId") int workSpaceId,
+                                                 @Param("type") BlockType type);
+
+    @Query("SELECT b.id FROM Block b WHERE b.document.id = :documentId ORDER BY b.id DESC")
+    List<Integer> findIdsByDocumentId(@Param("documentId") int documentId, Pageable pageable);
+
+    // lets a chunk be deleted in any order without tripping the parent foreign key
+    @Modifying
+    @Query("UPDATE Block b SET b.parent = NULL WHERE b.parent.id IN :ids")
+    int detachChildren(@Param("ids") Collection<Integer> ids);
+
+    @Modifying
+    @Query("DELETE FROM Block b WHERE b.id IN :ids")
+    int deleteByIdIn(@Param("ids") Collection<Integer> ids);
 
     @Query(value = "SELECT b.* FROM block b " + 
                    "JOIN document d ON b.document_id = d.id " + 
                     "WHERE d.workspace_id = :workSpaceId " +
-                    "AND MATCH(b.content) AGAINST(:keyword IN BOOLEAN MODE)",
+                    "AND b.deleted = false AND d.archived = false AND d.deleted = false " +
+                    "AND (:documentId IS NULL OR b.document_id = :documentId) " +
+                    "AND (:type IS NULL OR b.type = :type) " +
+                    "AND MATCH(b.content) AGAINST(:keyword IN BOOLEAN MODE) " +
+                    "ORDER BY MATCH(b.content) AGAINST(:keyword IN BOOLEAN MODE) DESC, b.id " +
+                    "LIMIT :limit",
                      nativeQuery = true)
     List<Block> searchBlocks(@Param("keyword") String keyword,
-                             @Param("workSpaceId") int workSpaceId);
+                             @Param("workSpaceId") int workSpaceId,
+                             @Param("documentId") Integer documentId,
+                             @Param("type") String type,
+                             @Param("limit") int limit);
+
+    @Query("SELECT b FROM Block b JOIN FETCH b.document d " +
+           "WHERE d.workSpace.id = :workSpaceId AND b.deleted = false")
+    List<Block> findActiveByWorkSpaceId(@Param("workSpaceId") int workSpaceId);
+
+    @Query("SELECT b FROM Block b JOIN FETCH b.document WHERE b.id IN :ids")
+    List<Block> findWithDocumentByIdIn(@Param("ids") Collection<Integer> ids);
+
+    @Query("SELECT b FROM Block b JOIN FETCH b.document d " +
+           "WHERE d.workSpace.id = :workSpaceId AND b.deleted = false AND b.type IN :types")
+    List<Block> findActiveByWorkSpaceIdAndTypeIn(@Param("workSpaceId") int workSpaceId,
+                                                 @Param("types") Collection<BlockType> types);
 }
@@ -2,10 +2,16 @@ package com.blockverse.app.repo;
 
 import com.blockverse.app.entity.Document;
 import com.blockverse.app.entity.WorkSpace;
+import com.blockverse.app.enums.PurgeState;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -16,18 +22,129 @@ public interface DocumentRepo extends JpaRepository<Document, Integer> {
 
     Optional<Document> findByIdAndDeletedFalse(int id);
 
+    @Query("SELECT d.version FROM Document d WHERE d.id = :id")
+    Optional<Long> findVersionById(@Param("id") int id);
+
     Optional<Document> findByIdAndArchivedTrueAndDeletedFalse(int documentId);
 
     List<Document> findByWorkSpaceAndArchivedFalseAndDeletedFalseOrderByCreatedAtDesc(WorkSpace workSpace);
 
-    List<Document> findByWorkSpaceAndDeletedTrue(WorkSpace workSpace);
+    // keyset pages over idx_document_listing, newest first
+    @Query("SELECT d FROM Document d " +
+           "WHERE d.workSpace.id = :workSpaceId AND d.archived = false AND d.deleted = false " +
+           "ORDER BY d.createdAt DESC, d.id DESC")
+    List<Document> findActivePage(@Param("workSpaceId") int workSpaceId, Pageable pageable);
+
+    @Query("SELECT d FROM Document d " +
+           "WHERE d.workSpace.id = :workSpaceId AND d.archived = false AND d.deleted = false " +
+           "AND (d.createdAt < :createdAt OR (d.createdAt = :createdAt AND d.id < :id)) " +
+           "ORDER BY d.createdAt DESC, d.id DESC")
+    List<Document> findActivePageAfter(@Param("workSpaceId") int workSpaceId,
+                                       @Param("createdAt") LocalDateTime createdAt,
+                                       @Param("id") int id,
+                                       Pageable pageable);
+
+    List<Document> findByWorkSpaceAndDeletedTrueAndPurgingFalse(WorkSpace workSpace);
+
+    // expired trash, plus documents whose earlier purge stopped part-way and is due for a retry;
+    // ones leased by a live purge or failed too often are left out, and repeated failures go last
+    @Query("SELECT d FROM Document d JOIN FETCH d.workSpace " +
+           "WHERE d.deleted = true AND (d.purging = true OR d.deletedAt < :cutoff) " +
+           "AND (d.purgeOwner IS NULL OR d.purgeStartedAt < :leaseCutoff) " +
+           "AND (d.nextPurgeAt IS NULL OR d.nextPurgeAt <= :now) " +
+           "AND d.purgeAttempts < :maxAttempts " +
+           "ORDER BY d.purgeAttempts, d.deletedAt")
+    List<Document> findPurgeable(@Param("cutoff") LocalDateTime cutoff,
+                                 @Param("now") LocalDateTime now,
+                                 @Param("leaseCutoff") LocalDateTime leaseCutoff,
+                                 @Param("maxAttempts") int maxAttempts,
+                                 Pageable pageable);
+
+    // bumps the version so a restore racing this update fails instead of reviving the document
+    @Transactional
+    @Modifying
+    @Query("UPDATE Document d SET d.purging = true, d.version = d.version + 1 " +
+           "WHERE d.id = :id AND d.deleted = true")
+    int markPurging(@Param("id") int id);
+
+    // takes the lease unless another node holds an unexpired one
+    @Transactional
+    @Modifying
+    @Query("UPDATE Document d SET d.purgeOwner = :owner, d.purgeStartedAt = :now " +
+           "WHERE d.id = :id AND d.purging = true " +
+           "AND (d.purgeOwner IS NULL OR d.purgeOwner = :owner OR d.purgeStartedAt < :leaseCutoff)")
+    int claimPurge(@Param("id") int id,
+                   @Param("owner") String owner,
+                   @Param("now") LocalDateTime now,
+                   @Param("leaseCutoff") LocalDateTime leaseCutoff);
+
+    // also renews the lease; matches nothing once another node has taken it over
+    @Transactional
+    @Modifying
+    @Query("UPDATE Document d SET d.purgeState = :state, d.purgeTotalBlocks = :totalBlocks, " +
+           "d.purgeDeletedBlocks = :deletedBlocks, d.purgeStartedAt = :now " +
+           "WHERE d.id = :id AND d.purgeOwner = :owner")
+    int updatePurgeProgress(@Param("id") int id,
+                            @Param("owner") String owner,
+                            @Param("state") PurgeState state,
+                            @Param("totalBlocks") long totalBlocks,
+                            @Param("deletedBlocks") long deletedBlocks,
+                            @Param("now") LocalDateTime now);
+
+    // locks the row until the caller commits, so seqs of one document are taken in commit order
+    @Transactional
+    @Modifying
+    @Query("UPDATE Document d SET d.eventSeq = d.eventSeq + 1 WHERE d.id = :id")
+    int incrementEventSeq(@Param("id") int id);
+
+    @Query("SELECT d.eventSeq FROM Document d WHERE d.id = :id")
+    Optional<Long> findEventSeqById(@Param("id") int id);
+
+    @Query("SELECT d.purgeAttempts FROM Document d WHERE d.id = :id")
+    Optional<Integer> findPurgeAttemptsById(@Param("id") int id);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE Document d SET d.purgeState = :state, d.purgeTotalBlocks = :totalBlocks, " +
+           "d.purgeDeletedBlocks = :deletedBlocks, d.purgeOwner = NULL, d.purgeAttempts = :attempts, " +
+           "d.nextPurgeAt = :nextPurgeAt " +
+           "WHERE d.id = :id AND d.purgeOwner = :owner")
+    int failPurge(@Param("id") int id,
+                  @Param("owner") String owner,
+                  @Param("state") PurgeState state,
+                  @Param("totalBlocks") long totalBlocks,
+                  @Param("deletedBlocks") long deletedBlocks,
+                  @Param("attempts") int attempts,
+                  @Param("nextPurgeAt") LocalDateTime nextPurgeAt);
+
+    // gives up this node's leases without counting an attempt
+    @Transactional
+    @Modifying
+    @Query("UPDATE Document d SET d.purgeState = :state, d.purgeOwner = NULL " +
+           "WHERE d.id IN :ids AND (d.purgeOwner IS NULL OR d.purgeOwner = :owner)")
+    int releasePurges(@Param("ids") Collection<Integer> ids,
+                      @Param("owner") String owner,
+                      @Param("state") PurgeState state);
 
     @Query(value = "SELECT * FROM  document " +
             "where workspace_id = :workSpaceId " +
-            "AND MATCH(title) AGAINST(:keyword IN BOOLEAN MODE)",
+            "AND archived = false AND deleted = false " +
+            "AND (:documentId IS NULL OR id = :documentId) " +
+            "AND MATCH(title) AGAINST(:keyword IN BOOLEAN MODE) " +
+            "ORDER BY MATCH(title) AGAINST(:keyword IN BOOLEAN MODE) DESC, id " +
+            "LIMIT :limit",
             nativeQuery = true)
     List<Document> searchDocuments(@Param("keyword") String keyword,
-                                   @Param("workSpaceId") int workSpaceId);
+                                   @Param("workSpaceId") int workSpaceId,
+                                   @Param("documentId") Integer documentId,
+                                   @Param("limit") int limit);
 
     List<Document> findByWorkSpaceIdAndArchivedTrueAndDeletedFalse(int workspaceId);
+
+    List<Document> findByWorkSpaceId(int workSpaceId);
+
+    List<Document> findByWorkSpaceIdAndUpdatedAtAfter(int workSpaceId, LocalDateTime updatedAt);
+
+    @Query("SELECT d.id FROM Document d WHERE d.workSpace.id = :workSpaceId")
+    List<Integer> findIdsByWorkSpaceId(@Param("workSpaceId") int workSpaceId);
 }
@@ -2,10 +2,16 @@ package com.blockverse.app.repo;
 
 import com.blockverse.app.entity.DocumentShare;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.util.Optional;
 
 public interface DocumentShareRepo extends JpaRepository<DocumentShare, Integer> {
     Optional<DocumentShare> findByTokenAndActiveTrue(String token);
-    void deleteByDocument(com.blockverse.app.entity.Document document);
+
+    @Modifying
+    @Query("DELETE FROM DocumentShare s WHERE s.document.id = :documentId")
+    int deleteByDocumentId(@Param("documentId") int documentId);
 }
@@ -0,0 +1,25 @@
+package com.blockverse.app.repo;
+
+import com.blockverse.app.entity.MaintenanceMarker;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Optional;
+
+public interface MaintenanceMarkerRepo extends JpaRepository<MaintenanceMarker, String> {
+
+    // fails with a constraint violation when another node created the marker first
+    @Transactional
+    @Modifying
+    @Query(value = "INSERT INTO maintenance_marker (name) VALUES (:name)", nativeQuery = true)
+    void insert(@Param("name") String name);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT m FROM MaintenanceMarker m WHERE m.name = :name")
+    Optional<MaintenanceMarker> lockByName(@Param("name") String name);
+}
@@ -1,10 +1,17 @@
 package com.blockverse.app.repo;
 
 import com.blockverse.app.entity.Notification;
+import com.blockverse.app.enums.NotificationType;
 import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 public interface NotificationRepo extends JpaRepository<Notification, Integer> {
     List<Notification> findByUserIdOrderByCreatedAtDesc(Integer userId);
     List<Notification> findByUserIdAndReadFalseOrderByCreatedAtDesc(Integer userId);
+
+    List<Notification> findByUserIdInAndTypeAndReferencedIdAndReadFalseAndCreatedAtAfter(
+            Collection<Integer> userIds, NotificationType type, Integer referencedId, LocalDateTime createdAfter);
 }
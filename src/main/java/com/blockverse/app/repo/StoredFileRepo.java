@@ -0,0 +1,52 @@
+package com.blockverse.app.repo;
+
+import com.blockverse.app.entity.StoredFile;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+public interface StoredFileRepo extends JpaRepository<StoredFile, Integer> {
+    Optional<StoredFile> findByOwnerIdAndHash(int ownerId, String hash);
+
+    boolean existsByOwnerIdAndStorageKey(int ownerId, String storageKey);
+
+    Optional<StoredFile> findByStorageKey(String storageKey);
+
+    List<StoredFile> findByVariantsIsNullAndCreatedAtBefore(LocalDateTime cutoff, Pageable pageable);
+
+    List<StoredFile> findByReferenceCountAndLastUsedAtBefore(int referenceCount, LocalDateTime cutoff, Pageable pageable);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE StoredFile f SET f.lastUsedAt = :now WHERE f.ownerId = :ownerId AND f.hash = :hash")
+    int touch(@Param("ownerId") int ownerId, @Param("hash") String hash, @Param("now") LocalDateTime now);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE StoredFile f SET f.referenceCount = f.referenceCount + 1 WHERE f.storageKey = :storageKey")
+    int acquireReference(@Param("storageKey") String storageKey);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE StoredFile f SET f.variants = :variants WHERE f.storageKey = :storageKey")
+    int setVariants(@Param("storageKey") String storageKey, @Param("variants") String variants);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE StoredFile f SET f.referenceCount = f.referenceCount - 1, f.lastUsedAt = :now " +
+           "WHERE f.storageKey = :storageKey AND f.referenceCount > 0")
+    int releaseReference(@Param("storageKey") String storageKey, @Param("now") LocalDateTime now);
+
+    // only matches while still unreferenced and idle, so an upload or attach that revived the entry wins
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM StoredFile f WHERE f.id = :id AND f.referenceCount = 0 AND f.lastUsedAt < :cutoff")
+    int deleteIfUnreferenced(@Param("id") int id, @Param("cutoff") LocalDateTime cutoff);
+}
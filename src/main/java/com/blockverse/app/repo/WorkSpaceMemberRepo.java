@@ -4,7 +4,11 @@ import com.blockverse.app.dto.workspace.WorkSpaceDetailsResponse;
 import com.blockverse.app.entity.User;
 import com.blockverse.app.entity.WorkSpace;
 import com.blockverse.app.entity.WorkSpaceMember;
+import com.blockverse.app.enums.WorkSpaceRole;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
 
 import java.util.List;
@@ -34,58 +38,43 @@ public interface WorkSpaceMemberRepo extends JpaRepository<WorkSpaceMember, Inte
             """)
     List<WorkSpaceDetailsResponse> findWorkspaceDetailsForUser(User user);
 
-    @Query("""
-            SELECT new com.blockverse.app.dto.workspace.WorkSpaceDetailsResponse(
-                w.id,
-                w.name,
-                w.type,
-            new com.blockverse.app.dto.user.OwnerInfo(o.id, o.name),
-                COUNT(allMembers.id),
-                currentMember.role
-            )
-            FROM WorkSpaceMember currentMember
-            JOIN currentMember.workSpace w
-            JOIN WorkSpaceMember ownerMember
-                ON ownerMember.workSpace = w
-                AND ownerMember.role = com.blockverse.app.enums.WorkSpaceRole.OWNER
-                JOIN ownerMember.user o
-            JOIN WorkSpaceMember allMembers
-                ON allMembers.workSpace = w
-            WHERE currentMember.user = :user
-                AND w.id = :workspaceId
-            GROUP BY w.id, w.name, w.type,
-                 o.id, o.name, currentMember.role
-            """)
-    Optional<WorkSpaceDetailsResponse> findWorkspaceDetailsForUserAndWorkspaceId(User user, int workspaceId);
-
     Optional<WorkSpaceMember> findByUserAndWorkSpaceAndDeletedAtIsNull(User currentUser, WorkSpace workSpace);
 
     Optional<WorkSpaceMember> findByUserAndWorkSpace(User user, WorkSpace workSpace);
 
+    int countByWorkSpaceIdAndDeletedAtIsNull(int workSpaceId);
+
+    // a locking read sees rows committed after the transaction's snapshot, which a plain count would miss
+    @Lock(LockModeType.PESSIMISTIC_READ)
     @Query("""
-            SELECT new com.blockverse.app.dto.workspace.WorkSpaceDetailsResponse(
-            w.id,
-            w.name,
-            w.type,
-            new com.blockverse.app.dto.user.OwnerInfo(o.id, o.name),
-            COUNT(allMembers.id),
-            currentMember.role
-            )
-            FROM WorkSpaceMember currentMember
-            JOIN currentMember.workSpace w
-            JOIN WorkSpaceMember ownerMember
-            ON ownerMember.workSpace = w
-            AND ownerMember.role = com.blockverse.app.enums.WorkSpaceRole.OWNER
-            JOIN ownerMember.user o
-            JOIN WorkSpaceMember allMembers
-            ON allMembers.workSpace = w
-            WHERE currentMember.user = :user
-            AND currentMember.deletedAt IS NULL
-            GROUP BY w.id, w.name, w.type, o.id, o.name, currentMember.role
+            SELECT m FROM WorkSpaceMember m
+            WHERE m.workSpace.id = :workSpaceId AND m.deletedAt IS NULL
             """)
-    List<WorkSpaceDetailsResponse> findWorkspaceDetailsForUserAndDeletedAtIsNull(User user);
-
-    int countByWorkSpaceIdAndDeletedAtIsNull(int workSpaceId);
+    List<WorkSpaceMember> lockActiveByWorkSpaceId(int workSpaceId);
 
+    @EntityGraph(attributePaths = "user")
     List<WorkSpaceMember> findByWorkSpaceAndDeletedAtIsNull(WorkSpace workSpace);
+
+    // authorization checks only need the role; no member, user or workspace entities are loaded
+    @Query("""
+            SELECT m.role FROM WorkSpaceMember m
+            WHERE m.user.id = :userId AND m.workSpace.id = :workSpaceId AND m.deletedAt IS NULL
+            """)
+    Optional<WorkSpaceRole> findActiveRole(int userId, int workSpaceId);
+
+    // reads the foreign key column only; no member, user or workspace entities are loaded
+    @Query("""
+            SELECT m.user.id FROM WorkSpaceMember m
+            WHERE m.workSpace.id = :workSpaceId AND m.deletedAt IS NULL
+            ORDER BY m.user.id
+            """)
+    List<Integer> findActiveUserIdsByWorkSpaceId(int workSpaceId);
+
+    @Query("""
+            SELECT m FROM WorkSpaceMember m
+            JOIN FETCH m.workSpace w
+            JOIN FETCH m.user
+            WHERE m.deletedAt IS NULL AND w.deletedAt IS NULL
+            """)
+    List<WorkSpaceMember> findActiveMembershipsOfActiveWorkspaces();
 }
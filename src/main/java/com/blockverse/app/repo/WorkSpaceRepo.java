@@ -1,12 +1,20 @@
 package com.blockverse.app.repo;
 
 import com.blockverse.app.entity.WorkSpace;
+import jakarta.persistence.LockModeType;
 import lombok.Builder;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
 
 import java.util.Optional;
 
 public interface WorkSpaceRepo extends JpaRepository<WorkSpace, Integer> {
 
     Optional<WorkSpace> findByIdAndDeletedAtIsNull(int workspaceId);
+
+    // serializes membership changes of one workspace, so their member counts cannot interleave
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT w FROM WorkSpace w WHERE w.id = :workspaceId")
+    Optional<WorkSpace> lockById(int workspaceId);
 }
@@ -0,0 +1,54 @@
+package com.blockverse.app.repo;
+
+import com.blockverse.app.entity.WorkSpaceSummary;
+import com.blockverse.app.enums.WorkSpaceRole;
+import com.blockverse.app.enums.WorkSpaceType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+import java.util.Optional;
+
+public interface WorkSpaceSummaryRepo extends JpaRepository<WorkSpaceSummary, Integer> {
+    List<WorkSpaceSummary> findByUserIdOrderByWorkspaceIdAsc(int userId);
+
+    Optional<WorkSpaceSummary> findByUserIdAndWorkspaceId(int userId, int workspaceId);
+
+    Optional<WorkSpaceSummary> findFirstByWorkspaceId(int workspaceId);
+
+    List<WorkSpaceSummary> findByWorkspaceId(int workspaceId);
+
+    @Modifying
+    @Query("DELETE FROM WorkSpaceSummary s WHERE s.userId = :userId AND s.workspaceId = :workspaceId")
+    void deleteMembership(@Param("userId") int userId, @Param("workspaceId") int workspaceId);
+
+    @Modifying
+    @Query("DELETE FROM WorkSpaceSummary s WHERE s.workspaceId = :workspaceId")
+    void deleteWorkspace(@Param("workspaceId") int workspaceId);
+
+    @Modifying
+    @Query("UPDATE WorkSpaceSummary s SET s.memberCount = :memberCount WHERE s.workspaceId = :workspaceId")
+    void updateMemberCount(@Param("workspaceId") int workspaceId, @Param("memberCount") long memberCount);
+
+    @Modifying
+    @Query("UPDATE WorkSpaceSummary s SET s.workspaceName = :name, s.workspaceType = :type " +
+           "WHERE s.workspaceId = :workspaceId")
+    void updateWorkspace(@Param("workspaceId") int workspaceId,
+                         @Param("name") String name,
+                         @Param("type") WorkSpaceType type);
+
+    @Modifying
+    @Query("UPDATE WorkSpaceSummary s SET s.ownerId = :ownerId, s.ownerName = :ownerName " +
+           "WHERE s.workspaceId = :workspaceId")
+    void updateOwner(@Param("workspaceId") int workspaceId,
+                     @Param("ownerId") int ownerId,
+                     @Param("ownerName") String ownerName);
+
+    @Modifying
+    @Query("UPDATE WorkSpaceSummary s SET s.role = :role WHERE s.userId = :userId AND s.workspaceId = :workspaceId")
+    void updateRole(@Param("userId") int userId,
+                    @Param("workspaceId") int workspaceId,
+                    @Param("role") WorkSpaceRole role);
+}
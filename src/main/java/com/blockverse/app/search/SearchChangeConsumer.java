@@ -0,0 +1,25 @@
+package com.blockverse.app.search;
+
+import com.blockverse.app.dto.SearchChangeEvent;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Service;
+
+@Service
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "app.search.change-relay", havingValue = "kafka")
+public class SearchChangeConsumer {
+
+    private final SearchChangeRelay searchChangeRelay;
+
+    // Every node joins its own consumer group so each change reaches all nodes.
+    @KafkaListener(
+            topics = "${app.kafka.topic.search-change:search-change-topic}",
+            groupId = "#{'search-change-' + T(java.util.UUID).randomUUID()}",
+            properties = "auto.offset.reset=latest"
+    )
+    public void consume(SearchChangeEvent event) {
+        searchChangeRelay.applyRelayed(event);
+    }
+}
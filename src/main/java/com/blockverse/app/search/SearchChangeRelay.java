@@ -0,0 +1,93 @@
+package com.blockverse.app.search;
+
+import com.blockverse.app.dto.SearchChangeEvent;
+import com.blockverse.app.event.BlockChangedEvent;
+import com.blockverse.app.event.DocumentChangedEvent;
+import com.blockverse.app.service.DocumentListCache;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.UUID;
+
+/**
+ * The search index, suggestions and result caches are per node and only see the change events
+ * of their own node's commits. With {@code app.search.change-relay=kafka} every commit is also
+ * published to Kafka and applied on the other nodes in the same order as a local commit: index
+ * and suggestions first, then the cache generations. {@link DocumentListCache} rides on this relay
+ * as well, so with {@code local} another node's document changes reach its cached pages only
+ * through their TTL.
+ */
+@Service
+@RequiredArgsConstructor
+public class SearchChangeRelay {
+
+    private final KafkaTemplate<String, Object> kafkaTemplate;
+    private final SearchIndexService searchIndexService;
+    private final SuggestionService suggestionService;
+    private final SearchResultCache searchResultCache;
+    private final DocumentListCache documentListCache;
+
+    private final String nodeId = UUID.randomUUID().toString();
+
+    @Value("${app.search.change-relay:local}")
+    private String changeRelay;
+
+    @Value("${app.kafka.topic.search-change:search-change-topic}")
+    private String searchChangeTopic;
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onDocumentChanged(DocumentChangedEvent event) {
+        relay(SearchChangeEvent.builder()
+                .workspaceId(event.getWorkspaceId())
+                .documentId(event.getDocumentId())
+                .title(event.getTitle())
+                .active(event.isActive())
+                .removed(event.isRemoved())
+                .build());
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onBlockChanged(BlockChangedEvent event) {
+        relay(SearchChangeEvent.builder()
+                .workspaceId(event.getWorkspaceId())
+                .documentId(event.getDocumentId())
+                .blockId(event.getBlockId())
+                .type(event.getType())
+                .content(event.getContent())
+                .deleted(event.isDeleted())
+                .build());
+    }
+
+    public void applyRelayed(SearchChangeEvent event) {
+        if (nodeId.equals(event.getOriginNodeId())) {
+            return;
+        }
+        if (event.getBlockId() == null) {
+            DocumentChangedEvent change = new DocumentChangedEvent(event.getWorkspaceId(), event.getDocumentId(),
+                    event.getTitle(), event.isActive(), event.isRemoved());
+            searchIndexService.onDocumentChanged(change);
+            suggestionService.onDocumentChanged(change);
+            searchResultCache.onDocumentChanged(change);
+            documentListCache.onDocumentChanged(change);
+        } else {
+            BlockChangedEvent change = new BlockChangedEvent(event.getWorkspaceId(), event.getDocumentId(),
+                    event.getBlockId(), event.getType(), event.getContent(), event.isDeleted());
+            searchIndexService.onBlockChanged(change);
+            suggestionService.onBlockChanged(change);
+            searchResultCache.onBlockChanged(change);
+        }
+    }
+
+    private void relay(SearchChangeEvent event) {
+        if (!"kafka".equals(changeRelay)) {
+            return;
+        }
+        event.setOriginNodeId(nodeId);
+        // keyed by workspace so one workspace's changes stay in commit order
+        kafkaTemplate.send(searchChangeTopic, String.valueOf(event.getWorkspaceId()), event);
+    }
+}
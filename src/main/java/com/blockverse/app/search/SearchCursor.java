@@ -0,0 +1,103 @@
+package com.blockverse.app.search;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Opaque keyset cursor over the two ranked lists. Each side remembers the (score, id) of the
+ * last hit it returned, so the next page starts strictly after it; a side that has run out stays
+ * empty on later pages. The next page is ranked against the current index, so edits made in
+ * between are picked up rather than rejected; since BM25 scores depend on the whole index, a hit
+ * whose score moved across the position may show up twice or not at all. The cursor only pins the
+ * query and filter it was issued for, and a search with different ones rejects it.
+ */
+public final class SearchCursor {
+
+    private static final Position START = new Position(Double.POSITIVE_INFINITY, Integer.MIN_VALUE, false);
+    private static final Position EXHAUSTED = new Position(0, 0, true);
+
+    public static final SearchCursor FIRST_PAGE = new SearchCursor(START, START, null);
+
+    private final Position documents;
+    private final Position blocks;
+    // hash of the query and filter; null on the first page, which is valid for any search
+    private final Long scope;
+
+    record Position(double score, int id, boolean exhausted) {
+
+        // true when the hit ranks after this position (score desc, id asc)
+        boolean precedes(SearchHits.Hit hit) {
+            return hit.score() < score || (hit.score() == score && hit.id() > id);
+        }
+
+        static Position after(SearchHits.Hit last, boolean more) {
+            return more ? new Position(last.score(), last.id(), false) : EXHAUSTED;
+        }
+    }
+
+    SearchCursor(Position documents, Position blocks, Long scope) {
+        this.documents = documents;
+        this.blocks = blocks;
+        this.scope = scope;
+    }
+
+    // String hashes are fixed by the language, so a cursor stays valid across nodes and restarts
+    static long scopeOf(SearchQuery query, SearchFilter filter) {
+        return (query.getTerms() + "|" + query.getPrefixes() + "|" + query.getExcluded()
+                + "|" + filter.getBlockType() + "|" + filter.getDocumentId()).hashCode();
+    }
+
+    Position documents() {
+        return documents;
+    }
+
+    Position blocks() {
+        return blocks;
+    }
+
+    boolean isValidFor(long searchScope) {
+        return scope == null || scope == searchScope;
+    }
+
+    public static SearchCursor decode(String token) {
+        if (token == null || token.isBlank()) {
+            return FIRST_PAGE;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] sides = raw.split(";", -1);
+            if (sides.length != 3) {
+                throw new IllegalArgumentException();
+            }
+            Long scope = "*".equals(sides[2]) ? null : Long.parseUnsignedLong(sides[2], 16);
+            return new SearchCursor(parse(sides[0]), parse(sides[1]), scope);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid search cursor");
+        }
+    }
+
+    public String encode() {
+        String raw = format(documents) + ";" + format(blocks) + ";"
+                + (scope == null ? "*" : Long.toHexString(scope));
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String format(Position position) {
+        if (position.exhausted()) {
+            return "x";
+        }
+        return Long.toHexString(Double.doubleToLongBits(position.score())) + ":" + position.id();
+    }
+
+    private static Position parse(String side) {
+        if ("x".equals(side)) {
+            return EXHAUSTED;
+        }
+        String[] fields = side.split(":", -1);
+        if (fields.length != 2) {
+            throw new IllegalArgumentException();
+        }
+        return new Position(Double.longBitsToDouble(Long.parseUnsignedLong(fields[0], 16)),
+                Integer.parseInt(fields[1]), false);
+    }
+}
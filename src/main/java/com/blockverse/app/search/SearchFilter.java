@@ -0,0 +1,31 @@
+package com.blockverse.app.search;
+
+import com.blockverse.app.enums.BlockType;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Optional narrowing of a search. {@code documentId} applies to both titles and blocks,
+ * {@code blockType} only to blocks.
+ */
+@Getter
+@AllArgsConstructor
+public class SearchFilter {
+
+    private static final SearchFilter NONE = new SearchFilter(null, null);
+
+    private final BlockType blockType;
+    private final Integer documentId;
+
+    public static SearchFilter none() {
+        return NONE;
+    }
+
+    boolean matchesDocument(int id) {
+        return documentId == null || documentId == id;
+    }
+
+    boolean matchesBlock(int documentId, BlockType type) {
+        return matchesDocument(documentId) && (blockType == null || blockType == type);
+    }
+}
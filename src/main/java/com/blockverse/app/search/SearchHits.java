@@ -0,0 +1,28 @@
+package com.blockverse.app.search;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * One page of ranked ids returned by the index; callers resolve them to entities.
+ * {@code nextCursor} is null once both lists are exhausted.
+ */
+@Getter
+@AllArgsConstructor
+public class SearchHits {
+
+    private final List<Hit> documents;
+    private final int totalDocuments;
+    private final List<Hit> blocks;
+    private final int totalBlocks;
+    private final SearchCursor nextCursor;
+
+    public record Hit(int id, double score) {
+    }
+
+    public static SearchHits empty() {
+        return new SearchHits(List.of(), 0, List.of(), 0, null);
+    }
+}
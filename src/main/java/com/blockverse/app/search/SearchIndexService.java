@@ -0,0 +1,257 @@
+package com.blockverse.app.search;
+
+import com.blockverse.app.entity.Block;
+import com.blockverse.app.entity.Document;
+import com.blockverse.app.event.BlockChangedEvent;
+import com.blockverse.app.event.DocumentChangedEvent;
+import com.blockverse.app.repo.BlockRepo;
+import com.blockverse.app.repo.DocumentRepo;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * Owns the per-workspace search indexes. A workspace is indexed on its first search, from its
+ * last flushed segment plus the documents changed since, or from the database when there is no
+ * segment. After that it is kept current by the change events services publish on commit.
+ * Workspaces nobody has searched for {@code app.search.idle-eviction-ms} are dropped once their
+ * segment is flushed and loaded again on the next search.
+ */
+@Service
+public class SearchIndexService {
+
+    // covers transactions that stamped updatedAt before a flush but committed after it
+    private static final Duration CATCH_UP_MARGIN = Duration.ofMinutes(1);
+
+    private final DocumentRepo documentRepo;
+    private final BlockRepo blockRepo;
+    private final Path indexDir;
+
+    private final Map<Integer, IndexHolder> holders = new ConcurrentHashMap<>();
+
+    @Value("${app.search.idle-eviction-ms:1800000}")
+    private long idleEvictionMs;
+
+    private static final class IndexHolder {
+        private final WorkspaceIndex index = new WorkspaceIndex();
+        private volatile boolean ready;
+        private volatile boolean dirty;
+        private volatile long lastSearchedAt = System.currentTimeMillis();
+    }
+
+    public SearchIndexService(DocumentRepo documentRepo,
+                              BlockRepo blockRepo,
+                              @Value("${app.search.index-dir:}") String indexDir) {
+        this.documentRepo = documentRepo;
+        this.blockRepo = blockRepo;
+        // blank keeps the index in memory only
+        this.indexDir = indexDir == null || indexDir.isBlank() ? null : Path.of(indexDir);
+    }
+
+    public SearchHits search(int workspaceId, String keyword, SearchFilter filter, SearchCursor cursor, int limit) {
+        SearchQuery query = SearchQuery.parse(keyword);
+        if (query.isEmpty()) {
+            return SearchHits.empty();
+        }
+        return indexFor(workspaceId).search(query, filter, cursor, limit);
+    }
+
+    // runs before SearchResultCache invalidates, so a re-cached page sees the new state
+    @Order(0)
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onDocumentChanged(DocumentChangedEvent event) {
+        apply(event.getWorkspaceId(), index -> {
+            if (event.isRemoved()) {
+                index.removeDocument(event.getDocumentId());
+            } else {
+                index.upsertDocument(event.getDocumentId(), event.getTitle(), event.isActive());
+            }
+        });
+    }
+
+    @Order(0)
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onBlockChanged(BlockChangedEvent event) {
+        apply(event.getWorkspaceId(), index -> index.upsertBlock(
+                event.getBlockId(),
+                event.getDocumentId(),
+                event.getType(),
+                event.getContent(),
+                event.isDeleted()
+        ));
+    }
+
+    @Scheduled(fixedDelayString = "${app.search.flush-interval-ms:30000}")
+    public void flush() {
+        if (indexDir == null) {
+            return;
+        }
+        holders.forEach((workspaceId, holder) -> {
+            if (!holder.ready || !holder.dirty) {
+                return;
+            }
+            holder.dirty = false;
+            try {
+                writeSegment(workspaceId, holder.index);
+            } catch (IOException e) {
+                // keep it dirty so the next flush retries
+                holder.dirty = true;
+            }
+        });
+    }
+
+    /**
+     * Drops indexes idle past the eviction window. With an index dir a dirty index waits for the
+     * next flush first; without one the next search rebuilds it from the database.
+     */
+    @Scheduled(fixedDelayString = "${app.search.eviction-interval-ms:60000}")
+    public void evictIdle() {
+        long idleSince = System.currentTimeMillis() - idleEvictionMs;
+        holders.forEach((workspaceId, holder) -> {
+            if (holder.ready && holder.lastSearchedAt < idleSince && (indexDir == null || !holder.dirty)) {
+                // an event applied to the removed index is committed already, so the reload reads it back
+                holders.remove(workspaceId, holder);
+            }
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+
+    private void apply(int workspaceId, Consumer<WorkspaceIndex> change) {
+        IndexHolder holder = holders.get(workspaceId);
+        // never searched yet: the bootstrap will read the committed row from the database
+        if (holder == null) {
+            return;
+        }
+        if (!holder.ready) {
+            // waits out a bootstrap in progress; if none has started it will see this commit
+            synchronized (holder) {
+                if (!holder.ready) {
+                    return;
+                }
+            }
+        }
+        change.accept(holder.index);
+        holder.dirty = true;
+    }
+
+    private WorkspaceIndex indexFor(int workspaceId) {
+        IndexHolder holder = holders.computeIfAbsent(workspaceId, id -> new IndexHolder());
+        holder.lastSearchedAt = System.currentTimeMillis();
+        if (!holder.ready) {
+            synchronized (holder) {
+                if (!holder.ready) {
+                    try {
+                        bootstrap(workspaceId, holder);
+                    } catch (RuntimeException e) {
+                        holders.remove(workspaceId, holder);
+                        throw e;
+                    }
+                    holder.ready = true;
+                }
+            }
+        }
+        return holder.index;
+    }
+
+    private void bootstrap(int workspaceId, IndexHolder holder) {
+        WorkspaceIndex index = holder.index;
+        LocalDateTime flushedAt = loadSegment(workspaceId, index);
+
+        if (flushedAt == null) {
+            for (Document document : documentRepo.findByWorkSpaceId(workspaceId)) {
+                index.upsertDocument(document.getId(), document.getTitle(), isActive(document));
+            }
+            for (Block block : blockRepo.findActiveByWorkSpaceId(workspaceId)) {
+                index.upsertBlock(block.getId(), block.getDocument().getId(),
+                        block.getType(), block.getContent(), false);
+            }
+            holder.dirty = true;
+            return;
+        }
+
+        // block edits bump the document version, so updatedAt covers them too
+        for (Document document : documentRepo.findByWorkSpaceIdAndUpdatedAtAfter(workspaceId, flushedAt)) {
+            index.upsertDocument(document.getId(), document.getTitle(), isActive(document));
+            index.removeBlocksOf(document.getId());
+            for (Block block : blockRepo.findByDocumentAndDeletedFalseOrderByPositionAsc(document)) {
+                index.upsertBlock(block.getId(), document.getId(), block.getType(), block.getContent(), false);
+            }
+            holder.dirty = true;
+        }
+
+        Set<Integer> stale = index.documentIds();
+        stale.removeAll(new HashSet<>(documentRepo.findIdsByWorkSpaceId(workspaceId)));
+        for (int documentId : stale) {
+            index.removeDocument(documentId);
+            holder.dirty = true;
+        }
+    }
+
+    private LocalDateTime loadSegment(int workspaceId, WorkspaceIndex index) {
+        if (indexDir == null) {
+            return null;
+        }
+        Path path = segmentPath(workspaceId);
+        if (!Files.exists(path)) {
+            return null;
+        }
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            long flushedAt = index.readFrom(buffer);
+            return LocalDateTime.ofInstant(Instant.ofEpochMilli(flushedAt), ZoneId.systemDefault())
+                    .minus(CATCH_UP_MARGIN);
+        } catch (IOException | RuntimeException e) {
+            // unreadable or from an older format: rebuild from the database instead
+            index.clear();
+            return null;
+        }
+    }
+
+    private void writeSegment(int workspaceId, WorkspaceIndex index) throws IOException {
+        Files.createDirectories(indexDir);
+        Path target = segmentPath(workspaceId);
+        Path temp = indexDir.resolve(target.getFileName() + ".tmp");
+
+        long flushedAt = System.currentTimeMillis();
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+            index.writeTo(out, flushedAt);
+        }
+        Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private Path segmentPath(int workspaceId) {
+        return indexDir.resolve("workspace-" + workspaceId + ".idx");
+    }
+
+    private static boolean isActive(Document document) {
+        return !document.isArchived() && !document.isDeleted();
+    }
+}
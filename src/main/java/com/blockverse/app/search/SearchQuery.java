@@ -0,0 +1,51 @@
+package com.blockverse.app.search;
+
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Parsed form of the keyword string, keeping the subset of MySQL boolean-mode syntax clients
+ * already send: every term is required, a trailing {@code *} makes it a prefix and a leading
+ * {@code -} excludes it.
+ */
+@Getter
+final class SearchQuery {
+
+    private final List<String> terms = new ArrayList<>();
+    private final List<String> prefixes = new ArrayList<>();
+    private final List<String> excluded = new ArrayList<>();
+
+    static SearchQuery parse(String keyword) {
+        SearchQuery query = new SearchQuery();
+        if (keyword == null) {
+            return query;
+        }
+
+        for (String word : keyword.trim().split("\\s+")) {
+            if (word.isEmpty()) {
+                continue;
+            }
+            boolean exclude = word.startsWith("-");
+            boolean prefix = word.endsWith("*");
+
+            List<String> tokens = SearchTokenizer.tokenize(word);
+            for (int i = 0; i < tokens.size(); i++) {
+                String token = tokens.get(i);
+                if (exclude) {
+                    query.excluded.add(token);
+                } else if (prefix && i == tokens.size() - 1) {
+                    query.prefixes.add(token);
+                } else {
+                    query.terms.add(token);
+                }
+            }
+        }
+        return query;
+    }
+
+    boolean isEmpty() {
+        return terms.isEmpty() && prefixes.isEmpty();
+    }
+}
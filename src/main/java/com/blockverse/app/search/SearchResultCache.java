@@ -0,0 +1,124 @@
+package com.blockverse.app.search;
+
+import com.blockverse.app.dto.SearchResponse;
+import com.blockverse.app.enums.BlockType;
+import com.blockverse.app.event.BlockChangedEvent;
+import com.blockverse.app.event.DocumentChangedEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded LRU of search responses. Each workspace has a generation counter that every committed
+ * document or block change bumps; an entry is only served while its generation is current, so
+ * invalidating a workspace is a single increment rather than a scan.
+ */
+@Service
+public class SearchResultCache {
+
+    private final long ttlMs;
+    private final Map<Key, Entry> entries;
+    private final Map<Integer, AtomicLong> generations = new ConcurrentHashMap<>();
+
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter evictions;
+
+    public record Key(int workspaceId, String query, BlockType blockType, Integer documentId,
+                      int limit, String cursor) {
+    }
+
+    private record Entry(long generation, long storedAt, SearchResponse response) {
+    }
+
+    public SearchResultCache(MeterRegistry meterRegistry,
+                             @Value("${app.search.cache.max-entries:1000}") int maxEntries,
+                             @Value("${app.search.cache.ttl-ms:300000}") long ttlMs) {
+        this.ttlMs = ttlMs;
+        this.evictions = Counter.builder("search.cache.evictions")
+                .description("Search responses dropped to stay within the size bound")
+                .register(meterRegistry);
+        this.entries = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, Entry> eldest) {
+                if (size() > maxEntries) {
+                    evictions.increment();
+                    return true;
+                }
+                return false;
+            }
+        });
+        this.hits = Counter.builder("search.cache.hits")
+                .description("Searches answered from the result cache")
+                .register(meterRegistry);
+        this.misses = Counter.builder("search.cache.misses")
+                .description("Searches that had to run against the index or database")
+                .register(meterRegistry);
+        Gauge.builder("search.cache.size", entries, Map::size)
+                .description("Search responses currently cached")
+                .register(meterRegistry);
+    }
+
+    public static Key key(int workspaceId, String keyword, SearchFilter filter, int limit, String cursor) {
+        String query = keyword == null ? "" : keyword.strip().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+        return new Key(workspaceId, query, filter.getBlockType(), filter.getDocumentId(), limit, cursor);
+    }
+
+    /**
+     * Read before computing a response and pass to {@link #put}, so a change that commits while
+     * the response is being built leaves it already stale.
+     */
+    public long generation(int workspaceId) {
+        AtomicLong generation = generations.get(workspaceId);
+        return generation == null ? 0 : generation.get();
+    }
+
+    public SearchResponse get(Key key) {
+        Entry entry = entries.get(key);
+        if (entry == null
+                || entry.generation() != generation(key.workspaceId())
+                || System.currentTimeMillis() - entry.storedAt() > ttlMs) {
+            if (entry != null) {
+                entries.remove(key, entry);
+            }
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        return entry.response();
+    }
+
+    public void put(Key key, long generation, SearchResponse response) {
+        entries.put(key, new Entry(generation, System.currentTimeMillis(), response));
+    }
+
+    // ordered after the index listeners so a bump never precedes the index update
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onDocumentChanged(DocumentChangedEvent event) {
+        bump(event.getWorkspaceId());
+    }
+
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onBlockChanged(BlockChangedEvent event) {
+        bump(event.getWorkspaceId());
+    }
+
+    private void bump(int workspaceId) {
+        generations.computeIfAbsent(workspaceId, id -> new AtomicLong()).incrementAndGet();
+    }
+}
@@ -0,0 +1,136 @@
+package com.blockverse.app.search;
+
+import com.blockverse.app.dto.SuggestionResponse;
+import com.blockverse.app.entity.Block;
+import com.blockverse.app.entity.Document;
+import com.blockverse.app.enums.BlockType;
+import com.blockverse.app.event.BlockChangedEvent;
+import com.blockverse.app.event.DocumentChangedEvent;
+import com.blockverse.app.repo.BlockRepo;
+import com.blockverse.app.repo.DocumentRepo;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * Search-as-you-type over document titles and headings. A workspace is loaded from the database
+ * on its first lookup and then follows the same commit events as the search index, until it
+ * goes unused for {@code app.search.idle-eviction-ms} and is dropped.
+ */
+@Service
+@RequiredArgsConstructor
+public class SuggestionService {
+
+    private static final List<BlockType> HEADING_TYPES = List.of(BlockType.HEADING1, BlockType.HEADING2);
+
+    private final DocumentRepo documentRepo;
+    private final BlockRepo blockRepo;
+
+    private final Map<Integer, Holder> holders = new ConcurrentHashMap<>();
+
+    @Value("${app.search.idle-eviction-ms:1800000}")
+    private long idleEvictionMs;
+
+    private static final class Holder {
+        private final WorkspaceSuggestions suggestions = new WorkspaceSuggestions();
+        private volatile boolean ready;
+        private volatile long lastLookupAt = System.currentTimeMillis();
+    }
+
+    public List<SuggestionResponse> suggest(int workspaceId, String prefix, int limit) {
+        if (prefix == null || prefix.isBlank()) {
+            return List.of();
+        }
+        int size = Math.max(1, Math.min(limit, SuggestionTrie.TOP_K));
+        return suggestionsFor(workspaceId).complete(prefix, size).stream()
+                .map(s -> new SuggestionResponse(s.text(), s.type(), s.documentId(), s.blockId()))
+                .toList();
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onDocumentChanged(DocumentChangedEvent event) {
+        apply(event.getWorkspaceId(), suggestions -> {
+            if (event.isRemoved()) {
+                suggestions.removeDocument(event.getDocumentId());
+            } else {
+                suggestions.upsertDocument(event.getDocumentId(), event.getTitle(), event.isActive());
+            }
+        });
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onBlockChanged(BlockChangedEvent event) {
+        apply(event.getWorkspaceId(), suggestions -> suggestions.upsertBlock(
+                event.getBlockId(),
+                event.getDocumentId(),
+                event.getType(),
+                event.getContent(),
+                event.isDeleted()
+        ));
+    }
+
+    @Scheduled(fixedDelayString = "${app.search.eviction-interval-ms:60000}")
+    public void evictIdle() {
+        long idleSince = System.currentTimeMillis() - idleEvictionMs;
+        // the next lookup reloads from the database, which already holds anything applied meanwhile
+        holders.forEach((workspaceId, holder) -> {
+            if (holder.ready && holder.lastLookupAt < idleSince) {
+                holders.remove(workspaceId, holder);
+            }
+        });
+    }
+
+    private void apply(int workspaceId, Consumer<WorkspaceSuggestions> change) {
+        Holder holder = holders.get(workspaceId);
+        // not loaded yet: the first lookup reads the committed rows itself
+        if (holder == null) {
+            return;
+        }
+        if (!holder.ready) {
+            synchronized (holder) {
+                if (!holder.ready) {
+                    return;
+                }
+            }
+        }
+        change.accept(holder.suggestions);
+    }
+
+    private WorkspaceSuggestions suggestionsFor(int workspaceId) {
+        Holder holder = holders.computeIfAbsent(workspaceId, id -> new Holder());
+        holder.lastLookupAt = System.currentTimeMillis();
+        if (!holder.ready) {
+            synchronized (holder) {
+                if (!holder.ready) {
+                    try {
+                        load(workspaceId, holder.suggestions);
+                    } catch (RuntimeException e) {
+                        holders.remove(workspaceId, holder);
+                        throw e;
+                    }
+                    holder.ready = true;
+                }
+            }
+        }
+        return holder.suggestions;
+    }
+
+    private void load(int workspaceId, WorkspaceSuggestions suggestions) {
+        for (Document document : documentRepo.findByWorkSpaceId(workspaceId)) {
+            suggestions.upsertDocument(document.getId(), document.getTitle(),
+                    !document.isArchived() && !document.isDeleted());
+        }
+        for (Block block : blockRepo.findActiveByWorkSpaceIdAndTypeIn(workspaceId, HEADING_TYPES)) {
+            suggestions.upsertBlock(block.getId(), block.getDocument().getId(),
+                    block.getType(), block.getContent(), false);
+        }
+    }
+}
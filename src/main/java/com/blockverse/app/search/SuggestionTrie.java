@@ -0,0 +1,150 @@
+package com.blockverse.app.search;
+
+import com.blockverse.app.enums.SuggestionType;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Character trie over normalized phrases where every node caches its best {@link #TOP_K}
+ * completions, so a lookup is a walk down the prefix and a sublist. Each phrase is inserted once
+ * per word so typing a later word still finds it. Not thread-safe; callers hold a lock.
+ */
+final class SuggestionTrie {
+
+    static final int TOP_K = 10;
+
+    // keeps long headings from inflating the trie: only the first words start a key, and keys are capped
+    private static final int MAX_KEY_STARTS = 8;
+    private static final int MAX_KEY_LENGTH = 64;
+
+    private static final Comparator<Suggestion> ORDER = Comparator
+            .comparing(Suggestion::type)
+            .thenComparingInt((Suggestion s) -> s.text().length())
+            .thenComparing(Suggestion::text)
+            .thenComparingInt(Suggestion::documentId)
+            .thenComparingInt(s -> s.blockId() == null ? 0 : s.blockId());
+
+    record Suggestion(String text, SuggestionType type, int documentId, Integer blockId) {
+    }
+
+    private static final class Node {
+        private final Map<Character, Node> children = new HashMap<>();
+        private final List<Suggestion> terminals = new ArrayList<>(1);
+        private List<Suggestion> top = List.of();
+    }
+
+    private final Node root = new Node();
+
+    void add(Suggestion suggestion) {
+        for (String key : keys(suggestion.text())) {
+            List<Node> path = new ArrayList<>(key.length() + 1);
+            Node node = root;
+            path.add(node);
+            for (int i = 0; i < key.length(); i++) {
+                node = node.children.computeIfAbsent(key.charAt(i), c -> new Node());
+                path.add(node);
+            }
+            if (!node.terminals.contains(suggestion)) {
+                node.terminals.add(suggestion);
+            }
+            for (Node onPath : path) {
+                offer(onPath, suggestion);
+            }
+        }
+    }
+
+    void remove(Suggestion suggestion) {
+        for (String key : keys(suggestion.text())) {
+            List<Node> path = new ArrayList<>(key.length() + 1);
+            Node node = root;
+            path.add(node);
+            for (int i = 0; i < key.length() && node != null; i++) {
+                node = node.children.get(key.charAt(i));
+                path.add(node);
+            }
+            if (node == null) {
+                continue;
+            }
+            node.terminals.remove(suggestion);
+
+            // bottom-up so every node rebuilds its cache from already-updated children
+            for (int i = path.size() - 1; i >= 0; i--) {
+                Node onPath = path.get(i);
+                if (i > 0 && onPath.children.isEmpty() && onPath.terminals.isEmpty()) {
+                    path.get(i - 1).children.remove(key.charAt(i - 1));
+                } else if (onPath.top.contains(suggestion)) {
+                    onPath.top = recompute(onPath);
+                }
+            }
+        }
+    }
+
+    List<Suggestion> complete(String prefix, int limit) {
+        Node node = root;
+        for (int i = 0; i < prefix.length() && node != null; i++) {
+            node = node.children.get(prefix.charAt(i));
+        }
+        if (node == null || prefix.isEmpty()) {
+            return List.of();
+        }
+        return node.top.subList(0, Math.min(limit, node.top.size()));
+    }
+
+    /**
+     * Lowercases and collapses separators the same way keys are built; a trailing separator is
+     * kept so "plan " only matches whole words.
+     */
+    static String normalizePrefix(String raw) {
+        List<String> tokens = SearchTokenizer.tokenize(raw);
+        if (tokens.isEmpty()) {
+            return "";
+        }
+        String joined = String.join(" ", tokens);
+        int last = raw.codePointBefore(raw.length());
+        return Character.isLetterOrDigit(last) ? joined : joined + " ";
+    }
+
+    private static Set<String> keys(String text) {
+        List<String> tokens = SearchTokenizer.tokenize(text);
+        Set<String> keys = new LinkedHashSet<>();
+        for (int i = 0; i < Math.min(tokens.size(), MAX_KEY_STARTS); i++) {
+            String key = String.join(" ", tokens.subList(i, tokens.size()));
+            keys.add(key.length() > MAX_KEY_LENGTH ? key.substring(0, MAX_KEY_LENGTH) : key);
+        }
+        return keys;
+    }
+
+    private static void offer(Node node, Suggestion suggestion) {
+        List<Suggestion> top = node.top;
+        if (top.contains(suggestion)) {
+            return;
+        }
+        if (top.size() >= TOP_K && ORDER.compare(suggestion, top.get(top.size() - 1)) >= 0) {
+            return;
+        }
+        List<Suggestion> next = new ArrayList<>(top);
+        int index = Collections.binarySearch(next, suggestion, ORDER);
+        next.add(index < 0 ? -index - 1 : index, suggestion);
+        if (next.size() > TOP_K) {
+            next.remove(next.size() - 1);
+        }
+        node.top = next;
+    }
+
+    private static List<Suggestion> recompute(Node node) {
+        Set<Suggestion> candidates = new LinkedHashSet<>(node.terminals);
+        for (Node child : node.children.values()) {
+            candidates.addAll(child.top);
+        }
+        List<Suggestion> sorted = new ArrayList<>(candidates);
+        sorted.sort(ORDER);
+        return sorted.size() > TOP_K ? new ArrayList<>(sorted.subList(0, TOP_K)) : sorted;
+    }
+}
@@ -0,0 +1,426 @@
+package com.blockverse.app.search;
+
+import com.blockverse.app.enums.BlockType;
+import com.blockverse.app.exception.StaleSearchCursorException;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.IntPredicate;
+
+/**
+ * In-memory inverted index for one workspace. Document titles and block contents are separate
+ * fields ranked with BM25; postings are kept sorted by term so prefix queries are a range scan.
+ * Queries share the read lock and only serialize against writes.
+ */
+final class WorkspaceIndex {
+
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+
+    private static final Comparator<SearchHits.Hit> RANK_ORDER =
+            Comparator.comparingDouble(SearchHits.Hit::score).reversed().thenComparingInt(SearchHits.Hit::id);
+
+    private static final int SEGMENT_MAGIC = 0x42565349;
+    private static final int SEGMENT_FORMAT = 1;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final FieldIndex titles = new FieldIndex();
+    private final FieldIndex blocks = new FieldIndex();
+    private final Map<Integer, Boolean> activeDocuments = new HashMap<>();
+    private final Map<Integer, BlockMeta> blockMeta = new HashMap<>();
+    private final Map<Integer, Set<Integer>> blocksByDocument = new HashMap<>();
+
+    private record BlockMeta(int documentId, BlockType type) {
+    }
+
+    private record Page(List<SearchHits.Hit> hits, int total, boolean more) {
+
+        SearchCursor.Position next() {
+            return SearchCursor.Position.after(hits.isEmpty() ? null : hits.get(hits.size() - 1), more);
+        }
+    }
+
+    void upsertDocument(int documentId, String title, boolean active) {
+        lock.writeLock().lock();
+        try {
+            activeDocuments.put(documentId, active);
+            titles.put(documentId, SearchTokenizer.tokenize(title));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void removeDocument(int documentId) {
+        lock.writeLock().lock();
+        try {
+            activeDocuments.remove(documentId);
+            titles.remove(documentId);
+            dropBlocksOf(documentId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void upsertBlock(int blockId, int documentId, BlockType type, String content, boolean deleted) {
+        lock.writeLock().lock();
+        try {
+            dropBlock(blockId);
+            // image blocks hold a storage key rather than text
+            if (deleted || type == BlockType.IMAGE) {
+                return;
+            }
+            List<String> tokens = SearchTokenizer.tokenize(content);
+            if (tokens.isEmpty()) {
+                return;
+            }
+            blockMeta.put(blockId, new BlockMeta(documentId, type));
+            blocksByDocument.computeIfAbsent(documentId, id -> new HashSet<>()).add(blockId);
+            blocks.put(blockId, tokens);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void removeBlocksOf(int documentId) {
+        lock.writeLock().lock();
+        try {
+            dropBlocksOf(documentId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    Set<Integer> documentIds() {
+        lock.readLock().lock();
+        try {
+            return new HashSet<>(activeDocuments.keySet());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    void clear() {
+        lock.writeLock().lock();
+        try {
+            titles.clear();
+            blocks.clear();
+            activeDocuments.clear();
+            blockMeta.clear();
+            blocksByDocument.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    SearchHits search(SearchQuery query, SearchFilter filter, SearchCursor cursor, int limit) {
+        if (query.isEmpty()) {
+            return SearchHits.empty();
+        }
+
+        lock.readLock().lock();
+        try {
+            long scope = SearchCursor.scopeOf(query, filter);
+            if (!cursor.isValidFor(scope)) {
+                throw new StaleSearchCursorException("This cursor belongs to a different search; start again from the first page");
+            }
+            Page documentPage = titles.rank(query,
+                    id -> isActiveDocument(id) && filter.matchesDocument(id),
+                    cursor.documents(), limit);
+            Page blockPage = blocks.rank(query, blockId -> {
+                BlockMeta meta = blockMeta.get(blockId);
+                return meta != null
+                        && isActiveDocument(meta.documentId())
+                        && filter.matchesBlock(meta.documentId(), meta.type());
+            }, cursor.blocks(), limit);
+
+            SearchCursor next = documentPage.more() || blockPage.more()
+                    ? new SearchCursor(documentPage.next(), blockPage.next(), scope)
+                    : null;
+            return new SearchHits(
+                    documentPage.hits(), documentPage.total(),
+                    blockPage.hits(), blockPage.total(),
+                    next
+            );
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Writes the term frequencies of every entry. Postings are derived data and are rebuilt from
+     * this on load.
+     */
+    void writeTo(DataOutputStream out, long flushedAt) throws IOException {
+        lock.readLock().lock();
+        try {
+            out.writeInt(SEGMENT_MAGIC);
+            out.writeInt(SEGMENT_FORMAT);
+            out.writeLong(flushedAt);
+
+            out.writeInt(activeDocuments.size());
+            for (Map.Entry<Integer, Boolean> document : activeDocuments.entrySet()) {
+                out.writeInt(document.getKey());
+                out.writeBoolean(document.getValue());
+                titles.writeEntry(out, document.getKey());
+            }
+
+            out.writeInt(blockMeta.size());
+            for (Map.Entry<Integer, BlockMeta> block : blockMeta.entrySet()) {
+                out.writeInt(block.getKey());
+                out.writeInt(block.getValue().documentId());
+                writeString(out, block.getValue().type().name());
+                blocks.writeEntry(out, block.getKey());
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Replaces the contents of this index with a segment written by {@link #writeTo} and returns
+     * the flush timestamp recorded in it.
+     */
+    long readFrom(ByteBuffer buffer) throws IOException {
+        if (buffer.getInt() != SEGMENT_MAGIC || buffer.getInt() != SEGMENT_FORMAT) {
+            throw new IOException("Unrecognised search segment");
+        }
+        long flushedAt = buffer.getLong();
+
+        lock.writeLock().lock();
+        try {
+            clear();
+
+            int documentCount = buffer.getInt();
+            for (int i = 0; i < documentCount; i++) {
+                int documentId = buffer.getInt();
+                activeDocuments.put(documentId, buffer.get() != 0);
+                titles.readEntry(buffer, documentId);
+            }
+
+            int blockCount = buffer.getInt();
+            for (int i = 0; i < blockCount; i++) {
+                int blockId = buffer.getInt();
+                int documentId = buffer.getInt();
+                BlockType type = BlockType.valueOf(readString(buffer));
+                blockMeta.put(blockId, new BlockMeta(documentId, type));
+                blocksByDocument.computeIfAbsent(documentId, id -> new HashSet<>()).add(blockId);
+                blocks.readEntry(buffer, blockId);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        return flushedAt;
+    }
+
+    private boolean isActiveDocument(int documentId) {
+        return Boolean.TRUE.equals(activeDocuments.get(documentId));
+    }
+
+    private void dropBlock(int blockId) {
+        BlockMeta meta = blockMeta.remove(blockId);
+        if (meta != null) {
+            Set<Integer> siblings = blocksByDocument.get(meta.documentId());
+            if (siblings != null) {
+                siblings.remove(blockId);
+                if (siblings.isEmpty()) {
+                    blocksByDocument.remove(meta.documentId());
+                }
+            }
+        }
+        blocks.remove(blockId);
+    }
+
+    private void dropBlocksOf(int documentId) {
+        Set<Integer> owned = blocksByDocument.remove(documentId);
+        if (owned == null) {
+            return;
+        }
+        for (int blockId : owned) {
+            blockMeta.remove(blockId);
+            blocks.remove(blockId);
+        }
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.getInt()];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * One indexed field: term -> (id -> term frequency), plus the forward map needed to unindex
+     * an entry and the lengths BM25 normalizes by.
+     */
+    private static final class FieldIndex {
+
+        private final NavigableMap<String, Map<Integer, Integer>> postings = new TreeMap<>();
+        private final Map<Integer, Map<String, Integer>> forward = new HashMap<>();
+        private final Map<Integer, Integer> lengths = new HashMap<>();
+        private long totalLength;
+
+        void put(int id, List<String> tokens) {
+            remove(id);
+            if (tokens.isEmpty()) {
+                return;
+            }
+            Map<String, Integer> frequencies = new HashMap<>();
+            for (String token : tokens) {
+                frequencies.merge(token, 1, Integer::sum);
+            }
+            index(id, frequencies, tokens.size());
+        }
+
+        void remove(int id) {
+            Map<String, Integer> frequencies = forward.remove(id);
+            if (frequencies == null) {
+                return;
+            }
+            int length = lengths.remove(id);
+            totalLength -= length;
+            for (String term : frequencies.keySet()) {
+                Map<Integer, Integer> posting = postings.get(term);
+                posting.remove(id);
+                if (posting.isEmpty()) {
+                    postings.remove(term);
+                }
+            }
+        }
+
+        void clear() {
+            postings.clear();
+            forward.clear();
+            lengths.clear();
+            totalLength = 0;
+        }
+
+        Page rank(SearchQuery query, IntPredicate visible, SearchCursor.Position after, int limit) {
+            if (forward.isEmpty()) {
+                return new Page(List.of(), 0, false);
+            }
+            double avgLength = (double) totalLength / forward.size();
+
+            // every term and prefix is required; scores add up across them
+            Map<Integer, Double> scores = null;
+            for (String term : query.getTerms()) {
+                Map<Integer, Integer> posting = postings.get(term);
+                scores = intersect(scores, score(posting == null ? List.of() : List.of(posting), avgLength, visible));
+                if (scores.isEmpty()) {
+                    return new Page(List.of(), 0, false);
+                }
+            }
+            for (String prefix : query.getPrefixes()) {
+                Collection<Map<Integer, Integer>> matching =
+                        postings.subMap(prefix, true, prefix + Character.MAX_VALUE, false).values();
+                scores = intersect(scores, score(matching, avgLength, visible));
+                if (scores.isEmpty()) {
+                    return new Page(List.of(), 0, false);
+                }
+            }
+            for (String term : query.getExcluded()) {
+                Map<Integer, Integer> posting = postings.get(term);
+                if (posting != null) {
+                    scores.keySet().removeAll(posting.keySet());
+                }
+            }
+            if (after.exhausted()) {
+                return new Page(List.of(), scores.size(), false);
+            }
+
+            // bounded heap keeps selection at O(n log limit) however broad the keyword is;
+            // one extra slot tells whether another page exists
+            PriorityQueue<SearchHits.Hit> top = new PriorityQueue<>(limit + 2, RANK_ORDER.reversed());
+            for (Map.Entry<Integer, Double> entry : scores.entrySet()) {
+                SearchHits.Hit hit = new SearchHits.Hit(entry.getKey(), entry.getValue());
+                if (!after.precedes(hit)) {
+                    continue;
+                }
+                top.add(hit);
+                if (top.size() > limit + 1) {
+                    top.poll();
+                }
+            }
+
+            List<SearchHits.Hit> hits = new ArrayList<>(top);
+            hits.sort(RANK_ORDER);
+            boolean more = hits.size() > limit;
+            return new Page(more ? List.copyOf(hits.subList(0, limit)) : hits, scores.size(), more);
+        }
+
+        private Map<Integer, Double> score(Collection<Map<Integer, Integer>> matching, double avgLength,
+                                           IntPredicate visible) {
+            Map<Integer, Double> scores = new HashMap<>();
+            int entries = forward.size();
+            for (Map<Integer, Integer> posting : matching) {
+                double idf = Math.log(1 + (entries - posting.size() + 0.5) / (posting.size() + 0.5));
+                posting.forEach((id, tf) -> {
+                    if (!visible.test(id)) {
+                        return;
+                    }
+                    double norm = tf + K1 * (1 - B + B * lengths.get(id) / avgLength);
+                    scores.merge(id, idf * tf * (K1 + 1) / norm, Double::sum);
+                });
+            }
+            return scores;
+        }
+
+        private static Map<Integer, Double> intersect(Map<Integer, Double> acc, Map<Integer, Double> next) {
+            if (acc == null) {
+                return next;
+            }
+            acc.keySet().retainAll(next.keySet());
+            acc.replaceAll((id, score) -> score + next.get(id));
+            return acc;
+        }
+
+        void writeEntry(DataOutputStream out, int id) throws IOException {
+            Map<String, Integer> frequencies = forward.getOrDefault(id, Map.of());
+            out.writeInt(lengths.getOrDefault(id, 0));
+            out.writeInt(frequencies.size());
+            for (Map.Entry<String, Integer> frequency : frequencies.entrySet()) {
+                writeString(out, frequency.getKey());
+                out.writeInt(frequency.getValue());
+            }
+        }
+
+        void readEntry(ByteBuffer buffer, int id) {
+            int length = buffer.getInt();
+            int termCount = buffer.getInt();
+            if (termCount == 0) {
+                return;
+            }
+            Map<String, Integer> frequencies = new HashMap<>(termCount * 2);
+            for (int i = 0; i < termCount; i++) {
+                frequencies.put(readString(buffer), buffer.getInt());
+            }
+            index(id, frequencies, length);
+        }
+
+        private void index(int id, Map<String, Integer> frequencies, int length) {
+            forward.put(id, frequencies);
+            lengths.put(id, length);
+            totalLength += length;
+            frequencies.forEach((term, tf) -> postings.computeIfAbsent(term, t -> new HashMap<>()).put(id, tf));
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package com.blockverse.app.search;
+
+import com.blockverse.app.enums.BlockType;
+import com.blockverse.app.enums.SuggestionType;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Suggestion state for one workspace: document titles and HEADING1/HEADING2 blocks. Headings of
+ * archived or trashed documents are remembered but kept out of the trie, so restoring a document
+ * brings them back without a database read.
+ */
+final class WorkspaceSuggestions {
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final SuggestionTrie trie = new SuggestionTrie();
+    private final Map<Integer, DocumentEntry> documents = new HashMap<>();
+
+    private static final class DocumentEntry {
+        private String title;
+        // unknown documents are assumed active until their own event says otherwise
+        private boolean active = true;
+        private final Map<Integer, String> headings = new HashMap<>();
+    }
+
+    static boolean isHeading(BlockType type) {
+        return type == BlockType.HEADING1 || type == BlockType.HEADING2;
+    }
+
+    void upsertDocument(int documentId, String title, boolean active) {
+        lock.writeLock().lock();
+        try {
+            DocumentEntry entry = documents.computeIfAbsent(documentId, id -> new DocumentEntry());
+            boolean wasActive = entry.active;
+            if (wasActive && hasTitle(entry)) {
+                trie.remove(title(documentId, entry.title));
+            }
+            if (wasActive && !active) {
+                entry.headings.forEach((blockId, text) -> trie.remove(heading(documentId, blockId, text)));
+            }
+
+            entry.title = title;
+            entry.active = active;
+
+            if (active && hasTitle(entry)) {
+                trie.add(title(documentId, entry.title));
+            }
+            // a rename leaves headings where they are; only a state change moves them
+            if (active && !wasActive) {
+                entry.headings.forEach((blockId, text) -> trie.add(heading(documentId, blockId, text)));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void removeDocument(int documentId) {
+        lock.writeLock().lock();
+        try {
+            DocumentEntry entry = documents.remove(documentId);
+            if (entry != null && entry.active) {
+                if (hasTitle(entry)) {
+                    trie.remove(title(documentId, entry.title));
+                }
+                entry.headings.forEach((blockId, text) -> trie.remove(heading(documentId, blockId, text)));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void upsertBlock(int blockId, int documentId, BlockType type, String content, boolean deleted) {
+        lock.writeLock().lock();
+        try {
+            DocumentEntry entry = documents.computeIfAbsent(documentId, id -> new DocumentEntry());
+            String previous = entry.headings.remove(blockId);
+            if (previous != null && entry.active) {
+                trie.remove(heading(documentId, blockId, previous));
+            }
+            if (deleted || !isHeading(type) || content == null || content.isBlank()) {
+                return;
+            }
+            String text = content.strip();
+            entry.headings.put(blockId, text);
+            if (entry.active) {
+                trie.add(heading(documentId, blockId, text));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    List<SuggestionTrie.Suggestion> complete(String prefix, int limit) {
+        String normalized = SuggestionTrie.normalizePrefix(prefix);
+        lock.readLock().lock();
+        try {
+            return List.copyOf(trie.complete(normalized, limit));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static boolean hasTitle(DocumentEntry entry) {
+        return entry.title != null && !entry.title.isBlank();
+    }
+
+    private static SuggestionTrie.Suggestion title(int documentId, String title) {
+        return new SuggestionTrie.Suggestion(title.strip(), SuggestionType.DOCUMENT, documentId, null);
+    }
+
+    private static SuggestionTrie.Suggestion heading(int documentId, int blockId, String text) {
+        return new SuggestionTrie.Suggestion(text, SuggestionType.HEADING, documentId, blockId);
+    }
+}
@@ -0,0 +1,50 @@
+package com.blockverse.app.security;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessageDeliveryException;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.messaging.support.MessageHeaderAccessor;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.stereotype.Component;
+
+/**
+ * Authenticates STOMP sessions from the {@code Authorization: Bearer <jwt>} header of the CONNECT
+ * frame, since browsers cannot set headers on the WebSocket handshake. The user becomes the
+ * session principal for every later frame; a CONNECT with a bad token is refused.
+ */
+@Component
+@RequiredArgsConstructor
+public class StompAuthChannelInterceptor implements ChannelInterceptor {
+
+    private static final String AUTHORIZATION = "Authorization";
+    private static final String BEARER = "Bearer ";
+
+    private final JwtUtil jwtUtil;
+    private final UserDetailsService userDetailsService;
+
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        StompHeaderAccessor accessor = MessageHeaderAccessor.getAccessor(message, StompHeaderAccessor.class);
+        if (accessor == null || accessor.getCommand() != StompCommand.CONNECT) {
+            return message;
+        }
+        String header = accessor.getFirstNativeHeader(AUTHORIZATION);
+        if (header == null || !header.startsWith(BEARER)) {
+            return message;
+        }
+
+        String token = header.substring(BEARER.length());
+        if (!jwtUtil.validateToken(token)) {
+            throw new MessageDeliveryException("Invalid access token");
+        }
+        UserDetails user = userDetailsService.loadUserByUsername(jwtUtil.getEmailFromToken(token));
+        accessor.setUser(new UsernamePasswordAuthenticationToken(user, null, user.getAuthorities()));
+        return message;
+    }
+}
@@ -34,7 +34,7 @@ public class WebSecurityConfig {
                 .sessionManagement(sessionConfig->
                         sessionConfig.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
                 .authorizeHttpRequests(auth-> auth
-                .requestMatchers("/public/**","/v1/auth/**", "/ws/**", "/share/**").permitAll()
+                .requestMatchers("/public/**","/v1/auth/**", "/ws/**", "/ws-native", "/share/**").permitAll()
                                 .anyRequest().authenticated())
                 .addFilterBefore(jwtAuthFilter, UsernamePasswordAuthenticationFilter.class);
 
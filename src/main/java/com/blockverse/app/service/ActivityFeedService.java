@@ -35,7 +35,7 @@ public class ActivityFeedService {
         WorkSpace workSpace = workSpaceRepo.findByIdAndDeletedAtIsNull(workspaceId)
                 .orElseThrow(() -> new WorkSpaceNotFoundException("Workspace not found"));
         
-        workSpaceMemberRepo.findByUserAndWorkSpaceAndDeletedAtIsNull(user, workSpace)
+        workSpaceMemberRepo.findActiveRole(user.getId(), workSpace.getId())
                 .orElseThrow(() -> new InsufficientPermissionException("User is not a member of the workspace"));
         
         int page = Math.max(0, request.getPage());
@@ -0,0 +1,123 @@
+package com.blockverse.app.service;
+
+import com.blockverse.app.dto.upload.UploadAcceptedResponse;
+import com.blockverse.app.dto.upload.UploadStatusEvent;
+import com.blockverse.app.enums.UploadStatus;
+import com.blockverse.app.exception.S3FileUploadException;
+import com.blockverse.app.exception.TooManyRequestsException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+import software.amazon.awssdk.core.async.AsyncRequestBody;
+import software.amazon.awssdk.services.s3.S3AsyncClient;
+import software.amazon.awssdk.services.s3.model.PutObjectRequest;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Hands uploads to the async S3 client so the request thread returns as soon as the file is
+ * staged. Completion is pushed to {@code /topic/uploads.{userId}}; a per-node semaphore caps how
+ * many uploads (and staged files) are in flight at once.
+ */
+@Service
+public class AsyncUploadService {
+
+    private final S3AsyncClient s3AsyncClient;
+    private final S3Service s3Service;
+    private final StoredFileService storedFileService;
+    private final SocketBroadcastService socketBroadcastService;
+    private final String bucketName;
+    private final Semaphore slots;
+
+    public AsyncUploadService(S3AsyncClient s3AsyncClient,
+                              S3Service s3Service,
+                              StoredFileService storedFileService,
+                              SocketBroadcastService socketBroadcastService,
+                              @Value("${aws.s3.bucket}") String bucketName,
+                              @Value("${app.s3.async.max-concurrent-uploads:8}") int maxConcurrentUploads) {
+        this.s3AsyncClient = s3AsyncClient;
+        this.s3Service = s3Service;
+        this.storedFileService = storedFileService;
+        this.socketBroadcastService = socketBroadcastService;
+        this.bucketName = bucketName;
+        this.slots = new Semaphore(maxConcurrentUploads);
+    }
+
+    public UploadAcceptedResponse startUpload(int userId, MultipartFile file) {
+        s3Service.checkUploadSize(file);
+        if (!slots.tryAcquire()) {
+            throw new TooManyRequestsException("Too many uploads in progress, try again shortly");
+        }
+
+        String uploadId = UUID.randomUUID().toString();
+        Path staged = null;
+        String hash;
+        Optional<String> existing;
+        try {
+            // the container deletes its multipart temp file when the request ends
+            staged = Files.createTempFile("upload-" + uploadId, ".part");
+            file.transferTo(staged);
+            try (InputStream in = Files.newInputStream(staged)) {
+                hash = StoredFileService.hash(in);
+            }
+            existing = storedFileService.findExisting(userId, hash);
+        } catch (IOException | RuntimeException e) {
+            finish(staged);
+            throw new S3FileUploadException(e);
+        }
+
+        if (existing.isPresent()) {
+            finish(staged);
+            publish(userId, new UploadStatusEvent(uploadId, existing.get(), UploadStatus.COMPLETED, null));
+            return new UploadAcceptedResponse(uploadId, existing.get());
+        }
+
+        String key = StoredFileService.keyFor(userId, hash);
+        PutObjectRequest putRequest = PutObjectRequest.builder()
+                .bucket(bucketName)
+                .key(key)
+                .contentType(file.getContentType())
+                .build();
+
+        // the multipart file is gone by the time the put completes
+        long size = file.getSize();
+        String contentType = file.getContentType();
+        Path body = staged;
+        try {
+            s3AsyncClient.putObject(putRequest, AsyncRequestBody.fromFile(body))
+                    .thenApply(response -> storedFileService.register(userId, hash, key, size, contentType))
+                    .whenComplete((storedKey, error) -> {
+                        finish(body);
+                        publish(userId, error == null
+                                ? new UploadStatusEvent(uploadId, storedKey, UploadStatus.COMPLETED, null)
+                                : new UploadStatusEvent(uploadId, key, UploadStatus.FAILED, "Failed to upload file to S3"));
+                    });
+        } catch (RuntimeException e) {
+            finish(body);
+            throw new S3FileUploadException(e);
+        }
+        return new UploadAcceptedResponse(uploadId, key);
+    }
+
+    private void publish(int userId, UploadStatusEvent event) {
+        socketBroadcastService.send("/topic/uploads." + userId, event);
+    }
+
+    private void finish(Path staged) {
+        slots.release();
+        if (staged == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(staged);
+        } catch (IOException ignored) {
+            // the OS temp directory is cleaned up eventually
+        }
+    }
+}
@@ -4,11 +4,13 @@ import com.blockverse.app.dto.block.*;
 import com.blockverse.app.dto.document.DocumentEvent;
 import com.blockverse.app.entity.*;
 import com.blockverse.app.enums.*;
+import com.blockverse.app.event.BlockChangedEvent;
 import com.blockverse.app.exception.*;
 import com.blockverse.app.mapper.BlockMapper;
 import com.blockverse.app.repo.*;
 import com.blockverse.app.security.SecurityUtil;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -18,6 +20,7 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 
 import static java.util.stream.Collectors.toList;
 
@@ -35,6 +38,8 @@ public class BlockService {
     private final DocumentSocketPublisher documentSocketPublisher;
     private final BlockMapper blockMapper;
     private final RateLimiterService rateLimiterService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final StoredFileService storedFileService;
 
     private Document getDocumentOrThrow(int documentId) {
         return documentRepo.findById(documentId)
@@ -42,7 +47,7 @@ public class BlockService {
     }
 
     private void getMembershipOrThrow(User user, WorkSpace workSpace) {
-        workSpaceMemberRepo.findByUserAndWorkSpaceAndDeletedAtIsNull(user, workSpace)
+        workSpaceMemberRepo.findActiveRole(user.getId(), workSpace.getId())
                 .orElseThrow(() -> new NotWorkSpaceMemberException("User is not a member of this workspace"));
     }
 
@@ -141,6 +146,7 @@ public class BlockService {
             if(request.getContent() == null || request.getContent().isBlank()){
                 throw new BlockLevelException("Image block must have content");
             }
+            storedFileService.checkAttachable(currentUser.getId(), workSpace.getId(), request.getContent());
             block.setContent(request.getContent());
         }
         else{
@@ -157,6 +163,8 @@ public class BlockService {
         block.setPosition(position);
 
         Block savedBlock = blockRepo.save(block);
+        storedFileService.updateReference(null, null, savedBlock.getType(), savedBlock.getContent());
+        eventPublisher.publishEvent(BlockChangedEvent.of(document, savedBlock));
 
         auditLogService.auditLog(document.getWorkSpace().getId(),
                 currentUser.getId(),
@@ -247,10 +255,19 @@ public class BlockService {
         checkConflict(document, request.getDocumentVersion());
 
         String oldContent = block.getContent();
+        BlockType oldType = block.getType();
+        Long previousVersion = document.getVersion();
+
+        if (request.getType() == BlockType.IMAGE
+                && !(oldType == BlockType.IMAGE && Objects.equals(oldContent, request.getContent()))) {
+            storedFileService.checkAttachable(currentUser.getId(), workSpace.getId(), request.getContent());
+        }
 
         block.setContent(request.getContent());
         block.setType(request.getType());
         Block updatedBlock = blockRepo.save(block);
+        storedFileService.updateReference(oldType, oldContent, updatedBlock.getType(), updatedBlock.getContent());
+        eventPublisher.publishEvent(BlockChangedEvent.of(document, updatedBlock));
 
         logChange(document,
                 updatedBlock,
@@ -273,13 +290,30 @@ public class BlockService {
 
         BlockResponse blockResponse = blockMapper.toBlockResponse(updatedBlock);
 
+        BlockDelta.BlockDeltaBuilder delta = BlockDelta.builder()
+                .blockId(updatedBlock.getId())
+                .previousVersion(previousVersion)
+                .version(document.getVersion());
+        if (oldType != updatedBlock.getType()) {
+            delta.type(updatedBlock.getType());
+        }
+        boolean contentChanged = !Objects.equals(oldContent, updatedBlock.getContent());
+        if (updatedBlock.getType() == BlockType.IMAGE) {
+            if (contentChanged || oldType != BlockType.IMAGE) {
+                delta.fileUrl(blockResponse.getFileUrl());
+            }
+        } else if (contentChanged || oldType == BlockType.IMAGE) {
+            // clients never held the storage key of an image, so patch from empty text
+            delta.contentPatch(TextPatch.between(oldType == BlockType.IMAGE ? null : oldContent, updatedBlock.getContent()));
+        }
+
         documentSocketPublisher.broadcast(
                 document.getId(),
                 new DocumentEvent(
                         document.getId(),
                         AuditEntityType.BLOCK,
                         BlockOperationType.UPDATE,
-                        blockResponse
+                        delta.build()
                 )
         );
 
@@ -304,6 +338,7 @@ public class BlockService {
 
         String oldContent = block.getContent();
         BigInteger oldPosition = block.getPosition();
+        Long previousVersion = document.getVersion();
 
         logChange(document,
                 block,
@@ -324,18 +359,35 @@ public class BlockService {
                 "{\"title\": "+ document.getTitle() + "}"
         );
 
+        block.setDeleted(true);
+        blockRepo.save(block);
+        eventPublisher.publishEvent(BlockChangedEvent.of(document, block));
+
         documentSocketPublisher.broadcast(
                 document.getId(),
                 new DocumentEvent(
                         document.getId(),
                         AuditEntityType.BLOCK,
                         BlockOperationType.DELETE,
-                        blockMapper.toBlockResponse(block)
+                        BlockDelta.builder()
+                                .blockId(block.getId())
+                                .previousVersion(previousVersion)
+                                .version(document.getVersion())
+                                .deleted(true)
+                                .build()
                 )
         );
+    }
 
-        block.setDeleted(true);
-        blockRepo.save(block);
+    public BlockResponse getBlock(int blockId){
+        User user = securityUtil.getLoggedInUser();
+        Block block = getBlockOrThrow(blockId);
+        if(block.isDeleted()){
+            throw new BlockNotFoundException("Block not found");
+        }
+        getMembershipOrThrow(user, block.getDocument().getWorkSpace());
+
+        return blockMapper.toBlockResponse(block);
     }
 
     public List<BlockResponse> getChildren(int parentId){
@@ -374,6 +426,7 @@ public class BlockService {
 
         Integer oldParentId = block.getParent() != null ? block.getParent().getId() : null;
         BigInteger oldPosition = block.getPosition();
+        Long previousVersion = document.getVersion();
 
         block.setParent(newParent);
         block.setPosition(request.getNewPosition());
@@ -400,13 +453,23 @@ public class BlockService {
         Block savedBlock = blockRepo.save(block);
         BlockResponse blockResponse = blockMapper.toBlockResponse(savedBlock);
 
+        Integer newParentId = newParent != null ? newParent.getId() : null;
+        boolean parentChanged = !Objects.equals(oldParentId, newParentId);
+
         documentSocketPublisher.broadcast(
                 document.getId(),
                 new DocumentEvent(
                         document.getId(),
                         AuditEntityType.BLOCK,
                         BlockOperationType.MOVE,
-                        blockResponse
+                        BlockDelta.builder()
+                                .blockId(savedBlock.getId())
+                                .previousVersion(previousVersion)
+                                .version(document.getVersion())
+                                .position(savedBlock.getPosition())
+                                .parentChanged(parentChanged ? Boolean.TRUE : null)
+                                .parentId(parentChanged ? newParentId : null)
+                                .build()
                 )
         );
 
@@ -436,6 +499,7 @@ public class BlockService {
             
             if(block == null) continue;
             
+            String contentBefore = block.getContent();
             switch (log.getOperationType()){
                 
                 case CREATE :
@@ -466,6 +530,8 @@ public class BlockService {
                     break;
             }
             blockRepo.save(block);
+            storedFileService.updateReference(block.getType(), contentBefore, block.getType(), block.getContent());
+            eventPublisher.publishEvent(BlockChangedEvent.of(document, block));
         }
 
         auditLogService.auditLog(document.getWorkSpace().getId(),
@@ -0,0 +1,141 @@
+package com.blockverse.app.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs WebSocket broadcasts off the request thread, and only after the surrounding transaction
+ * commits so rolled-back changes are never announced. Work is striped by key onto single-threaded
+ * lanes, which keeps events of one document in commit order. When a lane's queue is full the
+ * overflow policy either blocks the committing thread until the lane has room (backpressure that
+ * keeps the order) or drops the task; a dropped task's drop callback runs instead, so the publisher
+ * can still advance its sequence and subscribers see the gap.
+ */
+@Component
+public class BroadcastDispatcher {
+
+    private final ThreadPoolExecutor[] lanes;
+    private final Counter dispatched;
+    private final Counter dropped;
+    private final Counter blocked;
+
+    public BroadcastDispatcher(MeterRegistry meterRegistry,
+                               @Value("${app.websocket.dispatch.threads:2}") int threads,
+                               @Value("${app.websocket.dispatch.queue-capacity:1000}") int queueCapacity,
+                               @Value("${app.websocket.dispatch.overflow:block}") String overflow,
+                               @Value("${app.websocket.dispatch.block-timeout-ms:5000}") long blockTimeoutMs) {
+        this.dispatched = Counter.builder("websocket.dispatch.submitted")
+                .description("Broadcasts handed to the dispatch executor")
+                .register(meterRegistry);
+        this.dropped = Counter.builder("websocket.dispatch.dropped")
+                .description("Broadcasts dropped because the dispatch queue was full")
+                .register(meterRegistry);
+        this.blocked = Counter.builder("websocket.dispatch.blocked")
+                .description("Broadcasts that waited on the committing thread because the dispatch queue was full")
+                .register(meterRegistry);
+
+        // never run on the caller: that would overtake the tasks already queued on the lane
+        RejectedExecutionHandler rejection = "drop".equals(overflow)
+                ? (task, executor) -> drop(task)
+                : (task, executor) -> {
+                    blocked.increment();
+                    if (executor.isShutdown() || !enqueue(executor, task, blockTimeoutMs)) {
+                        drop(task);
+                    }
+                };
+
+        AtomicInteger threadIndex = new AtomicInteger();
+        this.lanes = new ThreadPoolExecutor[Math.max(1, threads)];
+        for (int i = 0; i < lanes.length; i++) {
+            lanes[i] = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                    new ArrayBlockingQueue<>(queueCapacity),
+                    task -> {
+                        Thread thread = new Thread(task, "ws-dispatch-" + threadIndex.incrementAndGet());
+                        thread.setDaemon(true);
+                        return thread;
+                    },
+                    rejection);
+        }
+
+        Gauge.builder("websocket.dispatch.queue.size", this, dispatcher -> dispatcher.queuedTasks())
+                .description("Broadcasts waiting in the dispatch queues")
+                .register(meterRegistry);
+    }
+
+    public void afterCommit(int key, Runnable task) {
+        afterCommit(key, task, () -> { });
+    }
+
+    /**
+     * @param onDropped run on the committing thread instead of {@code task} when the lane cannot
+     *                  take it
+     */
+    public void afterCommit(int key, Runnable task, Runnable onDropped) {
+        DispatchTask dispatchTask = new DispatchTask(task, onDropped);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    dispatch(key, dispatchTask);
+                }
+            });
+        } else {
+            dispatch(key, dispatchTask);
+        }
+    }
+
+    private void dispatch(int key, DispatchTask task) {
+        dispatched.increment();
+        lanes[Math.floorMod(key, lanes.length)].execute(task);
+    }
+
+    private static boolean enqueue(ThreadPoolExecutor executor, Runnable task, long timeoutMs) {
+        try {
+            return executor.getQueue().offer(task, timeoutMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private void drop(Runnable task) {
+        dropped.increment();
+        if (task instanceof DispatchTask dispatchTask) {
+            dispatchTask.onDropped().run();
+        }
+    }
+
+    private record DispatchTask(Runnable task, Runnable onDropped) implements Runnable {
+        @Override
+        public void run() {
+            task.run();
+        }
+    }
+
+    private double queuedTasks() {
+        int queued = 0;
+        for (ThreadPoolExecutor lane : lanes) {
+            queued += lane.getQueue().size();
+        }
+        return queued;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        for (ThreadPoolExecutor lane : lanes) {
+            lane.shutdown();
+        }
+    }
+}
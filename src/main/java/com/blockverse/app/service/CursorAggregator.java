@@ -0,0 +1,62 @@
+package com.blockverse.app.service;
+
+import com.blockverse.app.dto.activityFeed.CursorBatchEvent;
+import com.blockverse.app.dto.activityFeed.CursorEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps only the latest cursor per user and document, and broadcasts one batched frame per
+ * document on every tick instead of relaying each mouse move.
+ */
+@Service
+public class CursorAggregator {
+
+    private final SocketBroadcastService socketBroadcastService;
+    private final Counter messagesIn;
+    private final Counter messagesOut;
+
+    // documentId -> (userId -> latest cursor); inner maps are only touched inside compute/remove
+    private final Map<Integer, Map<Integer, CursorEvent>> pending = new ConcurrentHashMap<>();
+
+    public CursorAggregator(SocketBroadcastService socketBroadcastService, MeterRegistry meterRegistry) {
+        this.socketBroadcastService = socketBroadcastService;
+        this.messagesIn = Counter.builder("websocket.cursor.messages.in")
+                .description("Cursor events received from clients")
+                .register(meterRegistry);
+        this.messagesOut = Counter.builder("websocket.cursor.messages.out")
+                .description("Batched cursor frames broadcast to subscribers")
+                .register(meterRegistry);
+    }
+
+    public void submit(CursorEvent event) {
+        messagesIn.increment();
+        pending.compute(event.getDocumentId(), (documentId, cursors) -> {
+            Map<Integer, CursorEvent> latest = cursors != null ? cursors : new LinkedHashMap<>();
+            latest.put(event.getUserId(), event);
+            return latest;
+        });
+    }
+
+    @Scheduled(fixedRateString = "${app.websocket.cursor.flush-interval-ms:50}")
+    public void flush() {
+        for (Integer documentId : pending.keySet()) {
+            Map<Integer, CursorEvent> cursors = pending.remove(documentId);
+            if (cursors == null || cursors.isEmpty()) {
+                continue;
+            }
+            socketBroadcastService.send(
+                    "/topic/document." + documentId + ".cursor",
+                    new CursorBatchEvent(documentId, new ArrayList<>(cursors.values()))
+            );
+            messagesOut.increment();
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.blockverse.app.service;
+
+import com.blockverse.app.entity.Document;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Opaque keyset position in a workspace's document list, which runs newest first by creation
+ * time and then by id, so a page never repeats or skips documents created in between.
+ */
+public record DocumentCursor(LocalDateTime createdAt, int id) {
+
+    public static DocumentCursor after(Document document) {
+        return new DocumentCursor(document.getCreatedAt(), document.getId());
+    }
+
+    public static DocumentCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = raw.lastIndexOf('|');
+            if (separator < 0) {
+                throw new IllegalArgumentException();
+            }
+            return new DocumentCursor(LocalDateTime.parse(raw.substring(0, separator)),
+                    Integer.parseInt(raw.substring(separator + 1)));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid document cursor");
+        }
+    }
+
+    public String encode() {
+        String raw = createdAt + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
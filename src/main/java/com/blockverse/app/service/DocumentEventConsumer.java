@@ -0,0 +1,25 @@
+package com.blockverse.app.service;
+
+import com.blockverse.app.dto.DocumentReplayEvent;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Service;
+
+@Service
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "app.websocket.replay.relay", havingValue = "kafka")
+public class DocumentEventConsumer {
+
+    private final DocumentSocketPublisher documentSocketPublisher;
+
+    // Every node joins its own consumer group so each event reaches all nodes.
+    @KafkaListener(
+            topics = "${app.kafka.topic.document-event:document-event-topic}",
+            groupId = "#{'document-event-' + T(java.util.UUID).randomUUID()}",
+            properties = "auto.offset.reset=latest"
+    )
+    public void consume(DocumentReplayEvent event) {
+        documentSocketPublisher.recordRelayed(event);
+    }
+}
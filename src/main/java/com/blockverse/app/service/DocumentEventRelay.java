@@ -0,0 +1,60 @@
+package com.blockverse.app.service;
+
+import com.blockverse.app.dto.DocumentReplayEvent;
+import com.blockverse.app.dto.document.DocumentEvent;
+import com.blockverse.app.enums.AuditEntityType;
+import com.blockverse.app.enums.BlockOperationType;
+import com.blockverse.app.enums.DocumentOperationType;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.stereotype.Service;
+
+import java.util.UUID;
+
+/**
+ * {@link DocumentSocketPublisher} buffers the events it broadcast for replay. With
+ * {@code app.websocket.replay.relay=kafka} each broadcast event is also published keyed by
+ * document, so the other nodes buffer it too and any node can answer a replay.
+ */
+@Service
+@RequiredArgsConstructor
+public class DocumentEventRelay {
+
+    private final KafkaTemplate<String, Object> kafkaTemplate;
+
+    private final String nodeId = UUID.randomUUID().toString();
+
+    @Value("${app.websocket.replay.relay:local}")
+    private String replayRelay;
+
+    @Value("${app.kafka.topic.document-event:document-event-topic}")
+    private String documentEventTopic;
+
+    public void publish(DocumentEvent event) {
+        if (!"kafka".equals(replayRelay)) {
+            return;
+        }
+        kafkaTemplate.send(documentEventTopic, String.valueOf(event.getDocumentId()),
+                DocumentReplayEvent.builder()
+                        .originNodeId(nodeId)
+                        .documentId(event.getDocumentId())
+                        .seq(event.getSeq())
+                        .entityType(event.getEntityType())
+                        .action(event.getAction().name())
+                        .payload(event.getPayload())
+                        .build());
+    }
+
+    public boolean isOwn(DocumentReplayEvent event) {
+        return nodeId.equals(event.getOriginNodeId());
+    }
+
+    public DocumentEvent toEvent(DocumentReplayEvent relayed) {
+        Enum<?> action = relayed.getEntityType() == AuditEntityType.BLOCK
+                ? BlockOperationType.valueOf(relayed.getAction())
+                : DocumentOperationType.valueOf(relayed.getAction());
+        return new DocumentEvent(relayed.getDocumentId(), relayed.getEntityType(), action,
+                relayed.getPayload(), relayed.getSeq());
+    }
+}
@@ -0,0 +1,77 @@
+package com.blockverse.app.service;
+
+import com.blockverse.app.dto.document.DocumentPageResponse;
+import com.blockverse.app.event.DocumentChangedEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Short-lived cache of the first page of each workspace's document list, the page every sidebar
+ * load asks for. Any committed create, rename, archive, trash or restore in the workspace bumps
+ * its generation, which retires all of its cached pages at once. Other nodes' changes arrive
+ * through {@link com.blockverse.app.search.SearchChangeRelay}; without that relay a page can be
+ * stale for up to the TTL after another node's commit.
+ */
+@Service
+public class DocumentListCache {
+
+    private final long ttlMs;
+    private final Map<Key, Entry> entries;
+    private final Map<Integer, AtomicLong> generations = new ConcurrentHashMap<>();
+
+    private record Key(int workspaceId, int limit) {
+    }
+
+    private record Entry(long generation, long storedAt, DocumentPageResponse page) {
+    }
+
+    public DocumentListCache(@Value("${app.documents.list-cache.max-entries:1000}") int maxEntries,
+                             @Value("${app.documents.list-cache.ttl-ms:30000}") long ttlMs) {
+        this.ttlMs = ttlMs;
+        this.entries = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, Entry> eldest) {
+                return size() > maxEntries;
+            }
+        });
+    }
+
+    /**
+     * Read before loading the page and pass to {@link #putFirstPage}, so a change that commits
+     * while the page is being built leaves it already stale.
+     */
+    public long generation(int workspaceId) {
+        AtomicLong generation = generations.get(workspaceId);
+        return generation == null ? 0 : generation.get();
+    }
+
+    public DocumentPageResponse getFirstPage(int workspaceId, int limit) {
+        Key key = new Key(workspaceId, limit);
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.generation() != generation(workspaceId) || System.currentTimeMillis() - entry.storedAt() > ttlMs) {
+            entries.remove(key, entry);
+            return null;
+        }
+        return entry.page();
+    }
+
+    public void putFirstPage(int workspaceId, int limit, long generation, DocumentPageResponse page) {
+        entries.put(new Key(workspaceId, limit), new Entry(generation, System.currentTimeMillis(), page));
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onDocumentChanged(DocumentChangedEvent event) {
+        generations.computeIfAbsent(event.getWorkspaceId(), id -> new AtomicLong()).incrementAndGet();
+    }
+}
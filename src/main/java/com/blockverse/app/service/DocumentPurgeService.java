@@ -0,0 +1,308 @@
+package com.blockverse.app.service;
+
+import com.blockverse.app.dto.document.PurgeProgressResponse;
+import com.blockverse.app.entity.Document;
+import com.blockverse.app.enums.AuditActionType;
+import com.blockverse.app.enums.AuditEntityType;
+import com.blockverse.app.enums.BlockType;
+import com.blockverse.app.enums.PurgeState;
+import com.blockverse.app.event.DocumentPurgeRequestedEvent;
+import com.blockverse.app.event.FilesReleasedEvent;
+import com.blockverse.app.repo.AuditLogRepo;
+import com.blockverse.app.repo.BlockChangeLogRepo;
+import com.blockverse.app.repo.BlockRepo;
+import com.blockverse.app.repo.DocumentRepo;
+import com.blockverse.app.repo.DocumentShareRepo;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Permanently removes documents with set-based deletes in bounded chunks. Every chunk commits on
+ * its own, so a document with tens of thousands of blocks never holds one long transaction and is
+ * never walked entity by entity through the {@code Block.children} cascade. A purge runs under a
+ * lease on the document row, so two nodes never delete the same document at once.
+ */
+@Service
+public class DocumentPurgeService {
+
+    private static final long SHUTDOWN_WAIT_MS = 5_000;
+
+    private final DocumentRepo documentRepo;
+    private final BlockRepo blockRepo;
+    private final BlockChangeLogRepo blockChangeLogRepo;
+    private final DocumentShareRepo documentShareRepo;
+    private final AuditLogRepo auditLogRepo;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+    private final long leaseMs;
+    private final long retryBackoffMs;
+    private final long maxRetryBackoffMs;
+    private final Counter completed;
+    private final Counter failed;
+    private final Counter blocksDeleted;
+    private final Counter interrupted;
+
+    // one purge at a time keeps the delete load off foreground traffic
+    private final ExecutorService purger = Executors.newSingleThreadExecutor(task -> {
+        Thread thread = new Thread(task, "document-purge");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final String nodeId = UUID.randomUUID().toString();
+    private final AtomicInteger pending = new AtomicInteger();
+    // queued or running here; whatever is left at shutdown is recorded as failed
+    private final Set<Integer> inFlight = ConcurrentHashMap.newKeySet();
+
+    public DocumentPurgeService(DocumentRepo documentRepo,
+                                BlockRepo blockRepo,
+                                BlockChangeLogRepo blockChangeLogRepo,
+                                DocumentShareRepo documentShareRepo,
+                                AuditLogRepo auditLogRepo,
+                                ApplicationEventPublisher eventPublisher,
+                                TransactionTemplate transactionTemplate,
+                                MeterRegistry meterRegistry,
+                                @Value("${app.documents.purge.chunk-size:500}") int chunkSize,
+                                @Value("${app.documents.purge.lease-ms:600000}") long leaseMs,
+                                @Value("${app.documents.purge.retry-backoff-ms:300000}") long retryBackoffMs,
+                                @Value("${app.documents.purge.max-retry-backoff-ms:86400000}") long maxRetryBackoffMs) {
+        this.documentRepo = documentRepo;
+        this.blockRepo = blockRepo;
+        this.blockChangeLogRepo = blockChangeLogRepo;
+        this.documentShareRepo = documentShareRepo;
+        this.auditLogRepo = auditLogRepo;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = transactionTemplate;
+        this.chunkSize = chunkSize;
+        this.leaseMs = leaseMs;
+        this.retryBackoffMs = retryBackoffMs;
+        this.maxRetryBackoffMs = maxRetryBackoffMs;
+        this.completed = Counter.builder("documents.purge.completed")
+                .description("Documents permanently purged")
+                .register(meterRegistry);
+        this.failed = Counter.builder("documents.purge.failed")
+                .description("Purges that stopped part-way and left the document marked as purging")
+                .register(meterRegistry);
+        this.blocksDeleted = Counter.builder("documents.purge.blocks")
+                .description("Blocks removed by document purges")
+                .register(meterRegistry);
+        this.interrupted = Counter.builder("documents.purge.interrupted")
+                .description("Purges queued or running when the node shut down, left for the retention worker")
+                .register(meterRegistry);
+        Gauge.builder("documents.purge.pending", pending, AtomicInteger::get)
+                .description("Purges queued or running")
+                .register(meterRegistry);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onPurgeRequested(DocumentPurgeRequestedEvent event) {
+        enqueue(event.getDocumentId(), 0);
+    }
+
+    /**
+     * Queues a purge on the background thread, sleeping {@code chunkPauseMs} between block chunks
+     * so bulk callers can trade speed for a lighter load on the database.
+     */
+    public void enqueue(int documentId, long chunkPauseMs) {
+        if (!inFlight.add(documentId)) {
+            return;
+        }
+        pending.incrementAndGet();
+        try {
+            purger.execute(() -> {
+                try {
+                    purge(documentId, chunkPauseMs);
+                } finally {
+                    inFlight.remove(documentId);
+                    pending.decrementAndGet();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // shutting down; the document stays marked as purging, so the trash retention worker retries it
+            inFlight.remove(documentId);
+            pending.decrementAndGet();
+            interrupted.increment();
+        }
+    }
+
+    public int pendingPurges() {
+        return pending.get();
+    }
+
+    /**
+     * Takes the purge lease on the document for this node. False while another node holds an
+     * unexpired lease, in which case that node is purging it.
+     */
+    public boolean claim(int documentId) {
+        LocalDateTime now = LocalDateTime.now();
+        return documentRepo.claimPurge(documentId, nodeId, now, leaseCutoff(now)) > 0;
+    }
+
+    /**
+     * Leases taken before this have expired: their node died or stalled without releasing them.
+     */
+    public LocalDateTime leaseCutoff(LocalDateTime now) {
+        return now.minus(leaseMs, ChronoUnit.MILLIS);
+    }
+
+    /**
+     * Read from the document row, so it answers on every node and across restarts. Once the row
+     * is gone the purge is reported as completed from the audit entry of the permanent delete.
+     */
+    public Optional<PurgeProgressResponse> progressOf(int documentId) {
+        Optional<Document> document = documentRepo.findById(documentId);
+        if (document.isPresent()) {
+            return document.filter(Document::isPurging)
+                    .map(purging -> new PurgeProgressResponse(documentId,
+                            purging.getWorkSpace().getId(),
+                            purging.getPurgeState() == null ? PurgeState.QUEUED : purging.getPurgeState(),
+                            purging.getPurgeTotalBlocks(),
+                            purging.getPurgeDeletedBlocks()));
+        }
+        return auditLogRepo.findFirstByEntityTypeAndEntityIdAndActionTypeOrderByIdDesc(AuditEntityType.DOCUMENT,
+                        documentId, AuditActionType.DOCUMENT_PERMANENTLY_DELETED)
+                .map(entry -> new PurgeProgressResponse(documentId, entry.getWorkSpaceId(), PurgeState.COMPLETED, 0, 0));
+    }
+
+    /**
+     * Purges on the calling thread. Must not run inside a transaction, or the chunks would all
+     * commit together. Returns false if the purge failed part-way; rerunning it is safe.
+     */
+    public boolean purge(int documentId) {
+        return purge(documentId, 0);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        purger.shutdownNow();
+        try {
+            purger.awaitTermination(SHUTDOWN_WAIT_MS, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        List<Integer> unfinished = List.copyOf(inFlight);
+        if (!unfinished.isEmpty()) {
+            interrupted.increment(unfinished.size());
+            documentRepo.releasePurges(unfinished, nodeId, PurgeState.FAILED);
+        }
+    }
+
+    private boolean purge(int documentId, long chunkPauseMs) {
+        if (!claim(documentId)) {
+            // another node holds the lease and is purging it
+            return false;
+        }
+        long totalBlocks = 0;
+        long deletedBlocks = 0;
+        try {
+            totalBlocks = blockRepo.countByDocumentId(documentId);
+            report(documentId, PurgeState.RUNNING, totalBlocks, 0);
+
+            // change logs point at blocks, so they go first
+            int deleted;
+            do {
+                deleted = deleteChunk(() -> blockChangeLogRepo.findIdsByDocumentId(documentId, PageRequest.of(0, chunkSize)),
+                        blockChangeLogRepo::deleteByIdIn);
+            } while (deleted > 0);
+
+            List<String> imageKeys = blockRepo.findContentByDocumentIdAndType(documentId, BlockType.IMAGE);
+            do {
+                deleted = deleteChunk(() -> blockRepo.findIdsByDocumentId(documentId, PageRequest.of(0, chunkSize)),
+                        ids -> {
+                            blockRepo.detachChildren(ids);
+                            blockRepo.deleteByIdIn(ids);
+                        });
+                if (deleted > 0) {
+                    deletedBlocks += deleted;
+                    blocksDeleted.increment(deleted);
+                    // also renews the lease, so it is skipped for the final empty chunk
+                    report(documentId, PurgeState.RUNNING, totalBlocks, deletedBlocks);
+                    pause(chunkPauseMs);
+                }
+            } while (deleted > 0);
+
+            transactionTemplate.executeWithoutResult(status -> {
+                documentShareRepo.deleteByDocumentId(documentId);
+                documentRepo.deleteById(documentId);
+                if (!imageKeys.isEmpty()) {
+                    eventPublisher.publishEvent(new FilesReleasedEvent(imageKeys));
+                }
+            });
+            completed.increment();
+            return true;
+        } catch (RuntimeException e) {
+            failed.increment();
+            try {
+                fail(documentId, totalBlocks, deletedBlocks);
+            } catch (RuntimeException reportFailure) {
+                // the row still reads as running; the retention worker retries it once the lease expires
+            }
+            return false;
+        }
+    }
+
+    private static void pause(long millis) {
+        if (millis <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Purge interrupted", e);
+        }
+    }
+
+    private int deleteChunk(Supplier<List<Integer>> nextChunk, Consumer<Collection<Integer>> delete) {
+        Integer deleted = transactionTemplate.execute(status -> {
+            List<Integer> ids = nextChunk.get();
+            if (!ids.isEmpty()) {
+                delete.accept(ids);
+            }
+            return ids.size();
+        });
+        return deleted == null ? 0 : deleted;
+    }
+
+    private void report(int documentId, PurgeState state, long totalBlocks, long deletedBlocks) {
+        if (documentRepo.updatePurgeProgress(documentId, nodeId, state, totalBlocks, deletedBlocks,
+                LocalDateTime.now()) == 0) {
+            throw new IllegalStateException("Purge lease lost");
+        }
+    }
+
+    // releases the lease and backs off exponentially, so a document that keeps failing waits
+    // longer each time instead of taking a slot in every batch
+    private void fail(int documentId, long totalBlocks, long deletedBlocks) {
+        int attempts = documentRepo.findPurgeAttemptsById(documentId).orElse(0) + 1;
+        long backoffMs = Math.min(maxRetryBackoffMs, retryBackoffMs << Math.min(attempts - 1, 20));
+        documentRepo.failPurge(documentId, nodeId, PurgeState.FAILED, totalBlocks, deletedBlocks, attempts,
+                LocalDateTime.now().plus(backoffMs, ChronoUnit.MILLIS));
+    }
+}
@@ -2,10 +2,13 @@ package com.blockverse.app.service;
 
 
 
+import com.blockverse.app.dto.activityFeed.PresenceUser;
 import com.blockverse.app.dto.block.BlockResponse;
 import com.blockverse.app.dto.document.*;
 import com.blockverse.app.entity.*;
 import com.blockverse.app.enums.*;
+import com.blockverse.app.event.DocumentChangedEvent;
+import com.blockverse.app.event.DocumentPurgeRequestedEvent;
 import com.blockverse.app.exception.DocumentException;
 import com.blockverse.app.exception.DocumentNotFoundException;
 import com.blockverse.app.exception.InsufficientPermissionException;
@@ -15,6 +18,8 @@ import com.blockverse.app.notification.NotificationService;
 import com.blockverse.app.repo.*;
 import com.blockverse.app.security.SecurityUtil;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -27,10 +32,14 @@ import java.util.UUID;
 @Transactional
 public class DocumentService {
 
+    private static final int DEFAULT_PAGE_SIZE = 50;
+    private static final int MAX_PAGE_SIZE = 100;
+
     private final DocumentMapper documentMapper;
     private final DocumentRepo documentRepo;
     private final WorkSpaceRepo workSpaceRepo;
     private final WorkSpaceMemberRepo workSpaceMemberRepo;
+    private final WorkSpaceMemberIdCache workSpaceMemberIdCache;
     private final SecurityUtil securityUtil;
     private final BlockService blockService;
     private final AuditLogService auditLogService;
@@ -40,6 +49,10 @@ public class DocumentService {
     private final DocumentShareRepo documentShareRepo;
     private final NotificationService notificationService;
     private final RateLimiterService rateLimiterService;
+    private final PresenceRegistry presenceRegistry;
+    private final ApplicationEventPublisher eventPublisher;
+    private final DocumentPurgeService documentPurgeService;
+    private final DocumentListCache documentListCache;
     
     private String generateToken(){
         return UUID.randomUUID().toString();
@@ -52,11 +65,12 @@ public class DocumentService {
 
     private Document getDocumentOrThrow(int documentId) {
         return documentRepo.findById(documentId)
+                .filter(document -> !document.isPurging())
                 .orElseThrow(() -> new DocumentNotFoundException("Document not found"));
     }
 
-    private WorkSpaceMember getMembershipOrThrow(User user, WorkSpace workSpace) {
-        return workSpaceMemberRepo.findByUserAndWorkSpaceAndDeletedAtIsNull(user, workSpace)
+    private WorkSpaceRole getRoleOrThrow(User user, WorkSpace workSpace) {
+        return workSpaceMemberRepo.findActiveRole(user.getId(), workSpace.getId())
                 .orElseThrow(() -> new InsufficientPermissionException("User is not a member of this workspace"));
     }
 
@@ -67,7 +81,7 @@ public class DocumentService {
 
         WorkSpace workSpace = getWorkSpaceOrThrow(workspaceId);
 
-        WorkSpaceMember membership = getMembershipOrThrow(currentUser, workSpace);
+        getRoleOrThrow(currentUser, workSpace);
 
         Document document = new Document();
         if(request.getTitle() == null || request.getTitle().isBlank()){
@@ -76,6 +90,7 @@ public class DocumentService {
         document.setTitle(request.getTitle());
         document.setWorkSpace(workSpace);
         document = documentRepo.save(document);
+        eventPublisher.publishEvent(DocumentChangedEvent.of(document));
 
         auditLogService.auditLog(document.getWorkSpace().getId(),
                 currentUser.getId(),
@@ -95,11 +110,7 @@ public class DocumentService {
                 )
         );
 
-        List<Integer> recipientIds = workSpaceMemberRepo.findByWorkSpaceAndDeletedAtIsNull(workSpace)
-                .stream()
-                .map(wsm -> wsm.getUser().getId())
-                .filter(id -> id != currentUser.getId())
-                .toList();
+        List<Integer> recipientIds = workSpaceMemberIdCache.recipientsExcept(workSpace.getId(), currentUser.getId());
         notificationService.sendBulkNotification(recipientIds,
                 "New document created: " + document.getTitle(),
                 NotificationType.CREATE,
@@ -114,7 +125,7 @@ public class DocumentService {
         Document document = documentRepo.findByIdAndArchivedFalseAndDeletedFalse(documentId)
                 .orElseThrow(() -> new DocumentNotFoundException("Document not found or is archived/deleted"));
 
-        getMembershipOrThrow(user, document.getWorkSpace());
+        getRoleOrThrow(user, document.getWorkSpace());
 
         return documentMapper.toResponse(document);
     }
@@ -124,16 +135,56 @@ public class DocumentService {
 
         Document document = getDocumentOrThrow(documentId);
 
-        getMembershipOrThrow(user, document.getWorkSpace());
+        getRoleOrThrow(user, document.getWorkSpace());
 
+        // loaded before the blocks so a concurrent change is replayed rather than missed
+        long latestSeq = document.getEventSeq();
         List<BlockResponse> blocks = blockService.getBlocksForDocument(documentId);
 
         return DocumentDetailsResponse.builder()
                 .document(documentMapper.toResponse(document))
                 .blocks(blocks)
+                .latestSeq(latestSeq)
                 .build();
     }
 
+    /**
+     * Version and replay position of a document the caller may read, for answering conditional
+     * requests without building the block tree.
+     */
+    @Transactional(readOnly = true)
+    public DocumentVersion getDocumentVersion(int documentId) {
+        User user = securityUtil.getLoggedInUser();
+
+        Document document = getDocumentOrThrow(documentId);
+
+        getRoleOrThrow(user, document.getWorkSpace());
+
+        return new DocumentVersion(documentId,
+                document.getVersion() == null ? 0L : document.getVersion(),
+                document.getEventSeq());
+    }
+
+    public DocumentReplayResponse getEventsSince(int documentId, long since) {
+        User user = securityUtil.getLoggedInUser();
+
+        Document document = getDocumentOrThrow(documentId);
+
+        getRoleOrThrow(user, document.getWorkSpace());
+
+        return documentSocketPublisher.eventsSince(documentId, since, document.getEventSeq());
+    }
+
+    public List<PresenceUser> getPresence(int documentId) {
+        User user = securityUtil.getLoggedInUser();
+
+        Document document = getDocumentOrThrow(documentId);
+
+        getRoleOrThrow(user, document.getWorkSpace());
+
+        return presenceRegistry.snapshot(documentId);
+    }
+
     public DocumentResponse updateDocument(int documentId, UpdateDocumentRequest request) {
         User user = securityUtil.getLoggedInUser();
         rateLimiterService.checkRateLimit(user.getId(), "UPDATE_DOCUMENT");
@@ -143,13 +194,14 @@ public class DocumentService {
             throw new DocumentNotFoundException("Document not found or is archived/deleted");
         }
 
-        getMembershipOrThrow(user, document.getWorkSpace());
+        getRoleOrThrow(user, document.getWorkSpace());
 
         if(request.getTitle() == null || request.getTitle().isBlank()){
             throw new DocumentException("Title cannot be empty");
         }
         document.setTitle(request.getTitle());
         documentRepo.save(document);
+        eventPublisher.publishEvent(DocumentChangedEvent.of(document));
 
         auditLogService.auditLog(
                 document.getWorkSpace().getId(),
@@ -170,11 +222,7 @@ public class DocumentService {
                 )
         );
 
-        List<Integer> recipientIds = workSpaceMemberRepo.findByWorkSpaceAndDeletedAtIsNull(document.getWorkSpace())
-                .stream()
-                .map(wsm -> wsm.getUser().getId())
-                .filter(id -> id != user.getId())
-                .toList();
+        List<Integer> recipientIds = workSpaceMemberIdCache.recipientsExcept(document.getWorkSpace().getId(), user.getId());
         notificationService.sendBulkNotification(recipientIds,
                 "Document updated: " + document.getTitle(),
                 NotificationType.UPDATE,
@@ -188,7 +236,7 @@ public class DocumentService {
 
         WorkSpace workSpace = getWorkSpaceOrThrow(workspaceId);
 
-        WorkSpaceMember membership = getMembershipOrThrow(user, workSpace);
+        getRoleOrThrow(user, workSpace);
 
         List<Document> documents = documentRepo.findByWorkSpaceAndArchivedFalseAndDeletedFalseOrderByCreatedAtDesc(workSpace);
 
@@ -197,6 +245,49 @@ public class DocumentService {
                 .toList();
     }
 
+    /**
+     * One keyset page of the workspace's active documents, newest first. {@code cursor} is the
+     * {@code nextCursor} of the previous page; first pages are served from {@link DocumentListCache}.
+     */
+    @Transactional(readOnly = true)
+    public DocumentPageResponse getDocumentPage(int workspaceId, Integer limit, String cursor) {
+        User user = securityUtil.getLoggedInUser();
+
+        WorkSpace workSpace = getWorkSpaceOrThrow(workspaceId);
+
+        getRoleOrThrow(user, workSpace);
+
+        int pageSize = limit == null ? DEFAULT_PAGE_SIZE : Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        boolean firstPage = cursor == null || cursor.isBlank();
+        long generation = documentListCache.generation(workspaceId);
+        if (firstPage) {
+            DocumentPageResponse cached = documentListCache.getFirstPage(workspaceId, pageSize);
+            if (cached != null) {
+                return cached;
+            }
+        }
+
+        // one extra row tells whether there is a next page
+        PageRequest window = PageRequest.of(0, pageSize + 1);
+        List<Document> documents;
+        if (firstPage) {
+            documents = documentRepo.findActivePage(workspaceId, window);
+        } else {
+            DocumentCursor after = DocumentCursor.decode(cursor);
+            documents = documentRepo.findActivePageAfter(workspaceId, after.createdAt(), after.id(), window);
+        }
+
+        boolean more = documents.size() > pageSize;
+        List<Document> page = more ? documents.subList(0, pageSize) : documents;
+        DocumentPageResponse response = new DocumentPageResponse(
+                page.stream().map(documentMapper::toResponse).toList(),
+                more ? DocumentCursor.after(page.get(page.size() - 1)).encode() : null);
+        if (firstPage) {
+            documentListCache.putFirstPage(workspaceId, pageSize, generation, response);
+        }
+        return response;
+    }
+
     public void archiveDocument(int documentId) {
         User user = securityUtil.getLoggedInUser();
         rateLimiterService.checkRateLimit(user.getId(), "ARCHIVE_DOCUMENT");
@@ -205,9 +296,9 @@ public class DocumentService {
                 .findByIdAndArchivedFalseAndDeletedFalse(documentId)
                 .orElseThrow(() -> new DocumentNotFoundException("Document not found"));
 
-        WorkSpaceMember membership = getMembershipOrThrow(user, document.getWorkSpace());
+        WorkSpaceRole role = getRoleOrThrow(user, document.getWorkSpace());
 
-        if (membership.getRole() != WorkSpaceRole.OWNER && membership.getRole() != WorkSpaceRole.ADMIN) {
+        if (role != WorkSpaceRole.OWNER && role != WorkSpaceRole.ADMIN) {
             throw new InsufficientPermissionException("Only workspace owners or admin can archive documents");
         }
 
@@ -229,11 +320,7 @@ public class DocumentService {
                 )
         );
 
-        List<Integer> recipientIds = workSpaceMemberRepo.findByWorkSpaceAndDeletedAtIsNull(document.getWorkSpace())
-                .stream()
-                .map(wsm -> wsm.getUser().getId())
-                .filter(id -> id != user.getId())
-                .toList();
+        List<Integer> recipientIds = workSpaceMemberIdCache.recipientsExcept(document.getWorkSpace().getId(), user.getId());
         notificationService.sendBulkNotification(recipientIds,
                 "Document archived: " + document.getTitle(),
                 NotificationType.ARCHIVE,
@@ -241,6 +328,7 @@ public class DocumentService {
 
         document.setArchived(true);
         documentRepo.save(document);
+        eventPublisher.publishEvent(DocumentChangedEvent.of(document));
     }
 
     public List<DocumentResponse> getArchivedDocumentsByWorkspace(int workspaceId) {
@@ -248,9 +336,9 @@ public class DocumentService {
         
         WorkSpace workSpace = getWorkSpaceOrThrow(workspaceId);
 
-        WorkSpaceMember membership = getMembershipOrThrow(user, workSpace);
+        WorkSpaceRole role = getRoleOrThrow(user, workSpace);
 
-        if (membership.getRole() != WorkSpaceRole.OWNER && membership.getRole() != WorkSpaceRole.ADMIN) {
+        if (role != WorkSpaceRole.OWNER && role != WorkSpaceRole.ADMIN) {
             throw new InsufficientPermissionException("Only workspace owners or admin can archive documents");
         }
         
@@ -267,9 +355,9 @@ public class DocumentService {
                 .findByIdAndArchivedTrueAndDeletedFalse(documentId)
                 .orElseThrow(() -> new DocumentNotFoundException("Document not found"));
 
-        WorkSpaceMember membership = getMembershipOrThrow(user, document.getWorkSpace());
+        WorkSpaceRole role = getRoleOrThrow(user, document.getWorkSpace());
 
-        if (membership.getRole() != WorkSpaceRole.OWNER && membership.getRole() != WorkSpaceRole.ADMIN) {
+        if (role != WorkSpaceRole.OWNER && role != WorkSpaceRole.ADMIN) {
             throw new InsufficientPermissionException("Only workspace owners or admin can unarchive documents");
         }
         auditLogService.auditLog(document.getWorkSpace().getId(),
@@ -290,11 +378,7 @@ public class DocumentService {
                 )
         );
 
-        List<Integer> recipientIds = workSpaceMemberRepo.findByWorkSpaceAndDeletedAtIsNull(document.getWorkSpace())
-                .stream()
-                .map(wsm -> wsm.getUser().getId())
-                .filter(id -> id != user.getId())
-                .toList();
+        List<Integer> recipientIds = workSpaceMemberIdCache.recipientsExcept(document.getWorkSpace().getId(), user.getId());
         notificationService.sendBulkNotification(recipientIds,
                 "Document unarchived: " + document.getTitle(),
                 NotificationType.UNARCHIVE,
@@ -302,6 +386,7 @@ public class DocumentService {
 
         document.setArchived(false);
         documentRepo.save(document);
+        eventPublisher.publishEvent(DocumentChangedEvent.of(document));
     }
 
     public void deleteDocument(int documentId) {
@@ -310,9 +395,9 @@ public class DocumentService {
         Document document = documentRepo
                 .findByIdAndDeletedFalse(documentId)
                 .orElseThrow(() -> new DocumentNotFoundException("Document not found"));
-        WorkSpaceMember membership = getMembershipOrThrow(user, document.getWorkSpace());
+        WorkSpaceRole role = getRoleOrThrow(user, document.getWorkSpace());
 
-        if (membership.getRole() != WorkSpaceRole.OWNER && membership.getRole() != WorkSpaceRole.ADMIN) {
+        if (role != WorkSpaceRole.OWNER && role != WorkSpaceRole.ADMIN) {
             throw new InsufficientPermissionException("Only workspace owners or admin can delete documents");
         }
 
@@ -338,11 +423,7 @@ public class DocumentService {
                 )
         );
 
-        List<Integer> recipientIds = workSpaceMemberRepo.findByWorkSpaceAndDeletedAtIsNull(document.getWorkSpace())
-                .stream()
-                .map(wsm -> wsm.getUser().getId())
-                .filter(id -> id != user.getId())
-                .toList();
+        List<Integer> recipientIds = workSpaceMemberIdCache.recipientsExcept(document.getWorkSpace().getId(), user.getId());
         notificationService.sendBulkNotification(recipientIds,
                 "Document moved to trash: " + document.getTitle(),
                 NotificationType.DELETE,
@@ -352,15 +433,16 @@ public class DocumentService {
         document.setDeletedAt(LocalDateTime.now());
         document.setDeletedBy(user.getId());
         documentRepo.save(document);
+        eventPublisher.publishEvent(DocumentChangedEvent.of(document));
     }
 
     public void restoreDeletedDocument(int documentId) {
         User user = securityUtil.getLoggedInUser();
         rateLimiterService.checkRateLimit(user.getId(), "RESTORE_DOCUMENT");
         Document document = getDocumentOrThrow(documentId);
-        WorkSpaceMember member = getMembershipOrThrow(user, document.getWorkSpace());
+        WorkSpaceRole role = getRoleOrThrow(user, document.getWorkSpace());
 
-        if(member.getRole() != WorkSpaceRole.OWNER && member.getRole() != WorkSpaceRole.ADMIN) {
+        if(role != WorkSpaceRole.OWNER && role != WorkSpaceRole.ADMIN) {
             throw new InsufficientPermissionException("Only workspace owners or admin can restore documents");
         }
 
@@ -385,11 +467,7 @@ public class DocumentService {
                 )
         );
 
-        List<Integer> recipientIds = workSpaceMemberRepo.findByWorkSpaceAndDeletedAtIsNull(document.getWorkSpace())
-                .stream()
-                .map(wsm -> wsm.getUser().getId())
-                .filter(id -> id != user.getId())
-                .toList();
+        List<Integer> recipientIds = workSpaceMemberIdCache.recipientsExcept(document.getWorkSpace().getId(), user.getId());
         notificationService.sendBulkNotification(recipientIds,
                 "Document restored from trash: " + document.getTitle(),
                 NotificationType.RESTORE,
@@ -399,19 +477,31 @@ public class DocumentService {
         document.setDeletedAt(null);
         document.setDeletedBy(null);
         documentRepo.save(document);
+        eventPublisher.publishEvent(DocumentChangedEvent.of(document));
     }
 
     public void permanentDeleteDocument(int documentId) {
         User user = securityUtil.getLoggedInUser();
         rateLimiterService.checkRateLimit(user.getId(), "PERMANENT_DELETE_DOCUMENT");
-        Document document = getDocumentOrThrow(documentId);
-        WorkSpaceMember member = getMembershipOrThrow(user, document.getWorkSpace());
+        // purging documents are hidden everywhere else, but deleting one again retries its purge
+        Document document = documentRepo.findById(documentId)
+                .orElseThrow(() -> new DocumentNotFoundException("Document not found"));
+        WorkSpaceRole role = getRoleOrThrow(user, document.getWorkSpace());
 
-        if (member.getRole() != WorkSpaceRole.OWNER && member.getRole() != WorkSpaceRole.ADMIN) {
+        if (role != WorkSpaceRole.OWNER && role != WorkSpaceRole.ADMIN) {
             throw new InsufficientPermissionException(
                     "Only workspace owners or admin can permanently delete documents");
         }
 
+        if (document.isPurging()) {
+            document.setPurgeState(null);
+            document.setPurgeAttempts(0);
+            document.setNextPurgeAt(null);
+            documentRepo.save(document);
+            eventPublisher.publishEvent(new DocumentPurgeRequestedEvent(document.getId(), document.getWorkSpace().getId()));
+            return;
+        }
+
         if(!document.isDeleted()){
             throw new DocumentException("Document must be in trash before permanent deletion");
         }
@@ -424,11 +514,7 @@ public class DocumentService {
                 "Document permanently deleted with title: " + document.getTitle()
         );
 
-        List<Integer> recipientIds = workSpaceMemberRepo.findByWorkSpaceAndDeletedAtIsNull(document.getWorkSpace())
-                .stream()
-                .map(wsm -> wsm.getUser().getId())
-                .filter(id -> id != user.getId())
-                .toList();
+        List<Integer> recipientIds = workSpaceMemberIdCache.recipientsExcept(document.getWorkSpace().getId(), user.getId());
 
         documentSocketPublisher.broadcast(
                 document.getId(),
@@ -445,19 +531,28 @@ public class DocumentService {
                 NotificationType.PERMANENT_DELETE,
                 documentId);
 
-        blockChangeLogRepo.deleteByDocument(document);
-        documentShareRepo.deleteByDocument(document);
-        List<com.blockverse.app.entity.Block> rootBlocks = blockRepo.findByDocumentAndParentIsNull(document);
-        blockRepo.deleteAll(rootBlocks);
-        documentRepo.delete(document);
+        // hidden from the trash and from restore right away; the blocks go in the background
+        document.setPurging(true);
+        documentRepo.save(document);
+        eventPublisher.publishEvent(DocumentChangedEvent.removed(document));
+        eventPublisher.publishEvent(new DocumentPurgeRequestedEvent(document.getId(), document.getWorkSpace().getId()));
+    }
+
+    public PurgeProgressResponse getPurgeProgress(int documentId) {
+        User user = securityUtil.getLoggedInUser();
+        PurgeProgressResponse progress = documentPurgeService.progressOf(documentId)
+                .orElseThrow(() -> new DocumentNotFoundException("No purge found for this document"));
+        workSpaceMemberRepo.findActiveRole(user.getId(), progress.getWorkspaceId())
+                .orElseThrow(() -> new InsufficientPermissionException("User is not a member of this workspace"));
+        return progress;
     }
 
     public List<DocumentResponse> getTrashDocumentsByWorkspace(int workspaceId) {
         User user = securityUtil.getLoggedInUser();
         WorkSpace workSpace = getWorkSpaceOrThrow(workspaceId);
-        getMembershipOrThrow(user, workSpace);
+        getRoleOrThrow(user, workSpace);
 
-        List<Document> documents = documentRepo.findByWorkSpaceAndDeletedTrue(workSpace);
+        List<Document> documents = documentRepo.findByWorkSpaceAndDeletedTrueAndPurgingFalse(workSpace);
 
         return documents.stream()
                 .map(documentMapper::toResponse)
@@ -468,9 +563,9 @@ public class DocumentService {
         User user = securityUtil.getLoggedInUser();
         rateLimiterService.checkRateLimit(user.getId(), "CREATE_SHARE_LINK");
         Document document = getDocumentOrThrow(documentId);
-        WorkSpaceMember member = getMembershipOrThrow(user, document.getWorkSpace());
+        WorkSpaceRole role = getRoleOrThrow(user, document.getWorkSpace());
 
-        if(member.getRole() != WorkSpaceRole.OWNER && member.getRole() != WorkSpaceRole.ADMIN) {
+        if(role != WorkSpaceRole.OWNER && role != WorkSpaceRole.ADMIN) {
             throw new InsufficientPermissionException("Only workspace owners or admin can create share links");
         }
 
@@ -496,11 +591,7 @@ public class DocumentService {
                 "{\"expiryMinutes\": " + expiryMinutes + "}"
         );
 
-        List<Integer> recipientIds = workSpaceMemberRepo.findByWorkSpaceAndDeletedAtIsNull(document.getWorkSpace())
-                .stream()
-                .map(wsm -> wsm.getUser().getId())
-                .filter(id -> id != user.getId())
-                .toList();
+        List<Integer> recipientIds = workSpaceMemberIdCache.recipientsExcept(document.getWorkSpace().getId(), user.getId());
         notificationService.sendBulkNotification(recipientIds,
                 "A share link was created for document: " + document.getTitle(),
                 NotificationType.SHARE,
@@ -4,12 +4,16 @@ import com.blockverse.app.dto.block.BlockResponse;
 import com.blockverse.app.dto.document.DocumentDetailsResponse;
 import com.blockverse.app.entity.Document;
 import com.blockverse.app.entity.DocumentShare;
+import com.blockverse.app.exception.DocumentNotFoundException;
+import com.blockverse.app.mapper.BlockMapper;
 import com.blockverse.app.mapper.DocumentMapper;
+import com.blockverse.app.repo.DocumentRepo;
 import com.blockverse.app.repo.DocumentShareRepo;
+import com.blockverse.app.service.SharedDocumentCache.ShareTarget;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
-import java.time.LocalDateTime;
 import java.util.List;
 
 @Service
@@ -17,26 +21,74 @@ import java.util.List;
 public class DocumentShareService {
 
     private final DocumentShareRepo documentShareRepo;
+    private final DocumentRepo documentRepo;
     private final BlockService blockService;
     private final DocumentMapper documentMapper;
+    private final BlockMapper blockMapper;
+    private final SharedDocumentCache sharedDocumentCache;
 
+    /**
+     * The shared document's current version, for answering conditional requests without
+     * building the block tree.
+     */
+    @Transactional(readOnly = true)
+    public DocumentVersion getSharedDocumentVersion(String token) {
+        int documentId = resolve(token).documentId();
+        return new DocumentVersion(documentId, currentVersion(token, documentId), 0);
+    }
+
+    @Transactional(readOnly = true)
     public DocumentDetailsResponse getSharedDocument(String token) {
-        DocumentShare share = documentShareRepo
-                .findByTokenAndActiveTrue(token)
-                .orElseThrow(() -> new IllegalArgumentException("Invalid or expired share token"));
-        
-        if(share.getExpiryTime() != null && 
-            share.getExpiryTime().isBefore(LocalDateTime.now())){
-            throw new IllegalArgumentException("Link has expired");
+        int documentId = resolve(token).documentId();
+        // a one-column probe decides whether the cached view is still current
+        long version = currentVersion(token, documentId);
+        DocumentDetailsResponse cached = sharedDocumentCache.getRendered(documentId, version);
+        if (cached != null) {
+            // the cached image URLs were presigned when the view was built and may have expired
+            return DocumentDetailsResponse.builder()
+                    .document(cached.getDocument())
+                    .blocks(blockMapper.withFreshUrls(cached.getBlocks()))
+                    .latestSeq(cached.getLatestSeq())
+                    .build();
         }
 
-        Document document = share.getDocument();
+        Document document = documentRepo.findById(documentId)
+                .orElseThrow(() -> new DocumentNotFoundException("Document not found"));
+        List<BlockResponse> blocks = blockService.getBlocksForDocumentWithoutAuth(documentId);
 
-        List<BlockResponse> blocks = blockService.getBlocksForDocumentWithoutAuth(document.getId());
-        
-        return DocumentDetailsResponse.builder()
+        DocumentDetailsResponse response = DocumentDetailsResponse.builder()
                 .document(documentMapper.toResponse(document))
                 .blocks(blocks)
                 .build();
+        // keyed by the version that was actually rendered, not the one probed
+        sharedDocumentCache.putRendered(documentId, document.getVersion() == null ? 0L : document.getVersion(), response);
+        return response;
+    }
+
+    private ShareTarget resolve(String token) {
+        ShareTarget target = sharedDocumentCache.getTarget(token);
+        if (target == null) {
+            DocumentShare share = documentShareRepo
+                    .findByTokenAndActiveTrue(token)
+                    .orElseThrow(() -> new IllegalArgumentException("Invalid or expired share token"));
+            target = new ShareTarget(share.getDocument().getId(), share.getExpiryTime());
+            sharedDocumentCache.putTarget(token, target);
+        }
+
+        if (target.isExpired()) {
+            sharedDocumentCache.evictTarget(token);
+            throw new IllegalArgumentException("Link has expired");
+        }
+        return target;
+    }
+
+    private long currentVersion(String token, int documentId) {
+        Long version = documentRepo.findVersionById(documentId).orElse(null);
+        if (version == null) {
+            sharedDocumentCache.evictTarget(token);
+            sharedDocumentCache.evictRendered(documentId);
+            throw new DocumentNotFoundException("Document not found");
+        }
+        return version;
     }
 }
@@ -1,21 +1,217 @@
 package com.blockverse.app.service;
 
+import com.blockverse.app.dto.DocumentReplayEvent;
 import com.blockverse.app.dto.document.DocumentEvent;
-import lombok.RequiredArgsConstructor;
-import org.springframework.messaging.simp.SimpMessagingTemplate;
+import com.blockverse.app.dto.document.DocumentReplayResponse;
+import com.blockverse.app.repo.DocumentRepo;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Numbers and broadcasts document events, and buffers recent ones per document for replay. Seqs
+ * come from the document row's {@code eventSeq}, so all nodes share one sequence per document,
+ * taken in commit order. Each node buffers the events it broadcast plus, through
+ * {@link DocumentEventRelay}, the ones the other nodes broadcast; a buffer that missed a seq only
+ * replays from after it.
+ */
 @Service
-@RequiredArgsConstructor
 public class DocumentSocketPublisher {
     
-    private final SimpMessagingTemplate messagingTemplate;
+    private final SocketBroadcastService socketBroadcastService;
+    private final BroadcastDispatcher broadcastDispatcher;
+    private final DocumentRepo documentRepo;
+    private final DocumentEventRelay documentEventRelay;
+    private final int replayBufferSize;
+    private final long replayIdleEvictionMs;
+    private final long replayForgetMs;
+    
+    private final Map<Integer, EventRing> rings = new ConcurrentHashMap<>();
     
+    public DocumentSocketPublisher(SocketBroadcastService socketBroadcastService,
+                                   BroadcastDispatcher broadcastDispatcher,
+                                   DocumentRepo documentRepo,
+                                   DocumentEventRelay documentEventRelay,
+                                   @Value("${app.websocket.replay.buffer-size:256}") int replayBufferSize,
+                                   @Value("${app.websocket.replay.idle-eviction-ms:1800000}") long replayIdleEvictionMs,
+                                   @Value("${app.websocket.replay.forget-ms:86400000}") long replayForgetMs) {
+        this.socketBroadcastService = socketBroadcastService;
+        this.broadcastDispatcher = broadcastDispatcher;
+        this.documentRepo = documentRepo;
+        this.documentEventRelay = documentEventRelay;
+        this.replayBufferSize = replayBufferSize;
+        this.replayIdleEvictionMs = replayIdleEvictionMs;
+        this.replayForgetMs = replayForgetMs;
+    }
+    
+    // The seq is taken inside the caller's transaction, so a rollback gives it back; the send is
+    // deferred until the commit, then runs from the dispatch executor. A dropped event keeps its
+    // seq, so the next one a client receives reveals the gap.
     public void broadcast(int documentId, DocumentEvent event){
-        messagingTemplate.convertAndSend(
-                "/topic/document/" + documentId,
-                event
-        );
+        documentRepo.incrementEventSeq(documentId);
+        event.setSeq(documentRepo.findEventSeqById(documentId).orElse(0L));
+        broadcastDispatcher.afterCommit(documentId, () -> publish(documentId, event), () -> skip(documentId, event.getSeq()));
+    }
+    
+    private void skip(int documentId, long seq) {
+        withRing(documentId, ring -> {
+            ring.skip(seq);
+            return null;
+        });
+    }
+    
+    private void publish(int documentId, DocumentEvent event){
+        // buffer and send under one lock so subscribers always see seq in order
+        withRing(documentId, ring -> {
+            ring.record(event);
+            socketBroadcastService.send(
+                    "/topic/document." + documentId,
+                    event
+            );
+            return null;
+        });
+        documentEventRelay.publish(event);
+    }
+    
+    // another node's clients already got the event through the broadcast fan-out; only buffer it
+    public void recordRelayed(DocumentReplayEvent relayed) {
+        if (documentEventRelay.isOwn(relayed)) {
+            return;
+        }
+        DocumentEvent event = documentEventRelay.toEvent(relayed);
+        withRing(relayed.getDocumentId(), ring -> {
+            ring.record(event);
+            return null;
+        });
+    }
+    
+    /**
+     * @param currentSeq the document's committed {@code eventSeq}, which answers for documents
+     *                   this node holds no buffer for
+     */
+    public DocumentReplayResponse eventsSince(int documentId, long since, long currentSeq) {
+        EventRing ring = rings.get(documentId);
+        if (ring != null) {
+            synchronized (ring) {
+                if (!ring.retired) {
+                    List<DocumentEvent> events = ring.since(since);
+                    return DocumentReplayResponse.builder()
+                            .documentId(documentId)
+                            .latestSeq(Math.max(ring.lastSeq, since))
+                            .fullReloadRequired(events == null)
+                            .events(events == null ? List.of() : events)
+                            .build();
+                }
+            }
+        }
+        // nothing buffered here, so only a client that is already current can carry on
+        return DocumentReplayResponse.builder()
+                .documentId(documentId)
+                .latestSeq(currentSeq)
+                .fullReloadRequired(since < currentSeq)
+                .events(List.of())
+                .build();
+    }
+    
+    /**
+     * Idle rings drop their buffered events but keep their position, so a client that missed
+     * nothing still replays cleanly; only rings idle past the forget window are removed.
+     */
+    @Scheduled(fixedDelayString = "${app.websocket.replay.sweep-interval-ms:60000}")
+    public void evictIdleRings() {
+        long now = System.currentTimeMillis();
+        rings.forEach((documentId, ring) -> {
+            synchronized (ring) {
+                if (ring.lastActiveAt < now - replayForgetMs) {
+                    // retired under the ring's lock, so a publish holding it never appends to a removed ring
+                    ring.retired = true;
+                    rings.remove(documentId, ring);
+                } else if (ring.lastActiveAt < now - replayIdleEvictionMs) {
+                    ring.release();
+                }
+            }
+        });
+    }
+    
+    private <T> T withRing(int documentId, Function<EventRing, T> action) {
+        while (true) {
+            EventRing ring = rings.computeIfAbsent(documentId, id -> new EventRing(replayBufferSize));
+            synchronized (ring) {
+                if (!ring.retired) {
+                    return action.apply(ring);
+                }
+            }
+        }
+    }
+    
+    private static final class EventRing {
+        private final int capacity;
+        private DocumentEvent[] events;
+        // first seq replayable from the buffer; the first event recorded decides it
+        private long firstSeq = Long.MAX_VALUE;
+        private long lastSeq;
+        private long lastActiveAt = System.currentTimeMillis();
+        private boolean retired;
+        
+        private EventRing(int capacity) {
+            this.capacity = capacity;
+        }
+        
+        // Events normally arrive in seq order; one that arrives after a later one was recorded is
+        // not inserted, the gap it left already forces a reload for replays from before it.
+        private void record(DocumentEvent event) {
+            long seq = event.getSeq();
+            if (seq <= lastSeq) {
+                return;
+            }
+            if (events == null) {
+                events = new DocumentEvent[capacity];
+            }
+            if (seq != lastSeq + 1 || firstSeq == Long.MAX_VALUE) {
+                firstSeq = seq;
+            }
+            lastSeq = seq;
+            lastActiveAt = System.currentTimeMillis();
+            events[(int) (seq % events.length)] = event;
+        }
+        
+        // the skipped seq is never buffered, so replays from before it need a full reload
+        private void skip(long seq) {
+            if (seq <= lastSeq) {
+                return;
+            }
+            lastSeq = seq;
+            lastActiveAt = System.currentTimeMillis();
+            firstSeq = lastSeq + 1;
+        }
+        
+        // nothing before the next event can be replayed any more
+        private void release() {
+            events = null;
+            firstSeq = lastSeq + 1;
+        }
+        
+        // null when the gap after 'since' is no longer fully buffered
+        private List<DocumentEvent> since(long since) {
+            if (since >= lastSeq) {
+                return List.of();
+            }
+            long oldest = Math.max(firstSeq, lastSeq - capacity + 1);
+            if (since + 1 < oldest) {
+                return null;
+            }
+            List<DocumentEvent> result = new ArrayList<>((int) (lastSeq - since));
+            for (long seq = since + 1; seq <= lastSeq; seq++) {
+                result.add(events[(int) (seq % events.length)]);
+            }
+            return result;
+        }
     }
     
 }
@@ -0,0 +1,9 @@
+package com.blockverse.app.service;
+
+/**
+ * What a conditional read needs to know about a document without loading its blocks.
+ * {@code latestSeq} is the replay position a details response would carry (the document's shared
+ * {@code eventSeq}), 0 where none is sent.
+ */
+public record DocumentVersion(int documentId, long version, long latestSeq) {
+}
@@ -0,0 +1,293 @@
+package com.blockverse.app.service;
+
+import com.blockverse.app.entity.StoredFile;
+import com.blockverse.app.enums.ImageVariant;
+import com.blockverse.app.repo.StoredFileRepo;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import software.amazon.awssdk.core.ResponseInputStream;
+import software.amazon.awssdk.core.sync.RequestBody;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.GetObjectRequest;
+import software.amazon.awssdk.services.s3.model.GetObjectResponse;
+import software.amazon.awssdk.services.s3.model.PutObjectRequest;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * Generates the downscaled {@link ImageVariant}s of newly stored images on a bounded worker pool
+ * and records which ones exist, so block responses only link variants that are really there.
+ * Variants are never upscaled: an image narrower than a variant simply has no such variant.
+ * Generation lost to a shutdown or crash is picked up again by a periodic recovery pass.
+ */
+@Service
+public class ImageVariantService {
+
+    private static final int CACHE_ENTRIES = 10_000;
+    private static final int RECOVER_BATCH = 100;
+    private static final float JPEG_QUALITY = 0.8f;
+
+    private final S3Client s3Client;
+    private final StoredFileRepo storedFileRepo;
+    private final String bucketName;
+    private final ThreadPoolExecutor workers;
+    private final long pendingRecheckMs;
+    private final long stallMs;
+    private final long maxPixels;
+    private final long maxDecodedPixels;
+    private final Counter generated;
+    private final Counter failed;
+
+    // storage key -> generated variants; pending keys are held briefly so a page of image
+    // blocks does not look each one up again on every render
+    private final Map<String, Known> known = Collections.synchronizedMap(
+            new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, Known> eldest) {
+                    return size() > CACHE_ENTRIES;
+                }
+            });
+
+    private record Known(List<ImageVariant> variants, long recheckAt) {
+    }
+
+    public ImageVariantService(S3Client s3Client,
+                               StoredFileRepo storedFileRepo,
+                               MeterRegistry meterRegistry,
+                               @Value("${aws.s3.bucket}") String bucketName,
+                               @Value("${app.images.variants.threads:2}") int threads,
+                               @Value("${app.images.variants.queue-capacity:100}") int queueCapacity,
+                               @Value("${app.images.variants.pending-recheck-ms:5000}") long pendingRecheckMs,
+                               @Value("${app.images.variants.stall-ms:600000}") long stallMs,
+                               @Value("${app.images.variants.max-pixels:50000000}") long maxPixels,
+                               @Value("${app.images.variants.max-decoded-pixels:16000000}") long maxDecodedPixels) {
+        this.s3Client = s3Client;
+        this.storedFileRepo = storedFileRepo;
+        this.bucketName = bucketName;
+        this.pendingRecheckMs = pendingRecheckMs;
+        this.stallMs = stallMs;
+        this.maxPixels = maxPixels;
+        this.maxDecodedPixels = maxDecodedPixels;
+        this.generated = Counter.builder("images.variants.generated")
+                .description("Images whose variants were generated")
+                .register(meterRegistry);
+        this.failed = Counter.builder("images.variants.failed")
+                .description("Images left without variants because decoding failed, they were too large or the queue was full")
+                .register(meterRegistry);
+
+        AtomicInteger threadIndex = new AtomicInteger();
+        this.workers = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                task -> {
+                    Thread thread = new Thread(task, "image-variants-" + threadIndex.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    public static boolean isImage(String contentType) {
+        return contentType != null && contentType.startsWith("image/");
+    }
+
+    public void submit(String storageKey) {
+        try {
+            workers.execute(() -> generate(storageKey));
+        } catch (RejectedExecutionException e) {
+            if (workers.isShutdown()) {
+                // left pending for the recovery pass of a node that is still running
+                return;
+            }
+            // clients fall back to the original, so shedding load here is safe
+            failed.increment();
+            record(storageKey, List.of());
+        }
+    }
+
+    public List<ImageVariant> variantsOf(String storageKey) {
+        long now = System.currentTimeMillis();
+        Known cached = known.get(storageKey);
+        if (cached != null && now < cached.recheckAt()) {
+            return cached.variants();
+        }
+
+        Optional<StoredFile> file = storedFileRepo.findByStorageKey(storageKey);
+        if (file.isPresent() && file.get().getVariants() == null) {
+            // still generating; look again once the recheck interval has passed
+            known.put(storageKey, new Known(List.of(), now + pendingRecheckMs));
+            return List.of();
+        }
+        List<ImageVariant> variants = file.map(f -> parse(f.getVariants())).orElse(List.of());
+        known.put(storageKey, new Known(variants, Long.MAX_VALUE));
+        return variants;
+    }
+
+    /**
+     * Re-queues images still pending long after upload, whose generation was dropped by a
+     * shutdown or crash. Generation is idempotent, so two nodes picking the same row is harmless.
+     */
+    @Scheduled(fixedDelayString = "${app.images.variants.recover-interval-ms:300000}")
+    public void recoverStalled() {
+        LocalDateTime cutoff = LocalDateTime.now().minusNanos(stallMs * 1_000_000);
+        for (StoredFile file : storedFileRepo.findByVariantsIsNullAndCreatedAtBefore(cutoff, PageRequest.of(0, RECOVER_BATCH))) {
+            submit(file.getStorageKey());
+        }
+    }
+
+    public static List<ImageVariant> parse(String variants) {
+        if (variants == null || variants.isBlank()) {
+            return List.of();
+        }
+        return Arrays.stream(variants.split(",")).map(ImageVariant::valueOf).toList();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        workers.shutdownNow();
+    }
+
+    void generate(String storageKey) {
+        List<ImageVariant> created = new ArrayList<>();
+        try {
+            createVariants(storageKey, created);
+            generated.increment();
+        } catch (IOException | RuntimeException e) {
+            failed.increment();
+        }
+        record(storageKey, created);
+    }
+
+    private void record(String storageKey, List<ImageVariant> created) {
+        storedFileRepo.setVariants(storageKey, created.stream().map(Enum::name).collect(Collectors.joining(",")));
+        known.put(storageKey, new Known(List.copyOf(created), Long.MAX_VALUE));
+    }
+
+    private void createVariants(String storageKey, List<ImageVariant> created) throws IOException {
+        GetObjectRequest request = GetObjectRequest.builder().bucket(bucketName).key(storageKey).build();
+        try (ResponseInputStream<GetObjectResponse> in = s3Client.getObject(request);
+             ImageInputStream imageIn = ImageIO.createImageInputStream(in)) {
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(imageIn);
+            if (!readers.hasNext()) {
+                return;
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(imageIn, true, true);
+                // read from the header, before any pixel data is decoded
+                int width = reader.getWidth(0);
+                long pixels = (long) width * reader.getHeight(0);
+                if (pixels > maxPixels) {
+                    throw new IOException("Image has " + pixels + " pixels, more than " + maxPixels);
+                }
+                int widest = Arrays.stream(ImageVariant.values())
+                        .mapToInt(ImageVariant::getMaxWidth)
+                        .filter(maxWidth -> maxWidth < width)
+                        .max()
+                        .orElse(0);
+                if (widest == 0) {
+                    return;
+                }
+
+                // decode at no more than twice the widest variant and within the decoded-area
+                // budget, so neither a huge nor a very tall original lands in the heap in full
+                ImageReadParam param = reader.getDefaultReadParam();
+                int step = Math.max(1, width / (widest * 2));
+                step = Math.max(step, (int) Math.ceil(Math.sqrt((double) pixels / maxDecodedPixels)));
+                param.setSourceSubsampling(step, step, 0, 0);
+                BufferedImage source = reader.read(0, param);
+                boolean alpha = source.getColorModel().hasAlpha();
+
+                for (ImageVariant variant : ImageVariant.values()) {
+                    // the decoded width, which the area budget can put below the original's
+                    if (variant.getMaxWidth() >= source.getWidth()) {
+                        continue;
+                    }
+                    BufferedImage scaled = scale(source, variant.getMaxWidth(), alpha);
+                    s3Client.putObject(PutObjectRequest.builder()
+                                    .bucket(bucketName)
+                                    .key(variant.keyFor(storageKey))
+                                    .contentType(alpha ? "image/png" : "image/jpeg")
+                                    .build(),
+                            RequestBody.fromBytes(alpha ? encodePng(scaled) : encodeJpeg(scaled)));
+                    created.add(variant);
+                }
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    // halves repeatedly before the last step; one big bilinear jump aliases badly
+    private static BufferedImage scale(BufferedImage source, int targetWidth, boolean alpha) {
+        BufferedImage current = source;
+        int width = source.getWidth();
+        int height = source.getHeight();
+        do {
+            width = Math.max(targetWidth, width / 2);
+            height = Math.max(1, (int) ((long) source.getHeight() * width / source.getWidth()));
+            BufferedImage next = new BufferedImage(width, height,
+                    alpha ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB);
+            Graphics2D graphics = next.createGraphics();
+            try {
+                graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+                graphics.drawImage(current, 0, 0, width, height, null);
+            } finally {
+                graphics.dispose();
+            }
+            current = next;
+        } while (width > targetWidth);
+        return current;
+    }
+
+    private static byte[] encodePng(BufferedImage image) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(image, "png", out);
+        return out.toByteArray();
+    }
+
+    private static byte[] encodeJpeg(BufferedImage image) throws IOException {
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (ImageOutputStream imageOut = ImageIO.createImageOutputStream(out)) {
+            writer.setOutput(imageOut);
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(JPEG_QUALITY);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+        return out.toByteArray();
+    }
+}
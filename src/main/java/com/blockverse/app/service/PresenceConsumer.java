@@ -0,0 +1,25 @@
+package com.blockverse.app.service;
+
+import com.blockverse.app.dto.PresenceChangeEvent;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Service;
+
+@Service
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "app.websocket.presence.relay", havingValue = "kafka")
+public class PresenceConsumer {
+
+    private final PresenceRegistry presenceRegistry;
+
+    // Every node joins its own consumer group so each change reaches all nodes.
+    @KafkaListener(
+            topics = "${app.kafka.topic.presence-change:presence-change-topic}",
+            groupId = "#{'presence-change-' + T(java.util.UUID).randomUUID()}",
+            properties = "auto.offset.reset=latest"
+    )
+    public void consume(PresenceChangeEvent event) {
+        presenceRegistry.applyRelayed(event);
+    }
+}
@@ -0,0 +1,195 @@
+package com.blockverse.app.service;
+
+import com.blockverse.app.dto.PresenceChangeEvent;
+import com.blockverse.app.dto.activityFeed.PresenceEvent;
+import com.blockverse.app.dto.activityFeed.PresenceUser;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Who is on which document, keyed by STOMP session so several tabs of one user count once.
+ * Join/leave deltas are only broadcast when a user's first session arrives or last one goes.
+ * Deltas reach every node's clients through the broadcast fan-out; for {@link #snapshot} each node
+ * also publishes its users through {@link PresenceRelay} and keeps the other nodes' users until
+ * they leave or stop being refreshed for the presence TTL (e.g. their node died).
+ */
+@Service
+@RequiredArgsConstructor
+public class PresenceRegistry {
+
+    private static final String JOIN = "join";
+    private static final String LEAVE = "leave";
+
+    private final SocketBroadcastService socketBroadcastService;
+    private final PresenceRelay presenceRelay;
+
+    @Value("${app.websocket.presence.ttl-ms:60000}")
+    private long presenceTtlMs;
+
+    // documentId -> (sessionId -> entry); mutations run inside compute so deltas are decided atomically
+    private final Map<Integer, Map<String, Entry>> byDocument = new ConcurrentHashMap<>();
+    private final Map<String, Set<Integer>> documentsBySession = new ConcurrentHashMap<>();
+    // documentId -> (originNodeId:userId -> entry) for users connected to other nodes
+    private final Map<Integer, Map<String, Entry>> remoteByDocument = new ConcurrentHashMap<>();
+
+    private static final class Entry {
+        private final int userId;
+        private final String userName;
+        private volatile long lastSeen;
+
+        private Entry(int userId, String userName, long lastSeen) {
+            this.userId = userId;
+            this.userName = userName;
+            this.lastSeen = lastSeen;
+        }
+    }
+
+    public void join(String sessionId, int documentId, int userId, String userName) {
+        boolean[] firstSession = new boolean[1];
+
+        byDocument.compute(documentId, (id, sessions) -> {
+            Map<String, Entry> entries = sessions != null ? sessions : new ConcurrentHashMap<>();
+            firstSession[0] = !hasUser(entries, userId);
+            entries.put(sessionId, new Entry(userId, userName, System.currentTimeMillis()));
+            return entries;
+        });
+        documentsBySession.compute(sessionId, (id, documents) -> {
+            Set<Integer> joined = documents != null ? documents : ConcurrentHashMap.newKeySet();
+            joined.add(documentId);
+            return joined;
+        });
+
+        if (firstSession[0]) {
+            broadcast(documentId, userId, userName, JOIN);
+            presenceRelay.publish(documentId, userId, userName, JOIN);
+        }
+    }
+
+    public void leave(String sessionId, int documentId) {
+        documentsBySession.computeIfPresent(sessionId, (id, documents) -> {
+            documents.remove(documentId);
+            return documents.isEmpty() ? null : documents;
+        });
+        removeEntry(sessionId, documentId);
+    }
+
+    public void heartbeat(String sessionId) {
+        Set<Integer> documents = documentsBySession.get(sessionId);
+        if (documents == null) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        for (Integer documentId : documents) {
+            Map<String, Entry> sessions = byDocument.get(documentId);
+            Entry entry = sessions != null ? sessions.get(sessionId) : null;
+            if (entry != null) {
+                entry.lastSeen = now;
+            }
+        }
+    }
+
+    public List<PresenceUser> snapshot(int documentId) {
+        Map<Integer, PresenceUser> users = new LinkedHashMap<>();
+        for (Entry entry : byDocument.getOrDefault(documentId, Map.of()).values()) {
+            users.putIfAbsent(entry.userId, new PresenceUser(entry.userId, entry.userName));
+        }
+        long cutoff = System.currentTimeMillis() - presenceTtlMs;
+        for (Entry entry : remoteByDocument.getOrDefault(documentId, Map.of()).values()) {
+            if (entry.lastSeen >= cutoff) {
+                users.putIfAbsent(entry.userId, new PresenceUser(entry.userId, entry.userName));
+            }
+        }
+        return List.copyOf(users.values());
+    }
+
+    // Another node's user joined, refreshed or left; its clients already got the delta via the fan-out.
+    public void applyRelayed(PresenceChangeEvent event) {
+        if (presenceRelay.isOwn(event)) {
+            return;
+        }
+        String key = event.getOriginNodeId() + ":" + event.getUserId();
+        if (JOIN.equals(event.getAction())) {
+            remoteByDocument.computeIfAbsent(event.getDocumentId(), id -> new ConcurrentHashMap<>())
+                    .put(key, new Entry(event.getUserId(), event.getUserName(), System.currentTimeMillis()));
+        } else if (LEAVE.equals(event.getAction())) {
+            remoteByDocument.computeIfPresent(event.getDocumentId(), (id, users) -> {
+                users.remove(key);
+                return users.isEmpty() ? null : users;
+            });
+        }
+    }
+
+    @EventListener
+    public void onDisconnect(SessionDisconnectEvent event) {
+        Set<Integer> documents = documentsBySession.remove(event.getSessionId());
+        if (documents == null) {
+            return;
+        }
+        for (Integer documentId : documents) {
+            removeEntry(event.getSessionId(), documentId);
+        }
+    }
+
+    // Drops sessions whose disconnect was never delivered; live clients refresh via /app/document.heartbeat.
+    // The surviving users are re-published so the other nodes keep listing them.
+    @Scheduled(fixedDelayString = "${app.websocket.presence.sweep-interval-ms:15000}")
+    public void evictExpired() {
+        long cutoff = System.currentTimeMillis() - presenceTtlMs;
+        byDocument.forEach((documentId, sessions) -> sessions.forEach((sessionId, entry) -> {
+            if (entry.lastSeen < cutoff) {
+                leave(sessionId, documentId);
+            }
+        }));
+        byDocument.forEach((documentId, sessions) -> {
+            Map<Integer, String> users = new LinkedHashMap<>();
+            sessions.values().forEach(entry -> users.putIfAbsent(entry.userId, entry.userName));
+            users.forEach((userId, userName) -> presenceRelay.publish(documentId, userId, userName, JOIN));
+        });
+        remoteByDocument.forEach((documentId, users) -> {
+            users.values().removeIf(entry -> entry.lastSeen < cutoff);
+            remoteByDocument.computeIfPresent(documentId, (id, remaining) -> remaining.isEmpty() ? null : remaining);
+        });
+    }
+
+    private void removeEntry(String sessionId, int documentId) {
+        Entry[] removed = new Entry[1];
+        boolean[] lastSession = new boolean[1];
+
+        byDocument.computeIfPresent(documentId, (id, sessions) -> {
+            removed[0] = sessions.remove(sessionId);
+            lastSession[0] = removed[0] != null && !hasUser(sessions, removed[0].userId);
+            return sessions.isEmpty() ? null : sessions;
+        });
+
+        if (lastSession[0]) {
+            broadcast(documentId, removed[0].userId, removed[0].userName, LEAVE);
+            presenceRelay.publish(documentId, removed[0].userId, removed[0].userName, LEAVE);
+        }
+    }
+
+    private boolean hasUser(Map<String, Entry> sessions, int userId) {
+        for (Entry entry : sessions.values()) {
+            if (entry.userId == userId) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void broadcast(int documentId, int userId, String userName, String action) {
+        socketBroadcastService.send(
+                "/topic/document." + documentId + ".presence",
+                new PresenceEvent(documentId, userId, userName, action)
+        );
+    }
+}
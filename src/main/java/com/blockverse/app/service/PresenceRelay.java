@@ -0,0 +1,47 @@
+package com.blockverse.app.service;
+
+import com.blockverse.app.dto.PresenceChangeEvent;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.stereotype.Service;
+
+import java.util.UUID;
+
+/**
+ * {@link PresenceRegistry} only holds this node's sessions. With
+ * {@code app.websocket.presence.relay=kafka} every node publishes its users' presence keyed by
+ * document, so each registry can also list the users connected to the other nodes.
+ */
+@Service
+@RequiredArgsConstructor
+public class PresenceRelay {
+
+    private final KafkaTemplate<String, Object> kafkaTemplate;
+
+    private final String nodeId = UUID.randomUUID().toString();
+
+    @Value("${app.websocket.presence.relay:local}")
+    private String presenceRelay;
+
+    @Value("${app.kafka.topic.presence-change:presence-change-topic}")
+    private String presenceChangeTopic;
+
+    public void publish(int documentId, int userId, String userName, String action) {
+        if (!"kafka".equals(presenceRelay)) {
+            return;
+        }
+        kafkaTemplate.send(presenceChangeTopic, String.valueOf(documentId),
+                PresenceChangeEvent.builder()
+                        .originNodeId(nodeId)
+                        .documentId(documentId)
+                        .userId(userId)
+                        .userName(userName)
+                        .action(action)
+                        .build());
+    }
+
+    public boolean isOwn(PresenceChangeEvent event) {
+        return nodeId.equals(event.getOriginNodeId());
+    }
+}
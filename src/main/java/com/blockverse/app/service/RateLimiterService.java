@@ -44,6 +44,9 @@ public class RateLimiterService {
             case "SEARCH":
                 limit = Bandwidth.simple(20, Duration.ofMinutes(1)); // 20 searches per minute
                 break;
+            case "SUGGEST":
+                limit = Bandwidth.simple(300, Duration.ofMinutes(1)); // one per keystroke, served from memory
+                break;
             case "ACTIVITY_FEED":
                 limit = Bandwidth.simple(30, Duration.ofMinutes(1)); // 30 feed loads per minute
                 break;
@@ -1,51 +1,117 @@
 package com.blockverse.app.service;
 
-import com.blockverse.app.config.S3Config;
 import com.blockverse.app.exception.S3FileUploadException;
+import jakarta.annotation.PreDestroy;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 import software.amazon.awssdk.core.sync.RequestBody;
 import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.AbortMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.CompleteMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.CompletedMultipartUpload;
+import software.amazon.awssdk.services.s3.model.CompletedPart;
+import software.amazon.awssdk.services.s3.model.CreateMultipartUploadRequest;
 import software.amazon.awssdk.services.s3.model.GetObjectRequest;
 import software.amazon.awssdk.services.s3.model.PutObjectRequest;
+import software.amazon.awssdk.services.s3.model.UploadPartRequest;
 import software.amazon.awssdk.services.s3.presigner.S3Presigner;
 import software.amazon.awssdk.services.s3.presigner.model.GetObjectPresignRequest;
 
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
 import java.time.Duration;
-import java.util.UUID;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
 
+/**
+ * Uploads stream from the multipart temp file rather than the heap. Files up to the multipart
+ * threshold go up in a single PUT; larger ones are split into parts uploaded in parallel, with
+ * at most {@code concurrency} part buffers held per upload. Content already stored is not sent
+ * again: the upload resolves to the existing object through {@link StoredFileService}.
+ */
 @Service
 @RequiredArgsConstructor
 public class S3Service {
 
+    private static final String OCTET_STREAM = "application/octet-stream";
+    // how long generated download URLs stay valid
+    public static final Duration PRESIGN_DURATION = Duration.ofMinutes(10);
+
     private final S3Client s3Client;
     private final S3Presigner s3Presigner;
+    private final StoredFileService storedFileService;
+
+    // parts block on network IO, so a virtual thread each; the per-upload semaphore bounds them
+    private final ExecutorService partUploader = Executors.newVirtualThreadPerTaskExecutor();
 
     @Value("${aws.s3.bucket}")
     private String bucketName;
 
-    public String uploadFile(MultipartFile file){
-        if (file.getSize() > 5 * 1024 * 1024) {
-            throw new IllegalArgumentException("File size exceeds 5MB limit");
-        }
+    @Value("${app.s3.max-upload-bytes:104857600}")
+    private long maxUploadBytes;
+
+    @Value("${app.s3.multipart.threshold-bytes:16777216}")
+    private long multipartThreshold;
+
+    // S3 rejects non-final parts under 5MB
+    @Value("${app.s3.multipart.part-size-bytes:8388608}")
+    private int partSize;
+
+    @Value("${app.s3.multipart.concurrency:4}")
+    private int partConcurrency;
+
+    public String uploadFile(int userId, MultipartFile file){
+        checkUploadSize(file);
         try{
-            String fileName = UUID.randomUUID() + "_" + file.getOriginalFilename();
+            // hashing reads the local temp file, so a duplicate costs no upload bandwidth
+            String hash;
+            try (InputStream in = file.getInputStream()) {
+                hash = StoredFileService.hash(in);
+            }
+            Optional<String> existing = storedFileService.findExisting(userId, hash);
+            if (existing.isPresent()) {
+                return existing.get();
+            }
 
-            PutObjectRequest putRequest = PutObjectRequest.builder()
-                    .bucket(bucketName)
-                    .key(fileName)
-                    .contentType(file.getContentType())
-                    .build();
-            s3Client.putObject(putRequest, RequestBody.fromBytes(file.getBytes()));
+            String fileName = StoredFileService.keyFor(userId, hash);
 
-            return fileName;
+            if (file.getSize() > multipartThreshold) {
+                uploadMultipart(file, fileName);
+            } else {
+                PutObjectRequest putRequest = PutObjectRequest.builder()
+                        .bucket(bucketName)
+                        .key(fileName)
+                        .contentType(file.getContentType())
+                        .contentLength(file.getSize())
+                        .build();
+                // re-opened from the temp file if the SDK retries
+                s3Client.putObject(putRequest, RequestBody.fromContentProvider(
+                        () -> openStream(file), file.getSize(), contentTypeOf(file)));
+            }
+
+            return storedFileService.register(userId, hash, fileName, file.getSize(), file.getContentType());
         } catch (Exception e) {
             throw new S3FileUploadException(e);
         }
     }
     
+    public void checkUploadSize(MultipartFile file) {
+        if (file.getSize() > maxUploadBytes) {
+            throw new IllegalArgumentException("File size exceeds " + maxUploadBytes / (1024 * 1024) + "MB limit");
+        }
+    }
+
     public String generateUrl(String key){
         GetObjectRequest getObjectRequest = GetObjectRequest.builder()
                 .bucket(bucketName)
@@ -54,7 +120,7 @@ public class S3Service {
 
         GetObjectPresignRequest presignRequest = 
                 GetObjectPresignRequest.builder()   
-                        .signatureDuration(Duration.ofMinutes(10))
+                        .signatureDuration(PRESIGN_DURATION)
                         .getObjectRequest(getObjectRequest)
                         .build();
 
@@ -62,5 +128,113 @@ public class S3Service {
                 .url()
                 .toString();
     }
-}
 
+    @PreDestroy
+    public void shutdown() {
+        partUploader.shutdown();
+    }
+
+    private void uploadMultipart(MultipartFile file, String key) throws IOException {
+        String uploadId = s3Client.createMultipartUpload(CreateMultipartUploadRequest.builder()
+                .bucket(bucketName)
+                .key(key)
+                .contentType(file.getContentType())
+                .build()).uploadId();
+
+        try (InputStream in = file.getInputStream()) {
+            List<CompletedPart> parts = uploadParts(in, key, uploadId);
+            s3Client.completeMultipartUpload(CompleteMultipartUploadRequest.builder()
+                    .bucket(bucketName)
+                    .key(key)
+                    .uploadId(uploadId)
+                    .multipartUpload(CompletedMultipartUpload.builder().parts(parts).build())
+                    .build());
+        } catch (IOException | RuntimeException e) {
+            // otherwise the uploaded parts are kept (and billed) until a lifecycle rule clears them
+            try {
+                s3Client.abortMultipartUpload(AbortMultipartUploadRequest.builder()
+                        .bucket(bucketName)
+                        .key(key)
+                        .uploadId(uploadId)
+                        .build());
+            } catch (RuntimeException abortFailure) {
+                e.addSuppressed(abortFailure);
+            }
+            throw e;
+        }
+    }
+
+    private List<CompletedPart> uploadParts(InputStream in, String key, String uploadId) throws IOException {
+        Semaphore inFlight = new Semaphore(partConcurrency);
+        AtomicBoolean failed = new AtomicBoolean();
+        List<CompletableFuture<CompletedPart>> futures = new ArrayList<>();
+
+        try {
+            for (int partNumber = 1; !failed.get(); partNumber++) {
+                // a free slot before reading caps the buffered parts at the concurrency
+                inFlight.acquire();
+                byte[] chunk = in.readNBytes(partSize);
+                if (chunk.length == 0) {
+                    inFlight.release();
+                    break;
+                }
+
+                int number = partNumber;
+                futures.add(CompletableFuture.supplyAsync(() -> {
+                    try {
+                        return uploadPart(key, uploadId, number, chunk);
+                    } catch (RuntimeException e) {
+                        failed.set(true);
+                        throw e;
+                    } finally {
+                        inFlight.release();
+                    }
+                }, partUploader));
+
+                if (chunk.length < partSize) {
+                    break;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while uploading " + key);
+        } finally {
+            // settle every part before completing or aborting the upload
+            CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new))
+                    .exceptionally(e -> null)
+                    .join();
+        }
+
+        return futures.stream().map(CompletableFuture::join).toList();
+    }
+
+    private CompletedPart uploadPart(String key, String uploadId, int partNumber, byte[] chunk) {
+        UploadPartRequest request = UploadPartRequest.builder()
+                .bucket(bucketName)
+                .key(key)
+                .uploadId(uploadId)
+                .partNumber(partNumber)
+                .contentLength((long) chunk.length)
+                .build();
+
+        String eTag = s3Client.uploadPart(request, RequestBody.fromContentProvider(
+                () -> new ByteArrayInputStream(chunk), chunk.length, OCTET_STREAM)).eTag();
+
+        return CompletedPart.builder()
+                .partNumber(partNumber)
+                .eTag(eTag)
+                .build();
+    }
+
+    private static InputStream openStream(MultipartFile file) {
+        try {
+            return file.getInputStream();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static String contentTypeOf(MultipartFile file) {
+        return file.getContentType() == null ? OCTET_STREAM : file.getContentType();
+    }
+}
@@ -1,39 +1,160 @@
 package com.blockverse.app.service;
 
+import com.blockverse.app.dto.SearchHitResponse;
 import com.blockverse.app.dto.SearchResponse;
+import com.blockverse.app.dto.SuggestionResponse;
 import com.blockverse.app.entity.Block;
 import com.blockverse.app.entity.Document;
+import com.blockverse.app.exception.InsufficientPermissionException;
 import com.blockverse.app.mapper.BlockMapper;
 import com.blockverse.app.mapper.DocumentMapper;
 import com.blockverse.app.repo.BlockRepo;
 import com.blockverse.app.repo.DocumentRepo;
+import com.blockverse.app.repo.WorkSpaceMemberRepo;
+import com.blockverse.app.search.SearchCursor;
+import com.blockverse.app.search.SearchFilter;
+import com.blockverse.app.search.SearchHits;
+import com.blockverse.app.search.SearchIndexService;
+import com.blockverse.app.search.SearchResultCache;
+import com.blockverse.app.search.SuggestionService;
 import com.blockverse.app.security.SecurityUtil;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class SearchService {
 
+    private static final int DEFAULT_SUGGESTIONS = 8;
+
     private final DocumentRepo documentRepo;
     private final BlockRepo blockRepo;
+    private final WorkSpaceMemberRepo workSpaceMemberRepo;
     private final DocumentMapper documentMapper;
     private final BlockMapper blockMapper;
     private final SecurityUtil securityUtil;
     private final RateLimiterService rateLimiterService;
+    private final SearchIndexService searchIndexService;
+    private final SuggestionService suggestionService;
+    private final SearchResultCache searchResultCache;
+
+    // "index" serves from the in-process index, "fulltext" falls back to MySQL MATCH queries
+    @Value("${app.search.engine:index}")
+    private String engine;
+
+    @Value("${app.search.default-limit:20}")
+    private int defaultLimit;
+
+    @Value("${app.search.max-results:50}")
+    private int maxResults;
 
-    public SearchResponse search(String keyword, int workSpaceId){
+    /**
+     * Returns one page of ranked documents and blocks. {@code cursor} is the {@code nextCursor}
+     * of the previous page; the FULLTEXT fallback only ever returns a first page.
+     */
+    @Transactional(readOnly = true)
+    public SearchResponse search(String keyword, int workSpaceId, SearchFilter filter, Integer limit, String cursor){
         int userId = securityUtil.getLoggedInUser().getId();
         rateLimiterService.checkRateLimit(userId, "SEARCH");
+        // cached pages and index hits are per workspace, not per user
+        checkMembership(userId, workSpaceId);
+
+        int pageSize = limit == null ? defaultLimit : Math.max(1, Math.min(limit, maxResults));
+
+        SearchResultCache.Key key = SearchResultCache.key(workSpaceId, keyword, filter, pageSize, cursor);
+        long generation = searchResultCache.generation(workSpaceId);
+        SearchResponse cached = searchResultCache.get(key);
+        if (cached != null) {
+            return cached;
+        }
+
+        SearchResponse response = "fulltext".equals(engine)
+                ? fulltextSearch(keyword, workSpaceId, filter, pageSize)
+                : indexSearch(keyword, workSpaceId, filter, pageSize, cursor);
+        searchResultCache.put(key, generation, response);
+        return response;
+    }
+
+    private SearchResponse fulltextSearch(String keyword, int workSpaceId, SearchFilter filter, int pageSize) {
+        String type = filter.getBlockType() == null ? null : filter.getBlockType().name();
+        List<Document> documents = documentRepo.searchDocuments(keyword, workSpaceId, filter.getDocumentId(), pageSize);
+        List<Block> blocks = blockRepo.searchBlocks(keyword, workSpaceId, filter.getDocumentId(), type, pageSize);
+
+        return SearchResponse.builder()
+                .documents(documents.stream()
+                        .map(document -> new SearchHitResponse<>(documentMapper.toResponse(document), null))
+                        .toList())
+                .blocks(blocks.stream()
+                        .map(block -> new SearchHitResponse<>(blockMapper.toBlockResponse(block), null))
+                        .toList())
+                .build();
+    }
 
-        List<Document> documents = documentRepo.searchDocuments(keyword, workSpaceId);
-        List<Block> blocks = blockRepo.searchBlocks(keyword, workSpaceId);
+    private SearchResponse indexSearch(String keyword, int workSpaceId, SearchFilter filter, int pageSize, String cursor) {
+        SearchHits hits = searchIndexService.search(workSpaceId, keyword, filter, SearchCursor.decode(cursor), pageSize);
+        Map<Integer, Document> documents = resolveDocuments(hits.getDocuments(), workSpaceId);
+        Map<Integer, Block> blocks = resolveBlocks(hits.getBlocks(), workSpaceId);
 
         return SearchResponse.builder()
-                .documents(documents.stream().map(documentMapper::toResponse).toList())
-                .blocks(blocks.stream().map(blockMapper::toBlockResponse).toList())
+                .documents(hits.getDocuments().stream()
+                        .filter(hit -> documents.containsKey(hit.id()))
+                        .map(hit -> new SearchHitResponse<>(documentMapper.toResponse(documents.get(hit.id())), hit.score()))
+                        .toList())
+                .blocks(hits.getBlocks().stream()
+                        .filter(hit -> blocks.containsKey(hit.id()))
+                        .map(hit -> new SearchHitResponse<>(blockMapper.toBlockResponse(blocks.get(hit.id())), hit.score()))
+                        .toList())
+                .totalDocuments(hits.getTotalDocuments())
+                .totalBlocks(hits.getTotalBlocks())
+                .nextCursor(hits.getNextCursor() == null ? null : hits.getNextCursor().encode())
                 .build();
     }
-}
\ No newline at end of file
+
+    // has its own rate-limit bucket so typing does not use up the SEARCH budget
+    public List<SuggestionResponse> suggest(String prefix, int workSpaceId, Integer limit){
+        int userId = securityUtil.getLoggedInUser().getId();
+        rateLimiterService.checkRateLimit(userId, "SUGGEST");
+        checkMembership(userId, workSpaceId);
+
+        return suggestionService.suggest(workSpaceId, prefix, limit == null ? DEFAULT_SUGGESTIONS : limit);
+    }
+
+    private void checkMembership(int userId, int workSpaceId) {
+        workSpaceMemberRepo.findActiveRole(userId, workSpaceId)
+                .orElseThrow(() -> new InsufficientPermissionException("User is not a member of this workspace"));
+    }
+
+    // rows are re-checked so an index entry that lags a commit never leaks a hidden row
+    private Map<Integer, Document> resolveDocuments(List<SearchHits.Hit> hits, int workSpaceId) {
+        if (hits.isEmpty()) {
+            return Map.of();
+        }
+        return documentRepo.findAllById(hits.stream().map(SearchHits.Hit::id).toList())
+                .stream()
+                .filter(document -> isVisible(document, workSpaceId))
+                .collect(Collectors.toMap(Document::getId, Function.identity()));
+    }
+
+    private Map<Integer, Block> resolveBlocks(List<SearchHits.Hit> hits, int workSpaceId) {
+        if (hits.isEmpty()) {
+            return Map.of();
+        }
+        return blockRepo.findWithDocumentByIdIn(hits.stream().map(SearchHits.Hit::id).toList())
+                .stream()
+                .filter(block -> !block.isDeleted() && isVisible(block.getDocument(), workSpaceId))
+                .collect(Collectors.toMap(Block::getId, Function.identity()));
+    }
+
+    private boolean isVisible(Document document, int workSpaceId) {
+        return document.getWorkSpace().getId() == workSpaceId
+                && !document.isArchived()
+                && !document.isDeleted();
+    }
+}
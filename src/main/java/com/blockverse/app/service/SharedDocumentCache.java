@@ -0,0 +1,88 @@
+package com.blockverse.app.service;
+
+import com.blockverse.app.dto.document.DocumentDetailsResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Caches for public share links: which document a token opens, and the rendered view of each
+ * shared document at its current version. Tokens are only trusted for a short while, so a link
+ * deactivated in the database stops resolving soon after; rendered views never go stale because
+ * every edit bumps {@code Document.version}. Their image URLs are signed again on every read.
+ */
+@Service
+public class SharedDocumentCache {
+
+    private final long tokenTtlMs;
+    private final Map<String, TokenEntry> tokens;
+    private final Map<Integer, Rendered> rendered;
+
+    public record ShareTarget(int documentId, LocalDateTime expiryTime) {
+
+        public boolean isExpired() {
+            return expiryTime != null && expiryTime.isBefore(LocalDateTime.now());
+        }
+    }
+
+    private record TokenEntry(long storedAt, ShareTarget target) {
+    }
+
+    private record Rendered(long version, DocumentDetailsResponse response) {
+    }
+
+    public SharedDocumentCache(@Value("${app.share.cache.max-tokens:10000}") int maxTokens,
+                               @Value("${app.share.cache.max-documents:500}") int maxDocuments,
+                               @Value("${app.share.cache.token-ttl-ms:60000}") long tokenTtlMs) {
+        this.tokenTtlMs = tokenTtlMs;
+        this.tokens = lru(maxTokens);
+        this.rendered = lru(maxDocuments);
+    }
+
+    public ShareTarget getTarget(String token) {
+        TokenEntry entry = tokens.get(token);
+        if (entry == null) {
+            return null;
+        }
+        if (System.currentTimeMillis() - entry.storedAt() > tokenTtlMs) {
+            tokens.remove(token, entry);
+            return null;
+        }
+        return entry.target();
+    }
+
+    public void putTarget(String token, ShareTarget target) {
+        tokens.put(token, new TokenEntry(System.currentTimeMillis(), target));
+    }
+
+    public void evictTarget(String token) {
+        tokens.remove(token);
+    }
+
+    public DocumentDetailsResponse getRendered(int documentId, long version) {
+        Rendered entry = rendered.get(documentId);
+        return entry != null && entry.version() == version ? entry.response() : null;
+    }
+
+    // one entry per document; a newer version replaces the old view
+    public void putRendered(int documentId, long version, DocumentDetailsResponse response) {
+        rendered.put(documentId, new Rendered(version, response));
+    }
+
+    public void evictRendered(int documentId) {
+        rendered.remove(documentId);
+    }
+
+    private static <K, V> Map<K, V> lru(int maxEntries) {
+        return Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+                return size() > maxEntries;
+            }
+        });
+    }
+}
@@ -0,0 +1,25 @@
+package com.blockverse.app.service;
+
+import com.blockverse.app.dto.SocketBroadcastEvent;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Service;
+
+@Service
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "app.websocket.fanout", havingValue = "kafka")
+public class SocketBroadcastConsumer {
+
+    private final SocketBroadcastService socketBroadcastService;
+
+    // Every node joins its own consumer group so each relayed broadcast reaches all nodes.
+    @KafkaListener(
+            topics = "${app.kafka.topic.socket-broadcast:socket-broadcast-topic}",
+            groupId = "#{'socket-broadcast-' + T(java.util.UUID).randomUUID()}",
+            properties = "auto.offset.reset=latest"
+    )
+    public void consume(SocketBroadcastEvent event) {
+        socketBroadcastService.deliverRelayed(event);
+    }
+}
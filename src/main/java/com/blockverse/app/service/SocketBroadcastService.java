@@ -0,0 +1,58 @@
+package com.blockverse.app.service;
+
+import com.blockverse.app.config.CompactEncodingInterceptor;
+import com.blockverse.app.dto.SocketBroadcastEvent;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Service;
+
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Single entry point for server-originated STOMP broadcasts. Always delivers to clients on this
+ * node; with {@code app.websocket.fanout=kafka} it also relays the message to the other nodes.
+ * While CBOR sessions are connected the payload is also serialized to CBOR here, once per broadcast.
+ */
+@Service
+@RequiredArgsConstructor
+public class SocketBroadcastService {
+
+    private final SimpMessagingTemplate messagingTemplate;
+    private final KafkaTemplate<String, Object> kafkaTemplate;
+    private final CompactEncodingInterceptor compactEncodingInterceptor;
+
+    private final String nodeId = UUID.randomUUID().toString();
+
+    @Value("${app.websocket.fanout:local}")
+    private String fanout;
+
+    @Value("${app.kafka.topic.socket-broadcast:socket-broadcast-topic}")
+    private String socketBroadcastTopic;
+
+    public void send(String destination, Object payload) {
+        deliver(destination, payload);
+
+        if ("kafka".equals(fanout)) {
+            kafkaTemplate.send(socketBroadcastTopic, destination, SocketBroadcastEvent.builder()
+                    .originNodeId(nodeId)
+                    .destination(destination)
+                    .payload(payload)
+                    .build());
+        }
+    }
+
+    public void deliverRelayed(SocketBroadcastEvent event) {
+        if (nodeId.equals(event.getOriginNodeId())) {
+            return;
+        }
+        deliver(event.getDestination(), event.getPayload());
+    }
+
+    private void deliver(String destination, Object payload) {
+        Map<String, Object> headers = compactEncodingInterceptor.headersFor(payload);
+        messagingTemplate.convertAndSend(destination, payload, headers);
+    }
+}
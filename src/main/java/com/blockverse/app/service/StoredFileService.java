@@ -0,0 +1,176 @@
+package com.blockverse.app.service;
+
+import com.blockverse.app.entity.StoredFile;
+import com.blockverse.app.enums.BlockType;
+import com.blockverse.app.enums.ImageVariant;
+import com.blockverse.app.event.FilesReleasedEvent;
+import com.blockverse.app.exception.InsufficientPermissionException;
+import com.blockverse.app.exception.S3FileUploadException;
+import com.blockverse.app.repo.BlockRepo;
+import com.blockverse.app.repo.StoredFileRepo;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.DeleteObjectRequest;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * Content-addressed dedupe index over uploaded files. A user's uploads of the same bytes resolve
+ * to one object stored under a key derived from the uploader and the hash; dedupe never matches
+ * another user's upload, so it cannot confirm what anyone else stored. A block may only show a key
+ * its author uploaded or one an image block of the same workspace already shows, so a guessed key
+ * never yields a presigned URL for another tenant's object.
+ * References are held by image blocks: creating or pointing a block at a
+ * key takes one, replacing or permanently deleting it gives it back. A sweep removes objects that
+ * have had no references for the grace period, which covers both uploads never attached to a
+ * block and images a version restore may still bring back within that window.
+ */
+@Service
+@RequiredArgsConstructor
+public class StoredFileService {
+
+    private static final int SWEEP_BATCH = 100;
+
+    private final StoredFileRepo storedFileRepo;
+    private final BlockRepo blockRepo;
+    private final S3Client s3Client;
+    private final ImageVariantService imageVariantService;
+
+    @Value("${aws.s3.bucket}")
+    private String bucketName;
+
+    @Value("${app.files.orphan-grace-ms:604800000}")
+    private long orphanGraceMs;
+
+    public static String hash(InputStream in) throws IOException {
+        try (DigestInputStream digestIn = new DigestInputStream(in, MessageDigest.getInstance("SHA-256"))) {
+            digestIn.transferTo(OutputStream.nullOutputStream());
+            return HexFormat.of().formatHex(digestIn.getMessageDigest().digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public static String keyFor(int ownerId, String hash) {
+        return "files/" + ownerId + "/" + hash;
+    }
+
+    /**
+     * Returns the key of the object this user already stored for this content, if there is one,
+     * and restarts its grace period so the sweep leaves it alone until the caller attaches it.
+     */
+    public Optional<String> findExisting(int ownerId, String hash) {
+        if (storedFileRepo.touch(ownerId, hash, LocalDateTime.now()) == 0) {
+            return Optional.empty();
+        }
+        return storedFileRepo.findByOwnerIdAndHash(ownerId, hash).map(StoredFile::getStorageKey);
+    }
+
+    /**
+     * Rejects pointing an image block at a key the user neither uploaded nor can already see in
+     * the workspace.
+     */
+    public void checkAttachable(int userId, int workSpaceId, String storageKey) {
+        if (storageKey == null
+                || storedFileRepo.existsByOwnerIdAndStorageKey(userId, storageKey)
+                || blockRepo.findContentByWorkSpaceIdAndType(workSpaceId, BlockType.IMAGE).contains(storageKey)) {
+            return;
+        }
+        throw new InsufficientPermissionException("Image is neither your upload nor used in this workspace");
+    }
+
+    /**
+     * Records a freshly uploaded object, unreferenced until a block attaches it. If a concurrent
+     * upload of the same content registered first, its key is returned instead.
+     */
+    public String register(int ownerId, String hash, String storageKey, long size, String contentType) {
+        try {
+            storedFileRepo.saveAndFlush(StoredFile.builder()
+                    .ownerId(ownerId)
+                    .hash(hash)
+                    .storageKey(storageKey)
+                    .size(size)
+                    .contentType(contentType)
+                    .referenceCount(0)
+                    .lastUsedAt(LocalDateTime.now())
+                    // non-images are settled up front with no variants
+                    .variants(ImageVariantService.isImage(contentType) ? null : "")
+                    .build());
+            if (ImageVariantService.isImage(contentType)) {
+                imageVariantService.submit(storageKey);
+            }
+            return storageKey;
+        } catch (DataIntegrityViolationException e) {
+            String winner = findExisting(ownerId, hash)
+                    .orElseThrow(() -> new S3FileUploadException("Failed to register uploaded file", e));
+            // same content under the same key is the winner's object; only an older naming differs
+            if (!winner.equals(storageKey)) {
+                deleteObject(storageKey);
+            }
+            return winner;
+        }
+    }
+
+    /**
+     * Moves a block's reference from its previous image to its new one, in the caller's
+     * transaction. Either side may be a non-image or unchanged, in which case nothing moves.
+     */
+    public void updateReference(BlockType oldType, String oldContent, BlockType newType, String newContent) {
+        if (oldType == newType && Objects.equals(oldContent, newContent)) {
+            return;
+        }
+        if (newType == BlockType.IMAGE && newContent != null) {
+            storedFileRepo.acquireReference(newContent);
+        }
+        if (oldType == BlockType.IMAGE && oldContent != null) {
+            storedFileRepo.releaseReference(oldContent, LocalDateTime.now());
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onFilesReleased(FilesReleasedEvent event) {
+        LocalDateTime now = LocalDateTime.now();
+        for (String storageKey : event.getStorageKeys()) {
+            storedFileRepo.releaseReference(storageKey, now);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.files.sweep-interval-ms:600000}")
+    public void sweepUnreferenced() {
+        LocalDateTime cutoff = LocalDateTime.now().minusNanos(orphanGraceMs * 1_000_000);
+        List<StoredFile> unreferenced = storedFileRepo.findByReferenceCountAndLastUsedAtBefore(
+                0, cutoff, PageRequest.of(0, SWEEP_BATCH));
+        for (StoredFile file : unreferenced) {
+            if (storedFileRepo.deleteIfUnreferenced(file.getId(), cutoff) == 1) {
+                deleteObject(file.getStorageKey());
+                for (ImageVariant variant : ImageVariantService.parse(file.getVariants())) {
+                    deleteObject(variant.keyFor(file.getStorageKey()));
+                }
+            }
+        }
+    }
+
+    private void deleteObject(String storageKey) {
+        s3Client.deleteObject(DeleteObjectRequest.builder()
+                .bucket(bucketName)
+                .key(storageKey)
+                .build());
+    }
+}
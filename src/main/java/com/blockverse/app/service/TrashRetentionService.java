@@ -0,0 +1,94 @@
+package com.blockverse.app.service;
+
+import com.blockverse.app.entity.Document;
+import com.blockverse.app.event.DocumentChangedEvent;
+import com.blockverse.app.repo.DocumentRepo;
+import com.blockverse.app.repo.MaintenanceMarkerRepo;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Purges documents that have been in the trash longer than the retention TTL. Each run hands at
+ * most one batch to {@link DocumentPurgeService}, whose background thread deletes them with a
+ * pause between chunks; no new batch is taken until the previous one has drained. Documents are
+ * claimed before they are queued, so other nodes skip them, and ones that failed
+ * {@code max-attempts} times are parked until a permanent delete retries them by hand.
+ * <p>
+ * Inserting a {@code trash_retention_paused} row into {@code maintenance_marker} pauses the worker
+ * on every node from its next run, without a restart; the batch already handed over still drains.
+ * Deleting the row resumes it.
+ */
+@Service
+public class TrashRetentionService {
+
+    static final String PAUSE_MARKER = "trash_retention_paused";
+
+    private final DocumentRepo documentRepo;
+    private final DocumentPurgeService documentPurgeService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final MaintenanceMarkerRepo maintenanceMarkerRepo;
+    private final boolean enabled;
+    private final long ttlDays;
+    private final int batchSize;
+    private final long chunkPauseMs;
+    private final int maxAttempts;
+    private final Counter queued;
+
+    public TrashRetentionService(DocumentRepo documentRepo,
+                                 DocumentPurgeService documentPurgeService,
+                                 ApplicationEventPublisher eventPublisher,
+                                 MaintenanceMarkerRepo maintenanceMarkerRepo,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${app.trash.retention.enabled:true}") boolean enabled,
+                                 @Value("${app.trash.retention.ttl-days:30}") long ttlDays,
+                                 @Value("${app.trash.retention.batch-size:10}") int batchSize,
+                                 @Value("${app.trash.retention.chunk-pause-ms:100}") long chunkPauseMs,
+                                 @Value("${app.trash.retention.max-attempts:10}") int maxAttempts) {
+        this.documentRepo = documentRepo;
+        this.documentPurgeService = documentPurgeService;
+        this.eventPublisher = eventPublisher;
+        this.maintenanceMarkerRepo = maintenanceMarkerRepo;
+        this.enabled = enabled;
+        this.ttlDays = ttlDays;
+        this.batchSize = batchSize;
+        this.chunkPauseMs = chunkPauseMs;
+        this.maxAttempts = maxAttempts;
+        this.queued = Counter.builder("trash.retention.queued")
+                .description("Expired trash documents handed to the purge worker")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${app.trash.retention.interval-ms:300000}")
+    public void purgeExpired() {
+        // read on every run, so operators can pause a runaway purge while the nodes keep running
+        if (!enabled || maintenanceMarkerRepo.existsById(PAUSE_MARKER) || documentPurgeService.pendingPurges() > 0) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        List<Document> purgeable = documentRepo.findPurgeable(now.minusDays(ttlDays), now,
+                documentPurgeService.leaseCutoff(now), maxAttempts, PageRequest.of(0, batchSize));
+        for (Document document : purgeable) {
+            if (!document.isPurging()) {
+                if (documentRepo.markPurging(document.getId()) == 0) {
+                    // restored since it was read
+                    continue;
+                }
+                eventPublisher.publishEvent(DocumentChangedEvent.removed(document));
+            }
+            if (!documentPurgeService.claim(document.getId())) {
+                // another node picked it up first
+                continue;
+            }
+            documentPurgeService.enqueue(document.getId(), chunkPauseMs);
+            queued.increment();
+        }
+    }
+}
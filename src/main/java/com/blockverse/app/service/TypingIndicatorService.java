@@ -0,0 +1,122 @@
+package com.blockverse.app.service;
+
+import com.blockverse.app.dto.activityFeed.TypingEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Debounces typing indicators per (document, block, user): "start_typing" is broadcast once and
+ * "stop_typing" follows an explicit stop or the idle timeout. Expiry runs on a hashed timer
+ * wheel; keystrokes only push the deadline forward and entries are re-slotted when their bucket
+ * comes round.
+ */
+@Service
+public class TypingIndicatorService {
+
+    public static final String START_TYPING = "start_typing";
+    public static final String STOP_TYPING = "stop_typing";
+
+    private final SocketBroadcastService socketBroadcastService;
+    private final long idleTimeoutMs;
+    private final long tickMs;
+
+    private final Map<TypingKey, TypingState> active = new ConcurrentHashMap<>();
+    private final Queue<TypingState>[] wheel;
+    private final AtomicLong currentTick = new AtomicLong();
+
+    private record TypingKey(int documentId, int blockId, int userId) {
+    }
+
+    private static final class TypingState {
+        private final TypingKey key;
+        private volatile long deadline;
+
+        private TypingState(TypingKey key, long deadline) {
+            this.key = key;
+            this.deadline = deadline;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    public TypingIndicatorService(SocketBroadcastService socketBroadcastService,
+                                  @Value("${app.websocket.typing.idle-timeout-ms:3000}") long idleTimeoutMs,
+                                  @Value("${app.websocket.typing.tick-ms:250}") long tickMs) {
+        this.socketBroadcastService = socketBroadcastService;
+        this.idleTimeoutMs = idleTimeoutMs;
+        this.tickMs = tickMs;
+
+        int slots = (int) Math.max(2, (idleTimeoutMs + tickMs - 1) / tickMs + 1);
+        this.wheel = new Queue[slots];
+        for (int i = 0; i < slots; i++) {
+            wheel[i] = new ConcurrentLinkedQueue<>();
+        }
+    }
+
+    public void onTypingEvent(TypingEvent event) {
+        TypingKey key = new TypingKey(event.getDocumentId(), event.getBlockId(), event.getUserId());
+
+        if (STOP_TYPING.equals(event.getAction())) {
+            if (active.remove(key) != null) {
+                broadcast(key, STOP_TYPING);
+            }
+            return;
+        }
+
+        long deadline = System.currentTimeMillis() + idleTimeoutMs;
+        TypingState fresh = new TypingState(key, deadline);
+        TypingState existing = active.putIfAbsent(key, fresh);
+        if (existing != null) {
+            existing.deadline = deadline;
+            return;
+        }
+        schedule(fresh, deadline - System.currentTimeMillis());
+        broadcast(key, START_TYPING);
+    }
+
+    @Scheduled(fixedRateString = "${app.websocket.typing.tick-ms:250}")
+    public void tick() {
+        long tick = currentTick.getAndIncrement();
+        Queue<TypingState> bucket = wheel[(int) (tick % wheel.length)];
+        long now = System.currentTimeMillis();
+
+        // drain first: a full-revolution reschedule can land back in this bucket
+        List<TypingState> due = new ArrayList<>();
+        TypingState polled;
+        while ((polled = bucket.poll()) != null) {
+            due.add(polled);
+        }
+
+        for (TypingState state : due) {
+            // superseded by an explicit stop or a newer session of typing
+            if (active.get(state.key) != state) {
+                continue;
+            }
+            if (state.deadline > now) {
+                schedule(state, state.deadline - now);
+            } else if (active.remove(state.key, state)) {
+                broadcast(state.key, STOP_TYPING);
+            }
+        }
+    }
+
+    private void schedule(TypingState state, long delayMs) {
+        long ticks = Math.max(1, Math.min(wheel.length - 1, (delayMs + tickMs - 1) / tickMs));
+        wheel[(int) ((currentTick.get() + ticks) % wheel.length)].add(state);
+    }
+
+    private void broadcast(TypingKey key, String action) {
+        socketBroadcastService.send(
+                "/topic/document." + key.documentId() + ".typing",
+                new TypingEvent(key.documentId(), key.blockId(), key.userId(), action)
+        );
+    }
+}
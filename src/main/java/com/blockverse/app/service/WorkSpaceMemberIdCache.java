@@ -0,0 +1,98 @@
+package com.blockverse.app.service;
+
+import com.blockverse.app.event.WorkSpaceMembershipChangedEvent;
+import com.blockverse.app.repo.WorkSpaceMemberRepo;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+
+/**
+ * Bounded LRU of the active member ids of each workspace, kept as sorted int arrays. Entries are
+ * tagged with the workspace's generation, which every committed membership change on this node
+ * bumps, and loads run in their own transaction so they read committed rows rather than the
+ * caller's snapshot. Changes committed on other nodes arrive through
+ * {@link WorkSpaceMembershipRelay}; the TTL bounds how long an entry can be stale if a relayed
+ * change is lost.
+ */
+@Service
+public class WorkSpaceMemberIdCache {
+
+    private final WorkSpaceMemberRepo workSpaceMemberRepo;
+    private final TransactionTemplate loadTransaction;
+    private final long ttlMs;
+    private final Map<Integer, Entry> entries;
+    private final Map<Integer, AtomicLong> generations = new ConcurrentHashMap<>();
+
+    private record Entry(long generation, long loadedAt, int[] memberIds) {
+    }
+
+    public WorkSpaceMemberIdCache(WorkSpaceMemberRepo workSpaceMemberRepo,
+                                  PlatformTransactionManager transactionManager,
+                                  @Value("${app.workspace.member-cache.max-entries:10000}") int maxEntries,
+                                  @Value("${app.workspace.member-cache.ttl-ms:60000}") long ttlMs) {
+        this.workSpaceMemberRepo = workSpaceMemberRepo;
+        // a caller's REPEATABLE READ snapshot can predate a membership change whose bump has
+        // already happened, so the load must not run in it
+        this.loadTransaction = new TransactionTemplate(transactionManager);
+        this.loadTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.loadTransaction.setReadOnly(true);
+        this.ttlMs = ttlMs;
+        this.entries = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, Entry> eldest) {
+                return size() > maxEntries;
+            }
+        });
+    }
+
+    /**
+     * Active member ids in ascending order. The returned array is shared; callers must not modify it.
+     */
+    public int[] memberIds(int workSpaceId) {
+        long generation = generation(workSpaceId);
+        long now = System.currentTimeMillis();
+        Entry entry = entries.get(workSpaceId);
+        if (entry != null && entry.generation() == generation && now - entry.loadedAt() <= ttlMs) {
+            return entry.memberIds();
+        }
+        int[] memberIds = loadTransaction.execute(status -> workSpaceMemberRepo.findActiveUserIdsByWorkSpaceId(workSpaceId)
+                .stream()
+                .mapToInt(Integer::intValue)
+                .toArray());
+        entries.put(workSpaceId, new Entry(generation, now, memberIds));
+        return memberIds;
+    }
+
+    /**
+     * Notification recipients for an action in the workspace: every active member but the actor.
+     */
+    public List<Integer> recipientsExcept(int workSpaceId, int actorId) {
+        return IntStream.of(memberIds(workSpaceId))
+                .filter(id -> id != actorId)
+                .boxed()
+                .toList();
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onMembershipChanged(WorkSpaceMembershipChangedEvent event) {
+        generations.computeIfAbsent(event.getWorkspaceId(), id -> new AtomicLong()).incrementAndGet();
+        entries.remove(event.getWorkspaceId());
+    }
+
+    private long generation(int workSpaceId) {
+        AtomicLong generation = generations.get(workSpaceId);
+        return generation == null ? 0 : generation.get();
+    }
+}
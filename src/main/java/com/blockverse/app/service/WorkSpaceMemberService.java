@@ -6,6 +6,7 @@ import com.blockverse.app.dto.workspaceMember.ChangeMemberRoleRequest;
 import com.blockverse.app.entity.User;
 import com.blockverse.app.entity.WorkSpace;
 import com.blockverse.app.entity.WorkSpaceMember;
+import com.blockverse.app.event.WorkSpaceMembershipChangedEvent;
 import com.blockverse.app.enums.AuditActionType;
 import com.blockverse.app.enums.AuditEntityType;
 import com.blockverse.app.enums.NotificationType;
@@ -17,6 +18,7 @@ import com.blockverse.app.repo.WorkSpaceMemberRepo;
 import com.blockverse.app.repo.WorkSpaceRepo;
 import com.blockverse.app.security.SecurityUtil;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -39,6 +41,8 @@ public class WorkSpaceMemberService {
     private final AuditLogService auditLogService;
     private final NotificationService notificationService;
     private final RateLimiterService rateLimiterService;
+    private final WorkSpaceSummaryService workSpaceSummaryService;
+    private final ApplicationEventPublisher eventPublisher;
 
     
     private WorkSpace getWorkSpaceOrThrow(int workspaceId) {
@@ -46,6 +50,12 @@ public class WorkSpaceMemberService {
                 .orElseThrow(() -> new WorkSpaceNotFoundException("WorkSpace not found"));
     }
     
+    // taken before the membership write, so the summary recount sees every concurrent change committed
+    private WorkSpace lockWorkSpaceOrThrow(int workspaceId) {
+        return workSpaceRepo.lockById(workspaceId)
+                .orElseThrow(() -> new WorkSpaceNotFoundException("WorkSpace not found"));
+    }
+    
     private WorkSpaceMember getMembershipOrThrow(User user, WorkSpace workSpace) {
         return workSpaceMemberRepo.findByUserAndWorkSpaceAndDeletedAtIsNull(user, workSpace)
                 .orElseThrow(() -> new NotWorkSpaceMemberException("User is not a member of this workspace"));
@@ -65,7 +75,7 @@ public class WorkSpaceMemberService {
         
         User currentUser = securityUtil.getLoggedInUser();
         rateLimiterService.checkRateLimit(currentUser.getId(), "ADD_WORKSPACE_MEMBER");
-        WorkSpace workSpace = getWorkSpaceOrThrow(workspaceId);
+        WorkSpace workSpace = lockWorkSpaceOrThrow(workspaceId);
         
         WorkSpaceMember currentUserMembership =  getMembershipOrThrow(currentUser, workSpace);
         
@@ -88,6 +98,8 @@ public class WorkSpaceMemberService {
                 member.setDeletedAt(null);
                 member.setRole(request.getRole());
                 workSpaceMemberRepo.save(member);
+                workSpaceSummaryService.memberJoined(workSpace, user, request.getRole());
+                eventPublisher.publishEvent(new WorkSpaceMembershipChangedEvent(workSpace.getId()));
                 notificationService.sendNotification(NotificationEvent.builder()
                         .userId(user.getId())
                         .message("You have been re-added to the workspace: " + workSpace.getName() + " with role: " + request.getRole())
@@ -117,6 +129,8 @@ public class WorkSpaceMemberService {
                         .role(request.getRole())
                         .build()
         );
+        workSpaceSummaryService.memberJoined(workSpace, user, request.getRole());
+        eventPublisher.publishEvent(new WorkSpaceMembershipChangedEvent(workSpace.getId()));
 
         notificationService.sendNotification(NotificationEvent.builder()
                 .userId(user.getId())
@@ -130,7 +144,7 @@ public class WorkSpaceMemberService {
     public void removeMemberFromWorkSpace(int workspaceId, String email){
         User currentUser = securityUtil.getLoggedInUser();
         rateLimiterService.checkRateLimit(currentUser.getId(), "REMOVE_WORKSPACE_MEMBER");
-        WorkSpace workSpace = getWorkSpaceOrThrow(workspaceId);
+        WorkSpace workSpace = lockWorkSpaceOrThrow(workspaceId);
         
         WorkSpaceMember currentUserMembership = getMembershipOrThrow(currentUser, workSpace);
         
@@ -170,6 +184,8 @@ public class WorkSpaceMemberService {
         
         membershipToRemove.setDeletedAt(LocalDateTime.now());
         workSpaceMemberRepo.save(membershipToRemove);
+        workSpaceSummaryService.memberLeft(workSpace, user);
+        eventPublisher.publishEvent(new WorkSpaceMembershipChangedEvent(workSpace.getId()));
     }
     
     public void changeMemberRole(int workspaceId, ChangeMemberRoleRequest request){
@@ -218,11 +234,12 @@ public class WorkSpaceMemberService {
         
         membershipToChange.setRole(request.getRole());
         workSpaceMemberRepo.save(membershipToChange);
+        workSpaceSummaryService.roleChanged(workSpace, user, request.getRole());
     }
     
     public void leaveWorkSpace(int workspaceId){
         User user = securityUtil.getLoggedInUser();
-        WorkSpace workSpace = getWorkSpaceOrThrow(workspaceId);
+        WorkSpace workSpace = lockWorkSpaceOrThrow(workspaceId);
         
         WorkSpaceMember currentUserMembership = getMembershipOrThrow(user, workSpace);
         
@@ -252,6 +269,8 @@ public class WorkSpaceMemberService {
         
         currentUserMembership.setDeletedAt(LocalDateTime.now());
         workSpaceMemberRepo.save(currentUserMembership);
+        workSpaceSummaryService.memberLeft(workSpace, user);
+        eventPublisher.publishEvent(new WorkSpaceMembershipChangedEvent(workSpace.getId()));
     }
     
     public void transferOwnership(int workspaceId, String newOwnerEmail){
@@ -296,6 +315,7 @@ public class WorkSpaceMemberService {
 
         workSpaceMemberRepo.save(newOwnerMembership);
         workSpaceMemberRepo.save(currentUserMembership);
+        workSpaceSummaryService.ownershipTransferred(workSpace, user, newOwner);
     }
     
     public int countMembersInWorkSpace(int workSpaceId){
@@ -0,0 +1,25 @@
+package com.blockverse.app.service;
+
+import com.blockverse.app.dto.MembershipChangeEvent;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Service;
+
+@Service
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "app.workspace.membership-relay", havingValue = "kafka")
+public class WorkSpaceMembershipConsumer {
+
+    private final WorkSpaceMembershipRelay workSpaceMembershipRelay;
+
+    // Every node joins its own consumer group so each change reaches all nodes.
+    @KafkaListener(
+            topics = "${app.kafka.topic.membership-change:membership-change-topic}",
+            groupId = "#{'membership-change-' + T(java.util.UUID).randomUUID()}",
+            properties = "auto.offset.reset=latest"
+    )
+    public void consume(MembershipChangeEvent event) {
+        workSpaceMembershipRelay.applyRelayed(event);
+    }
+}
@@ -0,0 +1,52 @@
+package com.blockverse.app.service;
+
+import com.blockverse.app.dto.MembershipChangeEvent;
+import com.blockverse.app.event.WorkSpaceMembershipChangedEvent;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.UUID;
+
+/**
+ * {@link WorkSpaceMemberIdCache} is per node and only sees its own node's membership commits.
+ * With {@code app.workspace.membership-relay=kafka} each commit is also published to Kafka and
+ * retires the workspace's entry on the other nodes.
+ */
+@Service
+@RequiredArgsConstructor
+public class WorkSpaceMembershipRelay {
+
+    private final KafkaTemplate<String, Object> kafkaTemplate;
+    private final WorkSpaceMemberIdCache workSpaceMemberIdCache;
+
+    private final String nodeId = UUID.randomUUID().toString();
+
+    @Value("${app.workspace.membership-relay:local}")
+    private String membershipRelay;
+
+    @Value("${app.kafka.topic.membership-change:membership-change-topic}")
+    private String membershipChangeTopic;
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onMembershipChanged(WorkSpaceMembershipChangedEvent event) {
+        if (!"kafka".equals(membershipRelay)) {
+            return;
+        }
+        kafkaTemplate.send(membershipChangeTopic, String.valueOf(event.getWorkspaceId()),
+                MembershipChangeEvent.builder()
+                        .originNodeId(nodeId)
+                        .workspaceId(event.getWorkspaceId())
+                        .build());
+    }
+
+    public void applyRelayed(MembershipChangeEvent event) {
+        if (nodeId.equals(event.getOriginNodeId())) {
+            return;
+        }
+        workSpaceMemberIdCache.onMembershipChanged(new WorkSpaceMembershipChangedEvent(event.getWorkspaceId()));
+    }
+}
@@ -8,6 +8,8 @@ import com.blockverse.app.entity.WorkSpace;
 import com.blockverse.app.entity.WorkSpaceMember;
 import com.blockverse.app.enums.AuditActionType;
 import com.blockverse.app.enums.AuditEntityType;
+import com.blockverse.app.enums.WorkSpaceRole;
+import com.blockverse.app.event.WorkSpaceMembershipChangedEvent;
 import com.blockverse.app.exception.InsufficientPermissionException;
 import com.blockverse.app.exception.NotWorkSpaceMemberException;
 import com.blockverse.app.exception.WorkSpaceNotFoundException;
@@ -16,6 +18,7 @@ import com.blockverse.app.repo.WorkSpaceMemberRepo;
 import com.blockverse.app.repo.WorkSpaceRepo;
 import com.blockverse.app.security.SecurityUtil;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -35,14 +38,16 @@ public class WorkSpaceService {
     private final SecurityUtil securityUtil;
     private final AuditLogService auditLogService;
     private final RateLimiterService rateLimiterService;
+    private final WorkSpaceSummaryService workSpaceSummaryService;
+    private final ApplicationEventPublisher eventPublisher;
 
     private WorkSpace getWorkSpaceOrThrow(int workspaceId) {
         return workSpaceRepo.findByIdAndDeletedAtIsNull(workspaceId)
                 .orElseThrow(() -> new WorkSpaceNotFoundException("WorkSpace not found"));
     }
 
-    private WorkSpaceMember getMembershipOrThrow(User user, WorkSpace workSpace) {
-        return workSpaceMemberRepo.findByUserAndWorkSpaceAndDeletedAtIsNull(user, workSpace)
+    private WorkSpaceRole getRoleOrThrow(User user, WorkSpace workSpace) {
+        return workSpaceMemberRepo.findActiveRole(user.getId(), workSpace.getId())
                 .orElseThrow(() -> new NotWorkSpaceMemberException("User is not a member of this workspace"));
     }
 
@@ -67,6 +72,7 @@ public class WorkSpaceService {
                         .role(OWNER)
                         .build()
         );
+        workSpaceSummaryService.workspaceCreated(workSpace, currentUser);
 
         auditLogService.auditLog(
                 workSpace.getId(),
@@ -87,9 +93,9 @@ public class WorkSpaceService {
         
         WorkSpace workSpace = getWorkSpaceOrThrow(workspaceId);
         
-        WorkSpaceMember membership = getMembershipOrThrow(currentUser, workSpace);
+        WorkSpaceRole role = getRoleOrThrow(currentUser, workSpace);
         
-        if(membership.getRole() != OWNER){
+        if(role != OWNER){
             throw new InsufficientPermissionException("Only owner can delete the workspace");
         }
 
@@ -103,19 +109,21 @@ public class WorkSpaceService {
         );
         
         workSpace.setDeletedAt(LocalDateTime.now());
+        workSpaceSummaryService.workspaceDeleted(workSpace);
+        eventPublisher.publishEvent(new WorkSpaceMembershipChangedEvent(workSpace.getId()));
     }
     
     
     public List<WorkSpaceDetailsResponse> getAllWorkSpacesForUser(){
         User currentUser =  securityUtil.getLoggedInUser();
-        return workSpaceMemberRepo.findWorkspaceDetailsForUserAndDeletedAtIsNull(currentUser);
+        return workSpaceSummaryService.findForUser(currentUser);
     }
     
     
     public WorkSpaceDetailsResponse getWorkSpaceDetails(int workspaceId){
         User currentUser =  securityUtil.getLoggedInUser();
         
-        return workSpaceMemberRepo.findWorkspaceDetailsForUserAndWorkspaceId(currentUser, workspaceId)
+        return workSpaceSummaryService.findForUser(currentUser, workspaceId)
                 .orElseThrow(() -> new NotWorkSpaceMemberException("Not a member or workspace not found"));
     }
     
@@ -127,11 +135,11 @@ public class WorkSpaceService {
         rateLimiterService.checkRateLimit(currentUser.getId(), "WORKSPACE_UPDATE");
         WorkSpace workSpace = getWorkSpaceOrThrow(workSpaceId);
         
-        WorkSpaceMember membership =  workSpaceMemberRepo
-                .findByUserAndWorkSpaceAndDeletedAtIsNull(currentUser, workSpace)
+        WorkSpaceRole role =  workSpaceMemberRepo
+                .findActiveRole(currentUser.getId(), workSpace.getId())
                 .orElseThrow(() -> new NotWorkSpaceMemberException("Not a member"));
         
-        if(membership.getRole() != OWNER && membership.getRole() != ADMIN){
+        if(role != OWNER && role != ADMIN){
             throw new InsufficientPermissionException("You are not allowed to update the workspace");
         }
 
@@ -146,5 +154,6 @@ public class WorkSpaceService {
         
         workSpace.setName(request.getName());
         workSpace.setType(request.getWorkSpaceType());
+        workSpaceSummaryService.workspaceUpdated(workSpace);
     }
 }
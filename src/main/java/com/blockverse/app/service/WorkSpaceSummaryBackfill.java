@@ -0,0 +1,31 @@
+package com.blockverse.app.service;
+
+import com.blockverse.app.repo.MaintenanceMarkerRepo;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+
+/**
+ * Runs the summary backfill while the context is still starting, before the web server and the
+ * Kafka listeners are up, so no request is served from a half-built read model.
+ */
+@Service
+@RequiredArgsConstructor
+public class WorkSpaceSummaryBackfill implements SmartInitializingSingleton {
+
+    private final MaintenanceMarkerRepo maintenanceMarkerRepo;
+    private final WorkSpaceSummaryService workSpaceSummaryService;
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        if (!maintenanceMarkerRepo.existsById(WorkSpaceSummaryService.BACKFILL_MARKER)) {
+            try {
+                maintenanceMarkerRepo.insert(WorkSpaceSummaryService.BACKFILL_MARKER);
+            } catch (DataIntegrityViolationException e) {
+                // another node inserted it first; the lock in backfill() orders the two runs
+            }
+        }
+        workSpaceSummaryService.backfill();
+    }
+}
@@ -0,0 +1,180 @@
+package com.blockverse.app.service;
+
+import com.blockverse.app.dto.user.OwnerInfo;
+import com.blockverse.app.dto.workspace.WorkSpaceDetailsResponse;
+import com.blockverse.app.entity.MaintenanceMarker;
+import com.blockverse.app.entity.User;
+import com.blockverse.app.entity.WorkSpace;
+import com.blockverse.app.entity.WorkSpaceMember;
+import com.blockverse.app.entity.WorkSpaceSummary;
+import com.blockverse.app.enums.WorkSpaceRole;
+import com.blockverse.app.repo.MaintenanceMarkerRepo;
+import com.blockverse.app.repo.WorkSpaceMemberRepo;
+import com.blockverse.app.repo.WorkSpaceSummaryRepo;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Maintains {@link WorkSpaceSummary} rows. Every method runs inside the caller's transaction, so
+ * the read model commits or rolls back together with the membership change it reflects. Callers
+ * of {@link #memberJoined} and {@link #memberLeft} hold the workspace row lock from before their
+ * membership write, so concurrent changes of one workspace recount one after another.
+ */
+@Service
+@Transactional
+@RequiredArgsConstructor
+public class WorkSpaceSummaryService {
+
+    static final String BACKFILL_MARKER = "work_space_summary_backfill";
+
+    private final WorkSpaceSummaryRepo workSpaceSummaryRepo;
+    private final WorkSpaceMemberRepo workSpaceMemberRepo;
+    private final MaintenanceMarkerRepo maintenanceMarkerRepo;
+
+    public List<WorkSpaceDetailsResponse> findForUser(User user) {
+        return workSpaceSummaryRepo.findByUserIdOrderByWorkspaceIdAsc(user.getId()).stream()
+                .map(this::toResponse)
+                .toList();
+    }
+
+    public Optional<WorkSpaceDetailsResponse> findForUser(User user, int workspaceId) {
+        return workSpaceSummaryRepo.findByUserIdAndWorkspaceId(user.getId(), workspaceId)
+                .map(this::toResponse);
+    }
+
+    public void workspaceCreated(WorkSpace workSpace, User owner) {
+        workSpaceSummaryRepo.save(WorkSpaceSummary.builder()
+                .userId(owner.getId())
+                .workspaceId(workSpace.getId())
+                .workspaceName(workSpace.getName())
+                .workspaceType(workSpace.getType())
+                .ownerId(owner.getId())
+                .ownerName(owner.getName())
+                .memberCount(1)
+                .role(WorkSpaceRole.OWNER)
+                .build());
+    }
+
+    public void workspaceUpdated(WorkSpace workSpace) {
+        workSpaceSummaryRepo.updateWorkspace(workSpace.getId(), workSpace.getName(), workSpace.getType());
+    }
+
+    public void workspaceDeleted(WorkSpace workSpace) {
+        workSpaceSummaryRepo.deleteWorkspace(workSpace.getId());
+    }
+
+    public void memberJoined(WorkSpace workSpace, User user, WorkSpaceRole role) {
+        Optional<WorkSpaceSummary> existing = workSpaceSummaryRepo.findFirstByWorkspaceId(workSpace.getId());
+        // recounted rather than incremented, so a missed update cannot drift forever
+        long memberCount = countMembers(workSpace);
+        OwnerInfo owner = existing
+                .map(this::ownerOf)
+                .orElseGet(() -> findOwner(workSpace));
+
+        workSpaceSummaryRepo.updateMemberCount(workSpace.getId(), memberCount);
+        workSpaceSummaryRepo.save(WorkSpaceSummary.builder()
+                .userId(user.getId())
+                .workspaceId(workSpace.getId())
+                .workspaceName(workSpace.getName())
+                .workspaceType(workSpace.getType())
+                .ownerId(owner.getId())
+                .ownerName(owner.getName())
+                .memberCount(memberCount)
+                .role(role)
+                .build());
+    }
+
+    public void memberLeft(WorkSpace workSpace, User user) {
+        workSpaceSummaryRepo.deleteMembership(user.getId(), workSpace.getId());
+        workSpaceSummaryRepo.updateMemberCount(workSpace.getId(), countMembers(workSpace));
+    }
+
+    public void roleChanged(WorkSpace workSpace, User user, WorkSpaceRole role) {
+        workSpaceSummaryRepo.updateRole(user.getId(), workSpace.getId(), role);
+    }
+
+    public void ownershipTransferred(WorkSpace workSpace, User previousOwner, User newOwner) {
+        workSpaceSummaryRepo.updateRole(previousOwner.getId(), workSpace.getId(), WorkSpaceRole.ADMIN);
+        workSpaceSummaryRepo.updateRole(newOwner.getId(), workSpace.getId(), WorkSpaceRole.OWNER);
+        workSpaceSummaryRepo.updateOwner(workSpace.getId(), newOwner.getId(), newOwner.getName());
+    }
+
+    /**
+     * Builds the rows of memberships that have none, once per database. Holds the lock on the
+     * marker row for the whole run, so nodes starting together wait for the first one and then
+     * see it completed. Pairs that already have a row are skipped, which makes an interrupted or
+     * repeated run safe.
+     */
+    public void backfill() {
+        MaintenanceMarker marker = maintenanceMarkerRepo.lockByName(BACKFILL_MARKER)
+                .orElseThrow(() -> new IllegalStateException("Missing maintenance marker " + BACKFILL_MARKER));
+        if (marker.getCompletedAt() != null) {
+            return;
+        }
+        Map<WorkSpace, List<WorkSpaceMember>> byWorkspace = workSpaceMemberRepo.findActiveMembershipsOfActiveWorkspaces()
+                .stream()
+                .collect(Collectors.groupingBy(WorkSpaceMember::getWorkSpace));
+
+        byWorkspace.forEach((workSpace, members) -> {
+            Optional<User> owner = members.stream()
+                    .filter(member -> member.getRole() == WorkSpaceRole.OWNER)
+                    .map(WorkSpaceMember::getUser)
+                    .findFirst();
+            Set<Integer> existing = workSpaceSummaryRepo.findByWorkspaceId(workSpace.getId()).stream()
+                    .map(WorkSpaceSummary::getUserId)
+                    .collect(Collectors.toSet());
+            List<WorkSpaceSummary> missing = members.stream()
+                    .filter(member -> !existing.contains(member.getUser().getId()))
+                    .map(member -> WorkSpaceSummary.builder()
+                            .userId(member.getUser().getId())
+                            .workspaceId(workSpace.getId())
+                            .workspaceName(workSpace.getName())
+                            .workspaceType(workSpace.getType())
+                            .ownerId(owner.map(User::getId).orElse(null))
+                            .ownerName(owner.map(User::getName).orElse(null))
+                            .memberCount(members.size())
+                            .role(member.getRole())
+                            .build())
+                    .toList();
+            if (!missing.isEmpty()) {
+                workSpaceSummaryRepo.saveAll(missing);
+            }
+        });
+        marker.setCompletedAt(LocalDateTime.now());
+    }
+
+    private long countMembers(WorkSpace workSpace) {
+        return workSpaceMemberRepo.lockActiveByWorkSpaceId(workSpace.getId()).size();
+    }
+
+    private OwnerInfo findOwner(WorkSpace workSpace) {
+        return workSpaceMemberRepo.findByWorkSpaceAndDeletedAtIsNull(workSpace).stream()
+                .filter(member -> member.getRole() == WorkSpaceRole.OWNER)
+                .findFirst()
+                .map(member -> new OwnerInfo(member.getUser().getId(), member.getUser().getName()))
+                .orElseGet(OwnerInfo::new);
+    }
+
+    private OwnerInfo ownerOf(WorkSpaceSummary summary) {
+        return new OwnerInfo(summary.getOwnerId() == null ? 0 : summary.getOwnerId(), summary.getOwnerName());
+    }
+
+    private WorkSpaceDetailsResponse toResponse(WorkSpaceSummary summary) {
+        return new WorkSpaceDetailsResponse(
+                summary.getWorkspaceId(),
+                summary.getWorkspaceName(),
+                summary.getWorkspaceType(),
+                ownerOf(summary),
+                summary.getMemberCount(),
+                summary.getRole()
+        );
+    }
+}
@@ -0,0 +1,144 @@
+package com.blockverse.app.config;
+
+import com.blockverse.app.dto.activityFeed.CursorEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageHeaders;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.util.MimeTypeUtils;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.dataformat.cbor.CBORMapper;
+
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CompactEncodingInterceptorTest {
+
+    private static final byte[] JSON = "{\"documentId\":3,\"blockId\":20,\"userId\":15,\"cursorPosition\":42}"
+            .getBytes(StandardCharsets.UTF_8);
+
+    private final CBORMapper cborMapper = CBORMapper.builder().build();
+    private CompactEncodingInterceptor interceptor;
+
+    @BeforeEach
+    void setUp() {
+        interceptor = new CompactEncodingInterceptor(cborMapper);
+    }
+
+    private void connect(String sessionId, boolean nativeTransport, String acceptEncoding) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.create(StompCommand.CONNECT);
+        accessor.setSessionId(sessionId);
+        Map<String, Object> attributes = new HashMap<>();
+        if (nativeTransport) {
+            attributes.put(CompactEncodingInterceptor.NATIVE_TRANSPORT_ATTRIBUTE, true);
+        }
+        accessor.setSessionAttributes(attributes);
+        if (acceptEncoding != null) {
+            accessor.setNativeHeader(CompactEncodingInterceptor.ACCEPT_ENCODING_HEADER, acceptEncoding);
+        }
+        interceptor.inbound().preSend(MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders()), null);
+    }
+
+    private Message<byte[]> brokerMessage(String sessionId, byte[] payload) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        accessor.setSessionId(sessionId);
+        accessor.setDestination("/topic/document.3.cursor");
+        accessor.setContentType(MimeTypeUtils.APPLICATION_JSON);
+        return MessageBuilder.createMessage(payload, accessor.getMessageHeaders());
+    }
+
+    @Test
+    void negotiatedNativeSession_receivesCborBinaryFrames() {
+        connect("s1", true, "cbor");
+
+        Message<?> out = interceptor.preSend(brokerMessage("s1", JSON), null);
+
+        StompHeaderAccessor headers = StompHeaderAccessor.wrap(out);
+        assertEquals(MimeTypeUtils.APPLICATION_OCTET_STREAM, headers.getContentType());
+        assertEquals("cbor", headers.getFirstNativeHeader(CompactEncodingInterceptor.PAYLOAD_ENCODING_HEADER));
+
+        CursorEvent decoded = cborMapper.readValue((byte[]) out.getPayload(), CursorEvent.class);
+        assertEquals(42, decoded.getCursorPosition());
+        assertTrue(((byte[]) out.getPayload()).length < JSON.length);
+    }
+
+    @Test
+    void sockJsSession_staysOnJson() {
+        connect("s1", false, "cbor");
+
+        Message<byte[]> in = brokerMessage("s1", JSON);
+        assertSame(in, interceptor.preSend(in, null));
+    }
+
+    @Test
+    void sessionWithoutAcceptEncoding_staysOnJson() {
+        connect("s1", true, null);
+
+        Message<byte[]> in = brokerMessage("s1", JSON);
+        assertSame(in, interceptor.preSend(in, null));
+    }
+
+    @Test
+    void broadcastWithCborPayloadHeader_isSentWithoutReencoding() {
+        connect("s1", true, "cbor");
+        Map<String, Object> headers = interceptor.headersFor(new CursorEvent(3, 20, 15, 42));
+        byte[] cbor = (byte[]) headers.get(CompactEncodingInterceptor.CBOR_PAYLOAD_HEADER);
+
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        accessor.setSessionId("s1");
+        accessor.copyHeadersIfAbsent(headers);
+        Message<?> out = interceptor.preSend(MessageBuilder.createMessage(JSON, accessor.getMessageHeaders()), null);
+
+        assertSame(cbor, out.getPayload());
+        assertEquals(42, cborMapper.readValue(cbor, CursorEvent.class).getCursorPosition());
+    }
+
+    @Test
+    void headersFor_withoutCborSessions_isNull() {
+        connect("s1", true, null);
+
+        assertNull(interceptor.headersFor(new CursorEvent(3, 20, 15, 42)));
+    }
+
+    @Test
+    void encode_samePayloadInstance_isEncodedOnce() {
+        byte[] first = interceptor.encode(JSON);
+        byte[] second = interceptor.encode(JSON);
+
+        assertSame(first, second);
+        assertNotSame(first, interceptor.encode(JSON.clone()));
+    }
+
+    @Test
+    void cborConverter_onlyHandlesCborContentType() {
+        CborMessageConverter converter = new CborMessageConverter(cborMapper);
+        byte[] cbor = cborMapper.writeValueAsBytes(new CursorEvent(3, 20, 15, 42));
+
+        Map<String, Object> cborHeaders = Map.of(MessageHeaders.CONTENT_TYPE, CborMessageConverter.APPLICATION_CBOR);
+        CursorEvent event = (CursorEvent) converter.fromMessage(
+                MessageBuilder.createMessage(cbor, new MessageHeaders(cborHeaders)), CursorEvent.class);
+        assertEquals(15, event.getUserId());
+
+        Map<String, Object> jsonHeaders = Map.of(MessageHeaders.CONTENT_TYPE, MimeTypeUtils.APPLICATION_JSON);
+        assertNull(converter.fromMessage(
+                MessageBuilder.createMessage(JSON, new MessageHeaders(jsonHeaders)), CursorEvent.class));
+        assertNull(converter.toMessage(new CursorEvent(), null));
+    }
+
+    @Test
+    void cborPayload_roundTripsToSameTree() {
+        byte[] cbor = interceptor.encode(JSON);
+        JsonNode tree = cborMapper.readTree(cbor);
+
+        assertEquals(3, tree.get("documentId").asInt());
+        assertEquals(42, tree.get("cursorPosition").asInt());
+    }
+}
@@ -0,0 +1,98 @@
+package com.blockverse.app.config;
+
+import com.blockverse.app.dto.activityFeed.CursorBatchEvent;
+import com.blockverse.app.dto.activityFeed.CursorEvent;
+import com.blockverse.app.dto.activityFeed.PresenceEvent;
+import com.blockverse.app.dto.activityFeed.TypingEvent;
+import com.blockverse.app.dto.document.DocumentEvent;
+import com.blockverse.app.enums.AuditEntityType;
+import com.blockverse.app.enums.BlockOperationType;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestReporter;
+import tools.jackson.databind.json.JsonMapper;
+import tools.jackson.dataformat.cbor.CBORMapper;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.ToIntFunction;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Bytes on the wire and per-message serialization cost: the JSON baseline every broadcast pays,
+ * the direct CBOR encoding {@link CompactEncodingInterceptor#headersFor} adds while CBOR sessions
+ * are connected, and the {@link CompactEncodingInterceptor#encode} fallback that re-parses the JSON
+ * frame. Not a JMH harness; numbers are indicative and published through the test report.
+ * Excluded from normal builds, run with {@code -Pbenchmark}.
+ */
+@Tag("benchmark")
+class WebSocketEncodingBenchmarkTest {
+
+    private static final int WARMUP = 20_000;
+    private static final int ITERATIONS = 100_000;
+    // distinct arrays, so the interceptor's once-per-fan-out cache never short-circuits a call
+    private static final int FRAMES = 64;
+
+    private final JsonMapper jsonMapper = JsonMapper.builder().build();
+    private final CompactEncodingInterceptor interceptor = new CompactEncodingInterceptor(CBORMapper.builder().build());
+    private final CborMessageConverter cborConverter = new CborMessageConverter(CBORMapper.builder().build());
+
+    private Map<String, Object> samples() {
+        List<CursorEvent> cursors = new ArrayList<>();
+        for (int userId = 1; userId <= 20; userId++) {
+            cursors.add(new CursorEvent(42, 1000 + userId, userId, userId * 7));
+        }
+
+        Map<String, Object> samples = new LinkedHashMap<>();
+        samples.put("CursorEvent", new CursorEvent(42, 1001, 7, 128));
+        samples.put("CursorBatchEvent(20)", new CursorBatchEvent(42, cursors));
+        samples.put("TypingEvent", new TypingEvent(42, 1001, 7, "start_typing"));
+        samples.put("PresenceEvent", new PresenceEvent(42, 7, "Alice Example", "join"));
+        samples.put("DocumentEvent", new DocumentEvent(42, AuditEntityType.BLOCK, BlockOperationType.UPDATE, 1001));
+        return samples;
+    }
+
+    private <T> long nanosPerMessage(T[] inputs, ToIntFunction<T> encoder) {
+        long sink = 0;
+        for (int i = 0; i < WARMUP; i++) {
+            sink += encoder.applyAsInt(inputs[i % inputs.length]);
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            sink += encoder.applyAsInt(inputs[i % inputs.length]);
+        }
+        long elapsed = System.nanoTime() - start;
+        assertTrue(sink > 0);
+        return elapsed / ITERATIONS;
+    }
+
+    private byte[][] frames(byte[] json) {
+        byte[][] frames = new byte[FRAMES][];
+        for (int i = 0; i < FRAMES; i++) {
+            frames[i] = json.clone();
+        }
+        return frames;
+    }
+
+    @Test
+    void measureEncodePaths(TestReporter reporter) {
+        for (Map.Entry<String, Object> sample : samples().entrySet()) {
+            Object[] payload = {sample.getValue()};
+            byte[] json = jsonMapper.writeValueAsBytes(sample.getValue());
+            int cborBytes = cborConverter.encode(sample.getValue()).length;
+
+            long jsonNanos = nanosPerMessage(payload, value -> jsonMapper.writeValueAsBytes(value).length);
+            long cborNanos = nanosPerMessage(payload, value -> cborConverter.encode(value).length);
+            long reencodeNanos = nanosPerMessage(frames(json), frame -> interceptor.encode(frame).length);
+
+            reporter.publishEntry(sample.getKey(), String.format(
+                    "json %d B %d ns/msg, cbor %d B %d ns/msg, json->cbor fallback %d ns/msg",
+                    json.length, jsonNanos, cborBytes, cborNanos, reencodeNanos));
+
+            assertTrue(cborBytes < json.length, sample.getKey() + " should be smaller as CBOR");
+        }
+    }
+}
@@ -380,6 +380,36 @@ class BlockControllerTest {
                 }
         }
 
+        // ========================================================================
+        // GET /v1/blocks/{blockId} — getBlock
+        // ========================================================================
+
+        @Nested
+        @DisplayName("GET /v1/blocks/{blockId}")
+        class GetBlockTests {
+
+                @Test
+                @DisplayName("should return 200 with the full block")
+                void getBlock_success() throws Exception {
+                        when(blockService.getBlock(1)).thenReturn(sampleBlock);
+
+                        mockMvc.perform(get("/v1/blocks/1"))
+                                        .andExpect(status().isOk())
+                                        .andExpect(jsonPath("$.id").value(1))
+                                        .andExpect(jsonPath("$.content").value("Hello World"));
+                }
+
+                @Test
+                @DisplayName("should return 404 when block does not exist")
+                void getBlock_notFound() throws Exception {
+                        when(blockService.getBlock(999))
+                                        .thenThrow(new BlockNotFoundException("Block not found"));
+
+                        mockMvc.perform(get("/v1/blocks/999"))
+                                        .andExpect(status().isNotFound());
+                }
+        }
+
         // ========================================================================
         // GET /v1/blocks/{blockId}/children — getChildren
         // ========================================================================
@@ -1,21 +1,30 @@
 package com.blockverse.app.controller;
 
 import com.blockverse.app.dto.activityFeed.CursorEvent;
+import com.blockverse.app.entity.User;
+import com.blockverse.app.exception.InsufficientPermissionException;
+import com.blockverse.app.service.CursorAggregator;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
 
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 
 @ExtendWith(MockitoExtension.class)
 public class CursorSocketControllerTest {
 
     @Mock
-    private SimpMessagingTemplate messagingTemplate;
+    private CursorAggregator cursorAggregator;
 
     @InjectMocks
     private CursorSocketController cursorSocketController;
@@ -28,12 +37,21 @@ public class CursorSocketControllerTest {
     }
 
     @Test
-    void testCursorBroadcastsToCorrectTopic() {
-        cursorSocketController.cursor(cursorEvent);
+    void testCursorIsHandedToAggregatorAsPrincipal() {
+        User user = User.builder().id(7).name("Jane Roe").email("jane@mail.com").build();
+        Authentication principal = new UsernamePasswordAuthenticationToken(user, null, List.of());
+
+        // the payload claims to be user 1, but the session belongs to user 7
+        cursorSocketController.cursor(cursorEvent, principal);
+
+        verify(cursorAggregator).submit(cursorEvent);
+        assertEquals(7, cursorEvent.getUserId());
+    }
+
+    @Test
+    void testCursorRejectsUnauthenticatedSession() {
+        assertThrows(InsufficientPermissionException.class, () -> cursorSocketController.cursor(cursorEvent, null));
 
-        verify(messagingTemplate).convertAndSend(
-                "/topic/document/1/cursor",
-                cursorEvent
-        );
+        verifyNoInteractions(cursorAggregator);
     }
 }
@@ -1,8 +1,10 @@
 package com.blockverse.app.controller;
 
+import com.blockverse.app.dto.activityFeed.PresenceUser;
 import com.blockverse.app.dto.block.BlockResponse;
 import com.blockverse.app.dto.document.CreateDocumentRequest;
 import com.blockverse.app.dto.document.DocumentDetailsResponse;
+import com.blockverse.app.dto.document.DocumentReplayResponse;
 import com.blockverse.app.dto.document.DocumentResponse;
 import com.blockverse.app.dto.document.UpdateDocumentRequest;
 import com.blockverse.app.enums.BlockType;
@@ -15,6 +17,7 @@ import com.blockverse.app.repo.UserRepo;
 import com.blockverse.app.security.AuthService;
 import com.blockverse.app.security.JwtUtil;
 import com.blockverse.app.service.DocumentService;
+import com.blockverse.app.service.DocumentVersion;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -35,6 +38,7 @@ import java.util.List;
 
 import static org.hamcrest.Matchers.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
@@ -147,6 +151,17 @@ class DocumentControllerTest {
                                         .andExpect(jsonPath("$.workspaceId").value(1));
                 }
 
+                @Test
+                @DisplayName("should return 304 when the document version is unchanged")
+                void getDocument_notModified() throws Exception {
+                        sampleDocResponse.setVersion(3L);
+                        when(documentService.getDocument(1)).thenReturn(sampleDocResponse);
+
+                        mockMvc.perform(get("/v1/documents/1").header("If-None-Match", "\"1-3\""))
+                                        .andExpect(status().isNotModified())
+                                        .andExpect(header().string("ETag", "\"1-3\""));
+                }
+
                 @Test
                 @DisplayName("should return 404 when document does not exist")
                 void getDocument_notFound() throws Exception {
@@ -211,6 +226,58 @@ class DocumentControllerTest {
                                         .andExpect(jsonPath("$.blocks", hasSize(0)));
                 }
 
+                @Test
+                @DisplayName("should send an ETag built from id, version, replay position and URL window")
+                void getDocumentWithBlocks_setsETag() throws Exception {
+                        sampleDocResponse.setVersion(7L);
+                        DocumentDetailsResponse details = DocumentDetailsResponse.builder()
+                                        .document(sampleDocResponse).blocks(List.of()).latestSeq(42).build();
+                        when(documentService.getDocumentWithBlocks(1)).thenReturn(details);
+
+                        mockMvc.perform(get("/v1/documents/1/details"))
+                                        .andExpect(status().isOk())
+                                        .andExpect(header().string("ETag", "\"1-7-42-" + DocumentETags.urlWindow() + "\""));
+                }
+
+                @Test
+                @DisplayName("should return 304 without loading blocks when the ETag still matches")
+                void getDocumentWithBlocks_notModified() throws Exception {
+                        when(documentService.getDocumentVersion(1)).thenReturn(new DocumentVersion(1, 7, 42));
+
+                        mockMvc.perform(get("/v1/documents/1/details").header("If-None-Match", "W/\"1-7-42-" + DocumentETags.urlWindow() + "\""))
+                                        .andExpect(status().isNotModified())
+                                        .andExpect(header().string("ETag", "\"1-7-42-" + DocumentETags.urlWindow() + "\""));
+
+                        verify(documentService, never()).getDocumentWithBlocks(anyInt());
+                }
+
+                @Test
+                @DisplayName("should return the full response once the presigned URLs of the cached copy are due to expire")
+                void getDocumentWithBlocks_previousUrlWindow() throws Exception {
+                        sampleDocResponse.setVersion(7L);
+                        when(documentService.getDocumentVersion(1)).thenReturn(new DocumentVersion(1, 7, 42));
+                        when(documentService.getDocumentWithBlocks(1)).thenReturn(DocumentDetailsResponse.builder()
+                                        .document(sampleDocResponse).blocks(List.of()).latestSeq(42).build());
+
+                        mockMvc.perform(get("/v1/documents/1/details")
+                                                        .header("If-None-Match", "\"1-7-42-" + (DocumentETags.urlWindow() - 1) + "\""))
+                                        .andExpect(status().isOk())
+                                        .andExpect(header().string("ETag", "\"1-7-42-" + DocumentETags.urlWindow() + "\""));
+                }
+
+                @Test
+                @DisplayName("should return the full response when the document has changed")
+                void getDocumentWithBlocks_staleETag() throws Exception {
+                        sampleDocResponse.setVersion(8L);
+                        when(documentService.getDocumentVersion(1)).thenReturn(new DocumentVersion(1, 8, 42));
+                        when(documentService.getDocumentWithBlocks(1)).thenReturn(DocumentDetailsResponse.builder()
+                                        .document(sampleDocResponse).blocks(List.of()).latestSeq(42).build());
+
+                        mockMvc.perform(get("/v1/documents/1/details").header("If-None-Match", "\"1-7-42-" + DocumentETags.urlWindow() + "\""))
+                                        .andExpect(status().isOk())
+                                        .andExpect(header().string("ETag", "\"1-8-42-" + DocumentETags.urlWindow() + "\""));
+                }
+
                 @Test
                 @DisplayName("should return 404 when document does not exist")
                 void getDocumentWithBlocks_notFound() throws Exception {
@@ -232,6 +299,71 @@ class DocumentControllerTest {
                 }
         }
 
+        // ========================================================================
+        // GET /v1/documents/{documentId}/events — getEventsSince
+        // ========================================================================
+
+        @Nested
+        @DisplayName("GET /v1/documents/{documentId}/events")
+        class GetEventsSinceTests {
+
+                @Test
+                @DisplayName("should return 200 with the replayed events")
+                void getEventsSince_success() throws Exception {
+                        DocumentReplayResponse replay = DocumentReplayResponse.builder()
+                                        .documentId(1).latestSeq(12).fullReloadRequired(false)
+                                        .events(List.of()).build();
+                        when(documentService.getEventsSince(1, 10)).thenReturn(replay);
+
+                        mockMvc.perform(get("/v1/documents/1/events").param("since", "10"))
+                                        .andExpect(status().isOk())
+                                        .andExpect(jsonPath("$.latestSeq").value(12))
+                                        .andExpect(jsonPath("$.fullReloadRequired").value(false));
+                }
+
+                @Test
+                @DisplayName("should return 403 when user is not a workspace member")
+                void getEventsSince_nonMember() throws Exception {
+                        when(documentService.getEventsSince(1, 0))
+                                        .thenThrow(new NotWorkSpaceMemberException("User is not a member"));
+
+                        mockMvc.perform(get("/v1/documents/1/events"))
+                                        .andExpect(status().isForbidden());
+                }
+        }
+
+        // ========================================================================
+        // GET /v1/documents/{documentId}/presence — getPresence
+        // ========================================================================
+
+        @Nested
+        @DisplayName("GET /v1/documents/{documentId}/presence")
+        class GetPresenceTests {
+
+                @Test
+                @DisplayName("should return 200 with users currently on the document")
+                void getPresence_success() throws Exception {
+                        when(documentService.getPresence(1))
+                                        .thenReturn(List.of(new PresenceUser(5, "Alice"), new PresenceUser(6, "Bob")));
+
+                        mockMvc.perform(get("/v1/documents/1/presence"))
+                                        .andExpect(status().isOk())
+                                        .andExpect(jsonPath("$", hasSize(2)))
+                                        .andExpect(jsonPath("$[0].userId").value(5))
+                                        .andExpect(jsonPath("$[1].userName").value("Bob"));
+                }
+
+                @Test
+                @DisplayName("should return 403 when user is not a workspace member")
+                void getPresence_nonMember() throws Exception {
+                        when(documentService.getPresence(1))
+                                        .thenThrow(new NotWorkSpaceMemberException("User is not a member"));
+
+                        mockMvc.perform(get("/v1/documents/1/presence"))
+                                        .andExpect(status().isForbidden());
+                }
+        }
+
         // ========================================================================
         // GET /v1/documents/workspace/{workspaceId} — getDocumentsByWorkspace
         // ========================================================================
@@ -6,6 +6,7 @@ import com.blockverse.app.repo.UserRepo;
 import com.blockverse.app.security.AuthService;
 import com.blockverse.app.security.JwtUtil;
 import com.blockverse.app.service.DocumentShareService;
+import com.blockverse.app.service.DocumentVersion;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -17,6 +18,8 @@ import org.springframework.test.web.servlet.MockMvc;
 
 import java.util.List;
 
+import static org.hamcrest.Matchers.containsString;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -61,4 +64,17 @@ class DocumentShareControllerTest {
         mockMvc.perform(get("/share/invalid_token"))
                 .andExpect(status().isBadRequest());
     }
+
+    @Test
+    @DisplayName("should return 304 for a shared view the client already holds")
+    void getSharedDocument_notModified() throws Exception {
+        when(documentShareService.getSharedDocumentVersion("valid_token")).thenReturn(new DocumentVersion(1, 5, 0));
+
+        mockMvc.perform(get("/share/valid_token").header("If-None-Match", "\"1-5-0-" + DocumentETags.urlWindow() + "\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", "\"1-5-0-" + DocumentETags.urlWindow() + "\""))
+                .andExpect(header().string("Cache-Control", containsString("public")));
+
+        verify(documentShareService, never()).getSharedDocument(any());
+    }
 }
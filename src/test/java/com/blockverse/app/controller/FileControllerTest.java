@@ -1,10 +1,12 @@
 package com.blockverse.app.controller;
 
+import com.blockverse.app.dto.upload.UploadAcceptedResponse;
 import com.blockverse.app.entity.User;
 import com.blockverse.app.repo.UserRepo;
 import com.blockverse.app.security.AuthService;
 import com.blockverse.app.security.JwtUtil;
 import com.blockverse.app.security.SecurityUtil;
+import com.blockverse.app.service.AsyncUploadService;
 import com.blockverse.app.service.RateLimiterService;
 import com.blockverse.app.service.S3Service;
 import org.junit.jupiter.api.Test;
@@ -19,7 +21,9 @@ import org.springframework.test.web.servlet.MockMvc;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.multipart;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(FileController.class)
@@ -32,6 +36,9 @@ class FileControllerTest {
     @MockitoBean
     private S3Service s3Service;
 
+    @MockitoBean
+    private AsyncUploadService asyncUploadService;
+
     @MockitoBean
     private JwtUtil jwtUtil;
 
@@ -57,7 +64,7 @@ class FileControllerTest {
         
         User testUser = User.builder().id(1).email("test@example.com").build();
         when(securityUtil.getLoggedInUser()).thenReturn(testUser);
-        when(s3Service.uploadFile(any())).thenReturn(expectedS3Key);
+        when(s3Service.uploadFile(eq(1), any())).thenReturn(expectedS3Key);
 
         mockMvc.perform(multipart("/v1/files/upload")
                 .file(file))
@@ -76,4 +83,18 @@ class FileControllerTest {
         mockMvc.perform(multipart("/v1/files/upload").file(file))
                 .andExpect(status().isTooManyRequests());
     }
+
+    @Test
+    void uploadFileAsync_returnsAccepted() throws Exception {
+        MockMultipartFile file = new MockMultipartFile("file", "test.jpg", "image/jpeg", "image content".getBytes());
+        User testUser = User.builder().id(1).email("test@example.com").build();
+        when(securityUtil.getLoggedInUser()).thenReturn(testUser);
+        when(asyncUploadService.startUpload(eq(1), any()))
+                .thenReturn(new UploadAcceptedResponse("upload-1", "some-uuid_test.jpg"));
+
+        mockMvc.perform(multipart("/v1/files/upload/async").file(file))
+                .andExpect(status().isAccepted())
+                .andExpect(jsonPath("$.uploadId").value("upload-1"))
+                .andExpect(jsonPath("$.key").value("some-uuid_test.jpg"));
+    }
 }
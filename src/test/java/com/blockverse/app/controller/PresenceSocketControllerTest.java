@@ -1,50 +1,75 @@
 package com.blockverse.app.controller;
 
 import com.blockverse.app.dto.activityFeed.PresenceEvent;
+import com.blockverse.app.entity.User;
+import com.blockverse.app.exception.InsufficientPermissionException;
+import com.blockverse.app.service.PresenceRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
 
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 
 @ExtendWith(MockitoExtension.class)
 public class PresenceSocketControllerTest {
 
     @Mock
-    private SimpMessagingTemplate messagingTemplate;
+    private PresenceRegistry presenceRegistry;
 
     @InjectMocks
     private PresenceSocketController presenceSocketController;
 
     private PresenceEvent presenceEvent;
+    private SimpMessageHeaderAccessor headerAccessor;
 
     @BeforeEach
     void setUp() {
         presenceEvent = new PresenceEvent(1, 1, "John Doe", "join");
+        headerAccessor = SimpMessageHeaderAccessor.create();
+        headerAccessor.setSessionId("session-1");
+    }
+
+    @Test
+    void testJoinDocumentRegistersSessionAsPrincipal() {
+        User user = User.builder().id(7).name("Jane Roe").email("jane@mail.com").build();
+        Authentication principal = new UsernamePasswordAuthenticationToken(user, null, List.of());
+
+        // the payload claims to be user 1, but the session belongs to user 7
+        presenceSocketController.joinDocument(presenceEvent, headerAccessor, principal);
+
+        verify(presenceRegistry).join("session-1", 1, 7, "Jane Roe");
     }
 
     @Test
-    void testJoinDocumentBroadcastsToCorrectTopic() {
-        presenceSocketController.joinDocument(presenceEvent);
+    void testJoinDocumentRejectsUnauthenticatedSession() {
+        assertThrows(InsufficientPermissionException.class,
+                () -> presenceSocketController.joinDocument(presenceEvent, headerAccessor, null));
 
-        verify(messagingTemplate).convertAndSend(
-                "/topic/document/1/presence",
-                presenceEvent
-        );
+        verifyNoInteractions(presenceRegistry);
     }
 
     @Test
-    void testLeaveDocumentBroadcastsToCorrectTopic() {
+    void testLeaveDocumentRemovesSession() {
         presenceEvent.setAction("leave");
-        presenceSocketController.leaveDocument(presenceEvent);
+        presenceSocketController.leaveDocument(presenceEvent, headerAccessor);
+
+        verify(presenceRegistry).leave("session-1", 1);
+    }
+
+    @Test
+    void testHeartbeatRefreshesSession() {
+        presenceSocketController.heartbeat(headerAccessor);
 
-        verify(messagingTemplate).convertAndSend(
-                "/topic/document/1/presence",
-                presenceEvent
-        );
+        verify(presenceRegistry).heartbeat("session-1");
     }
 }
@@ -1,15 +1,20 @@
 package com.blockverse.app.controller;
 
+import com.blockverse.app.dto.SearchHitResponse;
 import com.blockverse.app.dto.SearchResponse;
+import com.blockverse.app.dto.SuggestionResponse;
 import com.blockverse.app.dto.block.BlockResponse;
 import com.blockverse.app.dto.document.DocumentResponse;
 import com.blockverse.app.enums.BlockType;
+import com.blockverse.app.enums.SuggestionType;
 import com.blockverse.app.security.AuthService;
 import com.blockverse.app.security.JwtUtil;
 import com.blockverse.app.repo.UserRepo;
+import com.blockverse.app.search.SearchFilter;
 import com.blockverse.app.service.SearchService;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
 import org.springframework.boot.webmvc.test.autoconfigure.WebMvcTest;
@@ -21,6 +26,11 @@ import java.math.BigInteger;
 import java.util.List;
 
 import static org.hamcrest.Matchers.hasSize;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
@@ -54,11 +64,13 @@ class SearchControllerTest {
                 .position(BigInteger.ONE).build();
         
         SearchResponse response = SearchResponse.builder()
-                .documents(List.of(doc))
-                .blocks(List.of(block))
+                .documents(List.of(new SearchHitResponse<>(doc, 2.5)))
+                .blocks(List.of(new SearchHitResponse<>(block, 1.5)))
+                .totalDocuments(1)
+                .totalBlocks(1)
                 .build();
 
-        when(searchService.search("Test", 1)).thenReturn(response);
+        when(searchService.search(eq("Test"), eq(1), any(SearchFilter.class), isNull(), isNull())).thenReturn(response);
 
         mockMvc.perform(get("/v1/search")
                 .param("keyword", "Test")
@@ -67,6 +79,52 @@ class SearchControllerTest {
                 .andExpect(jsonPath("$.documents", hasSize(1)))
                 .andExpect(jsonPath("$.documents[0].title").value("Test Document"))
                 .andExpect(jsonPath("$.blocks", hasSize(1)))
-                .andExpect(jsonPath("$.blocks[0].content").value("Test Block Content"));
+                .andExpect(jsonPath("$.blocks[0].content").value("Test Block Content"))
+                .andExpect(jsonPath("$.documents[0].score").value(2.5))
+                .andExpect(jsonPath("$.totalBlocks").value(1))
+                .andExpect(jsonPath("$.nextCursor").doesNotExist());
+    }
+
+    @Test
+    @DisplayName("should pass limit, cursor and filters through to the service")
+    void search_withPagingAndFilters() throws Exception {
+        SearchResponse response = SearchResponse.builder()
+                .documents(List.of())
+                .blocks(List.of())
+                .nextCursor("next")
+                .build();
+        when(searchService.search(eq("Test"), eq(1), any(SearchFilter.class), eq(10), eq("abc"))).thenReturn(response);
+
+        mockMvc.perform(get("/v1/search")
+                .param("keyword", "Test")
+                .param("workSpaceId", "1")
+                .param("limit", "10")
+                .param("cursor", "abc")
+                .param("blockType", "CODE")
+                .param("documentId", "7"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.nextCursor").value("next"));
+
+        ArgumentCaptor<SearchFilter> captor = ArgumentCaptor.forClass(SearchFilter.class);
+        verify(searchService).search(eq("Test"), eq(1), captor.capture(), eq(10), eq("abc"));
+        assertEquals(BlockType.CODE, captor.getValue().getBlockType());
+        assertEquals(7, captor.getValue().getDocumentId());
+    }
+
+    @Test
+    @DisplayName("GET /v1/search/suggest should return suggestions")
+    void suggest_success() throws Exception {
+        when(searchService.suggest("Te", 1, null)).thenReturn(List.of(
+                new SuggestionResponse("Test Document", SuggestionType.DOCUMENT, 1, null),
+                new SuggestionResponse("Test heading", SuggestionType.HEADING, 1, 4)));
+
+        mockMvc.perform(get("/v1/search/suggest")
+                .param("prefix", "Te")
+                .param("workSpaceId", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0].type").value("DOCUMENT"))
+                .andExpect(jsonPath("$[0].blockId").doesNotExist())
+                .andExpect(jsonPath("$[1].blockId").value(4));
     }
 }
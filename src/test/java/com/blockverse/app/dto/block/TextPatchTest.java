@@ -0,0 +1,47 @@
+package com.blockverse.app.dto.block;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TextPatchTest {
+
+    private void assertRoundTrip(String before, String after) {
+        TextPatch patch = TextPatch.between(before, after);
+        assertNotNull(patch);
+        assertEquals(after == null ? "" : after, patch.applyTo(before));
+    }
+
+    @Test
+    void between_equalTexts_returnsNull() {
+        assertNull(TextPatch.between("same", "same"));
+        assertNull(TextPatch.between(null, ""));
+    }
+
+    @Test
+    void between_insertInMiddle_onlyCarriesInsertedText() {
+        TextPatch patch = TextPatch.between("Hello World", "Hello Big World");
+
+        assertEquals(6, patch.getStart());
+        assertEquals(0, patch.getDeleteCount());
+        assertEquals("Big ", patch.getInsert());
+    }
+
+    @Test
+    void between_replacementAndDeletion_roundTrip() {
+        assertRoundTrip("int x = 1;\nreturn x;", "int y = 1;\nreturn y;");
+        assertRoundTrip("abcdef", "abef");
+        assertRoundTrip("aaaa", "aa");
+        assertRoundTrip(null, "new");
+        assertRoundTrip("old", null);
+    }
+
+    @Test
+    void between_neverSplitsSurrogatePairs() {
+        TextPatch patch = TextPatch.between("a😀b", "a😁b");
+
+        assertEquals(1, patch.getStart());
+        assertEquals(2, patch.getDeleteCount());
+        assertEquals("😁", patch.getInsert());
+    }
+}
@@ -101,7 +101,7 @@ public class NotificationIntegrationTest {
 
         // Verify the broker was called with the correct destination, waiting up to 5 seconds
         verify(messagingTemplate, timeout(5000)).convertAndSend(
-                eq("/topic/notifications/" + testUser.getId()),
+                eq("/topic/notifications." + testUser.getId()),
                 any(Object.class)
         );
     }
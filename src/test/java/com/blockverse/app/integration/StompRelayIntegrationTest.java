@@ -0,0 +1,127 @@
+package com.blockverse.app.integration;
+
+import com.blockverse.app.dto.activityFeed.TypingEvent;
+import com.blockverse.app.entity.User;
+import com.blockverse.app.repo.UserRepo;
+import com.blockverse.app.security.JwtUtil;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIf;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+import org.springframework.messaging.converter.JacksonJsonMessageConverter;
+import org.springframework.messaging.simp.stomp.StompFrameHandler;
+import org.springframework.messaging.simp.stomp.StompHeaders;
+import org.springframework.messaging.simp.stomp.StompSession;
+import org.springframework.messaging.simp.stomp.StompSessionHandlerAdapter;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.web.socket.WebSocketHttpHeaders;
+import org.springframework.web.socket.client.standard.StandardWebSocketClient;
+import org.springframework.web.socket.messaging.WebSocketStompClient;
+import org.springframework.web.socket.sockjs.client.SockJsClient;
+import org.springframework.web.socket.sockjs.client.WebSocketTransport;
+import org.testcontainers.DockerClientFactory;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.containers.wait.strategy.Wait;
+
+import java.lang.reflect.Type;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs the broadcast path through a real RabbitMQ STOMP relay, the broker used when
+ * {@code app.websocket.fanout=relay}. Skipped where Docker is not available.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.kafka.bootstrap-servers=${spring.embedded.kafka.brokers}",
+        "app.websocket.fanout=relay"
+})
+@EmbeddedKafka(partitions = 1)
+@ActiveProfiles("test")
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_CLASS)
+@EnabledIf("dockerAvailable")
+class StompRelayIntegrationTest {
+
+    private static final int STOMP_PORT = 61613;
+
+    private static final GenericContainer<?> rabbitmq = new GenericContainer<>("rabbitmq:3.13-management")
+            .withCommand("sh", "-c", "rabbitmq-plugins enable --offline rabbitmq_stomp && rabbitmq-server")
+            .withExposedPorts(STOMP_PORT)
+            .waitingFor(Wait.forListeningPort().withStartupTimeout(Duration.ofMinutes(2)));
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private UserRepo userRepo;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    static boolean dockerAvailable() {
+        return DockerClientFactory.instance().isDockerAvailable();
+    }
+
+    @DynamicPropertySource
+    static void relayProperties(DynamicPropertyRegistry registry) {
+        rabbitmq.start();
+        registry.add("app.websocket.relay.host", rabbitmq::getHost);
+        registry.add("app.websocket.relay.port", () -> rabbitmq.getMappedPort(STOMP_PORT));
+    }
+
+    @AfterAll
+    static void stopBroker() {
+        rabbitmq.stop();
+    }
+
+    @Test
+    void typingEventRoundTripsThroughRelay() throws Exception {
+        WebSocketStompClient stompClient = new WebSocketStompClient(
+                new SockJsClient(List.of(new WebSocketTransport(new StandardWebSocketClient()))));
+        stompClient.setMessageConverter(new JacksonJsonMessageConverter());
+        User user = userRepo.findByEmail("relay-typing@mail.com")
+                .orElseGet(() -> userRepo.save(User.builder().name("Relay").email("relay-typing@mail.com").password("secret").build()));
+        StompHeaders connectHeaders = new StompHeaders();
+        connectHeaders.add("Authorization", "Bearer " + jwtUtil.generateAccessToken(user));
+        StompSession session = stompClient
+                .connectAsync("ws://localhost:{port}/ws", new WebSocketHttpHeaders(), connectHeaders,
+                        new StompSessionHandlerAdapter() {}, port)
+                .get(10, TimeUnit.SECONDS);
+
+        CompletableFuture<TypingEvent> received = new CompletableFuture<>();
+        CompletableFuture<Void> subscribed = new CompletableFuture<>();
+        StompHeaders subscribe = new StompHeaders();
+        subscribe.setDestination("/topic/document.1.typing");
+        subscribe.setReceipt("typing-subscribed");
+        session.subscribe(subscribe, new StompFrameHandler() {
+            @Override
+            public Type getPayloadType(StompHeaders headers) {
+                return TypingEvent.class;
+            }
+
+            @Override
+            public void handleFrame(StompHeaders headers, Object payload) {
+                received.complete((TypingEvent) payload);
+            }
+        }).addReceiptTask(() -> subscribed.complete(null));
+        // the broker must hold the subscription before anything is published
+        subscribed.get(10, TimeUnit.SECONDS);
+
+        session.send("/app/document.typing", new TypingEvent(1, 10, 5, "start_typing"));
+
+        TypingEvent event = received.get(10, TimeUnit.SECONDS);
+        assertThat(event.getDocumentId()).isEqualTo(1);
+        assertThat(event.getBlockId()).isEqualTo(10);
+        assertThat(event.getUserId()).isEqualTo(user.getId());
+        assertThat(event.getAction()).isEqualTo("start_typing");
+    }
+}
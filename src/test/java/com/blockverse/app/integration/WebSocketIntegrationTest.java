@@ -1,10 +1,15 @@
 package com.blockverse.app.integration;
 
+import com.blockverse.app.dto.activityFeed.CursorBatchEvent;
 import com.blockverse.app.dto.activityFeed.CursorEvent;
 import com.blockverse.app.dto.activityFeed.PresenceEvent;
 import com.blockverse.app.dto.activityFeed.TypingEvent;
+import com.blockverse.app.entity.User;
+import com.blockverse.app.repo.UserRepo;
+import com.blockverse.app.security.JwtUtil;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.web.server.LocalServerPort;
 import org.springframework.messaging.converter.JacksonJsonMessageConverter;
@@ -12,6 +17,7 @@ import org.springframework.messaging.simp.stomp.StompFrameHandler;
 import org.springframework.messaging.simp.stomp.StompHeaders;
 import org.springframework.messaging.simp.stomp.StompSession;
 import org.springframework.messaging.simp.stomp.StompSessionHandlerAdapter;
+import org.springframework.web.socket.WebSocketHttpHeaders;
 import org.springframework.web.socket.client.standard.StandardWebSocketClient;
 import org.springframework.web.socket.messaging.WebSocketStompClient;
 import org.springframework.web.socket.sockjs.client.SockJsClient;
@@ -41,6 +47,12 @@ public class WebSocketIntegrationTest {
     @LocalServerPort
     private int port;
 
+    @Autowired
+    private UserRepo userRepo;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
     private WebSocketStompClient stompClient;
 
     private final String WEBSOCKET_URI = "ws://localhost:{port}/ws";
@@ -57,13 +69,12 @@ public class WebSocketIntegrationTest {
 
     @Test
     public void testTypingEventBroadcast() throws ExecutionException, InterruptedException, TimeoutException {
-        StompSession session = stompClient
-                .connectAsync(WEBSOCKET_URI, new StompSessionHandlerAdapter() {}, port)
-                .get(2, TimeUnit.SECONDS);
+        User tom = typist();
+        StompSession session = connectAs(tom);
 
         CompletableFuture<TypingEvent> completableFuture = new CompletableFuture<>();
 
-        session.subscribe("/topic/document/1/typing", new StompFrameHandler() {
+        session.subscribe("/topic/document.1.typing", new StompFrameHandler() {
             @Override
             public Type getPayloadType(StompHeaders headers) {
                 return TypingEvent.class;
@@ -82,19 +93,18 @@ public class WebSocketIntegrationTest {
 
         assertThat(receivedEvent.getDocumentId()).isEqualTo(1);
         assertThat(receivedEvent.getBlockId()).isEqualTo(10);
-        assertThat(receivedEvent.getUserId()).isEqualTo(5);
+        // the payload claimed user 5; the session principal wins
+        assertThat(receivedEvent.getUserId()).isEqualTo(tom.getId());
         assertThat(receivedEvent.getAction()).isEqualTo("start_typing");
     }
 
     @Test
     public void testInvalidTypingEventIsNotBroadcast() throws ExecutionException, InterruptedException, TimeoutException {
-        StompSession session = stompClient
-                .connectAsync(WEBSOCKET_URI, new StompSessionHandlerAdapter() {}, port)
-                .get(2, TimeUnit.SECONDS);
+        StompSession session = connectAs(typist());
 
         CompletableFuture<TypingEvent> completableFuture = new CompletableFuture<>();
 
-        session.subscribe("/topic/document/1/typing", new StompFrameHandler() {
+        session.subscribe("/topic/document.1.typing", new StompFrameHandler() {
             @Override
             public Type getPayloadType(StompHeaders headers) {
                 return TypingEvent.class;
@@ -116,13 +126,17 @@ public class WebSocketIntegrationTest {
 
     @Test
     public void testPresenceEventJoinAndLeave() throws ExecutionException, InterruptedException, TimeoutException {
+        User alice = userRepo.findByEmail("alice-presence@mail.com")
+                .orElseGet(() -> userRepo.save(User.builder().name("Alice").email("alice-presence@mail.com").password("secret").build()));
+        StompHeaders connectHeaders = new StompHeaders();
+        connectHeaders.add("Authorization", "Bearer " + jwtUtil.generateAccessToken(alice));
         StompSession session = stompClient
-                .connectAsync(WEBSOCKET_URI, new StompSessionHandlerAdapter() {}, port)
+                .connectAsync(WEBSOCKET_URI, new WebSocketHttpHeaders(), connectHeaders, new StompSessionHandlerAdapter() {}, port)
                 .get(2, TimeUnit.SECONDS);
 
         // Test JOIN
         CompletableFuture<PresenceEvent> joinFuture = new CompletableFuture<>();
-        StompSession.Subscription subscription = session.subscribe("/topic/document/2/presence", new StompFrameHandler() {
+        StompSession.Subscription subscription = session.subscribe("/topic/document.2.presence", new StompFrameHandler() {
             @Override
             public Type getPayloadType(StompHeaders headers) {
                 return PresenceEvent.class;
@@ -137,18 +151,20 @@ public class WebSocketIntegrationTest {
             }
         });
 
-        PresenceEvent joinEvent = new PresenceEvent(2, 8, "Alice", "join");
+        // identity in the payload is ignored; the session principal is used
+        PresenceEvent joinEvent = new PresenceEvent(2, 8, "Mallory", "join");
         session.send("/app/document.join", joinEvent);
 
         PresenceEvent receivedJoin = joinFuture.get(5, TimeUnit.SECONDS);
         assertThat(receivedJoin.getAction()).isEqualTo("join");
+        assertThat(receivedJoin.getUserId()).isEqualTo(alice.getId());
         assertThat(receivedJoin.getUserName()).isEqualTo("Alice");
 
         subscription.unsubscribe();
         
         // Test LEAVE
         CompletableFuture<PresenceEvent> leaveFuture = new CompletableFuture<>();
-        session.subscribe("/topic/document/2/presence", new StompFrameHandler() {
+        session.subscribe("/topic/document.2.presence", new StompFrameHandler() {
             @Override
             public Type getPayloadType(StompHeaders headers) {
                 return PresenceEvent.class;
@@ -173,32 +189,48 @@ public class WebSocketIntegrationTest {
 
     @Test
     public void testCursorEventBroadcast() throws ExecutionException, InterruptedException, TimeoutException {
-        StompSession session = stompClient
-                .connectAsync(WEBSOCKET_URI, new StompSessionHandlerAdapter() {}, port)
-                .get(2, TimeUnit.SECONDS);
+        User carol = userRepo.findByEmail("carol-cursor@mail.com")
+                .orElseGet(() -> userRepo.save(User.builder().name("Carol").email("carol-cursor@mail.com").password("secret").build()));
+        StompSession session = connectAs(carol);
 
-        CompletableFuture<CursorEvent> completableFuture = new CompletableFuture<>();
+        CompletableFuture<CursorBatchEvent> completableFuture = new CompletableFuture<>();
 
-        session.subscribe("/topic/document/3/cursor", new StompFrameHandler() {
+        session.subscribe("/topic/document.3.cursor", new StompFrameHandler() {
             @Override
             public Type getPayloadType(StompHeaders headers) {
-                return CursorEvent.class;
+                return CursorBatchEvent.class;
             }
 
             @Override
             public void handleFrame(StompHeaders headers, Object payload) {
-                completableFuture.complete((CursorEvent) payload);
+                completableFuture.complete((CursorBatchEvent) payload);
             }
         });
 
         CursorEvent cursorEvent = new CursorEvent(3, 20, 15, 42);
         session.send("/app/document.cursor", cursorEvent);
 
-        CursorEvent receivedEvent = completableFuture.get(5, TimeUnit.SECONDS);
+        CursorBatchEvent receivedBatch = completableFuture.get(5, TimeUnit.SECONDS);
 
-        assertThat(receivedEvent.getDocumentId()).isEqualTo(3);
+        assertThat(receivedBatch.getDocumentId()).isEqualTo(3);
+        assertThat(receivedBatch.getCursors()).hasSize(1);
+        CursorEvent receivedEvent = receivedBatch.getCursors().get(0);
         assertThat(receivedEvent.getBlockId()).isEqualTo(20);
-        assertThat(receivedEvent.getUserId()).isEqualTo(15);
+        // the payload claimed user 15; the session principal wins
+        assertThat(receivedEvent.getUserId()).isEqualTo(carol.getId());
         assertThat(receivedEvent.getCursorPosition()).isEqualTo(42);
     }
+
+    private User typist() {
+        return userRepo.findByEmail("tom-typing@mail.com")
+                .orElseGet(() -> userRepo.save(User.builder().name("Tom").email("tom-typing@mail.com").password("secret").build()));
+    }
+
+    private StompSession connectAs(User user) throws ExecutionException, InterruptedException, TimeoutException {
+        StompHeaders connectHeaders = new StompHeaders();
+        connectHeaders.add("Authorization", "Bearer " + jwtUtil.generateAccessToken(user));
+        return stompClient
+                .connectAsync(WEBSOCKET_URI, new WebSocketHttpHeaders(), connectHeaders, new StompSessionHandlerAdapter() {}, port)
+                .get(2, TimeUnit.SECONDS);
+    }
 }
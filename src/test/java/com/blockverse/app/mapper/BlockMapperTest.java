@@ -4,6 +4,8 @@ import com.blockverse.app.dto.block.BlockResponse;
 import com.blockverse.app.entity.Block;
 import com.blockverse.app.entity.Document;
 import com.blockverse.app.enums.BlockType;
+import com.blockverse.app.enums.ImageVariant;
+import com.blockverse.app.service.ImageVariantService;
 import com.blockverse.app.service.S3Service;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -14,6 +16,8 @@ import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.math.BigInteger;
 import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -24,6 +28,9 @@ class BlockMapperTest {
     @Mock
     private S3Service s3Service;
 
+    @Mock
+    private ImageVariantService imageVariantService;
+
     @InjectMocks
     private BlockMapper blockMapper;
 
@@ -78,4 +85,39 @@ class BlockMapperTest {
         
         verify(s3Service).generateUrl("image-key.jpg");
     }
+
+    @Test
+    void toBlockResponse_imageBlockWithVariants_exposesVariantUrls() {
+        sampleBlock.setType(BlockType.IMAGE);
+        sampleBlock.setContent("image-key.jpg");
+
+        when(s3Service.generateUrl("image-key.jpg")).thenReturn("https://s3.url/image-key.jpg");
+        when(s3Service.generateUrl("image-key.jpg.thumb")).thenReturn("https://s3.url/image-key.jpg.thumb");
+        when(imageVariantService.variantsOf("image-key.jpg")).thenReturn(List.of(ImageVariant.THUMB));
+
+        BlockResponse response = blockMapper.toBlockResponse(sampleBlock);
+
+        assertEquals("https://s3.url/image-key.jpg", response.getFileUrl());
+        assertEquals(Map.of("thumb", "https://s3.url/image-key.jpg.thumb"), response.getVariantUrls());
+    }
+
+    @Test
+    void withFreshUrls_signsImagesAgainWithoutTouchingTheCachedTree() {
+        sampleBlock.setType(BlockType.IMAGE);
+        sampleBlock.setContent("image-key.jpg");
+        when(s3Service.generateUrl("image-key.jpg")).thenReturn("https://s3.url/old", "https://s3.url/new");
+        when(s3Service.generateUrl("image-key.jpg.thumb")).thenReturn("https://s3.url/thumb");
+        when(imageVariantService.variantsOf("image-key.jpg")).thenReturn(List.of(), List.of(ImageVariant.THUMB));
+        BlockResponse cached = blockMapper.toBlockResponse(sampleBlock);
+        BlockResponse parent = BlockResponse.builder().id(1).type(BlockType.PARAGRAPH).content("Intro")
+                .children(new ArrayList<>(List.of(cached))).build();
+
+        BlockResponse fresh = blockMapper.withFreshUrls(List.of(parent)).get(0).getChildren().get(0);
+
+        assertEquals("https://s3.url/new", fresh.getFileUrl());
+        assertEquals(Map.of("thumb", "https://s3.url/thumb"), fresh.getVariantUrls());
+        assertNull(fresh.getContent());
+        assertEquals("https://s3.url/old", cached.getFileUrl());
+        assertNull(cached.getVariantUrls());
+    }
 }
@@ -0,0 +1,121 @@
+package com.blockverse.app.notification;
+
+import com.blockverse.app.entity.Notification;
+import com.blockverse.app.enums.NotificationType;
+import com.blockverse.app.repo.NotificationRepo;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class NotificationDigesterTest {
+
+    @Mock
+    private NotificationRepo notificationRepo;
+
+    @InjectMocks
+    private NotificationDigester notificationDigester;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(notificationDigester, "digestWindowSeconds", 300L);
+        ReflectionTestUtils.setField(notificationDigester, "foldPushIntervalSeconds", 60L);
+    }
+
+    @Test
+    void digest_storesNewNotificationWhenNothingOpen() {
+        when(notificationRepo.findByUserIdInAndTypeAndReferencedIdAndReadFalseAndCreatedAtAfter(
+                anyCollection(), eq(NotificationType.UPDATE), eq(10), any(LocalDateTime.class)))
+                .thenReturn(List.of());
+        when(notificationRepo.saveAll(anyList())).thenAnswer(inv -> inv.getArgument(0));
+
+        List<Notification> created = notificationDigester.digest(List.of(1, 2), "Document updated: A", NotificationType.UPDATE, 10);
+
+        assertEquals(2, created.size());
+        assertEquals(1, created.get(0).getOccurrences());
+        assertEquals("Document updated: A", created.get(0).getMessage());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void digest_foldsRepeatIntoOpenNotification() {
+        Notification open = Notification.builder()
+                .id(5).userId(1).message("Document updated: A").type(NotificationType.UPDATE)
+                .referencedId(10).occurrences(1).createdAt(LocalDateTime.now().minusSeconds(30))
+                .build();
+        when(notificationRepo.findByUserIdInAndTypeAndReferencedIdAndReadFalseAndCreatedAtAfter(
+                anyCollection(), eq(NotificationType.UPDATE), eq(10), any(LocalDateTime.class)))
+                .thenReturn(List.of(open));
+        when(notificationRepo.saveAll(anyList())).thenAnswer(inv -> inv.getArgument(0));
+
+        List<Notification> pushed = notificationDigester.digest(List.of(1, 2), "Document updated: B", NotificationType.UPDATE, 10);
+
+        // never pushed before, so the folded notification goes out with its new count
+        assertEquals(2, pushed.size());
+        assertSame(open, pushed.get(0));
+        assertEquals(2, pushed.get(1).getUserId());
+        assertEquals(2, open.getOccurrences());
+        assertEquals("Document updated: B", open.getMessage());
+
+        ArgumentCaptor<List<Notification>> captor = ArgumentCaptor.forClass(List.class);
+        verify(notificationRepo, times(2)).saveAll(captor.capture());
+        assertEquals(List.of(open), captor.getAllValues().get(0));
+    }
+
+    @Test
+    void digest_recentlyPushedFoldIsNotPushedAgain() {
+        Notification open = Notification.builder()
+                .id(5).userId(1).message("Document updated: A").type(NotificationType.UPDATE)
+                .referencedId(10).occurrences(3).createdAt(LocalDateTime.now().minusSeconds(30))
+                .lastPushedAt(LocalDateTime.now().minusSeconds(10))
+                .build();
+        when(notificationRepo.findByUserIdInAndTypeAndReferencedIdAndReadFalseAndCreatedAtAfter(
+                anyCollection(), eq(NotificationType.UPDATE), eq(10), any(LocalDateTime.class)))
+                .thenReturn(List.of(open));
+        when(notificationRepo.saveAll(anyList())).thenAnswer(inv -> inv.getArgument(0));
+
+        List<Notification> pushed = notificationDigester.digest(List.of(1), "Document updated: B", NotificationType.UPDATE, 10);
+
+        assertTrue(pushed.isEmpty());
+        assertEquals(4, open.getOccurrences());
+        verify(notificationRepo).saveAll(List.of(open));
+    }
+
+    @Test
+    void digest_neverFoldsWithoutReference() {
+        when(notificationRepo.saveAll(anyList())).thenAnswer(inv -> inv.getArgument(0));
+
+        List<Notification> created = notificationDigester.digest(List.of(1), "Hello", NotificationType.UPDATE, null);
+
+        assertEquals(1, created.size());
+        verify(notificationRepo, never()).findByUserIdInAndTypeAndReferencedIdAndReadFalseAndCreatedAtAfter(
+                anyCollection(), any(), any(), any());
+    }
+
+    @Test
+    void digest_disabledWhenWindowIsZero() {
+        ReflectionTestUtils.setField(notificationDigester, "digestWindowSeconds", 0L);
+        when(notificationRepo.saveAll(anyList())).thenAnswer(inv -> inv.getArgument(0));
+
+        List<Notification> created = notificationDigester.digest(List.of(1), "Hello", NotificationType.UPDATE, 10);
+
+        assertEquals(1, created.size());
+        verify(notificationRepo, never()).findByUserIdInAndTypeAndReferencedIdAndReadFalseAndCreatedAtAfter(
+                anyCollection(), any(), any(), any());
+    }
+}
@@ -0,0 +1,106 @@
+package com.blockverse.app.search;
+
+import com.blockverse.app.dto.SearchChangeEvent;
+import com.blockverse.app.enums.BlockType;
+import com.blockverse.app.event.BlockChangedEvent;
+import com.blockverse.app.event.DocumentChangedEvent;
+import com.blockverse.app.service.DocumentListCache;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SearchChangeRelayTest {
+
+    @Mock
+    private KafkaTemplate<String, Object> kafkaTemplate;
+    @Mock
+    private SearchIndexService searchIndexService;
+    @Mock
+    private SuggestionService suggestionService;
+    @Mock
+    private SearchResultCache searchResultCache;
+    @Mock
+    private DocumentListCache documentListCache;
+
+    @InjectMocks
+    private SearchChangeRelay searchChangeRelay;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(searchChangeRelay, "searchChangeTopic", "search-change-topic");
+        ReflectionTestUtils.setField(searchChangeRelay, "changeRelay", "kafka");
+    }
+
+    @Test
+    void onBlockChanged_kafkaRelay_publishesKeyedByWorkspace() {
+        searchChangeRelay.onBlockChanged(new BlockChangedEvent(1, 2, 3, BlockType.PARAGRAPH, "hello", false));
+
+        ArgumentCaptor<Object> captor = ArgumentCaptor.forClass(Object.class);
+        verify(kafkaTemplate).send(eq("search-change-topic"), eq("1"), captor.capture());
+        SearchChangeEvent event = (SearchChangeEvent) captor.getValue();
+        assertEquals(3, event.getBlockId());
+        assertEquals("hello", event.getContent());
+        assertEquals(ReflectionTestUtils.getField(searchChangeRelay, "nodeId"), event.getOriginNodeId());
+    }
+
+    @Test
+    void onDocumentChanged_localRelay_publishesNothing() {
+        ReflectionTestUtils.setField(searchChangeRelay, "changeRelay", "local");
+
+        searchChangeRelay.onDocumentChanged(new DocumentChangedEvent(1, 2, "Title", true, false));
+
+        verifyNoInteractions(kafkaTemplate);
+    }
+
+    @Test
+    void applyRelayed_documentChange_updatesIndexesBeforeCaches() {
+        SearchChangeEvent event = SearchChangeEvent.builder()
+                .originNodeId("other-node").workspaceId(1).documentId(2).title("Title").active(true).build();
+
+        searchChangeRelay.applyRelayed(event);
+
+        InOrder order = inOrder(searchIndexService, suggestionService, searchResultCache, documentListCache);
+        order.verify(searchIndexService).onDocumentChanged(any(DocumentChangedEvent.class));
+        order.verify(suggestionService).onDocumentChanged(any(DocumentChangedEvent.class));
+        order.verify(searchResultCache).onDocumentChanged(any(DocumentChangedEvent.class));
+        order.verify(documentListCache).onDocumentChanged(any(DocumentChangedEvent.class));
+    }
+
+    @Test
+    void applyRelayed_blockChange_updatesIndexAndCache() {
+        SearchChangeEvent event = SearchChangeEvent.builder()
+                .originNodeId("other-node").workspaceId(1).documentId(2).blockId(3)
+                .type(BlockType.HEADING1).content("Intro").build();
+
+        searchChangeRelay.applyRelayed(event);
+
+        ArgumentCaptor<BlockChangedEvent> captor = ArgumentCaptor.forClass(BlockChangedEvent.class);
+        verify(searchIndexService).onBlockChanged(captor.capture());
+        verify(suggestionService).onBlockChanged(any(BlockChangedEvent.class));
+        verify(searchResultCache).onBlockChanged(any(BlockChangedEvent.class));
+        assertEquals(3, captor.getValue().getBlockId());
+        assertEquals("Intro", captor.getValue().getContent());
+    }
+
+    @Test
+    void applyRelayed_ownOrigin_isSkipped() {
+        String nodeId = (String) ReflectionTestUtils.getField(searchChangeRelay, "nodeId");
+
+        searchChangeRelay.applyRelayed(SearchChangeEvent.builder().originNodeId(nodeId).workspaceId(1).build());
+
+        verifyNoInteractions(searchIndexService, suggestionService, searchResultCache, documentListCache);
+    }
+}
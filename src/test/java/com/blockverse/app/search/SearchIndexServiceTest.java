@@ -0,0 +1,159 @@
+package com.blockverse.app.search;
+
+import com.blockverse.app.entity.Block;
+import com.blockverse.app.entity.Document;
+import com.blockverse.app.entity.WorkSpace;
+import com.blockverse.app.enums.BlockType;
+import com.blockverse.app.event.BlockChangedEvent;
+import com.blockverse.app.event.DocumentChangedEvent;
+import com.blockverse.app.repo.BlockRepo;
+import com.blockverse.app.repo.DocumentRepo;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SearchIndexServiceTest {
+
+    @Mock
+    private DocumentRepo documentRepo;
+
+    @Mock
+    private BlockRepo blockRepo;
+
+    private Document document;
+    private Block block;
+
+    @BeforeEach
+    void setUp() {
+        WorkSpace workSpace = WorkSpace.builder().id(1).build();
+        document = Document.builder().id(1).title("Launch checklist").workSpace(workSpace).build();
+        block = Block.builder().id(10).document(document).type(BlockType.TODO).content("Ship the release").build();
+    }
+
+    private List<Integer> blockIds(SearchHits hits) {
+        return hits.getBlocks().stream().map(SearchHits.Hit::id).toList();
+    }
+
+    @Test
+    void search_firstQueryBuildsIndexFromDatabase() {
+        SearchIndexService service = new SearchIndexService(documentRepo, blockRepo, "");
+        when(documentRepo.findByWorkSpaceId(1)).thenReturn(List.of(document));
+        when(blockRepo.findActiveByWorkSpaceId(1)).thenReturn(List.of(block));
+
+        assertEquals(1, service.search(1, "launch", SearchFilter.none(), SearchCursor.FIRST_PAGE, 10).getTotalDocuments());
+        assertEquals(List.of(10), blockIds(service.search(1, "release", SearchFilter.none(), SearchCursor.FIRST_PAGE, 10)));
+        verify(documentRepo, times(1)).findByWorkSpaceId(1);
+    }
+
+    @Test
+    void events_beforeFirstSearchAreLeftToTheBootstrap() {
+        SearchIndexService service = new SearchIndexService(documentRepo, blockRepo, "");
+        service.onBlockChanged(new BlockChangedEvent(1, 1, 11, BlockType.PARAGRAPH, "Ship it", false));
+        when(documentRepo.findByWorkSpaceId(1)).thenReturn(List.of(document));
+        when(blockRepo.findActiveByWorkSpaceId(1)).thenReturn(List.of(block));
+
+        assertEquals(List.of(10), blockIds(service.search(1, "ship", SearchFilter.none(), SearchCursor.FIRST_PAGE, 10)));
+    }
+
+    @Test
+    void events_afterBootstrapUpdateTheIndex() {
+        SearchIndexService service = new SearchIndexService(documentRepo, blockRepo, "");
+        when(documentRepo.findByWorkSpaceId(1)).thenReturn(List.of(document));
+        when(blockRepo.findActiveByWorkSpaceId(1)).thenReturn(List.of(block));
+        service.search(1, "ship", SearchFilter.none(), SearchCursor.FIRST_PAGE, 10);
+
+        service.onBlockChanged(new BlockChangedEvent(1, 1, 10, BlockType.TODO, "Ship the release", true));
+        service.onDocumentChanged(new DocumentChangedEvent(1, 1, "Renamed", true, false));
+
+        assertTrue(service.search(1, "ship", SearchFilter.none(), SearchCursor.FIRST_PAGE, 10).getBlocks().isEmpty());
+        assertEquals(1, service.search(1, "renamed", SearchFilter.none(), SearchCursor.FIRST_PAGE, 10).getTotalDocuments());
+    }
+
+    @Test
+    void flush_persistsSegmentThatNextInstanceLoadsWithoutRebuilding(@TempDir Path dir) {
+        SearchIndexService first = new SearchIndexService(documentRepo, blockRepo, dir.toString());
+        when(documentRepo.findByWorkSpaceId(1)).thenReturn(List.of(document));
+        when(blockRepo.findActiveByWorkSpaceId(1)).thenReturn(List.of(block));
+        first.search(1, "ship", SearchFilter.none(), SearchCursor.FIRST_PAGE, 10);
+        first.flush();
+        assertTrue(Files.exists(dir.resolve("workspace-1.idx")));
+
+        SearchIndexService second = new SearchIndexService(documentRepo, blockRepo, dir.toString());
+        when(documentRepo.findByWorkSpaceIdAndUpdatedAtAfter(eq(1), any())).thenReturn(List.of());
+        when(documentRepo.findIdsByWorkSpaceId(1)).thenReturn(List.of(1));
+
+        assertEquals(List.of(10), blockIds(second.search(1, "ship", SearchFilter.none(), SearchCursor.FIRST_PAGE, 10)));
+        verify(documentRepo, times(1)).findByWorkSpaceId(1);
+    }
+
+    @Test
+    void bootstrap_fromSegmentDropsDocumentsDeletedSinceFlush(@TempDir Path dir) {
+        SearchIndexService first = new SearchIndexService(documentRepo, blockRepo, dir.toString());
+        when(documentRepo.findByWorkSpaceId(1)).thenReturn(List.of(document));
+        when(blockRepo.findActiveByWorkSpaceId(1)).thenReturn(List.of(block));
+        first.search(1, "ship", SearchFilter.none(), SearchCursor.FIRST_PAGE, 10);
+        first.flush();
+
+        SearchIndexService second = new SearchIndexService(documentRepo, blockRepo, dir.toString());
+        when(documentRepo.findByWorkSpaceIdAndUpdatedAtAfter(eq(1), any())).thenReturn(List.of());
+        when(documentRepo.findIdsByWorkSpaceId(1)).thenReturn(List.of());
+
+        assertTrue(second.search(1, "ship", SearchFilter.none(), SearchCursor.FIRST_PAGE, 10).getBlocks().isEmpty());
+    }
+
+    @Test
+    void evictIdle_dropsIdleIndexAndNextSearchRebuildsIt() {
+        SearchIndexService service = new SearchIndexService(documentRepo, blockRepo, "");
+        ReflectionTestUtils.setField(service, "idleEvictionMs", 60000L);
+        when(documentRepo.findByWorkSpaceId(1)).thenReturn(List.of(document));
+        when(blockRepo.findActiveByWorkSpaceId(1)).thenReturn(List.of(block));
+        service.search(1, "ship", SearchFilter.none(), SearchCursor.FIRST_PAGE, 10);
+
+        service.evictIdle();
+        service.search(1, "ship", SearchFilter.none(), SearchCursor.FIRST_PAGE, 10);
+        verify(documentRepo, times(1)).findByWorkSpaceId(1);
+
+        ReflectionTestUtils.setField(service, "idleEvictionMs", -1000L);
+        service.evictIdle();
+        // an event for an evicted workspace is left to the reload, like one before the first search
+        service.onBlockChanged(new BlockChangedEvent(1, 1, 11, BlockType.PARAGRAPH, "Ship it", false));
+
+        assertEquals(List.of(10), blockIds(service.search(1, "ship", SearchFilter.none(), SearchCursor.FIRST_PAGE, 10)));
+        verify(documentRepo, times(2)).findByWorkSpaceId(1);
+    }
+
+    @Test
+    void evictIdle_withIndexDir_waitsForFlushThenReloadsFromSegment(@TempDir Path dir) {
+        SearchIndexService service = new SearchIndexService(documentRepo, blockRepo, dir.toString());
+        ReflectionTestUtils.setField(service, "idleEvictionMs", -1000L);
+        when(documentRepo.findByWorkSpaceId(1)).thenReturn(List.of(document));
+        when(blockRepo.findActiveByWorkSpaceId(1)).thenReturn(List.of(block));
+        service.search(1, "ship", SearchFilter.none(), SearchCursor.FIRST_PAGE, 10);
+
+        service.evictIdle();
+        service.search(1, "ship", SearchFilter.none(), SearchCursor.FIRST_PAGE, 10);
+        verify(documentRepo, never()).findIdsByWorkSpaceId(1);
+
+        service.flush();
+        service.evictIdle();
+        when(documentRepo.findByWorkSpaceIdAndUpdatedAtAfter(eq(1), any())).thenReturn(List.of());
+        when(documentRepo.findIdsByWorkSpaceId(1)).thenReturn(List.of(1));
+
+        assertEquals(List.of(10), blockIds(service.search(1, "ship", SearchFilter.none(), SearchCursor.FIRST_PAGE, 10)));
+        verify(documentRepo, times(1)).findByWorkSpaceId(1);
+    }
+}
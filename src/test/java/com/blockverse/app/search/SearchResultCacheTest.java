@@ -0,0 +1,81 @@
+package com.blockverse.app.search;
+
+import com.blockverse.app.dto.SearchResponse;
+import com.blockverse.app.enums.BlockType;
+import com.blockverse.app.event.BlockChangedEvent;
+import com.blockverse.app.event.DocumentChangedEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SearchResultCacheTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private SearchResultCache cache;
+    private SearchResponse response;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        cache = new SearchResultCache(meterRegistry, 2, 60000);
+        response = SearchResponse.builder().documents(List.of()).blocks(List.of()).build();
+    }
+
+    private SearchResultCache.Key key(int workspaceId, String keyword) {
+        return SearchResultCache.key(workspaceId, keyword, SearchFilter.none(), 20, null);
+    }
+
+    @Test
+    void get_returnsStoredResponseForNormalizedQuery() {
+        cache.put(key(1, "Roadmap  Q3"), cache.generation(1), response);
+
+        assertSame(response, cache.get(key(1, " roadmap q3 ")));
+        assertEquals(1.0, meterRegistry.counter("search.cache.hits").count());
+    }
+
+    @Test
+    void get_keysIncludeFiltersAndPage() {
+        cache.put(key(1, "roadmap"), cache.generation(1), response);
+
+        assertNull(cache.get(SearchResultCache.key(1, "roadmap", new SearchFilter(BlockType.CODE, null), 20, null)));
+        assertNull(cache.get(SearchResultCache.key(1, "roadmap", SearchFilter.none(), 20, "next")));
+    }
+
+    @Test
+    void mutation_invalidatesOnlyItsWorkspace() {
+        cache.put(key(1, "roadmap"), cache.generation(1), response);
+        cache.put(key(2, "roadmap"), cache.generation(2), response);
+
+        cache.onBlockChanged(new BlockChangedEvent(1, 3, 4, BlockType.PARAGRAPH, "text", false));
+
+        assertNull(cache.get(key(1, "roadmap")));
+        assertSame(response, cache.get(key(2, "roadmap")));
+    }
+
+    @Test
+    void put_withGenerationReadBeforeAChange_isNeverServed() {
+        long generation = cache.generation(1);
+        cache.onDocumentChanged(new DocumentChangedEvent(1, 3, "Title", true, false));
+
+        cache.put(key(1, "roadmap"), generation, response);
+
+        assertNull(cache.get(key(1, "roadmap")));
+    }
+
+    @Test
+    void put_evictsLeastRecentlyUsedBeyondBound() {
+        cache.put(key(1, "a"), 0, response);
+        cache.put(key(1, "b"), 0, response);
+        cache.get(key(1, "a"));
+        cache.put(key(1, "c"), 0, response);
+
+        assertNotNull(cache.get(key(1, "a")));
+        assertNull(cache.get(key(1, "b")));
+        assertEquals(1.0, meterRegistry.counter("search.cache.evictions").count());
+        assertEquals(2.0, meterRegistry.get("search.cache.size").gauge().value());
+    }
+}
@@ -0,0 +1,98 @@
+package com.blockverse.app.search;
+
+import com.blockverse.app.dto.SuggestionResponse;
+import com.blockverse.app.entity.Block;
+import com.blockverse.app.entity.Document;
+import com.blockverse.app.entity.WorkSpace;
+import com.blockverse.app.enums.BlockType;
+import com.blockverse.app.enums.SuggestionType;
+import com.blockverse.app.event.BlockChangedEvent;
+import com.blockverse.app.event.DocumentChangedEvent;
+import com.blockverse.app.repo.BlockRepo;
+import com.blockverse.app.repo.DocumentRepo;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SuggestionServiceTest {
+
+    @Mock
+    private DocumentRepo documentRepo;
+
+    @Mock
+    private BlockRepo blockRepo;
+
+    @InjectMocks
+    private SuggestionService suggestionService;
+
+    private Document document;
+
+    @BeforeEach
+    void setUp() {
+        document = Document.builder().id(1).title("Design review").workSpace(WorkSpace.builder().id(1).build()).build();
+    }
+
+    @Test
+    void suggest_loadsWorkspaceOnceAndMapsResults() {
+        Block heading = Block.builder().id(5).document(document).type(BlockType.HEADING1).content("Decisions").build();
+        when(documentRepo.findByWorkSpaceId(1)).thenReturn(List.of(document));
+        when(blockRepo.findActiveByWorkSpaceIdAndTypeIn(eq(1), anyList())).thenReturn(List.of(heading));
+
+        List<SuggestionResponse> first = suggestionService.suggest(1, "de", 5);
+        suggestionService.suggest(1, "dec", 5);
+
+        assertEquals(2, first.size());
+        assertEquals(SuggestionType.DOCUMENT, first.get(0).getType());
+        assertEquals(5, first.get(1).getBlockId());
+        verify(documentRepo, times(1)).findByWorkSpaceId(1);
+    }
+
+    @Test
+    void events_afterLoadAreAppliedIncrementally() {
+        when(documentRepo.findByWorkSpaceId(1)).thenReturn(List.of(document));
+        when(blockRepo.findActiveByWorkSpaceIdAndTypeIn(eq(1), anyList())).thenReturn(List.of());
+        suggestionService.suggest(1, "design", 5);
+
+        suggestionService.onDocumentChanged(new DocumentChangedEvent(1, 2, "Deploy runbook", true, false));
+        suggestionService.onBlockChanged(new BlockChangedEvent(1, 2, 9, BlockType.HEADING2, "Rollback", false));
+
+        assertEquals("Deploy runbook", suggestionService.suggest(1, "depl", 5).get(0).getText());
+        assertEquals(9, suggestionService.suggest(1, "roll", 5).get(0).getBlockId());
+    }
+
+    @Test
+    void suggest_blankPrefixSkipsLoading() {
+        assertTrue(suggestionService.suggest(1, " ", 5).isEmpty());
+        verifyNoInteractions(documentRepo, blockRepo);
+    }
+
+    @Test
+    void evictIdle_dropsIdleWorkspaceAndNextLookupReloadsIt() {
+        ReflectionTestUtils.setField(suggestionService, "idleEvictionMs", 60000L);
+        when(documentRepo.findByWorkSpaceId(1)).thenReturn(List.of(document));
+        when(blockRepo.findActiveByWorkSpaceIdAndTypeIn(eq(1), anyList())).thenReturn(List.of());
+        suggestionService.suggest(1, "de", 5);
+
+        suggestionService.evictIdle();
+        suggestionService.suggest(1, "de", 5);
+        verify(documentRepo, times(1)).findByWorkSpaceId(1);
+
+        ReflectionTestUtils.setField(suggestionService, "idleEvictionMs", -1000L);
+        suggestionService.evictIdle();
+
+        assertEquals(1, suggestionService.suggest(1, "de", 5).size());
+        verify(documentRepo, times(2)).findByWorkSpaceId(1);
+    }
+}
@@ -0,0 +1,189 @@
+package com.blockverse.app.search;
+
+import com.blockverse.app.enums.BlockType;
+import com.blockverse.app.exception.StaleSearchCursorException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.nio.ByteBuffer;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WorkspaceIndexTest {
+
+    private WorkspaceIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new WorkspaceIndex();
+        index.upsertDocument(1, "Quarterly planning", true);
+        index.upsertDocument(2, "Planning notes", true);
+        index.upsertBlock(10, 1, BlockType.PARAGRAPH, "Roadmap planning for the quarter", false);
+        index.upsertBlock(11, 2, BlockType.PARAGRAPH, "Planning planning planning", false);
+        index.upsertBlock(12, 2, BlockType.CODE, "int roadmap = 1;", false);
+    }
+
+    private List<Integer> blockIds(String keyword) {
+        return index.search(SearchQuery.parse(keyword), SearchFilter.none(), SearchCursor.FIRST_PAGE, 50).getBlocks().stream()
+                .map(SearchHits.Hit::id)
+                .toList();
+    }
+
+    private List<Integer> documentIds(String keyword) {
+        return index.search(SearchQuery.parse(keyword), SearchFilter.none(), SearchCursor.FIRST_PAGE, 50).getDocuments().stream()
+                .map(SearchHits.Hit::id)
+                .toList();
+    }
+
+    @Test
+    void search_ranksHigherTermFrequencyFirst() {
+        assertEquals(List.of(11, 10), blockIds("planning"));
+    }
+
+    @Test
+    void search_requiresEveryTerm() {
+        assertEquals(List.of(10), blockIds("roadmap planning"));
+        assertEquals(List.of(1), documentIds("quarterly planning"));
+    }
+
+    @Test
+    void search_isCaseInsensitive() {
+        assertEquals(List.of(1), documentIds("QUARTERLY"));
+    }
+
+    @Test
+    void search_prefixMatchesAnyTermWithThatPrefix() {
+        assertEquals(List.of(10, 12), blockIds("road*").stream().sorted().toList());
+        assertEquals(List.of(1), documentIds("quart*"));
+    }
+
+    @Test
+    void search_excludedTermRemovesMatches() {
+        assertEquals(List.of(11), blockIds("planning -roadmap"));
+    }
+
+    @Test
+    void search_hidesInactiveDocumentsAndTheirBlocks() {
+        index.upsertDocument(2, "Planning notes", false);
+
+        assertEquals(List.of(1), documentIds("planning"));
+        assertEquals(List.of(10), blockIds("planning"));
+    }
+
+    @Test
+    void upsertBlock_replacesPreviousContent() {
+        index.upsertBlock(10, 1, BlockType.PARAGRAPH, "Something else", false);
+
+        assertEquals(List.of(11), blockIds("planning"));
+        assertEquals(List.of(10), blockIds("something"));
+    }
+
+    @Test
+    void upsertBlock_deletedOrImageBlocksAreNotIndexed() {
+        index.upsertBlock(11, 2, BlockType.PARAGRAPH, "Planning", true);
+        index.upsertBlock(13, 2, BlockType.IMAGE, "uploads/planning.png", false);
+
+        assertEquals(List.of(10), blockIds("planning"));
+    }
+
+    @Test
+    void removeDocument_dropsTitleAndBlocks() {
+        index.removeDocument(2);
+
+        assertEquals(List.of(1), documentIds("planning"));
+        assertEquals(List.of(10), blockIds("planning"));
+        assertTrue(blockIds("int").isEmpty());
+    }
+
+    @Test
+    void search_cursorWalksPagesWithoutRepeats() {
+        SearchQuery query = SearchQuery.parse("planning");
+
+        SearchHits first = index.search(query, SearchFilter.none(), SearchCursor.FIRST_PAGE, 1);
+        assertEquals(2, first.getTotalBlocks());
+        assertEquals(List.of(11), first.getBlocks().stream().map(SearchHits.Hit::id).toList());
+        assertNotNull(first.getNextCursor());
+
+        SearchCursor next = SearchCursor.decode(first.getNextCursor().encode());
+        SearchHits second = index.search(query, SearchFilter.none(), next, 1);
+        assertEquals(List.of(10), second.getBlocks().stream().map(SearchHits.Hit::id).toList());
+        assertEquals(List.of(2), second.getDocuments().stream().map(SearchHits.Hit::id).toList());
+        assertNull(second.getNextCursor());
+    }
+
+    @Test
+    void search_cursorAfterAnEdit_continuesAgainstTheCurrentIndex() {
+        SearchQuery query = SearchQuery.parse("planning");
+        SearchCursor next = index.search(query, SearchFilter.none(), SearchCursor.FIRST_PAGE, 1).getNextCursor();
+
+        // a new title leaves every block score where it was
+        index.upsertDocument(3, "Budget review", true);
+
+        SearchHits second = index.search(query, SearchFilter.none(), SearchCursor.decode(next.encode()), 1);
+        assertEquals(List.of(10), second.getBlocks().stream().map(SearchHits.Hit::id).toList());
+    }
+
+    @Test
+    void search_cursorOfAnotherQueryOrFilter_isRejected() {
+        SearchQuery query = SearchQuery.parse("planning");
+        SearchCursor next = index.search(query, SearchFilter.none(), SearchCursor.FIRST_PAGE, 1).getNextCursor();
+
+        assertThrows(StaleSearchCursorException.class,
+                () -> index.search(SearchQuery.parse("road*"), SearchFilter.none(), next, 1));
+        assertThrows(StaleSearchCursorException.class,
+                () -> index.search(query, new SearchFilter(null, 1), next, 1));
+    }
+
+    @Test
+    void search_cursorFromIdenticalIndex_isAccepted() {
+        SearchQuery query = SearchQuery.parse("planning");
+        SearchCursor next = index.search(query, SearchFilter.none(), SearchCursor.FIRST_PAGE, 1).getNextCursor();
+
+        // a rewrite with the same content leaves every score where it was
+        index.upsertBlock(10, 1, BlockType.PARAGRAPH, "Roadmap planning for the quarter", false);
+
+        assertEquals(List.of(10), index.search(query, SearchFilter.none(), next, 1).getBlocks().stream()
+                .map(SearchHits.Hit::id).toList());
+    }
+
+    @Test
+    void search_filtersByBlockTypeAndDocument() {
+        SearchQuery query = SearchQuery.parse("road*");
+
+        List<Integer> code = index.search(query, new SearchFilter(BlockType.CODE, null), SearchCursor.FIRST_PAGE, 50)
+                .getBlocks().stream().map(SearchHits.Hit::id).toList();
+        List<Integer> inFirst = index.search(query, new SearchFilter(null, 1), SearchCursor.FIRST_PAGE, 50)
+                .getBlocks().stream().map(SearchHits.Hit::id).toList();
+
+        assertEquals(List.of(12), code);
+        assertEquals(List.of(10), inFirst);
+    }
+
+    @Test
+    void search_blankQueryReturnsNothing() {
+        SearchHits hits = index.search(SearchQuery.parse("  - * "), SearchFilter.none(), SearchCursor.FIRST_PAGE, 50);
+
+        assertEquals(0, hits.getTotalDocuments());
+        assertEquals(0, hits.getTotalBlocks());
+    }
+
+    @Test
+    void segment_roundTripsThroughWriteAndRead() throws Exception {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            index.writeTo(out, 1234L);
+        }
+
+        WorkspaceIndex restored = new WorkspaceIndex();
+        long flushedAt = restored.readFrom(ByteBuffer.wrap(bytes.toByteArray()));
+
+        assertEquals(1234L, flushedAt);
+        SearchHits original = index.search(SearchQuery.parse("planning"), SearchFilter.none(), SearchCursor.FIRST_PAGE, 50);
+        SearchHits reloaded = restored.search(SearchQuery.parse("planning"), SearchFilter.none(), SearchCursor.FIRST_PAGE, 50);
+        assertEquals(original.getBlocks(), reloaded.getBlocks());
+        assertEquals(original.getDocuments(), reloaded.getDocuments());
+    }
+}
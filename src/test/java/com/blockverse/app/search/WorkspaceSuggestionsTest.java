@@ -0,0 +1,90 @@
+package com.blockverse.app.search;
+
+import com.blockverse.app.enums.BlockType;
+import com.blockverse.app.enums.SuggestionType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WorkspaceSuggestionsTest {
+
+    private WorkspaceSuggestions suggestions;
+
+    @BeforeEach
+    void setUp() {
+        suggestions = new WorkspaceSuggestions();
+        suggestions.upsertDocument(1, "Quarterly Planning", true);
+        suggestions.upsertDocument(2, "Product roadmap", true);
+        suggestions.upsertBlock(10, 2, BlockType.HEADING1, "Planning assumptions", false);
+        suggestions.upsertBlock(11, 2, BlockType.PARAGRAPH, "Planning body text", false);
+    }
+
+    private List<String> texts(String prefix) {
+        return suggestions.complete(prefix, 10).stream().map(SuggestionTrie.Suggestion::text).toList();
+    }
+
+    @Test
+    void complete_matchesStartOfAnyWordWithTitlesFirst() {
+        assertEquals(List.of("Quarterly Planning", "Planning assumptions"), texts("plan"));
+        assertEquals(SuggestionType.HEADING, suggestions.complete("plan", 10).get(1).type());
+    }
+
+    @Test
+    void complete_isCaseAndSeparatorInsensitive() {
+        assertEquals(List.of("Quarterly Planning"), texts("QUARTERLY-pl"));
+        // a trailing separator means the word is complete
+        assertEquals(List.of("Planning assumptions"), texts("planning "));
+        assertTrue(texts("  ").isEmpty());
+    }
+
+    @Test
+    void complete_ignoresNonHeadingBlocks() {
+        assertTrue(texts("body").isEmpty());
+    }
+
+    @Test
+    void upsertBlock_retitledOrDemotedHeadingsAreReplaced() {
+        suggestions.upsertBlock(10, 2, BlockType.HEADING2, "Launch checklist", false);
+        assertEquals(List.of("Launch checklist"), texts("launch"));
+        assertEquals(List.of("Quarterly Planning"), texts("plan"));
+
+        suggestions.upsertBlock(10, 2, BlockType.PARAGRAPH, "Launch checklist", false);
+        assertTrue(texts("launch").isEmpty());
+    }
+
+    @Test
+    void upsertDocument_inactiveDocumentHidesTitleAndHeadingsUntilRestored() {
+        suggestions.upsertDocument(2, "Product roadmap", false);
+        assertTrue(texts("roadmap").isEmpty());
+        assertEquals(List.of("Quarterly Planning"), texts("plan"));
+
+        suggestions.upsertDocument(2, "Product roadmap", true);
+        assertEquals(List.of("Product roadmap"), texts("road"));
+        assertEquals(List.of("Quarterly Planning", "Planning assumptions"), texts("plan"));
+    }
+
+    @Test
+    void removeDocument_dropsEverythingItOwned() {
+        suggestions.removeDocument(2);
+
+        assertTrue(texts("product").isEmpty());
+        assertEquals(List.of("Quarterly Planning"), texts("plan"));
+    }
+
+    @Test
+    void complete_keepsOnlyTheBestEntriesPerPrefix() {
+        for (int i = 0; i < 20; i++) {
+            suggestions.upsertBlock(100 + i, 1, BlockType.HEADING1, "Planning item " + i, false);
+        }
+        assertEquals(SuggestionTrie.TOP_K, suggestions.complete("planning", 50).size());
+
+        suggestions.removeDocument(1);
+        suggestions.upsertDocument(1, "Quarterly Planning", true);
+
+        // headings of a removed document are gone with it
+        assertEquals(List.of("Quarterly Planning", "Planning assumptions"), texts("plan"));
+    }
+}
@@ -5,7 +5,7 @@ import com.blockverse.app.dto.activityFeed.ActivityFeedResponse;
 import com.blockverse.app.entity.AuditLog;
 import com.blockverse.app.entity.User;
 import com.blockverse.app.entity.WorkSpace;
-import com.blockverse.app.entity.WorkSpaceMember;
+import com.blockverse.app.enums.WorkSpaceRole;
 import com.blockverse.app.exception.TooManyRequestsException;
 import com.blockverse.app.repo.AuditLogRepo;
 import com.blockverse.app.repo.WorkSpaceMemberRepo;
@@ -61,8 +61,8 @@ class ActivityFeedServiceTest {
         
         when(securityUtil.getLoggedInUser()).thenReturn(testUser);
         when(workSpaceRepo.findByIdAndDeletedAtIsNull(1)).thenReturn(Optional.of(testWorkspace));
-        when(workSpaceMemberRepo.findByUserAndWorkSpaceAndDeletedAtIsNull(testUser, testWorkspace))
-                .thenReturn(Optional.of(new WorkSpaceMember()));
+        when(workSpaceMemberRepo.findActiveRole(testUser.getId(), testWorkspace.getId()))
+                .thenReturn(Optional.of(WorkSpaceRole.MEMBER));
                 
         AuditLog log = AuditLog.builder()
                 .userId(1)
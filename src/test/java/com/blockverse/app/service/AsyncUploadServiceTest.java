@@ -0,0 +1,116 @@
+package com.blockverse.app.service;
+
+import com.blockverse.app.dto.upload.UploadAcceptedResponse;
+import com.blockverse.app.dto.upload.UploadStatusEvent;
+import com.blockverse.app.enums.UploadStatus;
+import com.blockverse.app.exception.TooManyRequestsException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockMultipartFile;
+import software.amazon.awssdk.core.async.AsyncRequestBody;
+import software.amazon.awssdk.services.s3.S3AsyncClient;
+import software.amazon.awssdk.services.s3.model.PutObjectRequest;
+import software.amazon.awssdk.services.s3.model.PutObjectResponse;
+
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AsyncUploadServiceTest {
+
+    @Mock
+    private S3AsyncClient s3AsyncClient;
+
+    @Mock
+    private S3Service s3Service;
+
+    @Mock
+    private StoredFileService storedFileService;
+
+    @Mock
+    private SocketBroadcastService socketBroadcastService;
+
+    private AsyncUploadService asyncUploadService;
+
+    private final MockMultipartFile file =
+            new MockMultipartFile("file", "test.txt", "text/plain", "content".getBytes());
+
+    @BeforeEach
+    void setUp() {
+        asyncUploadService = new AsyncUploadService(s3AsyncClient, s3Service, storedFileService, socketBroadcastService, "test-bucket", 1);
+    }
+
+    @Test
+    void startUpload_returnsIdAndPublishesCompletion() {
+        CompletableFuture<PutObjectResponse> pending = new CompletableFuture<>();
+        when(s3AsyncClient.putObject(any(PutObjectRequest.class), any(AsyncRequestBody.class))).thenReturn(pending);
+        when(storedFileService.register(anyInt(), any(), any(), anyLong(), any())).thenAnswer(invocation -> invocation.getArgument(2));
+
+        UploadAcceptedResponse accepted = asyncUploadService.startUpload(7, file);
+
+        assertNotNull(accepted.getUploadId());
+        // named by uploader and content hash, never by the uploader's file name
+        assertTrue(accepted.getKey().startsWith("files/7/"));
+        assertFalse(accepted.getKey().contains("test.txt"));
+        verifyNoInteractions(socketBroadcastService);
+
+        pending.complete(PutObjectResponse.builder().build());
+
+        ArgumentCaptor<UploadStatusEvent> captor = ArgumentCaptor.forClass(UploadStatusEvent.class);
+        verify(socketBroadcastService).send(eq("/topic/uploads.7"), captor.capture());
+        assertEquals(accepted.getUploadId(), captor.getValue().getUploadId());
+        assertEquals(UploadStatus.COMPLETED, captor.getValue().getStatus());
+        assertEquals(accepted.getKey(), captor.getValue().getKey());
+        assertNull(captor.getValue().getError());
+    }
+
+    @Test
+    void startUpload_duplicateContent_completesWithoutUploading() {
+        when(storedFileService.findExisting(eq(7), any())).thenReturn(Optional.of("existing_test.txt"));
+
+        UploadAcceptedResponse accepted = asyncUploadService.startUpload(7, file);
+
+        assertEquals("existing_test.txt", accepted.getKey());
+        verifyNoInteractions(s3AsyncClient);
+        ArgumentCaptor<UploadStatusEvent> captor = ArgumentCaptor.forClass(UploadStatusEvent.class);
+        verify(socketBroadcastService).send(eq("/topic/uploads.7"), captor.capture());
+        assertEquals(UploadStatus.COMPLETED, captor.getValue().getStatus());
+    }
+
+    @Test
+    void startUpload_failedUploadPublishesFailure() {
+        when(s3AsyncClient.putObject(any(PutObjectRequest.class), any(AsyncRequestBody.class)))
+                .thenReturn(CompletableFuture.failedFuture(new RuntimeException("S3 error")));
+
+        asyncUploadService.startUpload(7, file);
+
+        ArgumentCaptor<UploadStatusEvent> captor = ArgumentCaptor.forClass(UploadStatusEvent.class);
+        verify(socketBroadcastService).send(eq("/topic/uploads.7"), captor.capture());
+        assertEquals(UploadStatus.FAILED, captor.getValue().getStatus());
+    }
+
+    @Test
+    void startUpload_rejectsWhenNodeIsAtCapacity() {
+        CompletableFuture<PutObjectResponse> pending = new CompletableFuture<>();
+        when(s3AsyncClient.putObject(any(PutObjectRequest.class), any(AsyncRequestBody.class))).thenReturn(pending);
+
+        asyncUploadService.startUpload(7, file);
+
+        assertThrows(TooManyRequestsException.class, () -> asyncUploadService.startUpload(7, file));
+
+        // the slot frees up once the first upload settles
+        pending.complete(PutObjectResponse.builder().build());
+        asyncUploadService.startUpload(7, file);
+        verify(s3AsyncClient, times(2)).putObject(any(PutObjectRequest.class), any(AsyncRequestBody.class));
+    }
+}
@@ -1,11 +1,13 @@
 package com.blockverse.app.service;
 
 import com.blockverse.app.dto.block.*;
+import com.blockverse.app.dto.document.DocumentEvent;
 import com.blockverse.app.entity.*;
 import com.blockverse.app.enums.BlockOperationType;
 import com.blockverse.app.enums.BlockType;
 import com.blockverse.app.enums.AuditActionType;
 import com.blockverse.app.enums.AuditEntityType;
+import com.blockverse.app.enums.WorkSpaceRole;
 import com.blockverse.app.exception.*;
 import com.blockverse.app.repo.BlockChangeLogRepo;
 import com.blockverse.app.repo.BlockRepo;
@@ -17,8 +19,11 @@ import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 
 import java.math.BigInteger;
 import java.util.ArrayList;
@@ -51,6 +56,15 @@ class BlockServiceTest {
     @Mock
     private RateLimiterService rateLimiterService;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private StoredFileService storedFileService;
+
+    @Mock
+    private ImageVariantService imageVariantService;
+
     private com.blockverse.app.mapper.BlockMapper blockMapper;
 
     private BlockService blockService;
@@ -65,11 +79,11 @@ class BlockServiceTest {
     void setUp() {
         documentSocketPublisher = mock(DocumentSocketPublisher.class);
         s3Service = mock(S3Service.class);
-        blockMapper = new com.blockverse.app.mapper.BlockMapper(s3Service);
-        blockService = new BlockService(documentRepo, workSpaceMemberRepo, securityUtil, blockRepo, blockChangeLogRepo, auditLogService, documentSocketPublisher, blockMapper, rateLimiterService);
+        blockMapper = new com.blockverse.app.mapper.BlockMapper(s3Service, imageVariantService);
+        blockService = new BlockService(documentRepo, workSpaceMemberRepo, securityUtil, blockRepo, blockChangeLogRepo, auditLogService, documentSocketPublisher, blockMapper, rateLimiterService, eventPublisher, storedFileService);
         testUser = User.builder().id(1).name("Test User").email("test@mail.com").build();
         testWorkSpace = WorkSpace.builder().id(1).name("Test Workspace").build();
-        testMember = WorkSpaceMember.builder().id(1).user(testUser).workSpace(testWorkSpace).build();
+        testMember = WorkSpaceMember.builder().id(1).user(testUser).workSpace(testWorkSpace).role(WorkSpaceRole.MEMBER).build();
         testDocument = Document.builder().id(1).title("Test Doc").workSpace(testWorkSpace).build();
         testBlock = Block.builder()
                 .id(1)
@@ -84,14 +98,14 @@ class BlockServiceTest {
 
     private void stubAuthenticatedMember() {
         when(securityUtil.getLoggedInUser()).thenReturn(testUser);
-        when(workSpaceMemberRepo.findByUserAndWorkSpaceAndDeletedAtIsNull(testUser, testWorkSpace))
-                .thenReturn(Optional.of(testMember));
+        when(workSpaceMemberRepo.findActiveRole(testUser.getId(), testWorkSpace.getId()))
+                .thenReturn(Optional.of(testMember.getRole()));
         lenient().doNothing().when(rateLimiterService).checkRateLimit(anyInt(), anyString());
     }
 
     private void stubAuthenticatedNonMember() {
         when(securityUtil.getLoggedInUser()).thenReturn(testUser);
-        when(workSpaceMemberRepo.findByUserAndWorkSpaceAndDeletedAtIsNull(testUser, testWorkSpace))
+        when(workSpaceMemberRepo.findActiveRole(testUser.getId(), testWorkSpace.getId()))
                 .thenReturn(Optional.empty());
         lenient().doNothing().when(rateLimiterService).checkRateLimit(anyInt(), anyString());
     }
@@ -101,6 +115,13 @@ class BlockServiceTest {
         when(blockChangeLogRepo.save(any(BlockChangeLog.class))).thenAnswer(inv -> inv.getArgument(0));
     }
 
+    private BlockDelta capturedDelta(BlockOperationType action) {
+        ArgumentCaptor<DocumentEvent> captor = ArgumentCaptor.forClass(DocumentEvent.class);
+        verify(documentSocketPublisher).broadcast(eq(1), captor.capture());
+        assertEquals(action, captor.getValue().getAction());
+        return (BlockDelta) captor.getValue().getPayload();
+    }
+
     private void stubRateLimitExceeded(String action) {
         when(securityUtil.getLoggedInUser()).thenReturn(testUser);
         doThrow(new TooManyRequestsException("Too many requests"))
@@ -364,6 +385,65 @@ class BlockServiceTest {
             verify(auditLogService).auditLog(eq(1), eq(1), eq(AuditEntityType.BLOCK), eq(1), eq(AuditActionType.BLOCK_UPDATED), anyString());
         }
 
+        @Test
+        @DisplayName("should move the file reference when an image block is pointed at another file")
+        void updateBlock_replacedImage_movesFileReference() {
+            stubAuthenticatedMember();
+            stubChangeLogDependencies();
+            testBlock.setType(BlockType.IMAGE);
+            testBlock.setContent("files/old");
+            when(blockRepo.findById(1)).thenReturn(Optional.of(testBlock));
+            when(blockRepo.save(any(Block.class))).thenAnswer(inv -> inv.getArgument(0));
+
+            blockService.updateBlock(1, UpdateBlockRequest.builder()
+                    .type(BlockType.IMAGE).content("files/new").build());
+
+            verify(storedFileService).updateReference(BlockType.IMAGE, "files/old", BlockType.IMAGE, "files/new");
+        }
+
+        @Test
+        @DisplayName("should reject pointing an image block at a file the user may not attach")
+        void updateBlock_foreignImageKey_isRejected() {
+            stubAuthenticatedMember();
+            when(blockRepo.findById(1)).thenReturn(Optional.of(testBlock));
+            doThrow(new InsufficientPermissionException("not attachable"))
+                    .when(storedFileService).checkAttachable(anyInt(), anyInt(), eq("files/8/h1"));
+
+            assertThrows(InsufficientPermissionException.class, () -> blockService.updateBlock(1,
+                    UpdateBlockRequest.builder().type(BlockType.IMAGE).content("files/8/h1").build()));
+
+            verify(blockRepo, never()).save(any(Block.class));
+            verify(storedFileService, never()).updateReference(any(), any(), any(), any());
+        }
+
+        @Test
+        @DisplayName("should broadcast only the changed fields with a content patch and versions")
+        void updateBlock_broadcastsDelta() {
+            stubAuthenticatedMember();
+            testDocument.setVersion(3L);
+            when(documentRepo.saveAndFlush(any(Document.class))).thenAnswer(inv -> {
+                Document document = inv.getArgument(0);
+                document.setVersion(4L);
+                return document;
+            });
+            when(blockChangeLogRepo.save(any(BlockChangeLog.class))).thenAnswer(inv -> inv.getArgument(0));
+            when(blockRepo.findById(1)).thenReturn(Optional.of(testBlock));
+            when(blockRepo.save(any(Block.class))).thenAnswer(inv -> inv.getArgument(0));
+
+            UpdateBlockRequest request = UpdateBlockRequest.builder()
+                    .type(BlockType.PARAGRAPH).content("Hello Big World").build();
+            blockService.updateBlock(1, request);
+
+            BlockDelta delta = capturedDelta(BlockOperationType.UPDATE);
+            assertEquals(1, delta.getBlockId());
+            assertEquals(3L, delta.getPreviousVersion());
+            assertEquals(4L, delta.getVersion());
+            assertNull(delta.getType(), "Unchanged type must not be sent");
+            assertEquals(6, delta.getContentPatch().getStart());
+            assertEquals(0, delta.getContentPatch().getDeleteCount());
+            assertEquals("Big ", delta.getContentPatch().getInsert());
+        }
+
         @Test
         @DisplayName("must reject when block does not exist")
         void updateBlock_notFound() {
@@ -452,6 +532,22 @@ class BlockServiceTest {
             verify(auditLogService).auditLog(eq(1), eq(1), eq(AuditEntityType.BLOCK), eq(1), eq(AuditActionType.BLOCK_DELETED), anyString());
         }
 
+        @Test
+        @DisplayName("should broadcast a deleted delta only after the block is saved")
+        void deleteBlock_broadcastsDeltaAfterSave() {
+            stubAuthenticatedMember();
+            stubChangeLogDependencies();
+            when(blockRepo.findById(1)).thenReturn(Optional.of(testBlock));
+            when(blockRepo.save(any(Block.class))).thenAnswer(inv -> inv.getArgument(0));
+
+            blockService.deleteBlock(1, new DeleteBlockRequest(null));
+
+            InOrder inOrder = inOrder(blockRepo, documentSocketPublisher);
+            inOrder.verify(blockRepo).save(testBlock);
+            inOrder.verify(documentSocketPublisher).broadcast(eq(1), any(DocumentEvent.class));
+            assertTrue(capturedDelta(BlockOperationType.DELETE).getDeleted());
+        }
+
         @Test
         @DisplayName("must reject when block does not exist")
         void deleteBlock_notFound() {
@@ -505,6 +601,46 @@ class BlockServiceTest {
         }
     }
 
+    // ========================================================================
+    // getBlock
+    // ========================================================================
+
+    @Nested
+    @DisplayName("getBlock")
+    class GetBlockTests {
+
+        @Test
+        @DisplayName("should return the full block for members")
+        void getBlock_success() {
+            stubAuthenticatedMember();
+            when(blockRepo.findById(1)).thenReturn(Optional.of(testBlock));
+
+            BlockResponse response = blockService.getBlock(1);
+
+            assertEquals(1, response.getId());
+            assertEquals("Hello World", response.getContent());
+        }
+
+        @Test
+        @DisplayName("must reject deleted blocks")
+        void getBlock_deleted() {
+            when(securityUtil.getLoggedInUser()).thenReturn(testUser);
+            testBlock.setDeleted(true);
+            when(blockRepo.findById(1)).thenReturn(Optional.of(testBlock));
+
+            assertThrows(BlockNotFoundException.class, () -> blockService.getBlock(1));
+        }
+
+        @Test
+        @DisplayName("must reject non-workspace-member")
+        void getBlock_nonMember() {
+            stubAuthenticatedNonMember();
+            when(blockRepo.findById(1)).thenReturn(Optional.of(testBlock));
+
+            assertThrows(NotWorkSpaceMemberException.class, () -> blockService.getBlock(1));
+        }
+    }
+
     // ========================================================================
     // getChildren
     // ========================================================================
@@ -598,6 +734,30 @@ class BlockServiceTest {
             verify(auditLogService).auditLog(eq(1), eq(1), eq(AuditEntityType.BLOCK), eq(1), eq(AuditActionType.BLOCK_MOVED), anyString());
         }
 
+        @Test
+        @DisplayName("should broadcast the new position and parent without the block content")
+        void moveBlock_broadcastsDelta() {
+            stubAuthenticatedMember();
+            stubChangeLogDependencies();
+            when(blockRepo.findById(1)).thenReturn(Optional.of(testBlock));
+            Block newParent = Block.builder().id(50).document(testDocument)
+                    .type(BlockType.HEADING1).content("New Parent")
+                    .position(BigInteger.valueOf(10000)).children(new ArrayList<>()).build();
+            when(blockRepo.findById(50)).thenReturn(Optional.of(newParent));
+            when(blockRepo.save(any(Block.class))).thenAnswer(inv -> inv.getArgument(0));
+
+            MoveBlockRequest request = new MoveBlockRequest();
+            request.setNewParentId(50);
+            request.setNewPosition(BigInteger.valueOf(20000));
+            blockService.moveBlock(1, request);
+
+            BlockDelta delta = capturedDelta(BlockOperationType.MOVE);
+            assertEquals(BigInteger.valueOf(20000), delta.getPosition());
+            assertTrue(delta.getParentChanged());
+            assertEquals(50, delta.getParentId());
+            assertNull(delta.getContentPatch());
+        }
+
         @Test
         @DisplayName("should move block to root level — parent set to null")
         void moveBlock_toRoot() {
@@ -0,0 +1,152 @@
+package com.blockverse.app.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BroadcastDispatcherTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private BroadcastDispatcher broadcastDispatcher;
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        broadcastDispatcher.shutdown();
+    }
+
+    @Test
+    void afterCommit_withoutTransaction_dispatchesImmediately() throws InterruptedException {
+        broadcastDispatcher = new BroadcastDispatcher(meterRegistry, 2, 10, "block", 1000);
+        CountDownLatch ran = new CountDownLatch(1);
+
+        broadcastDispatcher.afterCommit(1, ran::countDown);
+
+        assertTrue(ran.await(2, TimeUnit.SECONDS));
+        assertEquals(1.0, meterRegistry.counter("websocket.dispatch.submitted").count());
+    }
+
+    @Test
+    void afterCommit_insideTransaction_waitsForCommit() throws InterruptedException {
+        broadcastDispatcher = new BroadcastDispatcher(meterRegistry, 2, 10, "block", 1000);
+        CountDownLatch ran = new CountDownLatch(1);
+        TransactionSynchronizationManager.initSynchronization();
+
+        broadcastDispatcher.afterCommit(1, ran::countDown);
+        assertFalse(ran.await(100, TimeUnit.MILLISECONDS));
+
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        assertTrue(ran.await(2, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void afterCommit_rolledBack_neverDispatches() {
+        broadcastDispatcher = new BroadcastDispatcher(meterRegistry, 2, 10, "block", 1000);
+        TransactionSynchronizationManager.initSynchronization();
+
+        broadcastDispatcher.afterCommit(1, () -> fail("should not run"));
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+
+        assertEquals(0.0, meterRegistry.counter("websocket.dispatch.submitted").count());
+    }
+
+    @Test
+    void fullQueue_dropPolicy_countsDroppedBroadcastAndRunsDropCallback() throws InterruptedException {
+        broadcastDispatcher = new BroadcastDispatcher(meterRegistry, 1, 1, "drop", 1000);
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch started = new CountDownLatch(1);
+        AtomicReference<Thread> droppedOn = new AtomicReference<>();
+
+        broadcastDispatcher.afterCommit(1, () -> {
+            started.countDown();
+            awaitQuietly(release);
+        });
+        assertTrue(started.await(2, TimeUnit.SECONDS));
+        broadcastDispatcher.afterCommit(1, () -> { });
+        broadcastDispatcher.afterCommit(1, () -> fail("should be dropped"), () -> droppedOn.set(Thread.currentThread()));
+
+        release.countDown();
+        assertEquals(1.0, meterRegistry.counter("websocket.dispatch.dropped").count());
+        assertSame(Thread.currentThread(), droppedOn.get());
+    }
+
+    @Test
+    void fullQueue_blockPolicy_waitsForRoomAndKeepsLaneOrder() throws InterruptedException {
+        broadcastDispatcher = new BroadcastDispatcher(meterRegistry, 1, 1, "block", 2000);
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(1);
+        List<Integer> order = Collections.synchronizedList(new ArrayList<>());
+
+        broadcastDispatcher.afterCommit(1, () -> {
+            started.countDown();
+            awaitQuietly(release);
+        });
+        assertTrue(started.await(2, TimeUnit.SECONDS));
+        broadcastDispatcher.afterCommit(1, () -> order.add(1));
+        new Thread(() -> {
+            sleepQuietly(100);
+            release.countDown();
+        }).start();
+        broadcastDispatcher.afterCommit(1, () -> {
+            order.add(2);
+            done.countDown();
+        });
+
+        assertTrue(done.await(2, TimeUnit.SECONDS));
+        assertEquals(List.of(1, 2), order);
+        assertEquals(1.0, meterRegistry.counter("websocket.dispatch.blocked").count());
+        assertEquals(0.0, meterRegistry.counter("websocket.dispatch.dropped").count());
+    }
+
+    @Test
+    void fullQueue_blockPolicy_dropsAfterTimeout() throws InterruptedException {
+        broadcastDispatcher = new BroadcastDispatcher(meterRegistry, 1, 1, "block", 50);
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch started = new CountDownLatch(1);
+        AtomicBoolean droppedCalled = new AtomicBoolean();
+
+        broadcastDispatcher.afterCommit(1, () -> {
+            started.countDown();
+            awaitQuietly(release);
+        });
+        assertTrue(started.await(2, TimeUnit.SECONDS));
+        broadcastDispatcher.afterCommit(1, () -> { });
+        broadcastDispatcher.afterCommit(1, () -> fail("should be dropped"), () -> droppedCalled.set(true));
+
+        release.countDown();
+        assertTrue(droppedCalled.get());
+        assertEquals(1.0, meterRegistry.counter("websocket.dispatch.dropped").count());
+    }
+
+    private static void sleepQuietly(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(2, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
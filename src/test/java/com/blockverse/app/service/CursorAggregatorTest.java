@@ -0,0 +1,83 @@
+package com.blockverse.app.service;
+
+import com.blockverse.app.dto.activityFeed.CursorBatchEvent;
+import com.blockverse.app.dto.activityFeed.CursorEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CursorAggregatorTest {
+
+    @Mock
+    private SocketBroadcastService socketBroadcastService;
+
+    private SimpleMeterRegistry meterRegistry;
+    private CursorAggregator cursorAggregator;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        cursorAggregator = new CursorAggregator(socketBroadcastService, meterRegistry);
+    }
+
+    @Test
+    void flush_keepsLatestCursorPerUser() {
+        cursorAggregator.submit(new CursorEvent(1, 10, 5, 1));
+        cursorAggregator.submit(new CursorEvent(1, 10, 5, 2));
+        cursorAggregator.submit(new CursorEvent(1, 11, 6, 7));
+
+        cursorAggregator.flush();
+
+        ArgumentCaptor<Object> captor = ArgumentCaptor.forClass(Object.class);
+        verify(socketBroadcastService).send(eq("/topic/document.1.cursor"), captor.capture());
+
+        CursorBatchEvent batch = (CursorBatchEvent) captor.getValue();
+        assertEquals(1, batch.getDocumentId());
+        assertEquals(2, batch.getCursors().size());
+        assertEquals(2, batch.getCursors().get(0).getCursorPosition());
+        assertEquals(7, batch.getCursors().get(1).getCursorPosition());
+    }
+
+    @Test
+    void flush_sendsOneFramePerDocument() {
+        cursorAggregator.submit(new CursorEvent(1, 10, 5, 1));
+        cursorAggregator.submit(new CursorEvent(2, 20, 5, 1));
+
+        cursorAggregator.flush();
+
+        verify(socketBroadcastService).send(eq("/topic/document.1.cursor"), any(CursorBatchEvent.class));
+        verify(socketBroadcastService).send(eq("/topic/document.2.cursor"), any(CursorBatchEvent.class));
+    }
+
+    @Test
+    void flush_nothingPending_sendsNothing() {
+        cursorAggregator.submit(new CursorEvent(1, 10, 5, 1));
+        cursorAggregator.flush();
+        clearInvocations(socketBroadcastService);
+
+        cursorAggregator.flush();
+
+        verifyNoInteractions(socketBroadcastService);
+    }
+
+    @Test
+    void flush_recordsMessagesInAndOut() {
+        for (int i = 0; i < 10; i++) {
+            cursorAggregator.submit(new CursorEvent(1, 10, 5, i));
+        }
+
+        cursorAggregator.flush();
+
+        assertEquals(10.0, meterRegistry.counter("websocket.cursor.messages.in").count());
+        assertEquals(1.0, meterRegistry.counter("websocket.cursor.messages.out").count());
+    }
+}
@@ -0,0 +1,69 @@
+package com.blockverse.app.service;
+
+import com.blockverse.app.dto.DocumentReplayEvent;
+import com.blockverse.app.dto.document.DocumentEvent;
+import com.blockverse.app.enums.AuditEntityType;
+import com.blockverse.app.enums.BlockOperationType;
+import com.blockverse.app.enums.DocumentOperationType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class DocumentEventRelayTest {
+
+    @Mock
+    private KafkaTemplate<String, Object> kafkaTemplate;
+
+    @InjectMocks
+    private DocumentEventRelay documentEventRelay;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(documentEventRelay, "documentEventTopic", "document-event-topic");
+        ReflectionTestUtils.setField(documentEventRelay, "replayRelay", "kafka");
+    }
+
+    @Test
+    void publish_kafkaRelay_publishesKeyedByDocumentWithSeq() {
+        documentEventRelay.publish(new DocumentEvent(3, AuditEntityType.BLOCK, BlockOperationType.MOVE, 20, 9));
+
+        ArgumentCaptor<Object> captor = ArgumentCaptor.forClass(Object.class);
+        verify(kafkaTemplate).send(eq("document-event-topic"), eq("3"), captor.capture());
+        DocumentReplayEvent event = (DocumentReplayEvent) captor.getValue();
+        assertEquals(9, event.getSeq());
+        assertEquals("MOVE", event.getAction());
+        assertTrue(documentEventRelay.isOwn(event));
+    }
+
+    @Test
+    void publish_localRelay_sendsNothing() {
+        ReflectionTestUtils.setField(documentEventRelay, "replayRelay", "local");
+
+        documentEventRelay.publish(new DocumentEvent(3, AuditEntityType.BLOCK, BlockOperationType.MOVE, 20, 9));
+
+        verifyNoInteractions(kafkaTemplate);
+    }
+
+    @Test
+    void toEvent_resolvesTheActionFromTheEntityType() {
+        DocumentEvent block = documentEventRelay.toEvent(DocumentReplayEvent.builder()
+                .documentId(3).seq(9).entityType(AuditEntityType.BLOCK).action("UPDATE").build());
+        DocumentEvent document = documentEventRelay.toEvent(DocumentReplayEvent.builder()
+                .documentId(3).seq(10).entityType(AuditEntityType.DOCUMENT).action("UPDATE").build());
+
+        assertEquals(BlockOperationType.UPDATE, block.getAction());
+        assertEquals(DocumentOperationType.UPDATE, document.getAction());
+        assertEquals(10, document.getSeq());
+    }
+}
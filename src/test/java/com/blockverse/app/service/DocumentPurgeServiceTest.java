@@ -0,0 +1,191 @@
+package com.blockverse.app.service;
+
+import com.blockverse.app.dto.document.PurgeProgressResponse;
+import com.blockverse.app.entity.AuditLog;
+import com.blockverse.app.entity.Document;
+import com.blockverse.app.entity.WorkSpace;
+import com.blockverse.app.enums.AuditActionType;
+import com.blockverse.app.enums.AuditEntityType;
+import com.blockverse.app.enums.BlockType;
+import com.blockverse.app.enums.PurgeState;
+import com.blockverse.app.event.FilesReleasedEvent;
+import com.blockverse.app.repo.AuditLogRepo;
+import com.blockverse.app.repo.BlockChangeLogRepo;
+import com.blockverse.app.repo.BlockRepo;
+import com.blockverse.app.repo.DocumentRepo;
+import com.blockverse.app.repo.DocumentShareRepo;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class DocumentPurgeServiceTest {
+
+    @Mock
+    private DocumentRepo documentRepo;
+
+    @Mock
+    private BlockRepo blockRepo;
+
+    @Mock
+    private BlockChangeLogRepo blockChangeLogRepo;
+
+    @Mock
+    private DocumentShareRepo documentShareRepo;
+
+    @Mock
+    private AuditLogRepo auditLogRepo;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private DocumentPurgeService documentPurgeService;
+
+    @BeforeEach
+    void setUp() {
+        documentPurgeService = new DocumentPurgeService(documentRepo, blockRepo, blockChangeLogRepo, documentShareRepo,
+                auditLogRepo, eventPublisher, new TransactionTemplate(transactionManager), new SimpleMeterRegistry(), 2, 600000, 1000, 60000);
+    }
+
+    private void stubLease() {
+        when(documentRepo.claimPurge(eq(1), anyString(), any(LocalDateTime.class), any(LocalDateTime.class))).thenReturn(1);
+        when(documentRepo.updatePurgeProgress(eq(1), anyString(), any(PurgeState.class), anyLong(), anyLong(),
+                any(LocalDateTime.class))).thenReturn(1);
+    }
+
+    @Test
+    void purge_deletesInChunksThenRemovesTheDocument() {
+        stubLease();
+        when(blockRepo.countByDocumentId(1)).thenReturn(3L);
+        when(blockChangeLogRepo.findIdsByDocumentId(eq(1), any(Pageable.class))).thenReturn(List.of(9), List.of());
+        when(blockRepo.findContentByDocumentIdAndType(1, BlockType.IMAGE)).thenReturn(List.of("logo.png"));
+        when(blockRepo.findIdsByDocumentId(eq(1), any(Pageable.class))).thenReturn(List.of(5, 4), List.of(3), List.of());
+
+        assertTrue(documentPurgeService.purge(1));
+
+        InOrder order = inOrder(blockChangeLogRepo, blockRepo, documentRepo);
+        order.verify(blockChangeLogRepo).deleteByIdIn(List.of(9));
+        order.verify(blockRepo).detachChildren(List.of(5, 4));
+        order.verify(blockRepo).deleteByIdIn(List.of(5, 4));
+        order.verify(blockRepo).detachChildren(List.of(3));
+        order.verify(blockRepo).deleteByIdIn(List.of(3));
+        order.verify(documentRepo).deleteById(1);
+        verify(documentShareRepo).deleteByDocumentId(1);
+        verify(eventPublisher).publishEvent(argThat((Object event) -> event instanceof FilesReleasedEvent released
+                && released.getStorageKeys().equals(List.of("logo.png"))));
+        // chunks commit on their own: two change log reads, three block reads and the final step
+        verify(transactionManager, times(6)).commit(any());
+        verify(documentRepo).updatePurgeProgress(eq(1), anyString(), eq(PurgeState.RUNNING), eq(3L), eq(3L),
+                any(LocalDateTime.class));
+    }
+
+    @Test
+    void purge_failurePartWayIsReportedAndKeepsTheDocument() {
+        stubLease();
+        when(documentRepo.findPurgeAttemptsById(1)).thenReturn(Optional.of(2));
+        when(blockRepo.countByDocumentId(1)).thenReturn(2L);
+        when(blockChangeLogRepo.findIdsByDocumentId(eq(1), any(Pageable.class))).thenReturn(List.of());
+        when(blockRepo.findIdsByDocumentId(eq(1), any(Pageable.class))).thenReturn(List.of(2, 1));
+        when(blockRepo.deleteByIdIn(List.of(2, 1))).thenThrow(new RuntimeException("lock wait timeout"));
+
+        assertFalse(documentPurgeService.purge(1));
+
+        verify(documentRepo, never()).deleteById(anyInt());
+        verifyNoInteractions(eventPublisher);
+        // third failure: released with four times the base backoff
+        ArgumentCaptor<LocalDateTime> nextPurgeAt = ArgumentCaptor.forClass(LocalDateTime.class);
+        verify(documentRepo).failPurge(eq(1), anyString(), eq(PurgeState.FAILED), eq(2L), eq(0L), eq(3),
+                nextPurgeAt.capture());
+        assertTrue(nextPurgeAt.getValue().isAfter(LocalDateTime.now().plusSeconds(3)));
+    }
+
+    @Test
+    void purge_leaseHeldByAnotherNode_isSkipped() {
+        when(documentRepo.claimPurge(eq(1), anyString(), any(LocalDateTime.class), any(LocalDateTime.class))).thenReturn(0);
+
+        assertFalse(documentPurgeService.purge(1));
+
+        verifyNoInteractions(blockRepo, blockChangeLogRepo);
+    }
+
+    @Test
+    void purge_lostLease_stopsBeforeDeleting() {
+        when(documentRepo.claimPurge(eq(1), anyString(), any(LocalDateTime.class), any(LocalDateTime.class))).thenReturn(1);
+        when(blockRepo.countByDocumentId(1)).thenReturn(2L);
+
+        assertFalse(documentPurgeService.purge(1));
+
+        verify(blockRepo, never()).deleteByIdIn(any());
+        verify(blockChangeLogRepo, never()).deleteByIdIn(any());
+    }
+
+    @Test
+    void progressOf_readsTheDocumentRow() {
+        Document document = Document.builder().id(1).workSpace(WorkSpace.builder().id(7).build())
+                .purging(true).purgeState(PurgeState.RUNNING).purgeTotalBlocks(10).purgeDeletedBlocks(4).build();
+        when(documentRepo.findById(1)).thenReturn(Optional.of(document));
+
+        PurgeProgressResponse progress = documentPurgeService.progressOf(1).orElseThrow();
+
+        assertEquals(PurgeState.RUNNING, progress.getState());
+        assertEquals(7, progress.getWorkspaceId());
+        assertEquals(10, progress.getTotalBlocks());
+        assertEquals(4, progress.getDeletedBlocks());
+    }
+
+    @Test
+    void progressOf_removedRow_isCompletedFromTheAuditEntry() {
+        when(documentRepo.findById(1)).thenReturn(Optional.empty());
+        when(auditLogRepo.findFirstByEntityTypeAndEntityIdAndActionTypeOrderByIdDesc(AuditEntityType.DOCUMENT, 1,
+                AuditActionType.DOCUMENT_PERMANENTLY_DELETED))
+                .thenReturn(Optional.of(AuditLog.builder().workSpaceId(7).entityId(1).build()));
+
+        PurgeProgressResponse progress = documentPurgeService.progressOf(1).orElseThrow();
+
+        assertEquals(PurgeState.COMPLETED, progress.getState());
+        assertEquals(7, progress.getWorkspaceId());
+    }
+
+    @Test
+    void shutdown_recordsQueuedPurgesAsFailed() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(documentRepo.claimPurge(eq(1), anyString(), any(LocalDateTime.class), any(LocalDateTime.class))).thenReturn(1);
+        when(blockRepo.countByDocumentId(1)).thenAnswer(invocation -> {
+            started.countDown();
+            release.await();
+            throw new RuntimeException("connection closed");
+        });
+
+        documentPurgeService.enqueue(1, 0);
+        documentPurgeService.enqueue(2, 0);
+        started.await(5, TimeUnit.SECONDS);
+        release.countDown();
+        documentPurgeService.shutdown();
+
+        verify(documentRepo).releasePurges(eq(List.of(2)), anyString(), eq(PurgeState.FAILED));
+    }
+}
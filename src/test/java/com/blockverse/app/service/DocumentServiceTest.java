@@ -1,9 +1,12 @@
 package com.blockverse.app.service;
 
 import com.blockverse.app.dto.NotificationEvent;
+import com.blockverse.app.dto.activityFeed.PresenceUser;
 import com.blockverse.app.dto.block.BlockResponse;
 import com.blockverse.app.dto.document.CreateDocumentRequest;
 import com.blockverse.app.dto.document.DocumentDetailsResponse;
+import com.blockverse.app.dto.document.DocumentPageResponse;
+import com.blockverse.app.dto.document.DocumentReplayResponse;
 import com.blockverse.app.dto.document.DocumentResponse;
 import com.blockverse.app.dto.document.UpdateDocumentRequest;
 import com.blockverse.app.entity.Document;
@@ -11,7 +14,9 @@ import com.blockverse.app.entity.User;
 import com.blockverse.app.entity.WorkSpace;
 import com.blockverse.app.entity.WorkSpaceMember;
 import com.blockverse.app.enums.BlockType;
+import com.blockverse.app.enums.PurgeState;
 import com.blockverse.app.enums.WorkSpaceRole;
+import com.blockverse.app.event.DocumentPurgeRequestedEvent;
 import com.blockverse.app.exception.DocumentException;
 import com.blockverse.app.exception.DocumentNotFoundException;
 import com.blockverse.app.exception.InsufficientPermissionException;
@@ -32,6 +37,8 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
 
 import java.math.BigInteger;
 import java.time.LocalDateTime;
@@ -53,6 +60,10 @@ class DocumentServiceTest {
     @Mock
     private WorkSpaceMemberRepo workSpaceMemberRepo;
     @Mock
+    private WorkSpaceMemberIdCache workSpaceMemberIdCache;
+    @Mock
+    private DocumentPurgeService documentPurgeService;
+    @Mock
     private SecurityUtil securityUtil;
     @Mock
     private BlockService blockService;
@@ -72,6 +83,13 @@ class DocumentServiceTest {
     private NotificationService notificationService;
     @Mock
     private RateLimiterService rateLimiterService;
+    @Mock
+    private PresenceRegistry presenceRegistry;
+    @Mock
+    private DocumentListCache documentListCache;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
 
     private DocumentService documentService;
 
@@ -86,7 +104,7 @@ class DocumentServiceTest {
     @BeforeEach
     void setUp() {
         documentSocketPublisher = mock(DocumentSocketPublisher.class);
-        documentService = new DocumentService(documentMapper, documentRepo, workSpaceRepo, workSpaceMemberRepo, securityUtil, blockService, auditLogService, blockRepo, blockChangeLogRepo, documentSocketPublisher, documentShareRepo, notificationService, rateLimiterService);
+        documentService = new DocumentService(documentMapper, documentRepo, workSpaceRepo, workSpaceMemberRepo, workSpaceMemberIdCache, securityUtil, blockService, auditLogService, blockRepo, blockChangeLogRepo, documentSocketPublisher, documentShareRepo, notificationService, rateLimiterService, presenceRegistry, eventPublisher, documentPurgeService, documentListCache);
         testUser = User.builder().id(1).name("Test User").email("test@mail.com").build();
         User adminUser = User.builder().id(2).name("Admin User").email("admin@mail.com").build();
         testWorkSpace = WorkSpace.builder().id(1).name("Test Workspace").build();
@@ -105,14 +123,14 @@ class DocumentServiceTest {
 
     private void stubAuthenticatedMember(WorkSpaceMember member) {
         when(securityUtil.getLoggedInUser()).thenReturn(testUser);
-        when(workSpaceMemberRepo.findByUserAndWorkSpaceAndDeletedAtIsNull(testUser, testWorkSpace))
-                .thenReturn(Optional.of(member));
+        when(workSpaceMemberRepo.findActiveRole(testUser.getId(), testWorkSpace.getId()))
+                .thenReturn(Optional.of(member.getRole()));
         lenient().doNothing().when(rateLimiterService).checkRateLimit(anyInt(), anyString());
     }
 
     private void stubAuthenticatedNonMember() {
         when(securityUtil.getLoggedInUser()).thenReturn(testUser);
-        when(workSpaceMemberRepo.findByUserAndWorkSpaceAndDeletedAtIsNull(testUser, testWorkSpace))
+        when(workSpaceMemberRepo.findActiveRole(testUser.getId(), testWorkSpace.getId()))
                 .thenReturn(Optional.empty());
         lenient().doNothing().when(rateLimiterService).checkRateLimit(anyInt(), anyString());
     }
@@ -246,6 +264,23 @@ class DocumentServiceTest {
             assertEquals("Title", response.getBlocks().get(0).getContent());
         }
 
+        @Test
+        @DisplayName("should carry the document's shared event seq, the same one its ETag probe reads")
+        void getDocumentWithBlocks_latestSeqIsTheDocumentsEventSeq() {
+            stubAuthenticatedMember(ownerMember);
+            testDocument.setVersion(5L);
+            testDocument.setEventSeq(42L);
+            when(documentRepo.findById(1)).thenReturn(Optional.of(testDocument));
+            when(documentMapper.toResponse(testDocument)).thenReturn(testDocResponse);
+            when(blockService.getBlocksForDocument(1)).thenReturn(List.of());
+
+            DocumentDetailsResponse response = documentService.getDocumentWithBlocks(1);
+
+            assertEquals(42, response.getLatestSeq());
+            assertEquals(response.getLatestSeq(), documentService.getDocumentVersion(1).latestSeq());
+            verifyNoInteractions(documentSocketPublisher);
+        }
+
         @Test
         @DisplayName("should return document with empty block list when document has no blocks")
         void getDocumentWithBlocks_noBlocks() {
@@ -271,6 +306,103 @@ class DocumentServiceTest {
         }
     }
 
+    // ========================================================================
+    // getDocumentVersion
+    // ========================================================================
+
+    @Nested
+    @DisplayName("getDocumentVersion")
+    class GetDocumentVersionTests {
+
+        @Test
+        @DisplayName("should return version and replay position without loading blocks")
+        void getDocumentVersion_success() {
+            stubAuthenticatedMember(regularMember);
+            testDocument.setVersion(5L);
+            testDocument.setEventSeq(42L);
+            when(documentRepo.findById(1)).thenReturn(Optional.of(testDocument));
+
+            DocumentVersion version = documentService.getDocumentVersion(1);
+
+            assertEquals(new DocumentVersion(1, 5, 42), version);
+            verifyNoInteractions(blockService);
+        }
+
+        @Test
+        @DisplayName("should reject when user is not a workspace member")
+        void getDocumentVersion_nonMember() {
+            stubAuthenticatedNonMember();
+            when(documentRepo.findById(1)).thenReturn(Optional.of(testDocument));
+
+            assertThrows(InsufficientPermissionException.class,
+                    () -> documentService.getDocumentVersion(1));
+        }
+    }
+
+    // ========================================================================
+    // getEventsSince
+    // ========================================================================
+
+    @Nested
+    @DisplayName("getEventsSince")
+    class GetEventsSinceTests {
+
+        @Test
+        @DisplayName("should return buffered events for members")
+        void getEventsSince_success() {
+            stubAuthenticatedMember(regularMember);
+            when(documentRepo.findById(1)).thenReturn(Optional.of(testDocument));
+            DocumentReplayResponse replay = DocumentReplayResponse.builder()
+                    .documentId(1).latestSeq(7).fullReloadRequired(false).events(List.of()).build();
+            testDocument.setEventSeq(7L);
+            when(documentSocketPublisher.eventsSince(1, 5, 7)).thenReturn(replay);
+
+            assertSame(replay, documentService.getEventsSince(1, 5));
+        }
+
+        @Test
+        @DisplayName("should reject when user is not a workspace member")
+        void getEventsSince_nonMember() {
+            stubAuthenticatedNonMember();
+            when(documentRepo.findById(1)).thenReturn(Optional.of(testDocument));
+
+            assertThrows(InsufficientPermissionException.class, () -> documentService.getEventsSince(1, 5));
+            verify(documentSocketPublisher, never()).eventsSince(anyInt(), anyLong());
+        }
+    }
+
+    // ========================================================================
+    // getPresence
+    // ========================================================================
+
+    @Nested
+    @DisplayName("getPresence")
+    class GetPresenceTests {
+
+        @Test
+        @DisplayName("should return the registry snapshot for members")
+        void getPresence_success() {
+            stubAuthenticatedMember(regularMember);
+            when(documentRepo.findById(1)).thenReturn(Optional.of(testDocument));
+            when(presenceRegistry.snapshot(1)).thenReturn(List.of(new PresenceUser(5, "Alice")));
+
+            List<PresenceUser> users = documentService.getPresence(1);
+
+            assertEquals(1, users.size());
+            assertEquals("Alice", users.get(0).getUserName());
+        }
+
+        @Test
+        @DisplayName("should reject when user is not a workspace member")
+        void getPresence_nonMember() {
+            stubAuthenticatedNonMember();
+            when(documentRepo.findById(1)).thenReturn(Optional.of(testDocument));
+
+            assertThrows(InsufficientPermissionException.class, () -> documentService.getPresence(1));
+            verifyNoInteractions(presenceRegistry);
+        }
+    }
+
     // ========================================================================
     // updateDocument
     // ========================================================================
@@ -293,7 +425,7 @@ class DocumentServiceTest {
             UpdateDocumentRequest request = new UpdateDocumentRequest();
             request.setTitle("Updated Title");
             
-            when(workSpaceMemberRepo.findByWorkSpaceAndDeletedAtIsNull(testWorkSpace)).thenReturn(List.of(ownerMember, adminMember));
+            when(workSpaceMemberIdCache.recipientsExcept(1, 1)).thenReturn(List.of(2));
 
             DocumentResponse response = documentService.updateDocument(1, request);
 
@@ -454,6 +586,95 @@ class DocumentServiceTest {
         }
     }
 
+    // ========================================================================
+    // getDocumentPage
+    // ========================================================================
+
+    @Nested
+    @DisplayName("getDocumentPage")
+    class GetDocumentPageTests {
+
+        @Test
+        @DisplayName("should serve a cached first page without querying")
+        void getDocumentPage_cachedFirstPage() {
+            stubAuthenticatedMember(regularMember);
+            when(workSpaceRepo.findById(1)).thenReturn(Optional.of(testWorkSpace));
+            DocumentPageResponse cached = new DocumentPageResponse(List.of(testDocResponse), null);
+            when(documentListCache.getFirstPage(1, 50)).thenReturn(cached);
+
+            assertSame(cached, documentService.getDocumentPage(1, null, null));
+            verifyNoInteractions(documentRepo);
+        }
+
+        @Test
+        @DisplayName("should return a cursor when more documents follow and cache the first page")
+        void getDocumentPage_firstPageWithMore() {
+            stubAuthenticatedMember(regularMember);
+            when(workSpaceRepo.findById(1)).thenReturn(Optional.of(testWorkSpace));
+            when(documentListCache.generation(1)).thenReturn(4L);
+            Document doc1 = Document.builder().id(3).workSpace(testWorkSpace).createdAt(LocalDateTime.of(2026, 1, 3, 0, 0)).build();
+            Document doc2 = Document.builder().id(2).workSpace(testWorkSpace).createdAt(LocalDateTime.of(2026, 1, 2, 0, 0)).build();
+            Document doc3 = Document.builder().id(1).workSpace(testWorkSpace).createdAt(LocalDateTime.of(2026, 1, 1, 0, 0)).build();
+            when(documentRepo.findActivePage(1, PageRequest.of(0, 3))).thenReturn(List.of(doc1, doc2, doc3));
+            when(documentMapper.toResponse(any(Document.class))).thenReturn(testDocResponse);
+
+            DocumentPageResponse page = documentService.getDocumentPage(1, 2, null);
+
+            assertEquals(2, page.getDocuments().size());
+            assertEquals(DocumentCursor.after(doc2), DocumentCursor.decode(page.getNextCursor()));
+            verify(documentListCache).putFirstPage(1, 2, 4L, page);
+        }
+
+        @Test
+        @DisplayName("should continue after the cursor without touching the cache")
+        void getDocumentPage_afterCursor() {
+            stubAuthenticatedMember(regularMember);
+            when(workSpaceRepo.findById(1)).thenReturn(Optional.of(testWorkSpace));
+            LocalDateTime createdAt = LocalDateTime.of(2026, 1, 2, 0, 0);
+            Document doc = Document.builder().id(1).workSpace(testWorkSpace).createdAt(createdAt.minusDays(1)).build();
+            when(documentRepo.findActivePageAfter(1, createdAt, 2, PageRequest.of(0, 51))).thenReturn(List.of(doc));
+            when(documentMapper.toResponse(doc)).thenReturn(testDocResponse);
+
+            DocumentPageResponse page = documentService.getDocumentPage(1, null, new DocumentCursor(createdAt, 2).encode());
+
+            assertEquals(1, page.getDocuments().size());
+            assertNull(page.getNextCursor());
+            verify(documentListCache, never()).getFirstPage(anyInt(), anyInt());
+            verify(documentListCache, never()).putFirstPage(anyInt(), anyInt(), anyLong(), any());
+        }
+
+        @Test
+        @DisplayName("should reject a malformed cursor")
+        void getDocumentPage_invalidCursor() {
+            stubAuthenticatedMember(regularMember);
+            when(workSpaceRepo.findById(1)).thenReturn(Optional.of(testWorkSpace));
+
+            assertThrows(IllegalArgumentException.class,
+                    () -> documentService.getDocumentPage(1, null, "not-a-cursor"));
+        }
+
+        @Test
+        @DisplayName("should reject when workspace does not exist")
+        void getDocumentPage_workspaceNotFound() {
+            when(securityUtil.getLoggedInUser()).thenReturn(testUser);
+            when(workSpaceRepo.findById(999)).thenReturn(Optional.empty());
+
+            assertThrows(WorkSpaceNotFoundException.class,
+                    () -> documentService.getDocumentPage(999, null, null));
+            verifyNoInteractions(documentListCache);
+        }
+
+        @Test
+        @DisplayName("should reject when user is not a workspace member")
+        void getDocumentPage_nonMember() {
+            stubAuthenticatedNonMember();
+            when(workSpaceRepo.findById(1)).thenReturn(Optional.of(testWorkSpace));
+
+            assertThrows(InsufficientPermissionException.class,
+                    () -> documentService.getDocumentPage(1, null, null));
+        }
+    }
+
     // ========================================================================
     // archiveDocument
     // ========================================================================
@@ -770,14 +991,17 @@ class DocumentServiceTest {
         }
 
         @Test
-        @DisplayName("OWNER should permanently delete a trashed document — documentRepo.delete() called")
+        @DisplayName("OWNER should permanently delete a trashed document — hidden at once and queued for purge")
         void permanentDeleteDocument_ownerSuccess() {
             stubAuthenticatedMember(ownerMember);
             when(documentRepo.findById(1)).thenReturn(Optional.of(testDocument));
 
             documentService.permanentDeleteDocument(1);
 
-            verify(documentRepo).delete(testDocument);
+            assertTrue(testDocument.isPurging());
+            verify(documentRepo).save(testDocument);
+            verify(eventPublisher).publishEvent(argThat((Object event) -> event instanceof DocumentPurgeRequestedEvent requested
+                    && requested.getDocumentId() == 1 && requested.getWorkspaceId() == 1));
         }
 
         @Test
@@ -788,7 +1012,35 @@ class DocumentServiceTest {
 
             documentService.permanentDeleteDocument(1);
 
-            verify(documentRepo).delete(testDocument);
+            verify(eventPublisher).publishEvent(any(DocumentPurgeRequestedEvent.class));
+        }
+
+        @Test
+        @DisplayName("should requeue a document whose earlier purge stopped part-way")
+        void permanentDeleteDocument_alreadyPurging_retriesPurge() {
+            testDocument.setPurging(true);
+            testDocument.setPurgeState(PurgeState.FAILED);
+            stubAuthenticatedMember(ownerMember);
+            when(documentRepo.findById(1)).thenReturn(Optional.of(testDocument));
+
+            documentService.permanentDeleteDocument(1);
+
+            assertNull(testDocument.getPurgeState());
+            verify(documentRepo).save(testDocument);
+            verify(eventPublisher).publishEvent(any(DocumentPurgeRequestedEvent.class));
+            verify(auditLogService, never()).auditLog(anyInt(), anyInt(), any(), anyInt(), any(), anyString());
+        }
+
+        @Test
+        @DisplayName("MEMBER should not be able to retry a purge")
+        void permanentDeleteDocument_alreadyPurging_memberDenied() {
+            testDocument.setPurging(true);
+            stubAuthenticatedMember(regularMember);
+            when(documentRepo.findById(1)).thenReturn(Optional.of(testDocument));
+
+            assertThrows(InsufficientPermissionException.class,
+                    () -> documentService.permanentDeleteDocument(1));
+            verify(eventPublisher, never()).publishEvent(any(DocumentPurgeRequestedEvent.class));
         }
 
         @Test
@@ -799,7 +1051,7 @@ class DocumentServiceTest {
 
             assertThrows(InsufficientPermissionException.class,
                     () -> documentService.permanentDeleteDocument(1));
-            verify(documentRepo, never()).delete(any());
+            verify(eventPublisher, never()).publishEvent(any(DocumentPurgeRequestedEvent.class));
         }
 
         @Test
@@ -811,7 +1063,7 @@ class DocumentServiceTest {
 
             assertThrows(DocumentException.class,
                     () -> documentService.permanentDeleteDocument(1));
-            verify(documentRepo, never()).delete(any());
+            verify(eventPublisher, never()).publishEvent(any(DocumentPurgeRequestedEvent.class));
         }
 
         @Test
@@ -832,7 +1084,7 @@ class DocumentServiceTest {
 
             assertThrows(InsufficientPermissionException.class,
                     () -> documentService.permanentDeleteDocument(1));
-            verify(documentRepo, never()).delete(any());
+            verify(eventPublisher, never()).publishEvent(any(DocumentPurgeRequestedEvent.class));
         }
     }
 
@@ -852,7 +1104,7 @@ class DocumentServiceTest {
 
             Document trashedDoc = Document.builder().id(5).title("Trashed").workSpace(testWorkSpace).deleted(true)
                     .build();
-            when(documentRepo.findByWorkSpaceAndDeletedTrue(testWorkSpace)).thenReturn(List.of(trashedDoc));
+            when(documentRepo.findByWorkSpaceAndDeletedTrueAndPurgingFalse(testWorkSpace)).thenReturn(List.of(trashedDoc));
 
             DocumentResponse trashedResp = DocumentResponse.builder().id(5).title("Trashed").workspaceId(1).build();
             when(documentMapper.toResponse(trashedDoc)).thenReturn(trashedResp);
@@ -868,7 +1120,7 @@ class DocumentServiceTest {
         void getTrashDocumentsByWorkspace_empty() {
             stubAuthenticatedMember(ownerMember);
             when(workSpaceRepo.findById(1)).thenReturn(Optional.of(testWorkSpace));
-            when(documentRepo.findByWorkSpaceAndDeletedTrue(testWorkSpace)).thenReturn(List.of());
+            when(documentRepo.findByWorkSpaceAndDeletedTrueAndPurgingFalse(testWorkSpace)).thenReturn(List.of());
 
             List<DocumentResponse> result = documentService.getTrashDocumentsByWorkspace(1);
 
@@ -976,7 +1228,7 @@ class DocumentServiceTest {
             when(securityUtil.getLoggedInUser()).thenReturn(testUser);
             doNothing().when(rateLimiterService).checkRateLimit(anyInt(), anyString());
             when(documentRepo.findById(1)).thenReturn(Optional.of(testDocument));
-            when(workSpaceMemberRepo.findByUserAndWorkSpaceAndDeletedAtIsNull(testUser, testWorkSpace))
+            when(workSpaceMemberRepo.findActiveRole(testUser.getId(), testWorkSpace.getId()))
                     .thenReturn(Optional.empty());
 
             assertThrows(InsufficientPermissionException.class,
@@ -5,7 +5,10 @@ import com.blockverse.app.dto.document.DocumentDetailsResponse;
 import com.blockverse.app.dto.document.DocumentResponse;
 import com.blockverse.app.entity.Document;
 import com.blockverse.app.entity.DocumentShare;
+import com.blockverse.app.exception.DocumentNotFoundException;
+import com.blockverse.app.mapper.BlockMapper;
 import com.blockverse.app.mapper.DocumentMapper;
+import com.blockverse.app.repo.DocumentRepo;
 import com.blockverse.app.repo.DocumentShareRepo;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -13,6 +16,7 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.time.LocalDateTime;
@@ -31,6 +35,12 @@ class DocumentShareServiceTest {
     private BlockService blockService;
     @Mock
     private DocumentMapper documentMapper;
+    @Mock
+    private DocumentRepo documentRepo;
+    @Mock
+    private BlockMapper blockMapper;
+    @Spy
+    private SharedDocumentCache sharedDocumentCache = new SharedDocumentCache(100, 100, 60_000);
 
     @InjectMocks
     private DocumentShareService documentShareService;
@@ -40,7 +50,7 @@ class DocumentShareServiceTest {
 
     @BeforeEach
     void setUp() {
-        document = Document.builder().id(1).title("Shared Doc").build();
+        document = Document.builder().id(1).title("Shared Doc").version(3L).build();
         share = DocumentShare.builder()
                 .id(1)
                 .document(document)
@@ -50,10 +60,16 @@ class DocumentShareServiceTest {
                 .build();
     }
 
+    private void stubDocumentLoad() {
+        when(documentRepo.findVersionById(1)).thenReturn(Optional.of(3L));
+        when(documentRepo.findById(1)).thenReturn(Optional.of(document));
+    }
+
     @Test
     @DisplayName("should get shared document and blocks with valid token")
     void getSharedDocument_success() {
         when(documentShareRepo.findByTokenAndActiveTrue("valid_token")).thenReturn(Optional.of(share));
+        stubDocumentLoad();
         DocumentResponse docResp = DocumentResponse.builder().id(1).title("Shared Doc").build();
         when(documentMapper.toResponse(document)).thenReturn(docResp);
         when(blockService.getBlocksForDocumentWithoutAuth(1)).thenReturn(List.of());
@@ -87,6 +103,7 @@ class DocumentShareServiceTest {
     void getSharedDocument_noExpiry() {
         share.setExpiryTime(null);
         when(documentShareRepo.findByTokenAndActiveTrue("valid_token")).thenReturn(Optional.of(share));
+        stubDocumentLoad();
         DocumentResponse docResp = DocumentResponse.builder().id(1).title("Shared Doc").build();
         when(documentMapper.toResponse(document)).thenReturn(docResp);
         when(blockService.getBlocksForDocumentWithoutAuth(1)).thenReturn(List.of());
@@ -96,4 +113,74 @@ class DocumentShareServiceTest {
         assertNotNull(response);
         assertEquals(docResp, response.getDocument());
     }
+
+    @Test
+    @DisplayName("should serve repeated views from the caches while the version is unchanged")
+    void getSharedDocument_repeatedViewUsesCache() {
+        when(documentShareRepo.findByTokenAndActiveTrue("valid_token")).thenReturn(Optional.of(share));
+        stubDocumentLoad();
+        when(documentMapper.toResponse(document)).thenReturn(DocumentResponse.builder().id(1).build());
+        List<BlockResponse> blocks = List.of(BlockResponse.builder().id(5).build());
+        List<BlockResponse> resigned = List.of(BlockResponse.builder().id(5).fileUrl("https://s3.url/fresh").build());
+        when(blockService.getBlocksForDocumentWithoutAuth(1)).thenReturn(blocks);
+        when(blockMapper.withFreshUrls(blocks)).thenReturn(resigned);
+
+        DocumentDetailsResponse first = documentShareService.getSharedDocument("valid_token");
+        DocumentDetailsResponse second = documentShareService.getSharedDocument("valid_token");
+
+        assertSame(first.getDocument(), second.getDocument());
+        // served from the cache, but with image URLs signed for this read
+        assertSame(resigned, second.getBlocks());
+        verify(documentShareRepo, times(1)).findByTokenAndActiveTrue("valid_token");
+        verify(documentRepo, times(1)).findById(1);
+        verify(blockService, times(1)).getBlocksForDocumentWithoutAuth(1);
+    }
+
+    @Test
+    @DisplayName("should re-render once the document version moves")
+    void getSharedDocument_newVersionRerenders() {
+        when(documentShareRepo.findByTokenAndActiveTrue("valid_token")).thenReturn(Optional.of(share));
+        when(documentRepo.findById(1)).thenReturn(Optional.of(document));
+        when(documentRepo.findVersionById(1)).thenReturn(Optional.of(3L), Optional.of(4L));
+        when(documentMapper.toResponse(document)).thenReturn(DocumentResponse.builder().id(1).build());
+        when(blockService.getBlocksForDocumentWithoutAuth(1)).thenReturn(List.of());
+
+        documentShareService.getSharedDocument("valid_token");
+        document.setVersion(4L);
+        documentShareService.getSharedDocument("valid_token");
+
+        verify(blockService, times(2)).getBlocksForDocumentWithoutAuth(1);
+        verify(documentShareRepo, times(1)).findByTokenAndActiveTrue("valid_token");
+    }
+
+    @Test
+    @DisplayName("should reject a cached token once its expiry passes")
+    void getSharedDocument_cachedTokenExpires() {
+        sharedDocumentCache.putTarget("valid_token",
+                new SharedDocumentCache.ShareTarget(1, LocalDateTime.now().minusSeconds(1)));
+
+        assertThrows(IllegalArgumentException.class, () -> documentShareService.getSharedDocument("valid_token"));
+        assertNull(sharedDocumentCache.getTarget("valid_token"));
+        verifyNoInteractions(documentShareRepo, documentRepo);
+    }
+
+    @Test
+    @DisplayName("should drop cached entries when the shared document is gone")
+    void getSharedDocument_documentRemoved() {
+        when(documentShareRepo.findByTokenAndActiveTrue("valid_token")).thenReturn(Optional.of(share));
+        when(documentRepo.findVersionById(1)).thenReturn(Optional.empty());
+
+        assertThrows(DocumentNotFoundException.class, () -> documentShareService.getSharedDocument("valid_token"));
+        assertNull(sharedDocumentCache.getTarget("valid_token"));
+    }
+
+    @Test
+    @DisplayName("should report the shared document's version without loading blocks")
+    void getSharedDocumentVersion_success() {
+        when(documentShareRepo.findByTokenAndActiveTrue("valid_token")).thenReturn(Optional.of(share));
+        when(documentRepo.findVersionById(1)).thenReturn(Optional.of(3L));
+
+        assertEquals(new DocumentVersion(1, 3, 0), documentShareService.getSharedDocumentVersion("valid_token"));
+        verifyNoInteractions(blockService);
+    }
 }
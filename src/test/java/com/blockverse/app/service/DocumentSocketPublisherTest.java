@@ -0,0 +1,234 @@
+package com.blockverse.app.service;
+
+import com.blockverse.app.dto.DocumentReplayEvent;
+import com.blockverse.app.dto.document.DocumentEvent;
+import com.blockverse.app.dto.document.DocumentReplayResponse;
+import com.blockverse.app.enums.AuditEntityType;
+import com.blockverse.app.enums.BlockOperationType;
+import com.blockverse.app.repo.DocumentRepo;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class DocumentSocketPublisherTest {
+
+    @Mock
+    private SocketBroadcastService socketBroadcastService;
+    @Mock
+    private BroadcastDispatcher broadcastDispatcher;
+    @Mock
+    private DocumentRepo documentRepo;
+    @Mock
+    private DocumentEventRelay documentEventRelay;
+
+    private DocumentSocketPublisher documentSocketPublisher;
+    private boolean dispatchFull;
+    // stands in for the eventSeq column
+    private final Map<Integer, Long> eventSeqs = new HashMap<>();
+
+    @BeforeEach
+    void setUp() {
+        documentSocketPublisher = new DocumentSocketPublisher(socketBroadcastService, broadcastDispatcher,
+                documentRepo, documentEventRelay, 4, 60000, 120000);
+        lenient().doAnswer(invocation -> {
+            invocation.<Runnable>getArgument(dispatchFull ? 2 : 1).run();
+            return null;
+        }).when(broadcastDispatcher).afterCommit(anyInt(), any(Runnable.class), any(Runnable.class));
+        lenient().when(documentRepo.incrementEventSeq(anyInt())).thenAnswer(invocation -> {
+            eventSeqs.merge(invocation.<Integer>getArgument(0), 1L, Long::sum);
+            return 1;
+        });
+        lenient().when(documentRepo.findEventSeqById(anyInt()))
+                .thenAnswer(invocation -> Optional.ofNullable(eventSeqs.get(invocation.<Integer>getArgument(0))));
+    }
+
+    private List<DocumentEvent> publish(int documentId, int count) {
+        List<DocumentEvent> events = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            DocumentEvent event = new DocumentEvent(documentId, AuditEntityType.BLOCK, BlockOperationType.UPDATE, i);
+            documentSocketPublisher.broadcast(documentId, event);
+            events.add(event);
+        }
+        return events;
+    }
+
+    private long currentSeq(int documentId) {
+        return eventSeqs.getOrDefault(documentId, 0L);
+    }
+
+    private DocumentReplayResponse replay(int documentId, long since) {
+        return documentSocketPublisher.eventsSince(documentId, since, currentSeq(documentId));
+    }
+
+    private DocumentReplayEvent relayed(int documentId, long seq) {
+        return DocumentReplayEvent.builder()
+                .originNodeId("other-node").documentId(documentId).seq(seq)
+                .entityType(AuditEntityType.BLOCK).action("UPDATE").payload((int) seq)
+                .build();
+    }
+
+    private void stubRelayedConversion() {
+        when(documentEventRelay.toEvent(any())).thenAnswer(invocation -> {
+            DocumentReplayEvent event = invocation.getArgument(0);
+            return new DocumentEvent(event.getDocumentId(), event.getEntityType(), BlockOperationType.UPDATE,
+                    event.getPayload(), event.getSeq());
+        });
+    }
+
+    @Test
+    void broadcast_takesSeqFromDocumentRowSendsAndRelays() {
+        List<DocumentEvent> events = publish(1, 3);
+
+        assertEquals(List.of(1L, 2L, 3L), events.stream().map(DocumentEvent::getSeq).toList());
+        verify(documentRepo, times(3)).incrementEventSeq(1);
+        verify(socketBroadcastService, times(3)).send(eq("/topic/document.1"), any(DocumentEvent.class));
+        verify(documentEventRelay).publish(events.get(2));
+    }
+
+    @Test
+    void eventsSince_returnsOnlyMissedEvents() {
+        List<DocumentEvent> events = publish(1, 3);
+
+        DocumentReplayResponse replay = replay(1, events.get(0).getSeq());
+
+        assertFalse(replay.isFullReloadRequired());
+        assertEquals(List.of(events.get(1), events.get(2)), replay.getEvents());
+        assertEquals(events.get(2).getSeq(), replay.getLatestSeq());
+    }
+
+    @Test
+    void eventsSince_upToDate_returnsNothing() {
+        List<DocumentEvent> events = publish(1, 2);
+
+        DocumentReplayResponse replay = replay(1, events.get(1).getSeq());
+
+        assertFalse(replay.isFullReloadRequired());
+        assertTrue(replay.getEvents().isEmpty());
+    }
+
+    @Test
+    void eventsSince_gapEvicted_requiresFullReload() {
+        List<DocumentEvent> events = publish(1, 6);
+
+        DocumentReplayResponse replay = replay(1, events.get(0).getSeq());
+
+        assertTrue(replay.isFullReloadRequired());
+        assertTrue(replay.getEvents().isEmpty());
+
+        DocumentReplayResponse stillBuffered = replay(1, events.get(1).getSeq());
+        assertFalse(stillBuffered.isFullReloadRequired());
+        assertEquals(events.subList(2, 6), stillBuffered.getEvents());
+    }
+
+    @Test
+    void eventsSince_nothingBufferedHere_onlyCurrentClientsCarryOn() {
+        DocumentReplayResponse current = documentSocketPublisher.eventsSince(9, 42, 42);
+        assertFalse(current.isFullReloadRequired());
+        assertEquals(42, current.getLatestSeq());
+
+        assertTrue(documentSocketPublisher.eventsSince(9, 41, 42).isFullReloadRequired());
+    }
+
+    @Test
+    void snapshotBeforeFirstEvent_isReplayableFrom() {
+        long snapshotSeq = currentSeq(1);
+        List<DocumentEvent> events = publish(1, 2);
+
+        DocumentReplayResponse replay = replay(1, snapshotSeq);
+
+        assertFalse(replay.isFullReloadRequired());
+        assertEquals(events, replay.getEvents());
+    }
+
+    @Test
+    void droppedBroadcast_leavesSeqGapAndForcesReloadAcrossIt() {
+        List<DocumentEvent> before = publish(1, 1);
+        dispatchFull = true;
+        publish(1, 1);
+        dispatchFull = false;
+
+        DocumentEvent after = publish(1, 1).get(0);
+
+        assertEquals(before.get(0).getSeq() + 2, after.getSeq());
+        verify(socketBroadcastService, times(2)).send(eq("/topic/document.1"), any(DocumentEvent.class));
+        assertTrue(replay(1, before.get(0).getSeq()).isFullReloadRequired());
+        assertEquals(List.of(after), replay(1, after.getSeq() - 1).getEvents());
+    }
+
+    @Test
+    void recordRelayed_otherNodesEventsAreReplayableHere() {
+        stubRelayedConversion();
+        documentSocketPublisher.recordRelayed(relayed(1, 5));
+        documentSocketPublisher.recordRelayed(relayed(1, 6));
+
+        DocumentReplayResponse replay = documentSocketPublisher.eventsSince(1, 4, 6);
+
+        assertFalse(replay.isFullReloadRequired());
+        assertEquals(List.of(5L, 6L), replay.getEvents().stream().map(DocumentEvent::getSeq).toList());
+        assertTrue(documentSocketPublisher.eventsSince(1, 3, 6).isFullReloadRequired());
+        verifyNoInteractions(socketBroadcastService);
+    }
+
+    @Test
+    void recordRelayed_lateEventIsNotInsertedAndItsGapForcesReload() {
+        stubRelayedConversion();
+        documentSocketPublisher.recordRelayed(relayed(1, 5));
+        documentSocketPublisher.recordRelayed(relayed(1, 7));
+        documentSocketPublisher.recordRelayed(relayed(1, 6));
+
+        assertTrue(documentSocketPublisher.eventsSince(1, 5, 7).isFullReloadRequired());
+        assertEquals(7, documentSocketPublisher.eventsSince(1, 6, 7).getEvents().get(0).getSeq());
+    }
+
+    @Test
+    void recordRelayed_ownOrigin_isSkipped() {
+        when(documentEventRelay.isOwn(any())).thenReturn(true);
+
+        documentSocketPublisher.recordRelayed(relayed(1, 5));
+
+        assertTrue(documentSocketPublisher.eventsSince(1, 4, 5).isFullReloadRequired());
+        verify(documentEventRelay, never()).toEvent(any());
+    }
+
+    @Test
+    void evictIdleRings_dropsBufferButKeepsPosition() {
+        List<DocumentEvent> events = publish(1, 2);
+        ReflectionTestUtils.setField(documentSocketPublisher, "replayIdleEvictionMs", -1000L);
+
+        documentSocketPublisher.evictIdleRings();
+
+        DocumentReplayResponse current = replay(1, events.get(1).getSeq());
+        assertFalse(current.isFullReloadRequired());
+        assertEquals(events.get(1).getSeq(), current.getLatestSeq());
+        assertTrue(replay(1, events.get(0).getSeq()).isFullReloadRequired());
+
+        DocumentEvent next = publish(1, 1).get(0);
+        assertEquals(events.get(1).getSeq() + 1, next.getSeq());
+        assertEquals(List.of(next), replay(1, events.get(1).getSeq()).getEvents());
+    }
+
+    @Test
+    void evictIdleRings_pastForgetWindow_removesRingButTheDocumentKeepsItsPosition() {
+        List<DocumentEvent> events = publish(1, 2);
+        ReflectionTestUtils.setField(documentSocketPublisher, "replayForgetMs", -1000L);
+
+        documentSocketPublisher.evictIdleRings();
+
+        assertTrue(replay(1, events.get(0).getSeq()).isFullReloadRequired());
+        assertFalse(replay(1, events.get(1).getSeq()).isFullReloadRequired());
+        assertEquals(3, publish(1, 1).get(0).getSeq());
+    }
+}
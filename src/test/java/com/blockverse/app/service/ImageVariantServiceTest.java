@@ -0,0 +1,190 @@
+package com.blockverse.app.service;
+
+import com.blockverse.app.entity.StoredFile;
+import com.blockverse.app.enums.ImageVariant;
+import com.blockverse.app.repo.StoredFileRepo;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import software.amazon.awssdk.core.ResponseInputStream;
+import software.amazon.awssdk.core.sync.RequestBody;
+import software.amazon.awssdk.http.AbortableInputStream;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.GetObjectRequest;
+import software.amazon.awssdk.services.s3.model.GetObjectResponse;
+import software.amazon.awssdk.services.s3.model.PutObjectRequest;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ImageVariantServiceTest {
+
+    @Mock
+    private S3Client s3Client;
+
+    @Mock
+    private StoredFileRepo storedFileRepo;
+
+    private ImageVariantService imageVariantService;
+
+    @BeforeEach
+    void setUp() {
+        imageVariantService = service(60_000, 50_000_000, 16_000_000);
+    }
+
+    private ImageVariantService service(long pendingRecheckMs, long maxPixels, long maxDecodedPixels) {
+        return new ImageVariantService(s3Client, storedFileRepo, new SimpleMeterRegistry(), "test-bucket", 1, 10,
+                pendingRecheckMs, 600_000, maxPixels, maxDecodedPixels);
+    }
+
+    @Test
+    void generate_wideImage_storesEveryVariantNextToOriginal() throws Exception {
+        stubOriginal(image(1600, 900, BufferedImage.TYPE_INT_RGB, "jpeg"));
+
+        imageVariantService.generate("photo.jpg");
+
+        ArgumentCaptor<PutObjectRequest> captor = ArgumentCaptor.forClass(PutObjectRequest.class);
+        verify(s3Client, times(2)).putObject(captor.capture(), any(RequestBody.class));
+        assertEquals(List.of("photo.jpg.thumb", "photo.jpg.medium"),
+                captor.getAllValues().stream().map(PutObjectRequest::key).toList());
+        assertEquals("image/jpeg", captor.getValue().contentType());
+        verify(storedFileRepo).setVariants("photo.jpg", "THUMB,MEDIUM");
+        assertEquals(List.of(ImageVariant.THUMB, ImageVariant.MEDIUM), imageVariantService.variantsOf("photo.jpg"));
+    }
+
+    @Test
+    void generate_transparentImage_keepsAlphaAsPng() throws Exception {
+        stubOriginal(image(400, 400, BufferedImage.TYPE_INT_ARGB, "png"));
+
+        imageVariantService.generate("logo.png");
+
+        ArgumentCaptor<PutObjectRequest> captor = ArgumentCaptor.forClass(PutObjectRequest.class);
+        verify(s3Client).putObject(captor.capture(), any(RequestBody.class));
+        assertEquals("logo.png.thumb", captor.getValue().key());
+        assertEquals("image/png", captor.getValue().contentType());
+        verify(storedFileRepo).setVariants("logo.png", "THUMB");
+    }
+
+    @Test
+    void generate_smallImage_isNeverUpscaled() throws Exception {
+        stubOriginal(image(120, 80, BufferedImage.TYPE_INT_RGB, "png"));
+
+        imageVariantService.generate("icon.png");
+
+        verify(s3Client, never()).putObject(any(PutObjectRequest.class), any(RequestBody.class));
+        verify(storedFileRepo).setVariants("icon.png", "");
+        assertTrue(imageVariantService.variantsOf("icon.png").isEmpty());
+    }
+
+    @Test
+    void generate_undecodableContent_settlesWithoutVariants() {
+        stubOriginal("not an image".getBytes());
+
+        imageVariantService.generate("notes.png");
+
+        verify(storedFileRepo).setVariants("notes.png", "");
+    }
+
+    @Test
+    void generate_oversizedImage_isSkippedBeforeDecoding() throws Exception {
+        imageVariantService = service(60_000, 1_000_000, 16_000_000);
+        stubOriginal(image(1600, 900, BufferedImage.TYPE_INT_RGB, "png"));
+
+        imageVariantService.generate("huge.png");
+
+        verify(s3Client, never()).putObject(any(PutObjectRequest.class), any(RequestBody.class));
+        verify(storedFileRepo).setVariants("huge.png", "");
+    }
+
+    @Test
+    void generate_tallImage_decodesWithinAreaBudget() throws Exception {
+        imageVariantService = service(60_000, 50_000_000, 1_000_000);
+        stubOriginal(image(1000, 4000, BufferedImage.TYPE_INT_RGB, "png"));
+
+        imageVariantService.generate("tall.png");
+
+        // subsampled to 500 wide, which still fills a thumbnail but would have to upscale medium
+        ArgumentCaptor<PutObjectRequest> captor = ArgumentCaptor.forClass(PutObjectRequest.class);
+        verify(s3Client).putObject(captor.capture(), any(RequestBody.class));
+        assertEquals("tall.png.thumb", captor.getValue().key());
+        verify(storedFileRepo).setVariants("tall.png", "THUMB");
+    }
+
+    @Test
+    void variantsOf_pendingGeneration_isHeldUntilRecheck() {
+        when(storedFileRepo.findByStorageKey("pending.png"))
+                .thenReturn(Optional.of(StoredFile.builder().storageKey("pending.png").build()));
+
+        assertTrue(imageVariantService.variantsOf("pending.png").isEmpty());
+        assertTrue(imageVariantService.variantsOf("pending.png").isEmpty());
+        verify(storedFileRepo, times(1)).findByStorageKey("pending.png");
+    }
+
+    @Test
+    void variantsOf_pendingGeneration_picksUpResultAfterRecheck() {
+        imageVariantService = service(0, 50_000_000, 16_000_000);
+        when(storedFileRepo.findByStorageKey("pending.png"))
+                .thenReturn(Optional.of(StoredFile.builder().storageKey("pending.png").build()))
+                .thenReturn(Optional.of(StoredFile.builder().storageKey("pending.png").variants("THUMB").build()));
+
+        assertTrue(imageVariantService.variantsOf("pending.png").isEmpty());
+        assertEquals(List.of(ImageVariant.THUMB), imageVariantService.variantsOf("pending.png"));
+        assertEquals(List.of(ImageVariant.THUMB), imageVariantService.variantsOf("pending.png"));
+        verify(storedFileRepo, times(2)).findByStorageKey("pending.png");
+    }
+
+    @Test
+    void recoverStalled_requeuesImagesStillPending() throws Exception {
+        when(storedFileRepo.findByVariantsIsNullAndCreatedAtBefore(any(LocalDateTime.class), any(Pageable.class)))
+                .thenReturn(List.of(StoredFile.builder().storageKey("stalled.png").build()));
+        CountDownLatch settled = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            settled.countDown();
+            return 1;
+        }).when(storedFileRepo).setVariants(eq("stalled.png"), any());
+        stubOriginal(image(120, 80, BufferedImage.TYPE_INT_RGB, "png"));
+
+        imageVariantService.recoverStalled();
+
+        assertTrue(settled.await(2, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void variantsOf_legacyKeyWithoutIndexEntry_hasNoVariants() {
+        when(storedFileRepo.findByStorageKey("legacy.png")).thenReturn(Optional.empty());
+
+        assertTrue(imageVariantService.variantsOf("legacy.png").isEmpty());
+        assertTrue(imageVariantService.variantsOf("legacy.png").isEmpty());
+        verify(storedFileRepo, times(1)).findByStorageKey("legacy.png");
+    }
+
+    private void stubOriginal(byte[] bytes) {
+        when(s3Client.getObject(any(GetObjectRequest.class))).thenReturn(new ResponseInputStream<>(
+                GetObjectResponse.builder().build(),
+                AbortableInputStream.create(new ByteArrayInputStream(bytes))));
+    }
+
+    private byte[] image(int width, int height, int type, String format) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(new BufferedImage(width, height, type), format, out);
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,165 @@
+package com.blockverse.app.service;
+
+import com.blockverse.app.dto.PresenceChangeEvent;
+import com.blockverse.app.dto.activityFeed.PresenceEvent;
+import com.blockverse.app.dto.activityFeed.PresenceUser;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PresenceRegistryTest {
+
+    @Mock
+    private SocketBroadcastService socketBroadcastService;
+    @Mock
+    private PresenceRelay presenceRelay;
+
+    @InjectMocks
+    private PresenceRegistry presenceRegistry;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(presenceRegistry, "presenceTtlMs", 60000L);
+    }
+
+    private PresenceEvent captureBroadcast() {
+        ArgumentCaptor<Object> captor = ArgumentCaptor.forClass(Object.class);
+        verify(socketBroadcastService).send(eq("/topic/document.1.presence"), captor.capture());
+        clearInvocations(socketBroadcastService);
+        return (PresenceEvent) captor.getValue();
+    }
+
+    @Test
+    void join_firstSession_broadcastsJoinAndAppearsInSnapshot() {
+        presenceRegistry.join("s1", 1, 5, "Alice");
+
+        assertEquals("join", captureBroadcast().getAction());
+        List<PresenceUser> users = presenceRegistry.snapshot(1);
+        assertEquals(1, users.size());
+        assertEquals("Alice", users.get(0).getUserName());
+    }
+
+    @Test
+    void join_secondSessionOfSameUser_isNotRebroadcast() {
+        presenceRegistry.join("s1", 1, 5, "Alice");
+        captureBroadcast();
+
+        presenceRegistry.join("s2", 1, 5, "Alice");
+
+        verifyNoInteractions(socketBroadcastService);
+        assertEquals(1, presenceRegistry.snapshot(1).size());
+    }
+
+    @Test
+    void leave_onlyLastSessionBroadcastsLeave() {
+        presenceRegistry.join("s1", 1, 5, "Alice");
+        presenceRegistry.join("s2", 1, 5, "Alice");
+        captureBroadcast();
+
+        presenceRegistry.leave("s1", 1);
+        verifyNoInteractions(socketBroadcastService);
+
+        presenceRegistry.leave("s2", 1);
+        assertEquals("leave", captureBroadcast().getAction());
+        assertTrue(presenceRegistry.snapshot(1).isEmpty());
+    }
+
+    @Test
+    void onDisconnect_removesSessionFromEveryDocument() {
+        presenceRegistry.join("s1", 1, 5, "Alice");
+        presenceRegistry.join("s1", 2, 5, "Alice");
+
+        presenceRegistry.onDisconnect(new SessionDisconnectEvent(this,
+                MessageBuilder.withPayload(new byte[0]).build(), "s1", CloseStatus.NORMAL));
+
+        assertTrue(presenceRegistry.snapshot(1).isEmpty());
+        assertTrue(presenceRegistry.snapshot(2).isEmpty());
+        verify(socketBroadcastService, times(2)).send(eq("/topic/document.2.presence"), any());
+    }
+
+    @Test
+    void evictExpired_keepsFreshSessions() {
+        presenceRegistry.join("s1", 1, 5, "Alice");
+        presenceRegistry.heartbeat("s1");
+
+        presenceRegistry.evictExpired();
+
+        assertEquals(1, presenceRegistry.snapshot(1).size());
+    }
+
+    @Test
+    void evictExpired_dropsStaleSessionsAndBroadcastsLeave() {
+        presenceRegistry.join("s1", 1, 5, "Alice");
+        captureBroadcast();
+        ReflectionTestUtils.setField(presenceRegistry, "presenceTtlMs", -1000L);
+
+        presenceRegistry.evictExpired();
+
+        assertEquals("leave", captureBroadcast().getAction());
+        assertTrue(presenceRegistry.snapshot(1).isEmpty());
+    }
+
+    @Test
+    void join_firstSession_isPublishedToTheOtherNodes() {
+        presenceRegistry.join("s1", 1, 5, "Alice");
+        presenceRegistry.join("s2", 1, 5, "Alice");
+
+        verify(presenceRelay).publish(1, 5, "Alice", "join");
+    }
+
+    @Test
+    void applyRelayed_otherNodesUserAppearsInSnapshotUntilItLeaves() {
+        presenceRegistry.join("s1", 1, 5, "Alice");
+        presenceRegistry.applyRelayed(relayed("join"));
+
+        assertEquals(List.of(5, 9), presenceRegistry.snapshot(1).stream().map(PresenceUser::getUserId).toList());
+
+        presenceRegistry.applyRelayed(relayed("leave"));
+        assertEquals(1, presenceRegistry.snapshot(1).size());
+    }
+
+    @Test
+    void applyRelayed_ownOrigin_isSkipped() {
+        when(presenceRelay.isOwn(any())).thenReturn(true);
+
+        presenceRegistry.applyRelayed(relayed("join"));
+
+        assertTrue(presenceRegistry.snapshot(1).isEmpty());
+    }
+
+    @Test
+    void evictExpired_refreshesLocalUsersAndDropsUnrefreshedRemoteOnes() {
+        presenceRegistry.join("s1", 1, 5, "Alice");
+        presenceRegistry.applyRelayed(relayed("join"));
+        clearInvocations(presenceRelay);
+
+        presenceRegistry.evictExpired();
+        verify(presenceRelay).publish(1, 5, "Alice", "join");
+        assertEquals(2, presenceRegistry.snapshot(1).size());
+
+        ReflectionTestUtils.setField(presenceRegistry, "presenceTtlMs", -1000L);
+        presenceRegistry.evictExpired();
+        assertTrue(presenceRegistry.snapshot(1).isEmpty());
+    }
+
+    private PresenceChangeEvent relayed(String action) {
+        return PresenceChangeEvent.builder()
+                .originNodeId("other-node").documentId(1).userId(9).userName("Bob").action(action)
+                .build();
+    }
+}
@@ -0,0 +1,53 @@
+package com.blockverse.app.service;
+
+import com.blockverse.app.dto.PresenceChangeEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PresenceRelayTest {
+
+    @Mock
+    private KafkaTemplate<String, Object> kafkaTemplate;
+
+    @InjectMocks
+    private PresenceRelay presenceRelay;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(presenceRelay, "presenceChangeTopic", "presence-change-topic");
+        ReflectionTestUtils.setField(presenceRelay, "presenceRelay", "kafka");
+    }
+
+    @Test
+    void publish_kafkaRelay_publishesKeyedByDocumentWithOwnOrigin() {
+        presenceRelay.publish(3, 5, "Alice", "join");
+
+        ArgumentCaptor<Object> captor = ArgumentCaptor.forClass(Object.class);
+        verify(kafkaTemplate).send(eq("presence-change-topic"), eq("3"), captor.capture());
+        PresenceChangeEvent event = (PresenceChangeEvent) captor.getValue();
+        assertEquals(5, event.getUserId());
+        assertEquals("join", event.getAction());
+        assertTrue(presenceRelay.isOwn(event));
+    }
+
+    @Test
+    void publish_localRelay_sendsNothing() {
+        ReflectionTestUtils.setField(presenceRelay, "presenceRelay", "local");
+
+        presenceRelay.publish(3, 5, "Alice", "join");
+
+        verifyNoInteractions(kafkaTemplate);
+    }
+}
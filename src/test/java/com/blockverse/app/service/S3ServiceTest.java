@@ -12,16 +12,26 @@ import org.springframework.mock.web.MockMultipartFile;
 import org.springframework.test.util.ReflectionTestUtils;
 import software.amazon.awssdk.core.sync.RequestBody;
 import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.AbortMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.CompleteMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.CompletedPart;
+import software.amazon.awssdk.services.s3.model.CreateMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.CreateMultipartUploadResponse;
 import software.amazon.awssdk.services.s3.model.PutObjectRequest;
 import software.amazon.awssdk.services.s3.model.PutObjectResponse;
+import software.amazon.awssdk.services.s3.model.UploadPartRequest;
+import software.amazon.awssdk.services.s3.model.UploadPartResponse;
 import software.amazon.awssdk.services.s3.presigner.S3Presigner;
 import software.amazon.awssdk.services.s3.presigner.model.GetObjectPresignRequest;
 import software.amazon.awssdk.services.s3.presigner.model.PresignedGetObjectRequest;
 
 import java.net.URL;
+import java.util.List;
+import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -33,12 +43,19 @@ class S3ServiceTest {
     @Mock
     private S3Presigner s3Presigner;
 
+    @Mock
+    private StoredFileService storedFileService;
+
     @InjectMocks
     private S3Service s3Service;
 
     @BeforeEach
     void setUp() {
         ReflectionTestUtils.setField(s3Service, "bucketName", "test-bucket");
+        ReflectionTestUtils.setField(s3Service, "maxUploadBytes", 5L * 1024 * 1024);
+        ReflectionTestUtils.setField(s3Service, "multipartThreshold", 16L);
+        ReflectionTestUtils.setField(s3Service, "partSize", 8);
+        ReflectionTestUtils.setField(s3Service, "partConcurrency", 2);
     }
 
     @Test
@@ -46,11 +63,13 @@ class S3ServiceTest {
         MockMultipartFile file = new MockMultipartFile("file", "test.txt", "text/plain", "content".getBytes());
         when(s3Client.putObject(any(PutObjectRequest.class), any(RequestBody.class)))
                 .thenReturn(PutObjectResponse.builder().build());
+        when(storedFileService.register(anyInt(), any(), any(), anyLong(), any())).thenAnswer(invocation -> invocation.getArgument(2));
 
-        String fileName = s3Service.uploadFile(file);
+        String fileName = s3Service.uploadFile(7, file);
 
         assertNotNull(fileName);
-        assertTrue(fileName.endsWith("_test.txt"));
+        assertTrue(fileName.startsWith("files/7/"));
+        assertFalse(fileName.contains("test.txt"));
         
         ArgumentCaptor<PutObjectRequest> putRequestCaptor = ArgumentCaptor.forClass(PutObjectRequest.class);
         verify(s3Client).putObject(putRequestCaptor.capture(), any(RequestBody.class));
@@ -67,16 +86,74 @@ class S3ServiceTest {
         when(s3Client.putObject(any(PutObjectRequest.class), any(RequestBody.class)))
                 .thenThrow(new RuntimeException("S3 error"));
 
-        assertThrows(S3FileUploadException.class, () -> s3Service.uploadFile(file));
+        assertThrows(S3FileUploadException.class, () -> s3Service.uploadFile(7, file));
     }
 
     @Test
     void uploadFile_exceedsSizeLimit() {
         MockMultipartFile file = new MockMultipartFile("file", "large.txt", "text/plain", new byte[6 * 1024 * 1024]);
-        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, () -> s3Service.uploadFile(file));
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, () -> s3Service.uploadFile(7, file));
         assertEquals("File size exceeds 5MB limit", exception.getMessage());
     }
 
+    @Test
+    void uploadFile_aboveThreshold_uploadsPartsAndCompletes() {
+        MockMultipartFile file = new MockMultipartFile("file", "big.bin", "application/octet-stream",
+                "0123456789abcdefghij".getBytes());
+        when(s3Client.createMultipartUpload(any(CreateMultipartUploadRequest.class)))
+                .thenReturn(CreateMultipartUploadResponse.builder().uploadId("upload-1").build());
+        when(s3Client.uploadPart(any(UploadPartRequest.class), any(RequestBody.class)))
+                .thenAnswer(invocation -> UploadPartResponse.builder()
+                        .eTag("etag-" + invocation.<UploadPartRequest>getArgument(0).partNumber())
+                        .build());
+        when(storedFileService.register(anyInt(), any(), any(), anyLong(), any())).thenAnswer(invocation -> invocation.getArgument(2));
+
+        String fileName = s3Service.uploadFile(7, file);
+
+        ArgumentCaptor<UploadPartRequest> partCaptor = ArgumentCaptor.forClass(UploadPartRequest.class);
+        verify(s3Client, times(3)).uploadPart(partCaptor.capture(), any(RequestBody.class));
+        assertEquals(List.of(8L, 8L, 4L), partCaptor.getAllValues().stream()
+                .sorted((a, b) -> a.partNumber() - b.partNumber())
+                .map(UploadPartRequest::contentLength)
+                .toList());
+
+        ArgumentCaptor<CompleteMultipartUploadRequest> completeCaptor =
+                ArgumentCaptor.forClass(CompleteMultipartUploadRequest.class);
+        verify(s3Client).completeMultipartUpload(completeCaptor.capture());
+        CompleteMultipartUploadRequest complete = completeCaptor.getValue();
+        assertEquals(fileName, complete.key());
+        assertEquals("upload-1", complete.uploadId());
+        assertEquals(List.of("etag-1", "etag-2", "etag-3"),
+                complete.multipartUpload().parts().stream().map(CompletedPart::eTag).toList());
+        verify(s3Client, never()).putObject(any(PutObjectRequest.class), any(RequestBody.class));
+    }
+
+    @Test
+    void uploadFile_partFails_abortsUpload() {
+        MockMultipartFile file = new MockMultipartFile("file", "big.bin", "application/octet-stream",
+                "0123456789abcdefghij".getBytes());
+        when(s3Client.createMultipartUpload(any(CreateMultipartUploadRequest.class)))
+                .thenReturn(CreateMultipartUploadResponse.builder().uploadId("upload-1").build());
+        when(s3Client.uploadPart(any(UploadPartRequest.class), any(RequestBody.class)))
+                .thenThrow(new RuntimeException("S3 error"));
+
+        assertThrows(S3FileUploadException.class, () -> s3Service.uploadFile(7, file));
+
+        verify(s3Client).abortMultipartUpload(any(AbortMultipartUploadRequest.class));
+        verify(s3Client, never()).completeMultipartUpload(any(CompleteMultipartUploadRequest.class));
+    }
+
+    @Test
+    void uploadFile_duplicateContent_reusesStoredObject() {
+        MockMultipartFile file = new MockMultipartFile("file", "logo.png", "image/png", "same bytes".getBytes());
+        when(storedFileService.findExisting(eq(7), any())).thenReturn(Optional.of("existing_logo.png"));
+
+        assertEquals("existing_logo.png", s3Service.uploadFile(7, file));
+
+        verifyNoInteractions(s3Client);
+        verify(storedFileService, never()).register(anyInt(), any(), any(), anyLong(), any());
+    }
+
     @Test
     void generateUrl_success() throws Exception {
         String key = "test-key.txt";
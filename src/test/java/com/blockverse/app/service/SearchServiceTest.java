@@ -1,6 +1,7 @@
 package com.blockverse.app.service;
 
 import com.blockverse.app.dto.SearchResponse;
+import com.blockverse.app.dto.SuggestionResponse;
 import com.blockverse.app.dto.block.BlockResponse;
 import com.blockverse.app.dto.document.DocumentResponse;
 import com.blockverse.app.entity.Block;
@@ -8,9 +9,19 @@ import com.blockverse.app.entity.Document;
 import com.blockverse.app.entity.User;
 import com.blockverse.app.entity.WorkSpace;
 import com.blockverse.app.enums.BlockType;
+import com.blockverse.app.enums.SuggestionType;
+import com.blockverse.app.enums.WorkSpaceRole;
+import com.blockverse.app.exception.InsufficientPermissionException;
 import com.blockverse.app.mapper.DocumentMapper;
 import com.blockverse.app.repo.BlockRepo;
 import com.blockverse.app.repo.DocumentRepo;
+import com.blockverse.app.repo.WorkSpaceMemberRepo;
+import com.blockverse.app.search.SearchCursor;
+import com.blockverse.app.search.SearchFilter;
+import com.blockverse.app.search.SearchHits;
+import com.blockverse.app.search.SearchIndexService;
+import com.blockverse.app.search.SearchResultCache;
+import com.blockverse.app.search.SuggestionService;
 import com.blockverse.app.security.SecurityUtil;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -19,13 +30,24 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import java.math.BigInteger;
 import java.util.List;
+import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -43,12 +65,24 @@ class SearchServiceTest {
     @Mock
     private com.blockverse.app.mapper.BlockMapper blockMapper;
 
+    @Mock
+    private WorkSpaceMemberRepo workSpaceMemberRepo;
+
     @Mock
     private SecurityUtil securityUtil;
 
     @Mock
     private RateLimiterService rateLimiterService;
 
+    @Mock
+    private SearchIndexService searchIndexService;
+
+    @Mock
+    private SuggestionService suggestionService;
+
+    @Mock
+    private SearchResultCache searchResultCache;
+
     @InjectMocks
     private SearchService searchService;
 
@@ -66,27 +100,33 @@ class SearchServiceTest {
                 .content("Keyword content").position(BigInteger.ONE).build();
         
         testDocResponse = DocumentResponse.builder().id(1).title("Keyword title").workspaceId(1).build();
+
+        ReflectionTestUtils.setField(searchService, "engine", "fulltext");
+        ReflectionTestUtils.setField(searchService, "defaultLimit", 20);
+        ReflectionTestUtils.setField(searchService, "maxResults", 50);
+        lenient().when(workSpaceMemberRepo.findActiveRole(1, 1)).thenReturn(Optional.of(WorkSpaceRole.MEMBER));
     }
 
     @Test
     @DisplayName("should search and map documents and blocks successfully")
     void search_success() {
         when(securityUtil.getLoggedInUser()).thenReturn(testUser);
-        when(documentRepo.searchDocuments("Keyword", 1)).thenReturn(List.of(testDocument));
-        when(blockRepo.searchBlocks("Keyword", 1)).thenReturn(List.of(testBlock));
+        when(documentRepo.searchDocuments("Keyword", 1, null, 20)).thenReturn(List.of(testDocument));
+        when(blockRepo.searchBlocks("Keyword", 1, null, null, 20)).thenReturn(List.of(testBlock));
         when(documentMapper.toResponse(testDocument)).thenReturn(testDocResponse);
         
         BlockResponse blockResponse = BlockResponse.builder().id(1).content("Keyword content").build();
         when(blockMapper.toBlockResponse(testBlock)).thenReturn(blockResponse);
 
-        SearchResponse response = searchService.search("Keyword", 1);
+        SearchResponse response = searchService.search("Keyword", 1, SearchFilter.none(), null, null);
 
         assertNotNull(response);
         assertEquals(1, response.getDocuments().size());
-        assertEquals("Keyword title", response.getDocuments().get(0).getTitle());
+        assertEquals("Keyword title", response.getDocuments().get(0).getItem().getTitle());
         
         assertEquals(1, response.getBlocks().size());
-        assertEquals("Keyword content", response.getBlocks().get(0).getContent());
+        assertEquals("Keyword content", response.getBlocks().get(0).getItem().getContent());
+        assertNull(response.getNextCursor());
     }
 
     @Test
@@ -96,6 +136,136 @@ class SearchServiceTest {
         org.mockito.Mockito.doThrow(new com.blockverse.app.exception.TooManyRequestsException("Too many requests"))
                 .when(rateLimiterService).checkRateLimit(1, "SEARCH");
 
-        assertThrows(com.blockverse.app.exception.TooManyRequestsException.class, () -> searchService.search("Keyword", 1));
+        assertThrows(com.blockverse.app.exception.TooManyRequestsException.class, () -> searchService.search("Keyword", 1, SearchFilter.none(), null, null));
+    }
+
+    @Test
+    @DisplayName("index engine should resolve hits in rank order without touching FULLTEXT queries")
+    void search_indexEngine_resolvesHitsInRankOrder() {
+        ReflectionTestUtils.setField(searchService, "engine", "index");
+        Document second = Document.builder().id(2).title("Keyword keyword").workSpace(testDocument.getWorkSpace()).build();
+        DocumentResponse secondResponse = DocumentResponse.builder().id(2).title("Keyword keyword").workspaceId(1).build();
+
+        when(securityUtil.getLoggedInUser()).thenReturn(testUser);
+        when(searchIndexService.search(1, "Keyword", SearchFilter.none(), SearchCursor.FIRST_PAGE, 20))
+                .thenReturn(new SearchHits(
+                        List.of(new SearchHits.Hit(2, 2.0), new SearchHits.Hit(1, 1.0)), 2,
+                        List.of(new SearchHits.Hit(1, 1.0)), 1, null));
+        when(documentRepo.findAllById(List.of(2, 1))).thenReturn(List.of(testDocument, second));
+        when(blockRepo.findWithDocumentByIdIn(List.of(1))).thenReturn(List.of(testBlock));
+        when(documentMapper.toResponse(testDocument)).thenReturn(testDocResponse);
+        when(documentMapper.toResponse(second)).thenReturn(secondResponse);
+        when(blockMapper.toBlockResponse(testBlock))
+                .thenReturn(BlockResponse.builder().id(1).content("Keyword content").build());
+
+        SearchResponse response = searchService.search("Keyword", 1, SearchFilter.none(), null, null);
+
+        assertEquals(2, response.getDocuments().get(0).getItem().getId());
+        assertEquals(2.0, response.getDocuments().get(0).getScore());
+        assertEquals(1, response.getDocuments().get(1).getItem().getId());
+        assertEquals(1, response.getBlocks().size());
+        assertEquals(2, response.getTotalDocuments());
+        verify(documentRepo, never()).searchDocuments(anyString(), anyInt(), any(), anyInt());
+    }
+
+    @Test
+    @DisplayName("index engine should drop hits whose rows are archived, deleted or gone")
+    void search_indexEngine_filtersStaleHits() {
+        ReflectionTestUtils.setField(searchService, "engine", "index");
+        testDocument.setArchived(true);
+
+        when(securityUtil.getLoggedInUser()).thenReturn(testUser);
+        when(searchIndexService.search(1, "Keyword", SearchFilter.none(), SearchCursor.FIRST_PAGE, 20))
+                .thenReturn(new SearchHits(
+                        List.of(new SearchHits.Hit(1, 1.0), new SearchHits.Hit(7, 0.5)), 2,
+                        List.of(new SearchHits.Hit(1, 1.0)), 1, null));
+        when(documentRepo.findAllById(List.of(1, 7))).thenReturn(List.of(testDocument));
+        when(blockRepo.findWithDocumentByIdIn(List.of(1))).thenReturn(List.of(testBlock));
+
+        SearchResponse response = searchService.search("Keyword", 1, SearchFilter.none(), null, null);
+
+        assertTrue(response.getDocuments().isEmpty());
+        assertTrue(response.getBlocks().isEmpty());
+    }
+
+    @Test
+    @DisplayName("should clamp the page size and pass filters to the FULLTEXT queries")
+    void search_fulltext_clampsLimitAndAppliesFilters() {
+        when(securityUtil.getLoggedInUser()).thenReturn(testUser);
+        when(documentRepo.searchDocuments("Keyword", 1, 3, 50)).thenReturn(List.of());
+        when(blockRepo.searchBlocks("Keyword", 1, 3, "CODE", 50)).thenReturn(List.of());
+
+        SearchResponse response = searchService.search("Keyword", 1, new SearchFilter(BlockType.CODE, 3), 500, null);
+
+        assertTrue(response.getBlocks().isEmpty());
+        assertNull(response.getTotalBlocks());
+    }
+
+    @Test
+    @DisplayName("index engine should encode the next cursor and reject malformed ones")
+    void search_indexEngine_cursorRoundTrip() {
+        ReflectionTestUtils.setField(searchService, "engine", "index");
+        SearchCursor next = SearchCursor.decode(SearchCursor.FIRST_PAGE.encode());
+
+        when(securityUtil.getLoggedInUser()).thenReturn(testUser);
+        when(searchIndexService.search(1, "Keyword", SearchFilter.none(), SearchCursor.FIRST_PAGE, 20))
+                .thenReturn(new SearchHits(List.of(), 0, List.of(), 0, next));
+
+        SearchResponse response = searchService.search("Keyword", 1, SearchFilter.none(), null, null);
+
+        assertEquals(next.encode(), response.getNextCursor());
+        assertThrows(IllegalArgumentException.class,
+                () -> searchService.search("Keyword", 1, SearchFilter.none(), null, "not-a-cursor"));
+    }
+
+    @Test
+    @DisplayName("suggest should use its own rate-limit bucket and default page size")
+    void suggest_usesSuggestBucket() {
+        List<SuggestionResponse> suggestions = List.of(new SuggestionResponse("Keyword title", SuggestionType.DOCUMENT, 1, null));
+        when(securityUtil.getLoggedInUser()).thenReturn(testUser);
+        when(suggestionService.suggest(1, "key", 8)).thenReturn(suggestions);
+
+        assertEquals(suggestions, searchService.suggest("key", 1, null));
+        verify(rateLimiterService).checkRateLimit(1, "SUGGEST");
+        verify(rateLimiterService, never()).checkRateLimit(1, "SEARCH");
+    }
+
+    @Test
+    @DisplayName("search and suggest should reject users outside the workspace before reading it")
+    void searchAndSuggest_nonMember_forbidden() {
+        when(securityUtil.getLoggedInUser()).thenReturn(testUser);
+        when(workSpaceMemberRepo.findActiveRole(1, 2)).thenReturn(Optional.empty());
+
+        assertThrows(InsufficientPermissionException.class,
+                () -> searchService.search("Keyword", 2, SearchFilter.none(), null, null));
+        assertThrows(InsufficientPermissionException.class, () -> searchService.suggest("key", 2, null));
+        verifyNoInteractions(searchResultCache, searchIndexService, suggestionService, documentRepo, blockRepo);
+    }
+
+    @Test
+    @DisplayName("should serve a cached page without touching the index or database")
+    void search_cacheHit_skipsIndexAndDatabase() {
+        SearchResponse cached = SearchResponse.builder().documents(List.of()).blocks(List.of()).build();
+        when(securityUtil.getLoggedInUser()).thenReturn(testUser);
+        when(searchResultCache.get(SearchResultCache.key(1, "  Keyword ", SearchFilter.none(), 20, null)))
+                .thenReturn(cached);
+
+        SearchResponse response = searchService.search("keyword", 1, SearchFilter.none(), null, null);
+
+        assertEquals(cached, response);
+        verifyNoInteractions(searchIndexService, documentRepo, blockRepo);
+    }
+
+    @Test
+    @DisplayName("should cache a computed page under the generation read before computing it")
+    void search_cacheMiss_storesWithGenerationReadFirst() {
+        when(securityUtil.getLoggedInUser()).thenReturn(testUser);
+        when(searchResultCache.generation(1)).thenReturn(7L);
+        when(documentRepo.searchDocuments("Keyword", 1, null, 20)).thenReturn(List.of());
+        when(blockRepo.searchBlocks("Keyword", 1, null, null, 20)).thenReturn(List.of());
+
+        SearchResponse response = searchService.search("Keyword", 1, SearchFilter.none(), null, null);
+
+        verify(searchResultCache).put(SearchResultCache.key(1, "keyword", SearchFilter.none(), 20, null), 7L, response);
     }
 }
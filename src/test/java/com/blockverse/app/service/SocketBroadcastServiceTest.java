@@ -0,0 +1,101 @@
+package com.blockverse.app.service;
+
+import com.blockverse.app.config.CompactEncodingInterceptor;
+import com.blockverse.app.dto.SocketBroadcastEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.ArgumentMatchers;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SocketBroadcastServiceTest {
+
+    @Mock
+    private SimpMessagingTemplate messagingTemplate;
+
+    @Mock
+    private KafkaTemplate<String, Object> kafkaTemplate;
+
+    @Mock
+    private CompactEncodingInterceptor compactEncodingInterceptor;
+
+    @InjectMocks
+    private SocketBroadcastService socketBroadcastService;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(socketBroadcastService, "socketBroadcastTopic", "socket-broadcast-topic");
+    }
+
+    private void verifyDelivered(String destination, Object payload) {
+        verify(messagingTemplate).convertAndSend(eq(destination), eq(payload), ArgumentMatchers.<Map<String, Object>>isNull());
+    }
+
+    @Test
+    void send_localFanout_deliversOnlyLocally() {
+        ReflectionTestUtils.setField(socketBroadcastService, "fanout", "local");
+
+        socketBroadcastService.send("/topic/document.1", "payload");
+
+        verifyDelivered("/topic/document.1", "payload");
+        verifyNoInteractions(kafkaTemplate);
+    }
+
+    @Test
+    void send_kafkaFanout_relaysEnvelope() {
+        ReflectionTestUtils.setField(socketBroadcastService, "fanout", "kafka");
+
+        socketBroadcastService.send("/topic/document.1", "payload");
+
+        ArgumentCaptor<Object> captor = ArgumentCaptor.forClass(Object.class);
+        verifyDelivered("/topic/document.1", "payload");
+        verify(kafkaTemplate).send(eq("socket-broadcast-topic"), eq("/topic/document.1"), captor.capture());
+
+        SocketBroadcastEvent event = (SocketBroadcastEvent) captor.getValue();
+        assertEquals("/topic/document.1", event.getDestination());
+        assertEquals("payload", event.getPayload());
+        assertEquals(ReflectionTestUtils.getField(socketBroadcastService, "nodeId"), event.getOriginNodeId());
+    }
+
+    @Test
+    void deliverRelayed_ownOrigin_isSkipped() {
+        String nodeId = (String) ReflectionTestUtils.getField(socketBroadcastService, "nodeId");
+
+        socketBroadcastService.deliverRelayed(new SocketBroadcastEvent(nodeId, "/topic/document.1", "payload"));
+
+        verify(messagingTemplate, never()).convertAndSend(anyString(), any(Object.class), ArgumentMatchers.<Map<String, Object>>any());
+    }
+
+    @Test
+    void deliverRelayed_otherOrigin_isDeliveredLocally() {
+        socketBroadcastService.deliverRelayed(new SocketBroadcastEvent("other-node", "/topic/document.1", "payload"));
+
+        verifyDelivered("/topic/document.1", "payload");
+    }
+
+    @Test
+    void send_cborSessionsConnected_passesTheCborEncodingAlong() {
+        ReflectionTestUtils.setField(socketBroadcastService, "fanout", "local");
+        Map<String, Object> headers = Map.of(CompactEncodingInterceptor.CBOR_PAYLOAD_HEADER, new byte[]{1});
+        when(compactEncodingInterceptor.headersFor("payload")).thenReturn(headers);
+
+        socketBroadcastService.send("/topic/document.1", "payload");
+
+        verify(messagingTemplate).convertAndSend("/topic/document.1", (Object) "payload", headers);
+    }
+}
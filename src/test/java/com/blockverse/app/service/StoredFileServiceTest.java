@@ -0,0 +1,213 @@
+package com.blockverse.app.service;
+
+import com.blockverse.app.entity.StoredFile;
+import com.blockverse.app.enums.BlockType;
+import com.blockverse.app.event.FilesReleasedEvent;
+import com.blockverse.app.exception.InsufficientPermissionException;
+import com.blockverse.app.repo.BlockRepo;
+import com.blockverse.app.repo.StoredFileRepo;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.DeleteObjectRequest;
+
+import java.io.ByteArrayInputStream;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class StoredFileServiceTest {
+
+    @Mock
+    private StoredFileRepo storedFileRepo;
+
+    @Mock
+    private BlockRepo blockRepo;
+
+    @Mock
+    private S3Client s3Client;
+
+    @Mock
+    private ImageVariantService imageVariantService;
+
+    @InjectMocks
+    private StoredFileService storedFileService;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(storedFileService, "bucketName", "test-bucket");
+    }
+
+    @Test
+    void hash_isSha256OfContent() throws Exception {
+        assertEquals("ba7816bf8f01cfea414140de5dae2223b00361a396177a9cb410ff61f20015ad",
+                StoredFileService.hash(new ByteArrayInputStream("abc".getBytes())));
+    }
+
+    @Test
+    void keyFor_usesOnlyUploaderAndHash() {
+        assertEquals("files/7/h1", StoredFileService.keyFor(7, "h1"));
+    }
+
+    @Test
+    void findExisting_existingContent_returnsStoredKeyWithoutTakingReference() {
+        when(storedFileRepo.touch(eq(7), eq("h1"), any(LocalDateTime.class))).thenReturn(1);
+        when(storedFileRepo.findByOwnerIdAndHash(7, "h1")).thenReturn(Optional.of(storedFile(1, "files/7/h1", 2)));
+
+        assertEquals(Optional.of("files/7/h1"), storedFileService.findExisting(7, "h1"));
+        verify(storedFileRepo, never()).acquireReference(any());
+    }
+
+    @Test
+    void findExisting_unknownContent_returnsEmpty() {
+        when(storedFileRepo.touch(eq(7), eq("h1"), any(LocalDateTime.class))).thenReturn(0);
+
+        assertTrue(storedFileService.findExisting(7, "h1").isEmpty());
+        verify(storedFileRepo, never()).findByOwnerIdAndHash(anyInt(), any());
+    }
+
+    @Test
+    void checkAttachable_ownUpload_isAllowed() {
+        when(storedFileRepo.existsByOwnerIdAndStorageKey(7, "files/7/h1")).thenReturn(true);
+
+        assertDoesNotThrow(() -> storedFileService.checkAttachable(7, 3, "files/7/h1"));
+        verifyNoInteractions(blockRepo);
+    }
+
+    @Test
+    void checkAttachable_imageAlreadyShownInWorkspace_isAllowed() {
+        when(blockRepo.findContentByWorkSpaceIdAndType(3, BlockType.IMAGE)).thenReturn(List.of("files/8/h1"));
+
+        assertDoesNotThrow(() -> storedFileService.checkAttachable(7, 3, "files/8/h1"));
+    }
+
+    @Test
+    void checkAttachable_someoneElsesKey_isRejected() {
+        when(blockRepo.findContentByWorkSpaceIdAndType(3, BlockType.IMAGE)).thenReturn(List.of("files/7/other"));
+
+        assertThrows(InsufficientPermissionException.class,
+                () -> storedFileService.checkAttachable(7, 3, "files/8/h1"));
+    }
+
+    @Test
+    void register_newImage_startsUnreferencedAndQueuesVariants() {
+        assertEquals("files/7/h1", storedFileService.register(7, "h1", "files/7/h1", 3, "image/jpeg"));
+
+        verify(storedFileRepo).saveAndFlush(argThat((StoredFile file) -> file.getOwnerId() == 7 && file.getReferenceCount() == 0
+                && file.getLastUsedAt() != null && file.getVariants() == null));
+        verify(imageVariantService).submit("files/7/h1");
+    }
+
+    @Test
+    void register_nonImage_settlesWithoutVariants() {
+        storedFileService.register(7, "h1", "files/7/h1", 3, "application/pdf");
+
+        verify(storedFileRepo).saveAndFlush(argThat((StoredFile file) -> "".equals(file.getVariants())));
+        verifyNoInteractions(imageVariantService);
+    }
+
+    @Test
+    void register_lostRaceOnSameKey_keepsSharedObject() {
+        when(storedFileRepo.saveAndFlush(any(StoredFile.class))).thenThrow(new DataIntegrityViolationException("dup"));
+        when(storedFileRepo.touch(eq(7), eq("h1"), any(LocalDateTime.class))).thenReturn(1);
+        when(storedFileRepo.findByOwnerIdAndHash(7, "h1")).thenReturn(Optional.of(storedFile(1, "files/7/h1", 0)));
+
+        assertEquals("files/7/h1", storedFileService.register(7, "h1", "files/7/h1", 3, "image/png"));
+        verifyNoInteractions(s3Client);
+    }
+
+    @Test
+    void register_lostRaceToOlderKey_deletesDuplicate() {
+        when(storedFileRepo.saveAndFlush(any(StoredFile.class))).thenThrow(new DataIntegrityViolationException("dup"));
+        when(storedFileRepo.touch(eq(7), eq("h1"), any(LocalDateTime.class))).thenReturn(1);
+        when(storedFileRepo.findByOwnerIdAndHash(7, "h1")).thenReturn(Optional.of(storedFile(1, "uuid_photo.png", 1)));
+
+        assertEquals("uuid_photo.png", storedFileService.register(7, "h1", "files/7/h1", 3, "image/png"));
+        verify(s3Client).deleteObject(argThat((DeleteObjectRequest request) -> "files/7/h1".equals(request.key())));
+    }
+
+    @Test
+    void updateReference_newImageBlock_acquires() {
+        storedFileService.updateReference(null, null, BlockType.IMAGE, "files/h1");
+
+        verify(storedFileRepo).acquireReference("files/h1");
+        verify(storedFileRepo, never()).releaseReference(any(), any());
+    }
+
+    @Test
+    void updateReference_replacedImage_movesReference() {
+        storedFileService.updateReference(BlockType.IMAGE, "files/old", BlockType.IMAGE, "files/new");
+
+        verify(storedFileRepo).acquireReference("files/new");
+        verify(storedFileRepo).releaseReference(eq("files/old"), any(LocalDateTime.class));
+    }
+
+    @Test
+    void updateReference_imageTurnedIntoText_releases() {
+        storedFileService.updateReference(BlockType.IMAGE, "files/old", BlockType.PARAGRAPH, "caption");
+
+        verify(storedFileRepo, never()).acquireReference(any());
+        verify(storedFileRepo).releaseReference(eq("files/old"), any(LocalDateTime.class));
+    }
+
+    @Test
+    void updateReference_unchangedOrText_touchesNothing() {
+        storedFileService.updateReference(BlockType.IMAGE, "files/h1", BlockType.IMAGE, "files/h1");
+        storedFileService.updateReference(BlockType.PARAGRAPH, "a", BlockType.PARAGRAPH, "b");
+
+        verifyNoInteractions(storedFileRepo);
+    }
+
+    @Test
+    void onFilesReleased_releasesOneReferencePerEntry() {
+        storedFileService.onFilesReleased(new FilesReleasedEvent(List.of("key-1", "key-1", "key-2")));
+
+        verify(storedFileRepo, times(2)).releaseReference(eq("key-1"), any(LocalDateTime.class));
+        verify(storedFileRepo).releaseReference(eq("key-2"), any(LocalDateTime.class));
+    }
+
+    @Test
+    void sweepUnreferenced_deletesObjectOnlyWhenRowWasRemoved() {
+        when(storedFileRepo.findByReferenceCountAndLastUsedAtBefore(eq(0), any(LocalDateTime.class), any(Pageable.class)))
+                .thenReturn(List.of(storedFile(1, "gone", 0), storedFile(2, "revived", 0)));
+        when(storedFileRepo.deleteIfUnreferenced(eq(1), any(LocalDateTime.class))).thenReturn(1);
+        when(storedFileRepo.deleteIfUnreferenced(eq(2), any(LocalDateTime.class))).thenReturn(0);
+
+        storedFileService.sweepUnreferenced();
+
+        verify(s3Client).deleteObject(argThat((DeleteObjectRequest request) -> "gone".equals(request.key())));
+        verify(s3Client).deleteObject(argThat((DeleteObjectRequest request) -> "gone.thumb".equals(request.key())));
+        verify(s3Client, times(2)).deleteObject(any(DeleteObjectRequest.class));
+    }
+
+    @Test
+    void sweepUnreferenced_waitsOutTheGracePeriod() {
+        ReflectionTestUtils.setField(storedFileService, "orphanGraceMs", 60_000L);
+        when(storedFileRepo.findByReferenceCountAndLastUsedAtBefore(eq(0), any(LocalDateTime.class), any(Pageable.class)))
+                .thenReturn(List.of());
+
+        storedFileService.sweepUnreferenced();
+
+        verify(storedFileRepo).findByReferenceCountAndLastUsedAtBefore(eq(0),
+                argThat((LocalDateTime cutoff) -> cutoff.isBefore(LocalDateTime.now().minusSeconds(59))),
+                any(Pageable.class));
+        verifyNoInteractions(s3Client);
+    }
+
+    private StoredFile storedFile(int id, String key, int references) {
+        return StoredFile.builder().id(id).hash("h" + id).storageKey(key).referenceCount(references).variants("THUMB").build();
+    }
+}
@@ -0,0 +1,122 @@
+package com.blockverse.app.service;
+
+import com.blockverse.app.entity.Document;
+import com.blockverse.app.entity.WorkSpace;
+import com.blockverse.app.event.DocumentChangedEvent;
+import com.blockverse.app.repo.DocumentRepo;
+import com.blockverse.app.repo.MaintenanceMarkerRepo;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Pageable;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TrashRetentionServiceTest {
+
+    @Mock
+    private DocumentRepo documentRepo;
+
+    @Mock
+    private DocumentPurgeService documentPurgeService;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private MaintenanceMarkerRepo maintenanceMarkerRepo;
+
+    private final WorkSpace workSpace = WorkSpace.builder().id(7).build();
+
+    private TrashRetentionService service(boolean enabled) {
+        return new TrashRetentionService(documentRepo, documentPurgeService, eventPublisher,
+                maintenanceMarkerRepo, new SimpleMeterRegistry(), enabled, 30, 10, 50, 5);
+    }
+
+    private Document trashed(int id, boolean purging) {
+        Document document = Document.builder().id(id).title("Old").workSpace(workSpace).build();
+        document.setDeleted(true);
+        document.setDeletedAt(LocalDateTime.now().minusDays(40));
+        document.setPurging(purging);
+        return document;
+    }
+
+    @Test
+    void purgeExpired_marksAndQueuesExpiredTrash() {
+        when(documentRepo.findPurgeable(any(LocalDateTime.class), any(LocalDateTime.class), any(), eq(5), any(Pageable.class)))
+                .thenReturn(List.of(trashed(1, false), trashed(2, true)));
+        when(documentRepo.markPurging(1)).thenReturn(1);
+        when(documentPurgeService.claim(anyInt())).thenReturn(true);
+
+        service(true).purgeExpired();
+
+        verify(eventPublisher).publishEvent(argThat((Object event) -> event instanceof DocumentChangedEvent changed
+                && changed.getDocumentId() == 1 && changed.isRemoved()));
+        verify(documentPurgeService).enqueue(1, 50);
+        // an earlier purge of document 2 stopped part-way; it is retried without marking again
+        verify(documentRepo, never()).markPurging(2);
+        verify(documentPurgeService).enqueue(2, 50);
+    }
+
+    @Test
+    void purgeExpired_skipsDocumentsRestoredInTheMeantime() {
+        when(documentRepo.findPurgeable(any(LocalDateTime.class), any(LocalDateTime.class), any(), eq(5), any(Pageable.class)))
+                .thenReturn(List.of(trashed(1, false)));
+        when(documentRepo.markPurging(1)).thenReturn(0);
+
+        service(true).purgeExpired();
+
+        verify(documentPurgeService, never()).enqueue(anyInt(), anyLong());
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    void purgeExpired_skipsDocumentsClaimedByAnotherNode() {
+        when(documentRepo.findPurgeable(any(LocalDateTime.class), any(LocalDateTime.class), any(), eq(5), any(Pageable.class)))
+                .thenReturn(List.of(trashed(2, true)));
+        when(documentPurgeService.claim(2)).thenReturn(false);
+
+        service(true).purgeExpired();
+
+        verify(documentPurgeService, never()).enqueue(anyInt(), anyLong());
+    }
+
+    @Test
+    void purgeExpired_waitsForThePreviousBatchToDrain() {
+        when(documentPurgeService.pendingPurges()).thenReturn(3);
+
+        service(true).purgeExpired();
+
+        verifyNoInteractions(documentRepo);
+    }
+
+    @Test
+    void purgeExpired_doesNothingWhenDisabled() {
+        service(false).purgeExpired();
+
+        verifyNoInteractions(documentRepo, documentPurgeService, maintenanceMarkerRepo);
+    }
+
+    @Test
+    void purgeExpired_pausedAtRuntime_stopsUntilTheMarkerIsRemoved() {
+        TrashRetentionService service = service(true);
+        when(maintenanceMarkerRepo.existsById(TrashRetentionService.PAUSE_MARKER)).thenReturn(true, false);
+        when(documentRepo.findPurgeable(any(LocalDateTime.class), any(LocalDateTime.class), any(), eq(5), any(Pageable.class)))
+                .thenReturn(List.of());
+
+        service.purgeExpired();
+        verifyNoInteractions(documentRepo, documentPurgeService);
+
+        service.purgeExpired();
+        verify(documentRepo).findPurgeable(any(LocalDateTime.class), any(LocalDateTime.class), any(), eq(5), any(Pageable.class));
+    }
+}
@@ -0,0 +1,87 @@
+package com.blockverse.app.service;
+
+import com.blockverse.app.dto.activityFeed.TypingEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TypingIndicatorServiceTest {
+
+    private static final long IDLE_TIMEOUT_MS = 40;
+    private static final long TICK_MS = 10;
+
+    @Mock
+    private SocketBroadcastService socketBroadcastService;
+
+    private TypingIndicatorService typingIndicatorService;
+
+    @BeforeEach
+    void setUp() {
+        typingIndicatorService = new TypingIndicatorService(socketBroadcastService, IDLE_TIMEOUT_MS, TICK_MS);
+    }
+
+    private String captureAction() {
+        ArgumentCaptor<Object> captor = ArgumentCaptor.forClass(Object.class);
+        verify(socketBroadcastService).send(eq("/topic/document.1.typing"), captor.capture());
+        clearInvocations(socketBroadcastService);
+        return ((TypingEvent) captor.getValue()).getAction();
+    }
+
+    // Turns the wheel one full revolution so every bucket is inspected.
+    private void turnWheel() {
+        for (int i = 0; i <= IDLE_TIMEOUT_MS / TICK_MS + 1; i++) {
+            typingIndicatorService.tick();
+        }
+    }
+
+    @Test
+    void repeatedKeystrokes_broadcastStartOnce() {
+        for (int i = 0; i < 5; i++) {
+            typingIndicatorService.onTypingEvent(new TypingEvent(1, 10, 5, "start_typing"));
+        }
+
+        assertEquals("start_typing", captureAction());
+        verifyNoMoreInteractions(socketBroadcastService);
+    }
+
+    @Test
+    void explicitStop_broadcastsStopAndIgnoresStaleWheelEntry() throws InterruptedException {
+        typingIndicatorService.onTypingEvent(new TypingEvent(1, 10, 5, "start_typing"));
+        captureAction();
+
+        typingIndicatorService.onTypingEvent(new TypingEvent(1, 10, 5, "stop_typing"));
+        assertEquals("stop_typing", captureAction());
+
+        Thread.sleep(IDLE_TIMEOUT_MS + TICK_MS);
+        turnWheel();
+        verifyNoInteractions(socketBroadcastService);
+    }
+
+    @Test
+    void stopWithoutStart_isNotBroadcast() {
+        typingIndicatorService.onTypingEvent(new TypingEvent(1, 10, 5, "stop_typing"));
+
+        verifyNoInteractions(socketBroadcastService);
+    }
+
+    @Test
+    void inactivity_expiresIntoStop() throws InterruptedException {
+        typingIndicatorService.onTypingEvent(new TypingEvent(1, 10, 5, "start_typing"));
+        captureAction();
+
+        turnWheel();
+        verifyNoInteractions(socketBroadcastService);
+
+        Thread.sleep(IDLE_TIMEOUT_MS + TICK_MS);
+        turnWheel();
+        assertEquals("stop_typing", captureAction());
+    }
+}
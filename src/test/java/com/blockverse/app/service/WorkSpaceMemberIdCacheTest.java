@@ -0,0 +1,91 @@
+package com.blockverse.app.service;
+
+import com.blockverse.app.event.WorkSpaceMembershipChangedEvent;
+import com.blockverse.app.repo.WorkSpaceMemberRepo;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class WorkSpaceMemberIdCacheTest {
+
+    @Mock
+    private WorkSpaceMemberRepo workSpaceMemberRepo;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private WorkSpaceMemberIdCache cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new WorkSpaceMemberIdCache(workSpaceMemberRepo, transactionManager, 2, 60000);
+    }
+
+    @Test
+    void memberIds_loadsOnceUntilMembershipChanges() {
+        when(workSpaceMemberRepo.findActiveUserIdsByWorkSpaceId(1)).thenReturn(List.of(1, 2, 3), List.of(1, 3));
+
+        assertArrayEquals(new int[]{1, 2, 3}, cache.memberIds(1));
+        assertArrayEquals(new int[]{1, 2, 3}, cache.memberIds(1));
+        verify(workSpaceMemberRepo, times(1)).findActiveUserIdsByWorkSpaceId(1);
+
+        cache.onMembershipChanged(new WorkSpaceMembershipChangedEvent(1));
+
+        assertArrayEquals(new int[]{1, 3}, cache.memberIds(1));
+        verify(workSpaceMemberRepo, times(2)).findActiveUserIdsByWorkSpaceId(1);
+    }
+
+    @Test
+    void memberIds_loadsInItsOwnTransaction() {
+        when(workSpaceMemberRepo.findActiveUserIdsByWorkSpaceId(1)).thenReturn(List.of(1));
+
+        cache.memberIds(1);
+
+        ArgumentCaptor<TransactionDefinition> captor = ArgumentCaptor.forClass(TransactionDefinition.class);
+        verify(transactionManager).getTransaction(captor.capture());
+        assertEquals(TransactionDefinition.PROPAGATION_REQUIRES_NEW, captor.getValue().getPropagationBehavior());
+    }
+
+    @Test
+    void memberIds_reloadsAfterTtl() {
+        cache = new WorkSpaceMemberIdCache(workSpaceMemberRepo, transactionManager, 2, -1);
+        when(workSpaceMemberRepo.findActiveUserIdsByWorkSpaceId(1)).thenReturn(List.of(1, 2), List.of(1));
+
+        cache.memberIds(1);
+
+        assertArrayEquals(new int[]{1}, cache.memberIds(1));
+    }
+
+    @Test
+    void recipientsExcept_leavesOutTheActor() {
+        when(workSpaceMemberRepo.findActiveUserIdsByWorkSpaceId(1)).thenReturn(List.of(1, 2, 3));
+
+        assertEquals(List.of(1, 3), cache.recipientsExcept(1, 2));
+    }
+
+    @Test
+    void memberIds_evictsLeastRecentlyUsedWorkspace() {
+        when(workSpaceMemberRepo.findActiveUserIdsByWorkSpaceId(anyInt())).thenReturn(List.of(1));
+
+        cache.memberIds(1);
+        cache.memberIds(2);
+        cache.memberIds(1);
+        cache.memberIds(3);
+        cache.memberIds(1);
+        cache.memberIds(2);
+
+        verify(workSpaceMemberRepo, times(1)).findActiveUserIdsByWorkSpaceId(1);
+        verify(workSpaceMemberRepo, times(2)).findActiveUserIdsByWorkSpaceId(2);
+    }
+}
@@ -0,0 +1,64 @@
+package com.blockverse.app.service;
+
+import com.blockverse.app.dto.MembershipChangeEvent;
+import com.blockverse.app.event.WorkSpaceMembershipChangedEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class WorkSpaceMembershipRelayTest {
+
+    @Mock
+    private KafkaTemplate<String, Object> kafkaTemplate;
+    @Mock
+    private WorkSpaceMemberIdCache workSpaceMemberIdCache;
+
+    @InjectMocks
+    private WorkSpaceMembershipRelay workSpaceMembershipRelay;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(workSpaceMembershipRelay, "membershipChangeTopic", "membership-change-topic");
+        ReflectionTestUtils.setField(workSpaceMembershipRelay, "membershipRelay", "kafka");
+    }
+
+    @Test
+    void onMembershipChanged_kafkaRelay_publishesKeyedByWorkspace() {
+        workSpaceMembershipRelay.onMembershipChanged(new WorkSpaceMembershipChangedEvent(7));
+
+        ArgumentCaptor<Object> captor = ArgumentCaptor.forClass(Object.class);
+        verify(kafkaTemplate).send(eq("membership-change-topic"), eq("7"), captor.capture());
+        MembershipChangeEvent event = (MembershipChangeEvent) captor.getValue();
+        assertEquals(7, event.getWorkspaceId());
+        assertEquals(ReflectionTestUtils.getField(workSpaceMembershipRelay, "nodeId"), event.getOriginNodeId());
+    }
+
+    @Test
+    void applyRelayed_otherNode_retiresCachedMembers() {
+        workSpaceMembershipRelay.applyRelayed(MembershipChangeEvent.builder().originNodeId("other-node").workspaceId(7).build());
+
+        ArgumentCaptor<WorkSpaceMembershipChangedEvent> captor = ArgumentCaptor.forClass(WorkSpaceMembershipChangedEvent.class);
+        verify(workSpaceMemberIdCache).onMembershipChanged(captor.capture());
+        assertEquals(7, captor.getValue().getWorkspaceId());
+    }
+
+    @Test
+    void applyRelayed_ownOrigin_isSkipped() {
+        String nodeId = (String) ReflectionTestUtils.getField(workSpaceMembershipRelay, "nodeId");
+
+        workSpaceMembershipRelay.applyRelayed(MembershipChangeEvent.builder().originNodeId(nodeId).workspaceId(7).build());
+
+        verifyNoInteractions(workSpaceMemberIdCache);
+    }
+}
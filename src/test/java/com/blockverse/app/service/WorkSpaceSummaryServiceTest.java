@@ -0,0 +1,165 @@
+package com.blockverse.app.service;
+
+import com.blockverse.app.dto.workspace.WorkSpaceDetailsResponse;
+import com.blockverse.app.entity.MaintenanceMarker;
+import com.blockverse.app.entity.User;
+import com.blockverse.app.entity.WorkSpace;
+import com.blockverse.app.entity.WorkSpaceMember;
+import com.blockverse.app.entity.WorkSpaceSummary;
+import com.blockverse.app.enums.WorkSpaceRole;
+import com.blockverse.app.enums.WorkSpaceType;
+import com.blockverse.app.repo.MaintenanceMarkerRepo;
+import com.blockverse.app.repo.WorkSpaceMemberRepo;
+import com.blockverse.app.repo.WorkSpaceSummaryRepo;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class WorkSpaceSummaryServiceTest {
+
+    @Mock
+    private WorkSpaceSummaryRepo workSpaceSummaryRepo;
+
+    @Mock
+    private WorkSpaceMemberRepo workSpaceMemberRepo;
+
+    @Mock
+    private MaintenanceMarkerRepo maintenanceMarkerRepo;
+
+    @InjectMocks
+    private WorkSpaceSummaryService workSpaceSummaryService;
+
+    private final User owner = User.builder().id(1).name("Alice").build();
+    private final User member = User.builder().id(2).name("Bob").build();
+    private final WorkSpace workSpace = WorkSpace.builder().id(10).name("Team").type(WorkSpaceType.TEAM).build();
+
+    @Test
+    void findForUser_mapsSummaryRows() {
+        when(workSpaceSummaryRepo.findByUserIdOrderByWorkspaceIdAsc(2)).thenReturn(List.of(summary(2, WorkSpaceRole.MEMBER, 2)));
+
+        List<WorkSpaceDetailsResponse> result = workSpaceSummaryService.findForUser(member);
+
+        assertEquals(1, result.size());
+        WorkSpaceDetailsResponse details = result.get(0);
+        assertEquals(10, details.getId());
+        assertEquals("Team", details.getName());
+        assertEquals(WorkSpaceType.TEAM, details.getWorkSpaceType());
+        assertEquals(1, details.getOwnerInfo().getId());
+        assertEquals("Alice", details.getOwnerInfo().getName());
+        assertEquals(2, details.getMemberCount());
+        assertEquals(WorkSpaceRole.MEMBER, details.getUserRoleInWorkSpace());
+    }
+
+    @Test
+    void memberJoined_recountsAndCopiesOwnerFromExistingRow() {
+        when(workSpaceSummaryRepo.findFirstByWorkspaceId(10)).thenReturn(Optional.of(summary(1, WorkSpaceRole.OWNER, 1)));
+        when(workSpaceMemberRepo.lockActiveByWorkSpaceId(10))
+                .thenReturn(List.of(new WorkSpaceMember(), new WorkSpaceMember()));
+
+        workSpaceSummaryService.memberJoined(workSpace, member, WorkSpaceRole.MEMBER);
+
+        verify(workSpaceSummaryRepo).updateMemberCount(10, 2);
+        ArgumentCaptor<WorkSpaceSummary> captor = ArgumentCaptor.forClass(WorkSpaceSummary.class);
+        verify(workSpaceSummaryRepo).save(captor.capture());
+        WorkSpaceSummary saved = captor.getValue();
+        assertEquals(2, saved.getUserId());
+        assertEquals(1, saved.getOwnerId());
+        assertEquals("Alice", saved.getOwnerName());
+        assertEquals(2, saved.getMemberCount());
+        assertEquals(WorkSpaceRole.MEMBER, saved.getRole());
+    }
+
+    @Test
+    void memberLeft_dropsRowAndRecounts() {
+        when(workSpaceMemberRepo.lockActiveByWorkSpaceId(10)).thenReturn(List.of(new WorkSpaceMember()));
+
+        workSpaceSummaryService.memberLeft(workSpace, member);
+
+        verify(workSpaceSummaryRepo).deleteMembership(2, 10);
+        verify(workSpaceSummaryRepo).updateMemberCount(10, 1);
+    }
+
+    @Test
+    void ownershipTransferred_swapsRolesAndOwner() {
+        workSpaceSummaryService.ownershipTransferred(workSpace, owner, member);
+
+        verify(workSpaceSummaryRepo).updateRole(1, 10, WorkSpaceRole.ADMIN);
+        verify(workSpaceSummaryRepo).updateRole(2, 10, WorkSpaceRole.OWNER);
+        verify(workSpaceSummaryRepo).updateOwner(10, 2, "Bob");
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void backfill_buildsRowsFromActiveMemberships() {
+        MaintenanceMarker marker = new MaintenanceMarker(WorkSpaceSummaryService.BACKFILL_MARKER, null);
+        when(maintenanceMarkerRepo.lockByName(WorkSpaceSummaryService.BACKFILL_MARKER)).thenReturn(Optional.of(marker));
+        when(workSpaceMemberRepo.findActiveMembershipsOfActiveWorkspaces()).thenReturn(List.of(
+                WorkSpaceMember.builder().id(1).workSpace(workSpace).user(owner).role(WorkSpaceRole.OWNER).build(),
+                WorkSpaceMember.builder().id(2).workSpace(workSpace).user(member).role(WorkSpaceRole.MEMBER).build()
+        ));
+
+        workSpaceSummaryService.backfill();
+
+        ArgumentCaptor<List<WorkSpaceSummary>> captor = ArgumentCaptor.forClass(List.class);
+        verify(workSpaceSummaryRepo).saveAll(captor.capture());
+        assertEquals(2, captor.getValue().size());
+        assertTrue(captor.getValue().stream().allMatch(row -> row.getMemberCount() == 2 && row.getOwnerId() == 1));
+        assertNotNull(marker.getCompletedAt());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void backfill_skipsMembershipsThatAlreadyHaveRows() {
+        when(maintenanceMarkerRepo.lockByName(WorkSpaceSummaryService.BACKFILL_MARKER))
+                .thenReturn(Optional.of(new MaintenanceMarker(WorkSpaceSummaryService.BACKFILL_MARKER, null)));
+        when(workSpaceMemberRepo.findActiveMembershipsOfActiveWorkspaces()).thenReturn(List.of(
+                WorkSpaceMember.builder().id(1).workSpace(workSpace).user(owner).role(WorkSpaceRole.OWNER).build(),
+                WorkSpaceMember.builder().id(2).workSpace(workSpace).user(member).role(WorkSpaceRole.MEMBER).build()
+        ));
+        when(workSpaceSummaryRepo.findByWorkspaceId(10)).thenReturn(List.of(summary(1, WorkSpaceRole.OWNER, 1)));
+
+        workSpaceSummaryService.backfill();
+
+        ArgumentCaptor<List<WorkSpaceSummary>> captor = ArgumentCaptor.forClass(List.class);
+        verify(workSpaceSummaryRepo).saveAll(captor.capture());
+        assertEquals(1, captor.getValue().size());
+        assertEquals(2, captor.getValue().get(0).getUserId());
+    }
+
+    @Test
+    void backfill_skipsWhenMarkerCompleted() {
+        when(maintenanceMarkerRepo.lockByName(WorkSpaceSummaryService.BACKFILL_MARKER))
+                .thenReturn(Optional.of(new MaintenanceMarker(WorkSpaceSummaryService.BACKFILL_MARKER, LocalDateTime.now())));
+
+        workSpaceSummaryService.backfill();
+
+        verify(workSpaceSummaryRepo, never()).saveAll(anyList());
+        verifyNoInteractions(workSpaceMemberRepo);
+    }
+
+    private WorkSpaceSummary summary(int userId, WorkSpaceRole role, long memberCount) {
+        return WorkSpaceSummary.builder()
+                .userId(userId)
+                .workspaceId(10)
+                .workspaceName("Team")
+                .workspaceType(WorkSpaceType.TEAM)
+                .ownerId(1)
+                .ownerName("Alice")
+                .memberCount(memberCount)
+                .role(role)
+                .build();
+    }
+}
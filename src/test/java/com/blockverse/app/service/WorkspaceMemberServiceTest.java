@@ -6,6 +6,7 @@ import com.blockverse.app.dto.workspaceMember.ChangeMemberRoleRequest;
 import com.blockverse.app.entity.User;
 import com.blockverse.app.entity.WorkSpace;
 import com.blockverse.app.entity.WorkSpaceMember;
+import com.blockverse.app.event.WorkSpaceMembershipChangedEvent;
 import com.blockverse.app.enums.WorkSpaceRole;
 import com.blockverse.app.exception.InsufficientPermissionException;
 import com.blockverse.app.exception.OwnerLevelException;
@@ -21,6 +22,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 
 import java.util.Optional;
 
@@ -54,6 +56,12 @@ public class WorkspaceMemberServiceTest {
 
     @Mock
     private RateLimiterService rateLimiterService;
+
+    @Mock
+    private WorkSpaceSummaryService workSpaceSummaryService;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
     
     @InjectMocks
     private WorkSpaceMemberService service;
@@ -66,7 +74,7 @@ public class WorkspaceMemberServiceTest {
         WorkSpaceMember membership = WorkSpaceMember.builder().role(WorkSpaceRole.MEMBER).build();
         
         when(securityUtil.getLoggedInUser()).thenReturn(currentUser);
-        when(workSpaceRepo.findById(1)).thenReturn(Optional.of(workSpace));
+        when(workSpaceRepo.lockById(1)).thenReturn(Optional.of(workSpace));
         when(workSpaceMemberRepo.findByUserAndWorkSpaceAndDeletedAtIsNull(currentUser, workSpace)).thenReturn(Optional.of(membership));
 
         AddMemberRequest request = new AddMemberRequest("test@mail.com", WorkSpaceRole.MEMBER);
@@ -82,7 +90,7 @@ public class WorkspaceMemberServiceTest {
         WorkSpaceMember membership = WorkSpaceMember.builder().role(WorkSpaceRole.ADMIN).build();
 
         when(securityUtil.getLoggedInUser()).thenReturn(currentUser);
-        when(workSpaceRepo.findById(1)).thenReturn(Optional.of(workSpace));
+        when(workSpaceRepo.lockById(1)).thenReturn(Optional.of(workSpace));
         when(workSpaceMemberRepo.findByUserAndWorkSpaceAndDeletedAtIsNull(currentUser, workSpace)).thenReturn(Optional.of(membership));
 
         AddMemberRequest request = new AddMemberRequest("test@mail.com", WorkSpaceRole.OWNER);
@@ -101,7 +109,7 @@ public class WorkspaceMemberServiceTest {
         AddMemberRequest request = new AddMemberRequest("user@gmail.com", WorkSpaceRole.MEMBER);
 
         when(securityUtil.getLoggedInUser()).thenReturn(currentUser);
-        when(workSpaceRepo.findById(1)).thenReturn(Optional.of(workSpace));
+        when(workSpaceRepo.lockById(1)).thenReturn(Optional.of(workSpace));
         when(workSpaceMemberRepo.findByUserAndWorkSpaceAndDeletedAtIsNull(currentUser, workSpace)).thenReturn(Optional.of(membership));
         when(userRepo.findByEmail("user@gmail.com")).thenReturn(Optional.of(newUser));
         when(workSpaceMemberRepo.findByUserAndWorkSpace(newUser, workSpace))
@@ -110,6 +118,8 @@ public class WorkspaceMemberServiceTest {
         service.addMemberToWorkSpace(1, request);
         verify(workSpaceMemberRepo).save(any(WorkSpaceMember.class));
         verify(notificationService).sendNotification(any(NotificationEvent.class));
+        verify(workSpaceSummaryService).memberJoined(workSpace, newUser, WorkSpaceRole.MEMBER);
+        verify(eventPublisher).publishEvent(any(WorkSpaceMembershipChangedEvent.class));
     }
     
     @Test
@@ -122,7 +132,7 @@ public class WorkspaceMemberServiceTest {
         WorkSpaceMember targetMembership = WorkSpaceMember.builder().role(WorkSpaceRole.OWNER).build();
         
         when(securityUtil.getLoggedInUser()).thenReturn(currentUser);
-        when(workSpaceRepo.findById(1)).thenReturn(Optional.of(workSpace));
+        when(workSpaceRepo.lockById(1)).thenReturn(Optional.of(workSpace));
         when(workSpaceMemberRepo.findByUserAndWorkSpaceAndDeletedAtIsNull(currentUser, workSpace))
                 .thenReturn(Optional.of(membership));
         when(userRepo.findByEmail("test@mail.com")).thenReturn(Optional.of(targetUser));
@@ -161,7 +171,7 @@ public class WorkspaceMemberServiceTest {
         WorkSpaceMember membership = WorkSpaceMember.builder().role(WorkSpaceRole.OWNER).build();
         
         when(securityUtil.getLoggedInUser()).thenReturn(currentUser);
-        when(workSpaceRepo.findById(1)).thenReturn(Optional.of(workSpace));
+        when(workSpaceRepo.lockById(1)).thenReturn(Optional.of(workSpace));
         when(workSpaceMemberRepo.findByUserAndWorkSpaceAndDeletedAtIsNull(currentUser, workSpace)).thenReturn(Optional.of(membership));
         
         assertThrows(OwnerLevelException.class, ()->service.leaveWorkSpace(1));
@@ -20,6 +20,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 
 import java.util.List;
 import java.util.Optional;
@@ -50,6 +51,12 @@ public class WorkspaceServiceTest {
 
     @Mock
     private RateLimiterService rateLimiterService;
+
+    @Mock
+    private WorkSpaceSummaryService workSpaceSummaryService;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
     
     @InjectMocks
     private WorkSpaceService workSpaceService;
@@ -71,6 +78,7 @@ public class WorkspaceServiceTest {
         
         verify(workSpaceRepo).save(any(WorkSpace.class));
         verify(workSpaceMemberRepo).save(any(WorkSpaceMember.class));
+        verify(workSpaceSummaryService).workspaceCreated(savedWorkspace, currentUser);
     }
     
     @Test
@@ -87,8 +95,8 @@ public class WorkspaceServiceTest {
         when(securityUtil.getLoggedInUser()).thenReturn(user);
         when(workSpaceRepo.findByIdAndDeletedAtIsNull(10))
                 .thenReturn(Optional.of(workspace));
-        when(workSpaceMemberRepo.findByUserAndWorkSpaceAndDeletedAtIsNull(user, workspace))
-                .thenReturn(Optional.of(member));
+        when(workSpaceMemberRepo.findActiveRole(user.getId(), workspace.getId()))
+                .thenReturn(Optional.of(member.getRole()));
         
         assertThrows(InsufficientPermissionException.class, ()->
                 workSpaceService.deleteWorkSpace(10));
@@ -108,8 +116,8 @@ public class WorkspaceServiceTest {
         when(securityUtil.getLoggedInUser()).thenReturn(user);
         when(workSpaceRepo.findByIdAndDeletedAtIsNull(10))
                 .thenReturn(Optional.of(workSpace));
-        when(workSpaceMemberRepo.findByUserAndWorkSpaceAndDeletedAtIsNull(user, workSpace))
-                .thenReturn(Optional.of(member));
+        when(workSpaceMemberRepo.findActiveRole(user.getId(), workSpace.getId()))
+                .thenReturn(Optional.of(member.getRole()));
         
         workSpaceService.deleteWorkSpace(10);
         assertNotNull(workSpace.getDeletedAt());
@@ -129,8 +137,8 @@ public class WorkspaceServiceTest {
         when(securityUtil.getLoggedInUser()).thenReturn(user);
         when(workSpaceRepo.findByIdAndDeletedAtIsNull(10))
                 .thenReturn(Optional.of(workspace));
-        when(workSpaceMemberRepo.findByUserAndWorkSpaceAndDeletedAtIsNull(user, workspace))
-                .thenReturn(Optional.of(member));
+        when(workSpaceMemberRepo.findActiveRole(user.getId(), workspace.getId()))
+                .thenReturn(Optional.of(member.getRole()));
         
         workSpaceService.updateWorkSpace(10, request);
         assertEquals("NewName", workspace.getName());
@@ -142,7 +150,7 @@ public class WorkspaceServiceTest {
         User user = User.builder().id(1).build();
         
         when(securityUtil.getLoggedInUser()).thenReturn(user);
-        when(workSpaceMemberRepo.findWorkspaceDetailsForUserAndDeletedAtIsNull(user))
+        when(workSpaceSummaryService.findForUser(user))
                 .thenReturn(List.of(new WorkSpaceDetailsResponse()));
         
         List<WorkSpaceDetailsResponse> result = workSpaceService.getAllWorkSpacesForUser();
@@ -2,11 +2,13 @@ SET REFERENTIAL_INTEGRITY FALSE;
 TRUNCATE TABLE block;
 TRUNCATE TABLE document;
 TRUNCATE TABLE work_space_member;
+TRUNCATE TABLE work_space_summary;
 TRUNCATE TABLE work_space;
 TRUNCATE TABLE users;
 SET REFERENTIAL_INTEGRITY TRUE;
 ALTER TABLE users ALTER COLUMN id RESTART WITH 1;
 ALTER TABLE work_space ALTER COLUMN id RESTART WITH 1;
 ALTER TABLE work_space_member ALTER COLUMN id RESTART WITH 1;
+ALTER TABLE work_space_summary ALTER COLUMN id RESTART WITH 1;
 ALTER TABLE document ALTER COLUMN id RESTART WITH 1;
 ALTER TABLE block ALTER COLUMN id RESTART WITH 1;